@@ -0,0 +1,84 @@
+package com.company.employeelifecycle.alerts;
+
+import com.company.employeelifecycle.enums.TaskAlertType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The alerts of a task with a due date, as numbered steps in firing order: the reminders, the overdue alert,
+ * then the escalations.
+ * <p>
+ * A task is overdue from the start of the day after its due date, as on the dashboard. Reminders fire their
+ * offset before that, escalations their offset after it.
+ */
+final class AlertCadence {
+
+    private final List<Duration> reminders;
+    private final List<Duration> escalations;
+
+    /**
+     * @param reminders   how long before the task is overdue to remind its assignee, in any order
+     * @param escalations how long after the task is overdue to escalate it, in any order
+     */
+    AlertCadence(List<Duration> reminders, List<Duration> escalations) {
+        this.reminders = reminders.stream().sorted(Comparator.reverseOrder()).toList();
+        this.escalations = escalations.stream().sorted().toList();
+    }
+
+    /**
+     * @return the number of steps
+     */
+    int steps() {
+        return reminders.size() + 1 + escalations.size();
+    }
+
+    /**
+     * @return how long before the end of its due date a task's first step fires
+     */
+    Duration lead() {
+        return reminders.isEmpty() ? Duration.ZERO : reminders.get(0);
+    }
+
+    TaskAlertType type(int step) {
+        if (step < reminders.size()) {
+            return TaskAlertType.REMINDER;
+        }
+        return step == reminders.size() ? TaskAlertType.OVERDUE : TaskAlertType.ESCALATION;
+    }
+
+    /**
+     * @return the number of the step among those of its type, from 1
+     */
+    int level(int step) {
+        if (step < reminders.size()) {
+            return step + 1;
+        }
+        return step == reminders.size() ? 1 : step - reminders.size();
+    }
+
+    /**
+     * @return when the step fires for a task with the given due date
+     */
+    LocalDateTime fireTime(LocalDate dueDate, int step) {
+        LocalDateTime overdue = dueDate.plusDays(1).atStartOfDay();
+        if (step < reminders.size()) {
+            return overdue.minus(reminders.get(step));
+        }
+        return step == reminders.size() ? overdue : overdue.plus(escalations.get(step - reminders.size() - 1));
+    }
+
+    /**
+     * @return the last step due at the given time, or -1 if none is
+     */
+    int lastDueStep(LocalDate dueDate, LocalDateTime now) {
+        int step = -1;
+        while (step + 1 < steps() && !fireTime(dueDate, step + 1).isAfter(now)) {
+            step++;
+        }
+        return step;
+    }
+}
@@ -0,0 +1,303 @@
+package com.company.employeelifecycle.alerts;
+
+import com.company.employeelifecycle.enums.TaskAlertType;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.event.TaskAlertEvent;
+import com.company.employeelifecycle.event.TaskStatusChangedEvent;
+import com.company.employeelifecycle.event.WorkflowStartedEvent;
+import com.company.employeelifecycle.repository.TaskAlertRepository;
+import com.company.employeelifecycle.repository.TaskAlertRepository.Claim;
+import com.company.employeelifecycle.repository.TaskAlertRepository.DueTask;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fires task reminders, overdue alerts and escalations ({@link TaskAlertEvent}) from a timing wheel that holds
+ * the next alert of each open task due within the horizon.
+ * <p>
+ * The wheel is loaded at startup and reloaded every {@code app.alerts.reload-interval} from an indexed query
+ * over the open tasks due by the end of the horizon (the longest reminder plus the reload interval), in pages
+ * of {@code app.alerts.page-size}; workflows started and tasks completed on this node update it as their
+ * transactions commit, and a reload catches up with the other nodes. Every {@code app.alerts.tick} the wheel
+ * advances to now and the alerts that came due are claimed in batches of {@code app.alerts.batch-size}, one
+ * transaction per batch, which also carries the events. A claim records the step as fired for the task (see
+ * {@link TaskAlertRepository#claim}), so an alert fires once across restarts and nodes. After downtime, a task
+ * with several steps due only fires the latest, e.g. an escalation instead of the reminders before it.
+ * <p>
+ * The cadence is {@code app.alerts.reminders} before a task is overdue, i.e. before the end of its due date,
+ * the overdue alert, and {@code app.alerts.escalations} after. Disabled with {@code app.alerts.enabled=false}
+ * (the test profile), which only stops the scheduled loading and firing.
+ */
+@Slf4j
+@Component
+public class TaskAlertScheduler {
+
+    private final TaskAlertRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AlertCadence cadence;
+    private final boolean enabled;
+    private final long tickSeconds;
+    private final long horizonDays;
+    private final int pageSize;
+    private final int batchSize;
+    private final Map<TaskAlertType, Counter> firedCounters = new EnumMap<>(TaskAlertType.class);
+    private final Timer reloadTimer;
+
+    // Guarded by this
+    private final TimingWheel<PendingAlert> wheel;
+    /** The scheduled alert of each task, including alerts being fired, until they are rescheduled. */
+    private final Map<UUID, TimingWheel.Timer<PendingAlert>> timers = new HashMap<>();
+    private long generation;
+    /** The end of the horizon as of the last reload, or null before the first. */
+    private LocalDate loadedThrough;
+
+    public TaskAlertScheduler(TaskAlertRepository repository,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.alerts.enabled:true}") boolean enabled,
+                              @Value("${app.alerts.reminders:PT48H,PT24H}") List<Duration> reminders,
+                              @Value("${app.alerts.escalations:P1D,P3D}") List<Duration> escalations,
+                              @Value("${app.alerts.tick:PT1M}") Duration tick,
+                              @Value("${app.alerts.reload-interval:PT1H}") Duration reloadInterval,
+                              @Value("${app.alerts.page-size:1000}") int pageSize,
+                              @Value("${app.alerts.batch-size:200}") int batchSize) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.cadence = new AlertCadence(reminders, escalations);
+        this.enabled = enabled;
+        this.tickSeconds = tick.toSeconds();
+        this.horizonDays = cadence.lead().plus(reloadInterval).toDays() + 1;
+        this.pageSize = pageSize;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(Math.floorDiv(epochSecond(LocalDateTime.now()), tickSeconds));
+        for (TaskAlertType type : TaskAlertType.values()) {
+            firedCounters.put(type, Counter.builder("task.alerts.fired")
+                    .description("Task alerts fired")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        this.reloadTimer = Timer.builder("task.alerts.reload")
+                .description("Time to load the open tasks due within the horizon into the alert scheduler")
+                .register(meterRegistry);
+        Gauge.builder("task.alerts.scheduled", this, TaskAlertScheduler::scheduled)
+                .description("Tasks with an alert scheduled")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.alerts.reload-interval:PT1H}",
+            initialDelayString = "${app.alerts.reload-interval:PT1H}")
+    public void scheduledReload() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.alerts.tick:PT1M}", initialDelayString = "${app.alerts.tick:PT1M}")
+    public void scheduledFire() {
+        if (enabled && isLoaded()) {
+            fireDue(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Schedule the next alert of every open task due within the horizon, and drop the alerts of tasks that are
+     * no longer open or due within it.
+     */
+    public void reload() {
+        reloadTimer.record(() -> {
+            LocalDate dueBy = LocalDate.now().plusDays(horizonDays);
+            long reloadGeneration;
+            synchronized (this) {
+                reloadGeneration = ++generation;
+            }
+            int loaded = 0;
+            DueTask last = null;
+            List<DueTask> page;
+            do {
+                page = repository.findOpenTasksDueBy(dueBy, last, pageSize);
+                synchronized (this) {
+                    for (DueTask task : page) {
+                        schedule(task, reloadGeneration);
+                    }
+                }
+                loaded += page.size();
+                last = page.isEmpty() ? null : page.get(page.size() - 1);
+            } while (page.size() == pageSize);
+            synchronized (this) {
+                // Alerts scheduled before this reload, of tasks it did not find (completed on another node)
+                timers.values().removeIf(timer -> {
+                    if (timer.item().generation() < reloadGeneration) {
+                        wheel.cancel(timer);
+                        return true;
+                    }
+                    return false;
+                });
+                loadedThrough = dueBy;
+            }
+            log.debug("Loaded {} open tasks due by {} into the alert scheduler", loaded, dueBy);
+        });
+    }
+
+    /**
+     * Fire the alerts due at the given time.
+     *
+     * @param now the current time
+     * @return the number of alerts fired
+     */
+    public int fireDue(LocalDateTime now) {
+        List<PendingAlert> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(Math.floorDiv(epochSecond(now), tickSeconds), due::add);
+        }
+        int fired = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<PendingAlert> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            List<Claim> claims = batch.stream()
+                    .map(alert -> new Claim(alert.taskId(), alert.dueDate(),
+                            Math.max(alert.step(), cadence.lastDueStep(alert.dueDate(), now))))
+                    .toList();
+            try {
+                boolean[] claimed = transactionTemplate.execute(status -> claim(batch, claims, now));
+                for (boolean c : claimed) {
+                    fired += c ? 1 : 0;
+                }
+            } catch (DataAccessException e) {
+                // The alerts are left unscheduled: the next reload schedules them again from the fired state
+                log.warn("Failed to fire {} task alerts, retrying after the next reload", batch.size(), e);
+                continue;
+            }
+            synchronized (this) {
+                for (int i = 0; i < batch.size(); i++) {
+                    PendingAlert alert = batch.get(i);
+                    TimingWheel.Timer<PendingAlert> current = timers.get(alert.taskId());
+                    if (current != null && current.item() == alert) {
+                        // Not cancelled or rescheduled while firing
+                        timers.remove(alert.taskId());
+                        scheduleStep(alert.taskId(), alert.workflowInstanceId(), alert.assignedTo(), alert.dueDate(),
+                                claims.get(i).step() + 1, alert.generation());
+                    }
+                }
+            }
+        }
+        return fired;
+    }
+
+    private boolean[] claim(List<PendingAlert> batch, List<Claim> claims, LocalDateTime now) {
+        boolean[] claimed = repository.claim(claims, now);
+        for (int i = 0; i < claimed.length; i++) {
+            if (claimed[i]) {
+                PendingAlert alert = batch.get(i);
+                int step = claims.get(i).step();
+                TaskAlertType type = cadence.type(step);
+                eventPublisher.publishEvent(new TaskAlertEvent(alert.taskId(), alert.workflowInstanceId(),
+                        alert.assignedTo(), type, cadence.level(step), alert.dueDate()));
+                firedCounters.get(type).increment();
+            }
+        }
+        return claimed;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWorkflowStarted(WorkflowStartedEvent event) {
+        LocalDate dueBy;
+        synchronized (this) {
+            dueBy = loadedThrough;
+        }
+        if (dueBy == null || event.taskDueDates().stream().allMatch(d -> d == null || d.isAfter(dueBy))) {
+            return;
+        }
+        List<DueTask> tasks = repository.findOpenTasksOfInstance(event.instanceId(), dueBy);
+        synchronized (this) {
+            for (DueTask task : tasks) {
+                schedule(task, generation);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onTaskStatusChanged(TaskStatusChangedEvent event) {
+        if (event.to() == TaskStatus.COMPLETED) {
+            cancel(event.taskId());
+        }
+    }
+
+    /**
+     * @return true once the open tasks were loaded
+     */
+    public synchronized boolean isLoaded() {
+        return loadedThrough != null;
+    }
+
+    /**
+     * @return the number of tasks with an alert scheduled
+     */
+    public synchronized int scheduled() {
+        return timers.size();
+    }
+
+    private void cancel(UUID taskId) {
+        TimingWheel.Timer<PendingAlert> timer = timers.remove(taskId);
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+    }
+
+    /**
+     * Schedule the step after the last one fired for the task's due date, replacing its scheduled alert.
+     */
+    private void schedule(DueTask task, long taskGeneration) {
+        cancel(task.id());
+        scheduleStep(task.id(), task.workflowInstanceId(), task.assignedTo(), task.dueDate(),
+                task.firedStepForDueDate() + 1, taskGeneration);
+    }
+
+    private void scheduleStep(UUID taskId, UUID workflowInstanceId, UUID assignedTo, LocalDate dueDate, int step,
+                              long taskGeneration) {
+        if (step >= cadence.steps()) {
+            return;
+        }
+        PendingAlert alert = new PendingAlert(taskId, workflowInstanceId, assignedTo, dueDate, step, taskGeneration);
+        // Rounded up, so that no alert fires before its time
+        long deadline = -Math.floorDiv(-epochSecond(cadence.fireTime(dueDate, step)), tickSeconds);
+        timers.put(taskId, wheel.schedule(alert, deadline));
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * The next alert step of a task; {@code generation} is the reload (or later) that scheduled it.
+     */
+    private record PendingAlert(UUID taskId, UUID workflowInstanceId, UUID assignedTo, LocalDate dueDate, int step,
+                                long generation) {
+    }
+}
@@ -0,0 +1,174 @@
+package com.company.employeelifecycle.alerts;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: timers with a deadline in ticks, fired by advancing the wheel's clock.
+ * <p>
+ * The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots; a slot of level {@code L} spans
+ * {@code 64^L} ticks, so a wheel of one-minute ticks reaches 32 years ahead. A timer is placed in the lowest
+ * level whose span reaches its deadline, and moves down a level each time the clock enters the span of its
+ * slot, until it fires from level 0. Scheduling and cancelling are constant time, and advancing the clock by
+ * one tick only touches the timers that fire or move down, however many are scheduled further ahead.
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <T> the item a timer fires
+ */
+final class TimingWheel<T> {
+
+    static final int LEVELS = 4;
+    static final int SLOTS = 64;
+    private static final int SLOT_BITS = 6;
+    private static final long SLOT_MASK = SLOTS - 1;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Set<Timer<T>>[][] slots = new Set[LEVELS][SLOTS];
+    /** Timers scheduled at or before the current tick, fired by the next advance. */
+    private final Set<Timer<T>> overdue = new HashSet<>();
+    private long now;
+    private int size;
+
+    /**
+     * @param now the current tick
+     */
+    TimingWheel(long now) {
+        this.now = now;
+        for (Set<Timer<T>>[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new HashSet<>();
+            }
+        }
+    }
+
+    /**
+     * @return the current tick
+     */
+    long now() {
+        return now;
+    }
+
+    /**
+     * @return the number of scheduled timers
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedule a timer. A deadline at or before the current tick fires on the next advance.
+     *
+     * @param item     the item to fire
+     * @param deadline the tick to fire it at
+     * @return the timer, to cancel it
+     */
+    Timer<T> schedule(T item, long deadline) {
+        Timer<T> timer = new Timer<>(item, deadline);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Cancel a timer; cancelling a timer that fired or was cancelled already does nothing.
+     *
+     * @return true if the timer was scheduled
+     */
+    boolean cancel(Timer<T> timer) {
+        if (timer.slot == null || !timer.slot.remove(timer)) {
+            return false;
+        }
+        timer.slot = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * Advance the clock to the given tick, firing every timer due by then, in deadline order.
+     * An earlier tick only fires the overdue timers.
+     *
+     * @param to      the new current tick
+     * @param expired receives the items of the fired timers
+     */
+    void advance(long to, Consumer<T> expired) {
+        fire(overdue, expired);
+        while (now < to) {
+            now++;
+            // Move the timers of the slots whose span the clock enters down a level, the highest level first
+            int level = 1;
+            while (level < LEVELS && (now & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                level++;
+            }
+            for (int l = level - 1; l >= 1; l--) {
+                Set<Timer<T>> slot = slots[l][(int) ((now >>> (SLOT_BITS * l)) & SLOT_MASK)];
+                List<Timer<T>> moving = new ArrayList<>(slot);
+                slot.clear();
+                for (Timer<T> timer : moving) {
+                    place(timer);
+                }
+            }
+            fire(slots[0][(int) (now & SLOT_MASK)], expired);
+            // Timers that moved down with a deadline of this very tick
+            fire(overdue, expired);
+        }
+    }
+
+    private void fire(Set<Timer<T>> slot, Consumer<T> expired) {
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Timer<T>> firing = new ArrayList<>(slot);
+        slot.clear();
+        firing.sort((a, b) -> Long.compare(a.deadline, b.deadline));
+        for (Timer<T> timer : firing) {
+            timer.slot = null;
+            size--;
+            expired.accept(timer.item);
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        if (timer.deadline <= now) {
+            timer.slot = overdue;
+        } else {
+            // The lowest level whose slot for the deadline is less than a full turn of that level ahead;
+            // deadlines beyond the top level wait in its furthest slot and are placed again from there
+            int level = 0;
+            while (level < LEVELS - 1
+                    && (timer.deadline >>> (SLOT_BITS * level)) - (now >>> (SLOT_BITS * level)) >= SLOTS) {
+                level++;
+            }
+            long top = now >>> (SLOT_BITS * level);
+            long index = Math.min(timer.deadline >>> (SLOT_BITS * level), top + SLOTS - 1);
+            timer.slot = slots[level][(int) (index & SLOT_MASK)];
+        }
+        timer.slot.add(timer);
+    }
+
+    /**
+     * A scheduled item.
+     */
+    static final class Timer<T> {
+
+        private final T item;
+        private final long deadline;
+        private Set<Timer<T>> slot;
+
+        private Timer(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        T item() {
+            return item;
+        }
+
+        long deadline() {
+            return deadline;
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package com.company.employeelifecycle.audit;
+
+import com.company.employeelifecycle.enums.AuditAction;
+import com.company.employeelifecycle.enums.EntityType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes audit_logs rows off the request path.
+ * <p>
+ * {@link #record} only enqueues the event into a bounded lock-free ring buffer, after the surrounding
+ * transaction commits (events of rolled-back work are dropped). A single flusher thread writes the buffer in
+ * JDBC batches, whenever a full batch is waiting or the flush interval elapses. Each batch is appended to the
+ * audit hash chain ({@link AuditChain}) in the transaction that inserts it.
+ * <p>
+ * No event is dropped once enqueued, short of a crash or a failing disk:
+ * <ul>
+ *   <li>If the buffer is full (the database is slower than the producers), the event is appended to a local
+ *       spill file instead. This is the backpressure signal, counted as {@code outcome=spilled_buffer_full}.</li>
+ *   <li>If a batch fails to write, it is spilled too. Spilled events are replayed once writes succeed again,
+ *       and at startup, skipping those already written.</li>
+ *   <li>Rows the database can never accept (invalid data) are written to a {@code .rejected} file next to the
+ *       spill file. Rows rejected for a reason that may go away (a missing partition, a deleted user) are
+ *       spilled and retried every {@code app.audit.replay.retry-interval}, and set aside as rejected after
+ *       {@code app.audit.replay.max-attempts}.</li>
+ *   <li>On shutdown the buffer is drained to the database, or to the spill file if that fails or takes longer
+ *       than {@code app.audit.shutdown-timeout}.</li>
+ *   <li>An event is acknowledged once it is in memory, not on disk. A crash (not a graceful shutdown) loses the
+ *       events buffered at that moment: those committed within the last {@code app.audit.flush-interval}, or
+ *       more while the database lags, up to {@code app.audit.buffer-capacity}.</li>
+ *   <li>If the spill file cannot be written either, the events are lost: they are logged and counted as
+ *       {@code outcome=spill_failed}, and neither the committed request nor the flusher fails.</li>
+ * </ul>
+ * Published metrics: {@code audit.queue.depth}, {@code audit.spill.pending}, {@code audit.flush} and
+ * {@code audit.records} by outcome.
+ */
+@Slf4j
+@Component
+public class AsyncAuditWriter implements SmartLifecycle {
+
+    /** Stops after the web server has finished in-flight requests, and before the DataSource closes. */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final String INSERT_AUDIT_LOG = """
+            INSERT INTO audit_logs (id, entity_type, entity_id, action, user_id, change_details, change_delta,
+                                    timestamp, chain_seq, row_hash)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+    private static final String SELECT_WRITTEN_IDS = """
+            SELECT id FROM audit_logs WHERE timestamp BETWEEN ? AND ? AND id IN (%s)""";
+    /** Data exceptions (class 22) and null in a NOT NULL column: the row can never be written. */
+    private static final String DATA_EXCEPTION_CLASS = "22";
+    private static final String NOT_NULL_VIOLATION = "23502";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditChain auditChain;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final AuditSpillFile spillFile;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration shutdownTimeout;
+    private final long replayRetryIntervalNanos;
+    private final int maxReplayAttempts;
+    private final Timer flushTimer;
+    private final Counter written;
+    private final Counter spilledBufferFull;
+    private final Counter spilledWriteFailed;
+    private final Counter rejected;
+    private final Counter spillFailed;
+
+    private volatile boolean running;
+    private volatile Thread flusher;
+    /** The batch the flusher is writing; whoever takes it back spills it if it was not written. */
+    private final AtomicReference<List<AuditEvent>> inFlight = new AtomicReference<>();
+    private long nextReplayNanos;
+
+    public AsyncAuditWriter(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            AuditChain auditChain,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.audit.buffer-capacity:8192}") int bufferCapacity,
+                            @Value("${app.audit.batch-size:500}") int batchSize,
+                            @Value("${app.audit.flush-interval:200ms}") Duration flushInterval,
+                            @Value("${app.audit.spill-path:data/audit-spill.ndjson}") Path spillPath,
+                            @Value("${app.audit.shutdown-timeout:30s}") Duration shutdownTimeout,
+                            @Value("${app.audit.replay.retry-interval:1m}") Duration replayRetryInterval,
+                            @Value("${app.audit.replay.max-attempts:60}") int maxReplayAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.auditChain = auditChain;
+        this.buffer = new AuditRingBuffer<>(bufferCapacity);
+        this.spillFile = new AuditSpillFile(spillPath, objectMapper);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+        this.replayRetryIntervalNanos = replayRetryInterval.toNanos();
+        this.maxReplayAttempts = maxReplayAttempts;
+        this.nextReplayNanos = System.nanoTime();
+        this.flushTimer = Timer.builder("audit.flush")
+                .description("Time to write one batch of audit rows")
+                .register(meterRegistry);
+        this.written = outcome(meterRegistry, "written");
+        this.spilledBufferFull = outcome(meterRegistry, "spilled_buffer_full");
+        this.spilledWriteFailed = outcome(meterRegistry, "spilled_write_failed");
+        this.rejected = outcome(meterRegistry, "rejected");
+        this.spillFailed = outcome(meterRegistry, "spill_failed");
+        Gauge.builder("audit.queue.depth", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting in the in-memory buffer")
+                .register(meterRegistry);
+        Gauge.builder("audit.spill.pending", spillFile, AuditSpillFile::pending)
+                .description("Audit events waiting in the local spill file")
+                .register(meterRegistry);
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("audit.records").tag("outcome", outcome).register(meterRegistry);
+    }
+
+    /**
+     * Record an audited action. Inside a transaction the event is enqueued only once it commits.
+     *
+     * @param entityType    the audited entity type
+     * @param entityId      the audited entity
+     * @param action        what happened
+     * @param userId        who did it, or null for system actions
+     * @param changeDetails JSON details, or null
+     */
+    public void record(EntityType entityType, UUID entityId, AuditAction action, UUID userId, String changeDetails) {
+        record(entityType, entityId, action, userId, changeDetails, null);
+    }
+
+    /**
+     * Record an audited action with the fields it changed. Inside a transaction the event is enqueued only once
+     * it commits.
+     *
+     * @param entityType    the audited entity type
+     * @param entityId      the audited entity
+     * @param action        what happened
+     * @param userId        who did it, or null for system actions
+     * @param changeDetails JSON details, or null
+     * @param changeDelta   the changed fields from {@link AuditDiffer#diff}, or null
+     */
+    public void record(EntityType entityType, UUID entityId, AuditAction action, UUID userId, String changeDetails,
+                       byte[] changeDelta) {
+        AuditEvent event = AuditEvent.of(entityType, entityId, action, userId, changeDetails, changeDelta);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    void enqueue(AuditEvent event) {
+        if (!buffer.offer(event)) {
+            spill(List.of(event), spilledBufferFull);
+            return;
+        }
+        if (!running) {
+            // Stopped concurrently: the flusher may have drained for the last time already
+            spillRemaining();
+        } else if (buffer.size() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::runFlusher, "audit-writer");
+        thread.setDaemon(true);
+        flusher = thread;
+        thread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread thread = flusher;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("Audit writer did not drain within {}; spilling the remaining events", shutdownTimeout);
+            thread.interrupt();
+            // Spilled even if the flusher still commits it: replays skip events already written
+            List<AuditEvent> abandoned = inFlight.getAndSet(null);
+            if (abandoned != null) {
+                spill(abandoned, null);
+            }
+        }
+        spillRemaining();
+        log.info("Audit writer stopped; {} events wait in the spill file", spillFile.pending());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runFlusher() {
+        replaySpillFile();
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            flushBuffer(batch);
+        }
+        // Final drain: producers that enqueue from now on spill themselves
+        flushBuffer(batch);
+    }
+
+    /**
+     * Write everything currently buffered, one batch at a time.
+     */
+    private void flushBuffer(List<AuditEvent> batch) {
+        boolean ok = true;
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            ok &= writeOrSpill(batch);
+            batch.clear();
+        }
+        if (ok && spillFile.pending() > 0 && running && System.nanoTime() - nextReplayNanos >= 0) {
+            replaySpillFile();
+        }
+    }
+
+    private boolean writeOrSpill(List<AuditEvent> batch) {
+        List<AuditEvent> events = List.copyOf(batch);
+        inFlight.set(events);
+        try {
+            List<AuditEvent> retry = write(events, false);
+            if (!retry.isEmpty()) {
+                spill(retry, spilledWriteFailed);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // Taken back by stop() if it timed out meanwhile
+            if (inFlight.compareAndSet(events, null)) {
+                log.warn("Could not write {} audit events, spilling them: {}", events.size(), e.getMessage());
+                spill(events, spilledWriteFailed);
+            }
+            return false;
+        } finally {
+            inFlight.compareAndSet(events, null);
+        }
+    }
+
+    private void replaySpillFile() {
+        nextReplayNanos = System.nanoTime() + replayRetryIntervalNanos;
+        try {
+            AuditSpillFile.Replay replay = spillFile.replay(events -> write(events, true), batchSize,
+                    maxReplayAttempts);
+            rejected.increment(replay.rejected());
+            if (replay.written() > 0 || replay.deferred() > 0) {
+                log.info("Replayed {} spilled audit events, {} to retry later", replay.written(), replay.deferred());
+            }
+            if (replay.deferred() == 0) {
+                nextReplayNanos = System.nanoTime();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not replay spilled audit events, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Write a batch in one transaction. If the database rejects a row, the rows are retried one by one: those
+     * it can never accept are set aside, those rejected for a reason that may go away are returned. Any other
+     * failure is thrown and the whole batch is left to the caller.
+     *
+     * @param replayed whether the batch comes from the spill file, so may have been written already
+     * @return the events to retry later
+     */
+    private List<AuditEvent> write(List<AuditEvent> batch, boolean replayed) {
+        long start = System.nanoTime();
+        List<AuditEvent> retry = new ArrayList<>();
+        int rows;
+        try {
+            rows = insert(batch, replayed);
+        } catch (DataIntegrityViolationException e) {
+            rows = 0;
+            for (AuditEvent event : batch) {
+                try {
+                    rows += insert(List.of(event), replayed);
+                } catch (DataIntegrityViolationException rowFailure) {
+                    if (retryable(rowFailure)) {
+                        log.warn("Audit event {} rejected by the database, will retry: {}", event.id(),
+                                rowFailure.getMessage());
+                        retry.add(event);
+                    } else {
+                        log.error("Audit event {} rejected by the database, set aside: {}", event.id(),
+                                rowFailure.getMessage());
+                        setAside(event);
+                    }
+                }
+            }
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        written.increment(rows);
+        return retry;
+    }
+
+    /**
+     * @return whether the row may be accepted later: anything but invalid data, such as a missing partition or a
+     * foreign key to a row not there (yet)
+     */
+    static boolean retryable(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                String sqlState = sqlException.getSQLState();
+                return !sqlState.startsWith(DATA_EXCEPTION_CLASS) && !sqlState.equals(NOT_NULL_VIOLATION);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of rows inserted
+     */
+    private int insert(List<AuditEvent> batch, boolean replayed) throws DataAccessException, TransactionException {
+        return transactionTemplate.execute(status -> {
+            List<AuditEvent> events = replayed ? unwritten(batch) : batch;
+            if (events.isEmpty()) {
+                return 0;
+            }
+            List<AuditChain.Link> links = auditChain.extend(events);
+            jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    AuditEvent event = events.get(i);
+                    ps.setObject(1, event.id());
+                    ps.setString(2, event.entityType().name());
+                    ps.setObject(3, event.entityId());
+                    ps.setString(4, event.action().name());
+                    ps.setObject(5, event.userId());
+                    ps.setString(6, event.changeDetails());
+                    ps.setBytes(7, event.changeDelta());
+                    ps.setTimestamp(8, Timestamp.valueOf(event.timestamp()));
+                    ps.setLong(9, links.get(i).seq());
+                    ps.setBytes(10, links.get(i).hash());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return events.size();
+                }
+            });
+            return events.size();
+        });
+    }
+
+    /**
+     * @return the events not written yet, in order
+     */
+    private List<AuditEvent> unwritten(List<AuditEvent> events) {
+        List<Object> args = new ArrayList<>(events.size() + 2);
+        args.add(Timestamp.valueOf(events.stream().map(AuditEvent::timestamp).min(Comparable::compareTo).get()));
+        args.add(Timestamp.valueOf(events.stream().map(AuditEvent::timestamp).max(Comparable::compareTo).get()));
+        events.forEach(event -> args.add(event.id()));
+        String sql = SELECT_WRITTEN_IDS.formatted(String.join(", ", Collections.nCopies(events.size(), "?")));
+        Set<UUID> written = new HashSet<>(jdbcTemplate.query(sql, SingleColumnRowMapper.newInstance(UUID.class),
+                args.toArray()));
+        return written.isEmpty() ? events : events.stream().filter(event -> !written.contains(event.id())).toList();
+    }
+
+    private void spillRemaining() {
+        List<AuditEvent> remaining = new ArrayList<>();
+        buffer.drainTo(remaining, Integer.MAX_VALUE);
+        if (!remaining.isEmpty()) {
+            spill(remaining, null);
+        }
+    }
+
+    /**
+     * Append events to the spill file. If that fails too the events are lost: logged and counted, not thrown,
+     * since the callers are a transaction that already committed and the flusher.
+     *
+     * @param outcome counts the spilled events, or null
+     */
+    private void spill(List<AuditEvent> events, Counter outcome) {
+        try {
+            spillFile.append(events);
+            if (outcome != null) {
+                outcome.increment(events.size());
+            }
+        } catch (UncheckedIOException e) {
+            log.error("Could not spill {} audit events, they are lost: {}", events.size(), e.getMessage());
+            spillFailed.increment(events.size());
+        }
+    }
+
+    private void setAside(AuditEvent event) {
+        try {
+            spillFile.reject(List.of(event));
+            rejected.increment();
+        } catch (UncheckedIOException e) {
+            log.error("Could not set aside audit event {}, it is lost: {}", event.id(), e.getMessage());
+            spillFailed.increment();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.company.employeelifecycle.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extends the hash chain of audit_logs (see V10__audit_hash_chain.sql).
+ * <p>
+ * Every audit row gets the next chain sequence number and the hash of its content chained to the previous
+ * row's hash ({@link AuditChainHasher}), so changing, removing or reordering a row breaks every later link.
+ * The chain head (last sequence number and hash) is one row that each batch locks for the length of its
+ * transaction, which makes the chain a single total order across all nodes. Every
+ * {@code app.audit.chain.anchor-interval} rows an anchor records the hash at that point with the time range
+ * of the rows since the previous anchor, so that {@link AuditChainVerifier} can check the segments between
+ * anchors independently and read each one only from the partitions it touches.
+ */
+@Slf4j
+@Component
+public class AuditChain {
+
+    private static final String LOCK_HEAD = """
+            SELECT seq, hash, segment_start, segment_end FROM audit_chain_head WHERE id = 1 FOR UPDATE""";
+    private static final String INSERT_GENESIS = """
+            INSERT INTO audit_chain_head (id, seq, hash) VALUES (1, 0, ?)""";
+    private static final String UPDATE_HEAD = """
+            UPDATE audit_chain_head SET seq = ?, hash = ?, segment_start = ?, segment_end = ? WHERE id = 1""";
+    private static final String INSERT_ANCHOR = """
+            INSERT INTO audit_chain_anchors (seq, hash, segment_start, segment_end, created_at)
+            VALUES (?, ?, ?, ?, ?)""";
+
+    private static final RowMapper<Head> HEAD = (rs, rowNum) -> new Head(rs.getLong("seq"), rs.getBytes("hash"),
+            toLocalDateTime(rs.getTimestamp("segment_start")), toLocalDateTime(rs.getTimestamp("segment_end")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int anchorInterval;
+    private final AuditChainHasher hasher = new AuditChainHasher();
+
+    public AuditChain(JdbcTemplate jdbcTemplate,
+                      @Value("${app.audit.chain.anchor-interval:10000}") int anchorInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.anchorInterval = anchorInterval;
+    }
+
+    /**
+     * Append events to the chain. Must run in the transaction that inserts them: the head stays locked until it
+     * ends, and a rollback leaves the chain as it was.
+     *
+     * @param events the events about to be inserted, in insertion order
+     * @return the chain link of each event, in the same order
+     */
+    public synchronized List<Link> extend(List<AuditEvent> events) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("The audit chain can only be extended inside a transaction");
+        }
+        Head head = lockHead();
+        long seq = head.seq();
+        byte[] hash = head.hash();
+        LocalDateTime segmentStart = head.segmentStart();
+        LocalDateTime segmentEnd = head.segmentEnd();
+
+        List<Link> links = new ArrayList<>(events.size());
+        List<Object[]> anchors = new ArrayList<>();
+        for (AuditEvent event : events) {
+            seq++;
+            hash = hasher.hash(hash, seq, event);
+            links.add(new Link(seq, hash));
+            LocalDateTime timestamp = event.timestamp();
+            segmentStart = segmentStart == null || timestamp.isBefore(segmentStart) ? timestamp : segmentStart;
+            segmentEnd = segmentEnd == null || timestamp.isAfter(segmentEnd) ? timestamp : segmentEnd;
+            if (seq % anchorInterval == 0) {
+                anchors.add(new Object[]{seq, hash, Timestamp.valueOf(segmentStart), Timestamp.valueOf(segmentEnd),
+                        Timestamp.valueOf(LocalDateTime.now())});
+                segmentStart = null;
+                segmentEnd = null;
+            }
+        }
+        jdbcTemplate.update(UPDATE_HEAD, seq, hash, toTimestamp(segmentStart), toTimestamp(segmentEnd));
+        if (!anchors.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ANCHOR, anchors);
+        }
+        return links;
+    }
+
+    private Head lockHead() {
+        List<Head> head = jdbcTemplate.query(LOCK_HEAD, HEAD);
+        if (head.isEmpty()) {
+            // Seeded by the migration; only a schema created without it (tests) starts empty
+            try {
+                jdbcTemplate.update(INSERT_GENESIS, (Object) AuditChainHasher.GENESIS);
+            } catch (DuplicateKeyException e) {
+                log.debug("Audit chain head created concurrently");
+            }
+            head = jdbcTemplate.query(LOCK_HEAD, HEAD);
+        }
+        return head.get(0);
+    }
+
+    static LocalDateTime toLocalDateTime(Timestamp value) {
+        return value != null ? value.toLocalDateTime() : null;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private record Head(long seq, byte[] hash, LocalDateTime segmentStart, LocalDateTime segmentEnd) {
+    }
+
+    /**
+     * The position of one row in the chain.
+     *
+     * @param seq  the chain sequence number
+     * @param hash the row hash, chained to the previous row's
+     */
+    public record Link(long seq, byte[] hash) {
+    }
+}
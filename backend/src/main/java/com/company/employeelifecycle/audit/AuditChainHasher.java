@@ -0,0 +1,73 @@
+package com.company.employeelifecycle.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Hash of one link of the audit chain: SHA-256 over the previous row's hash, the row's chain sequence number
+ * and every stored column of the row, in a fixed length-prefixed encoding (so no two different rows encode
+ * the same way). Timestamps are hashed in epoch microseconds, the precision of the column.
+ * <p>
+ * Not thread-safe: use one instance per thread.
+ */
+final class AuditChainHasher {
+
+    /** Hash "before" the first row of the chain. */
+    static final byte[] GENESIS = new byte[32];
+
+    private final MessageDigest digest;
+    private final ByteBuffer scratch = ByteBuffer.allocate(16);
+
+    AuditChainHasher() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    byte[] hash(byte[] previous, long seq, AuditEvent event) {
+        digest.update(previous);
+        putLong(seq);
+        putUuid(event.id());
+        putString(event.entityType().name());
+        putUuid(event.entityId());
+        putString(event.action().name());
+        putUuid(event.userId());
+        putString(event.changeDetails());
+        putBytes(event.changeDelta());
+        putLong(event.timestamp().toEpochSecond(ZoneOffset.UTC) * 1_000_000L + event.timestamp().getNano() / 1_000);
+        return digest.digest();
+    }
+
+    private void putLong(long value) {
+        digest.update(scratch.clear().putLong(value).array(), 0, 8);
+    }
+
+    private void putUuid(UUID value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        digest.update((byte) 1);
+        digest.update(scratch.clear().putLong(value.getMostSignificantBits())
+                .putLong(value.getLeastSignificantBits()).array(), 0, 16);
+    }
+
+    private void putString(String value) {
+        putBytes(value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    private void putBytes(byte[] value) {
+        if (value == null) {
+            digest.update(scratch.clear().putInt(-1).array(), 0, 4);
+            return;
+        }
+        digest.update(scratch.clear().putInt(value.length).array(), 0, 4);
+        digest.update(value);
+    }
+}
@@ -0,0 +1,118 @@
+package com.company.employeelifecycle.audit;
+
+import com.company.employeelifecycle.dto.response.AuditChainVerificationJobResponse;
+import com.company.employeelifecycle.dto.response.AuditChainVerificationResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs verifications of the audit hash chain in the background, one at a time, so that a request never waits
+ * for minutes on a full verification. Starting a verification while one runs returns the running one. Jobs
+ * are kept on the node that ran them for {@code app.audit.chain.verify-job-ttl} after they finish.
+ */
+@Slf4j
+@Component
+public class AuditChainVerificationJobs implements DisposableBean {
+
+    private final AuditChainVerifier verifier;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            new CustomizableThreadFactory("audit-verify-"));
+    private final Cache<UUID, Job> jobs;
+    private Job running;
+
+    public AuditChainVerificationJobs(AuditChainVerifier verifier,
+                                      @Value("${app.audit.chain.verify-job-ttl:P1D}") Duration jobTtl) {
+        this.verifier = verifier;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobTtl)
+                .maximumSize(1_000)
+                .build();
+    }
+
+    /**
+     * Start verifying the whole chain, unless a verification is running already.
+     *
+     * @return the started or running job
+     */
+    public synchronized AuditChainVerificationJobResponse start() {
+        if (running == null) {
+            Job job = new Job(UUID.randomUUID(), LocalDateTime.now());
+            running = job;
+            jobs.put(job.id, job);
+            executor.execute(() -> run(job));
+        }
+        return running.toResponse();
+    }
+
+    /**
+     * @param jobId the job ID
+     * @return the job, or empty if it is unknown or expired
+     */
+    public Optional<AuditChainVerificationJobResponse> get(UUID jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId)).map(Job::toResponse);
+    }
+
+    private void run(Job job) {
+        try {
+            job.complete(verifier.verify(), null);
+        } catch (RuntimeException e) {
+            log.error("Audit chain verification {} failed", job.id, e);
+            job.complete(null, e.getMessage());
+        } finally {
+            synchronized (this) {
+                running = null;
+                // Expires from the time it finished
+                jobs.put(job.id, job);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static final class Job {
+
+        private final UUID id;
+        private final LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+        private volatile AuditChainVerificationResponse result;
+        private volatile String error;
+
+        Job(UUID id, LocalDateTime startedAt) {
+            this.id = id;
+            this.startedAt = startedAt;
+        }
+
+        void complete(AuditChainVerificationResponse result, String error) {
+            this.result = result;
+            this.error = error;
+            this.completedAt = LocalDateTime.now();
+        }
+
+        AuditChainVerificationJobResponse toResponse() {
+            LocalDateTime completed = completedAt;
+            return AuditChainVerificationJobResponse.builder()
+                    .jobId(id)
+                    .status(completed == null ? "RUNNING" : error == null ? "COMPLETED" : "FAILED")
+                    .startedAt(startedAt)
+                    .completedAt(completed)
+                    .result(result)
+                    .error(error)
+                    .build();
+        }
+    }
+}
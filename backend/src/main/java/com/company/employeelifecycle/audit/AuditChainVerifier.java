@@ -0,0 +1,339 @@
+package com.company.employeelifecycle.audit;
+
+import com.company.employeelifecycle.dto.response.AuditChainVerificationResponse;
+import com.company.employeelifecycle.dto.response.AuditChainVerificationResponse.Failure;
+import com.company.employeelifecycle.enums.AuditAction;
+import com.company.employeelifecycle.enums.EntityType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the audit hash chain written by {@link AuditChain}.
+ * <p>
+ * The anchors split the chain into segments that can be checked independently: a segment starts from the hash
+ * of one anchor, recomputes every row hash in sequence order, and must end exactly on the next anchor's hash
+ * (or on the chain head). Each segment reads only the rows between its two sequence numbers and within its
+ * recorded time range, so PostgreSQL scans just the partitions it touches. Segments run in parallel on a
+ * fork-join pool of {@code app.audit.chain.verify-parallelism} threads, each with its own connection and
+ * server-side cursor.
+ * <p>
+ * A segment reports its first broken link: a row whose content no longer matches its hash, a missing or
+ * duplicated sequence number (rows deleted, inserted, or moved out of their time range), or an end that does
+ * not match the anchor. Segments that lost rows to partition retention are skipped.
+ * <p>
+ * A full verification of tens of millions of rows takes minutes: {@link AuditChainVerificationJobs} runs it in
+ * the background.
+ */
+@Slf4j
+@Component
+public class AuditChainVerifier {
+
+    private static final String SELECT_ANCHORS = """
+            SELECT seq, hash, segment_start, segment_end FROM audit_chain_anchors ORDER BY seq""";
+    private static final String SELECT_HEAD = """
+            SELECT seq, hash, segment_start, segment_end FROM audit_chain_head WHERE id = 1""";
+    private static final String SELECT_MIN_SEQ = "SELECT MIN(chain_seq) FROM audit_logs";
+    private static final String SELECT_MIN_CHAINED_TIMESTAMP = """
+            SELECT MIN(timestamp) FROM audit_logs WHERE chain_seq IS NOT NULL""";
+    private static final String COUNT_UNCHAINED = "SELECT COUNT(*) FROM audit_logs WHERE chain_seq IS NULL";
+    private static final String SELECT_SEGMENT = """
+            SELECT id, entity_type, entity_id, action, user_id, change_details, change_delta, timestamp,
+                   chain_seq, row_hash
+            FROM audit_logs
+            WHERE chain_seq > ? AND chain_seq <= ? AND timestamp >= ? AND timestamp <= ?
+            ORDER BY chain_seq""";
+    // A head on an anchor closes an empty segment, without a time range
+    private static final String SELECT_EMPTY_SEGMENT = """
+            SELECT id, entity_type, entity_id, action, user_id, change_details, change_delta, timestamp,
+                   chain_seq, row_hash
+            FROM audit_logs
+            WHERE chain_seq > ? AND chain_seq <= ?
+            ORDER BY chain_seq""";
+
+    private static final RowMapper<Anchor> ANCHOR = (rs, rowNum) -> new Anchor(rs.getLong("seq"),
+            rs.getBytes("hash"), AuditChain.toLocalDateTime(rs.getTimestamp("segment_start")),
+            AuditChain.toLocalDateTime(rs.getTimestamp("segment_end")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate snapshotTransaction;
+    private final int parallelism;
+    private final Timer verifyTimer;
+    private final Counter verifiedRows;
+
+    public AuditChainVerifier(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.audit.chain.verify-parallelism:4}") int parallelism,
+                              @Value("${app.audit.chain.verify-fetch-size:1000}") int fetchSize) {
+        // A copy: the fetch size applies to every statement of the template
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.parallelism = parallelism;
+        this.verifyTimer = Timer.builder("audit.chain.verify")
+                .description("Time to verify the whole audit hash chain")
+                .register(meterRegistry);
+        this.verifiedRows = Counter.builder("audit.chain.verify.rows").register(meterRegistry);
+    }
+
+    /**
+     * Verify the whole chain.
+     *
+     * @return the outcome, with the first broken link of each broken segment
+     */
+    public AuditChainVerificationResponse verify() {
+        long start = System.nanoTime();
+        ChainSnapshot chain = snapshotTransaction.execute(status -> readChain());
+        List<Anchor> points = chain.points();
+        long headSeq = chain.headSeq();
+
+        List<Segment> segments = new ArrayList<>();
+        int skipped = 0;
+        for (int i = 1; i < points.size(); i++) {
+            Segment segment = new Segment(points.get(i - 1), points.get(i));
+            if (chain.cutByRetention(segment)) {
+                skipped++;
+            } else {
+                segments.add(segment);
+            }
+        }
+
+        SegmentResult result;
+        if (chain.minSeq() == null && headSeq > 0) {
+            result = new SegmentResult(0, List.of(new Failure(headSeq, null,
+                    "Chain head is at " + headSeq + " but no chained rows exist")));
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                result = pool.invoke(new VerifyTask(segments, 0, segments.size()));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        verifyTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        verifiedRows.increment(result.rows());
+        if (result.failures().isEmpty()) {
+            log.info("Audit chain verified up to {}: {} rows in {} segments in {} ms ({} rows/s)", headSeq,
+                    result.rows(), segments.size(), TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    Math.round(result.rows() / (elapsed / 1_000_000_000.0)));
+        } else {
+            log.error("Audit chain broken in {} segments, first at {}: {}", result.failures().size(),
+                    result.failures().get(0).getSeq(), result.failures().get(0).getReason());
+        }
+        return AuditChainVerificationResponse.builder()
+                .verified(result.failures().isEmpty())
+                .headSeq(headSeq)
+                .rowsVerified(result.rows())
+                .segmentsVerified(segments.size())
+                .segmentsSkipped(skipped)
+                .unchainedRows(chain.unchained())
+                .failures(result.failures())
+                .durationMs(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                .build();
+    }
+
+    /**
+     * Read the anchors, the head, and the extent of the retained rows as of one snapshot: read separately, a
+     * writer crossing an anchor in between would leave the head's time range behind the rows it closes.
+     */
+    private ChainSnapshot readChain() {
+        List<Anchor> points = new ArrayList<>();
+        points.add(new Anchor(0, AuditChainHasher.GENESIS, null, null));
+        points.addAll(jdbcTemplate.query(SELECT_ANCHORS, ANCHOR));
+        List<Anchor> head = jdbcTemplate.query(SELECT_HEAD, ANCHOR);
+        long headSeq = head.isEmpty() ? 0 : head.get(0).seq();
+        if (headSeq > points.get(points.size() - 1).seq()) {
+            points.add(head.get(0));
+        }
+        Long minSeq = jdbcTemplate.queryForObject(SELECT_MIN_SEQ, Long.class);
+        Timestamp minTimestamp = jdbcTemplate.queryForObject(SELECT_MIN_CHAINED_TIMESTAMP, Timestamp.class);
+        long unchained = jdbcTemplate.queryForObject(COUNT_UNCHAINED, Long.class);
+        return new ChainSnapshot(points, headSeq, minSeq, AuditChain.toLocalDateTime(minTimestamp), unchained);
+    }
+
+    /**
+     * Check one segment: the rows after {@code from} up to and including {@code to}.
+     */
+    SegmentResult verify(Segment segment) {
+        SegmentCheck check = new SegmentCheck(segment);
+        Anchor to = segment.to();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                if (to.segmentStart() == null) {
+                    jdbcTemplate.query(SELECT_EMPTY_SEGMENT, check::row, segment.from().seq(), to.seq());
+                } else {
+                    jdbcTemplate.query(SELECT_SEGMENT, check::row, segment.from().seq(), to.seq(),
+                            Timestamp.valueOf(to.segmentStart()), Timestamp.valueOf(to.segmentEnd()));
+                }
+            });
+        } catch (BrokenLink e) {
+            return new SegmentResult(check.rows, List.of(e.failure));
+        }
+        return check.finish();
+    }
+
+    /**
+     * Recomputes the chain over the rows of one segment, in sequence order.
+     */
+    private static final class SegmentCheck {
+
+        private final Segment segment;
+        private final AuditChainHasher hasher = new AuditChainHasher();
+        private long expected;
+        private byte[] previous;
+        private long rows;
+
+        SegmentCheck(Segment segment) {
+            this.segment = segment;
+            this.expected = segment.from().seq() + 1;
+            this.previous = segment.from().hash();
+        }
+
+        void row(ResultSet rs) throws SQLException {
+            long seq = rs.getLong("chain_seq");
+            UUID id = rs.getObject("id", UUID.class);
+            if (seq != expected) {
+                throw new BrokenLink(new Failure(seq, id, seq < expected
+                        ? "Duplicate sequence number"
+                        : "Rows " + expected + " to " + (seq - 1) + " are missing"));
+            }
+            AuditEvent event;
+            try {
+                event = new AuditEvent(id, EntityType.valueOf(rs.getString("entity_type")),
+                        rs.getObject("entity_id", UUID.class), AuditAction.valueOf(rs.getString("action")),
+                        rs.getObject("user_id", UUID.class), rs.getString("change_details"),
+                        rs.getBytes("change_delta"), rs.getTimestamp("timestamp").toLocalDateTime());
+            } catch (IllegalArgumentException e) {
+                throw new BrokenLink(new Failure(seq, id, "Unreadable row: " + e.getMessage()));
+            }
+            byte[] hash = hasher.hash(previous, seq, event);
+            if (!MessageDigest.isEqual(hash, rs.getBytes("row_hash"))) {
+                throw new BrokenLink(new Failure(seq, id, "Row content does not match its hash"));
+            }
+            previous = hash;
+            expected++;
+            rows++;
+        }
+
+        SegmentResult finish() {
+            Anchor to = segment.to();
+            if (expected <= to.seq()) {
+                return new SegmentResult(rows, List.of(new Failure(expected, null,
+                        "Rows " + expected + " to " + to.seq() + " are missing")));
+            }
+            if (!MessageDigest.isEqual(previous, to.hash())) {
+                return new SegmentResult(rows, List.of(new Failure(to.seq(), null,
+                        "Chain does not match the anchor at " + to.seq())));
+            }
+            return new SegmentResult(rows, List.of());
+        }
+    }
+
+    /**
+     * Verifies a range of segments, splitting it in halves down to single segments.
+     */
+    private final class VerifyTask extends RecursiveTask<SegmentResult> {
+
+        private final List<Segment> segments;
+        private final int from;
+        private final int to;
+
+        VerifyTask(List<Segment> segments, int from, int to) {
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SegmentResult compute() {
+            if (to - from == 0) {
+                return new SegmentResult(0, List.of());
+            }
+            if (to - from == 1) {
+                return verify(segments.get(from));
+            }
+            int middle = (from + to) >>> 1;
+            VerifyTask left = new VerifyTask(segments, from, middle);
+            left.fork();
+            SegmentResult right = new VerifyTask(segments, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /** A chain position: the hash of the row at {@code seq}, and the time range of the segment it closes. */
+    record Anchor(long seq, byte[] hash, LocalDateTime segmentStart, LocalDateTime segmentEnd) {
+    }
+
+    record Segment(Anchor from, Anchor to) {
+    }
+
+    /**
+     * The chain as of one snapshot: the anchors from genesis up to the head, and the oldest chained row left
+     * by partition retention ({@code minSeq} and {@code minTimestamp} are null if there is none).
+     */
+    record ChainSnapshot(List<Anchor> points, long headSeq, Long minSeq, LocalDateTime minTimestamp,
+                         long unchained) {
+
+        /**
+         * Retention drops whole months of rows: a segment lost rows to it if it starts before the oldest chained
+         * row left, or if its oldest row is older than every row left. The latter catches rows written late
+         * with an old timestamp (replayed from the spill file), which retention drops out of sequence order.
+         */
+        boolean cutByRetention(Segment segment) {
+            if (minSeq == null) {
+                return false;
+            }
+            LocalDateTime segmentStart = segment.to().segmentStart();
+            return segment.from().seq() < minSeq - 1
+                    || segmentStart != null && minTimestamp != null && segmentStart.isBefore(minTimestamp);
+        }
+    }
+
+    record SegmentResult(long rows, List<Failure> failures) {
+
+        SegmentResult merge(SegmentResult other) {
+            List<Failure> merged = new ArrayList<>(failures);
+            merged.addAll(other.failures);
+            return new SegmentResult(rows + other.rows, merged);
+        }
+    }
+
+    /** Ends a segment at its first broken link. */
+    private static final class BrokenLink extends RuntimeException {
+
+        private final Failure failure;
+
+        BrokenLink(Failure failure) {
+            super(failure.getReason(), null, false, false);
+            this.failure = failure;
+        }
+    }
+}
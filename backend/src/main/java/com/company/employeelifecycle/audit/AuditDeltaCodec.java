@@ -0,0 +1,304 @@
+package com.company.employeelifecycle.audit;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary format of audit_logs.change_delta: the fields that differ between two snapshots, each with its old
+ * and new value.
+ * <pre>
+ * delta   := header body              header: format version in the low 7 bits, 0x80 if body is deflated
+ * body    := varint(count) change*
+ * change  := varint(field index) value(from) value(to)
+ * value   := tag [payload]            see the TAG_ constants
+ * </pre>
+ * Fields are identified by their index in the entity's {@link AuditSchema}, enums by their ordinal, dates
+ * and timestamps as zigzag varints (epoch day, epoch microseconds). Bodies of at least
+ * {@value #COMPRESSION_THRESHOLD} bytes are deflated when that makes them smaller, which in practice only
+ * happens for long free-text fields.
+ */
+final class AuditDeltaCodec {
+
+    static final int FORMAT_VERSION = 1;
+    static final int COMPRESSION_THRESHOLD = 128;
+
+    private static final int COMPRESSED = 0x80;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_STRING = 1;
+    private static final int TAG_ENUM = 2;
+    private static final int TAG_UUID = 3;
+    private static final int TAG_DATE = 4;
+    private static final int TAG_DATE_TIME = 5;
+    private static final int TAG_INT = 6;
+    private static final int TAG_FALSE = 7;
+    private static final int TAG_TRUE = 8;
+
+    private AuditDeltaCodec() {
+    }
+
+    /**
+     * @return the encoded changes from {@code before} to {@code after}, or null if no audited field changed
+     */
+    static byte[] encode(AuditSnapshot before, AuditSnapshot after) {
+        AuditSchema<?> schema = after.schema();
+        if (before.schema() != schema) {
+            throw new IllegalArgumentException("Cannot diff " + before.schema().entityType() + " against "
+                    + schema.entityType());
+        }
+        int count = 0;
+        for (int i = 0; i < schema.size(); i++) {
+            if (after.changed(before, i)) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+
+        Output body = new Output(1 + 16 * count);
+        body.varint(count);
+        for (int i = 0; i < schema.size(); i++) {
+            if (after.changed(before, i)) {
+                body.varint(i);
+                body.value(before.value(i));
+                body.value(after.value(i));
+            }
+        }
+
+        if (body.length() >= COMPRESSION_THRESHOLD) {
+            byte[] raw = Arrays.copyOfRange(body.bytes(), 1, body.length());
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) {
+                return withHeader(FORMAT_VERSION | COMPRESSED, deflated);
+            }
+        }
+        return body.withHeader(FORMAT_VERSION);
+    }
+
+    /**
+     * @return the changes recorded in a delta of the given schema
+     * @throws IllegalArgumentException if the delta is malformed or of an unknown format version
+     */
+    static List<AuditFieldChange> decode(AuditSchema<?> schema, byte[] delta) {
+        int header = delta.length > 0 ? delta[0] & 0xFF : -1;
+        if ((header & ~COMPRESSED) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported audit delta format");
+        }
+        byte[] body = Arrays.copyOfRange(delta, 1, delta.length);
+        if ((header & COMPRESSED) != 0) {
+            body = inflate(body);
+        }
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(body);
+            int count = readVarint(in);
+            List<AuditFieldChange> changes = new ArrayList<>(count);
+            for (int c = 0; c < count; c++) {
+                AuditSchema.Field<?> field = schema.field(readVarint(in));
+                changes.add(new AuditFieldChange(field.name(), readValue(in, field.type()),
+                        readValue(in, field.type())));
+            }
+            return changes;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed audit delta", e);
+        }
+    }
+
+    private static byte[] withHeader(int header, byte[] body) {
+        byte[] delta = new byte[body.length + 1];
+        delta[0] = (byte) header;
+        System.arraycopy(body, 0, delta, 1, body.length);
+        return delta;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[raw.length];
+            int length = deflater.deflate(buffer);
+            // Not finished means the output did not fit in the input's size: not worth compressing
+            return deflater.finished() ? Arrays.copyOf(buffer, length) : raw;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] deflated) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(deflated);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(deflated.length * 4);
+            byte[] buffer = new byte[512];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated audit delta");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Malformed audit delta", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static Object readValue(ByteBuffer in, Class<?> type) {
+        int tag = in.get();
+        return switch (tag) {
+            case TAG_NULL -> null;
+            case TAG_STRING -> {
+                byte[] utf8 = new byte[readVarint(in)];
+                in.get(utf8);
+                yield new String(utf8, StandardCharsets.UTF_8);
+            }
+            case TAG_ENUM -> {
+                int ordinal = readVarint(in);
+                Object[] constants = type.getEnumConstants();
+                yield constants != null && ordinal < constants.length ? constants[ordinal] : ordinal;
+            }
+            case TAG_UUID -> new UUID(in.getLong(), in.getLong());
+            case TAG_DATE -> LocalDate.ofEpochDay(zigzagDecode(readVarlong(in)));
+            case TAG_DATE_TIME -> {
+                long micros = zigzagDecode(readVarlong(in));
+                yield LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                        (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+            }
+            case TAG_INT -> (int) zigzagDecode(readVarlong(in));
+            case TAG_FALSE -> Boolean.FALSE;
+            case TAG_TRUE -> Boolean.TRUE;
+            default -> throw new IllegalArgumentException("Unknown value tag " + tag);
+        };
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        long value = readVarlong(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Varint out of range");
+        }
+        return (int) value;
+    }
+
+    private static long readVarlong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    private static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Growable byte buffer with the value writers of the format. Position 0 is reserved for the header, so
+     * an uncompressed delta needs no extra copy.
+     */
+    private static final class Output {
+
+        private byte[] bytes;
+        private int length = 1;
+
+        Output(int capacity) {
+            bytes = new byte[Math.max(capacity, 16)];
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        /** @return the body length plus one for the header */
+        int length() {
+            return length;
+        }
+
+        byte[] withHeader(int header) {
+            bytes[0] = (byte) header;
+            return Arrays.copyOf(bytes, length);
+        }
+
+        void write(int b) {
+            ensure(1);
+            bytes[length++] = (byte) b;
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void value(Object value) {
+            if (value == null) {
+                write(TAG_NULL);
+            } else if (value instanceof String s) {
+                byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+                write(TAG_STRING);
+                varint(utf8.length);
+                ensure(utf8.length);
+                System.arraycopy(utf8, 0, bytes, length, utf8.length);
+                length += utf8.length;
+            } else if (value instanceof Enum<?> e) {
+                write(TAG_ENUM);
+                varint(e.ordinal());
+            } else if (value instanceof UUID u) {
+                write(TAG_UUID);
+                writeLong(u.getMostSignificantBits());
+                writeLong(u.getLeastSignificantBits());
+            } else if (value instanceof LocalDate d) {
+                write(TAG_DATE);
+                varint(zigzagEncode(d.toEpochDay()));
+            } else if (value instanceof LocalDateTime t) {
+                write(TAG_DATE_TIME);
+                varint(zigzagEncode(t.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + t.getNano() / 1_000));
+            } else if (value instanceof Integer i) {
+                write(TAG_INT);
+                varint(zigzagEncode(i));
+            } else if (value instanceof Boolean b) {
+                write(b ? TAG_TRUE : TAG_FALSE);
+            } else {
+                throw new IllegalArgumentException("Unsupported audit value type " + value.getClass().getName());
+            }
+        }
+
+        private void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+}
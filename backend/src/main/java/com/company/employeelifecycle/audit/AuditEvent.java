@@ -0,0 +1,23 @@
+package com.company.employeelifecycle.audit;
+
+import com.company.employeelifecycle.entity.id.TimeOrderedUuidSource;
+import com.company.employeelifecycle.enums.AuditAction;
+import com.company.employeelifecycle.enums.EntityType;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * One audit_logs row waiting to be written. The id and timestamp are fixed when the action happens,
+ * not when the row is flushed, so the audit trail keeps its order however late the write is.
+ */
+public record AuditEvent(UUID id, EntityType entityType, UUID entityId, AuditAction action, UUID userId,
+                         String changeDetails, byte[] changeDelta, LocalDateTime timestamp) {
+
+    static AuditEvent of(EntityType entityType, UUID entityId, AuditAction action, UUID userId, String changeDetails,
+                         byte[] changeDelta) {
+        return new AuditEvent(TimeOrderedUuidSource.shared().next(), entityType, entityId, action, userId,
+                changeDetails, changeDelta, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+    }
+}
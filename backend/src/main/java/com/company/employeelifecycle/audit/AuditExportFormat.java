@@ -0,0 +1,31 @@
+package com.company.employeelifecycle.audit;
+
+import org.springframework.http.MediaType;
+
+/**
+ * File formats of audit trail exports.
+ */
+public enum AuditExportFormat {
+
+    /** One JSON object per line. */
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+
+    /** RFC 4180 CSV with a header row; changed fields as a JSON array in the last column. */
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    AuditExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
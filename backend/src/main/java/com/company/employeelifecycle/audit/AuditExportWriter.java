@@ -0,0 +1,171 @@
+package com.company.employeelifecycle.audit;
+
+import com.company.employeelifecycle.repository.AuditExportRepository.AuditExportRow;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes exported audit rows to an output stream in one {@link AuditExportFormat}. Rows are written as they
+ * come, through a fixed-size buffer; nothing is kept once a row is written. Closing flushes the buffer but
+ * leaves the output stream open.
+ */
+public abstract class AuditExportWriter implements Closeable {
+
+    final AuditDiffer auditDiffer;
+    final JsonFactory jsonFactory;
+
+    private AuditExportWriter(AuditDiffer auditDiffer, JsonFactory jsonFactory) {
+        this.auditDiffer = auditDiffer;
+        this.jsonFactory = jsonFactory;
+    }
+
+    public static AuditExportWriter of(AuditExportFormat format, OutputStream out, AuditDiffer auditDiffer,
+                                       JsonFactory jsonFactory) throws IOException {
+        return switch (format) {
+            case NDJSON -> new Ndjson(out, auditDiffer, jsonFactory);
+            case CSV -> new Csv(out, auditDiffer, jsonFactory);
+        };
+    }
+
+    public abstract void write(AuditExportRow row) throws IOException;
+
+    void writeChanges(JsonGenerator json, AuditExportRow row) throws IOException {
+        json.writeStartArray();
+        for (AuditFieldChange change : auditDiffer.decode(row.entityType(), row.changeDelta())) {
+            json.writeStartObject();
+            json.writeStringField("field", change.field());
+            json.writeFieldName("from");
+            writeValue(json, change.from());
+            json.writeFieldName("to");
+            writeValue(json, change.to());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+    }
+
+    private static void writeValue(JsonGenerator json, Object value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else if (value instanceof Integer i) {
+            json.writeNumber(i);
+        } else if (value instanceof Boolean b) {
+            json.writeBoolean(b);
+        } else {
+            // Enums by name, UUIDs and ISO-8601 dates as strings, as in the API responses
+            json.writeString(value.toString());
+        }
+    }
+
+    private static String toString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static final class Ndjson extends AuditExportWriter {
+
+        private final JsonGenerator json;
+
+        Ndjson(OutputStream out, AuditDiffer auditDiffer, JsonFactory jsonFactory) throws IOException {
+            super(auditDiffer, jsonFactory);
+            this.json = jsonFactory.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(AuditExportRow row) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("id", row.id().toString());
+            json.writeStringField("timestamp", row.timestamp().toString());
+            json.writeStringField("entityType", row.entityType().name());
+            json.writeStringField("entityId", row.entityId().toString());
+            json.writeStringField("action", row.action().name());
+            json.writeStringField("userId", AuditExportWriter.toString(row.userId()));
+            json.writeStringField("userEmail", row.userEmail());
+            json.writeStringField("changeDetails", row.changeDetails());
+            json.writeFieldName("changes");
+            writeChanges(json, row);
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.close();
+        }
+    }
+
+    private static final class Csv extends AuditExportWriter {
+
+        private static final List<String> HEADER = List.of("id", "timestamp", "entity_type", "entity_id", "action",
+                "user_id", "user_email", "change_details", "changes");
+        private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+        private final Writer out;
+        private final StringWriter changes = new StringWriter(256);
+
+        Csv(OutputStream out, AuditDiffer auditDiffer, JsonFactory jsonFactory) throws IOException {
+            super(auditDiffer, jsonFactory);
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+            for (int i = 0; i < HEADER.size(); i++) {
+                cell(i, HEADER.get(i));
+            }
+            this.out.write("\r\n");
+        }
+
+        @Override
+        public void write(AuditExportRow row) throws IOException {
+            cell(0, row.id().toString());
+            cell(1, row.timestamp().toString());
+            cell(2, row.entityType().name());
+            cell(3, row.entityId().toString());
+            cell(4, row.action().name());
+            cell(5, AuditExportWriter.toString(row.userId()));
+            cell(6, row.userEmail());
+            cell(7, row.changeDetails());
+            cell(8, row.changeDelta() != null ? changesJson(row) : null);
+            out.write("\r\n");
+        }
+
+        private String changesJson(AuditExportRow row) throws IOException {
+            changes.getBuffer().setLength(0);
+            try (JsonGenerator json = jsonFactory.createGenerator(changes)) {
+                writeChanges(json, row);
+            }
+            return changes.toString();
+        }
+
+        private void cell(int column, String value) throws IOException {
+            if (column > 0) {
+                out.write(',');
+            }
+            if (value == null) {
+                return;
+            }
+            if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+                // Spreadsheets would evaluate the cell as a formula (CSV injection): make it text
+                value = "'" + value;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
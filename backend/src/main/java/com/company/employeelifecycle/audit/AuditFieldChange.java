@@ -0,0 +1,11 @@
+package com.company.employeelifecycle.audit;
+
+/**
+ * One field changed by an audited action, decoded from an audit delta.
+ *
+ * @param field the field name
+ * @param from  the value before the change, or null
+ * @param to    the value after the change, or null
+ */
+public record AuditFieldChange(String field, Object from, Object to) {
+}
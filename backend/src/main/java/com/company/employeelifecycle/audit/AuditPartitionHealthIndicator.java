@@ -0,0 +1,40 @@
+package com.company.employeelifecycle.audit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.OptionalInt;
+
+/**
+ * Reports the audit_logs partitions as down when fewer than {@code app.audit.partitions.min-months-ahead} months
+ * after the current one have a partition, so that maintenance that stopped running is noticed before audit rows
+ * are rejected. Shown as "auditPartitions" in the health endpoint.
+ */
+@Component("auditPartitionsHealthIndicator")
+@ConditionalOnProperty(name = "app.audit.partitions.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditPartitionHealthIndicator implements HealthIndicator {
+
+    private final AuditPartitionMaintenance maintenance;
+    private final int minMonthsAhead;
+
+    public AuditPartitionHealthIndicator(AuditPartitionMaintenance maintenance,
+                                         @Value("${app.audit.partitions.min-months-ahead:1}") int minMonthsAhead) {
+        this.maintenance = maintenance;
+        this.minMonthsAhead = minMonthsAhead;
+    }
+
+    @Override
+    public Health health() {
+        OptionalInt covered = maintenance.coveredMonthsAhead();
+        if (covered.isEmpty()) {
+            return Health.unknown().withDetail("reason", "Partitions not listed yet").build();
+        }
+        Health.Builder health = covered.getAsInt() >= minMonthsAhead ? Health.up() : Health.down();
+        return health.withDetail("monthsAhead", covered.getAsInt())
+                .withDetail("minMonthsAhead", minMonthsAhead)
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.company.employeelifecycle.audit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Maintains the monthly partitions of audit_logs (see V8__partition_audit_logs.sql).
+ * <p>
+ * Once at startup and then daily, creates the partitions for the current month and the next
+ * {@code app.audit.partitions.months-ahead} months, and detaches and drops every partition whose rows are
+ * all older than {@code app.audit.partitions.retention-months}. Nodes coordinate through a transaction-level
+ * advisory lock, so only one of them does the work.
+ * <p>
+ * Rows of a month without a partition are rejected, so every node lists the partitions on each run and publishes
+ * how many months ahead of the current one are covered, as the {@code audit.partitions.months.ahead} gauge and
+ * through {@link AuditPartitionHealthIndicator}. The count falls by one each month the maintenance does not run.
+ * <p>
+ * PostgreSQL only; disabled with app.audit.partitions.enabled=false (the test profile, which runs on H2).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.audit.partitions.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditPartitionMaintenance {
+
+    static final String PARTITION_PREFIX = "audit_logs_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_xact_lock(hashtext('audit_logs_partitions'))";
+    private static final String LIST_PARTITIONS = """
+            SELECT child.relname
+            FROM pg_inherits i
+            JOIN pg_class parent ON parent.oid = i.inhparent
+            JOIN pg_class child ON child.oid = i.inhrelid
+            WHERE parent.relname = 'audit_logs'""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    /** Partitioned months as of the last run; null before the first one. */
+    private volatile Set<YearMonth> partitions;
+
+    public AuditPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.audit.partitions.months-ahead:3}") int monthsAhead,
+                                     @Value("${app.audit.partitions.retention-months:84}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        Gauge.builder("audit.partitions.months.ahead", this, AuditPartitionMaintenance::monthsAheadGauge)
+                .description("Months after the current one with an audit_logs partition; -1 if the current month "
+                        + "has none")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.audit.partitions.cron:0 15 1 * * *}")
+    public void maintainPartitions() {
+        // Audit timestamps are written in server-local time, so months are too
+        YearMonth current = YearMonth.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            boolean locked = Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK, Boolean.class));
+            Set<YearMonth> existing = new TreeSet<>();
+            for (String name : jdbcTemplate.queryForList(LIST_PARTITIONS, String.class)) {
+                monthOf(name).ifPresent(existing::add);
+            }
+            if (!locked) {
+                log.debug("Audit partition maintenance is running on another node");
+                partitionsListed(existing);
+                return;
+            }
+            for (YearMonth month : missingPartitions(existing, current, monthsAhead)) {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF audit_logs"
+                        + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+                log.info("Created audit log partition {}", partitionName(month));
+                existing.add(month);
+            }
+            for (YearMonth month : expiredPartitions(existing, current, retentionMonths)) {
+                // Detaching first takes the partition out of queries; dropping a detached table is instant
+                jdbcTemplate.execute("ALTER TABLE audit_logs DETACH PARTITION " + partitionName(month));
+                jdbcTemplate.execute("DROP TABLE " + partitionName(month));
+                log.info("Dropped audit log partition {} (retention {} months)", partitionName(month),
+                        retentionMonths);
+                existing.remove(month);
+            }
+            partitionsListed(existing);
+        });
+    }
+
+    void partitionsListed(Set<YearMonth> existing) {
+        partitions = Set.copyOf(existing);
+    }
+
+    /**
+     * @return the number of consecutive months after the current one that have a partition, -1 if the current
+     * month has none; empty before the partitions were first listed
+     */
+    OptionalInt coveredMonthsAhead() {
+        Set<YearMonth> listed = partitions;
+        return listed != null ? OptionalInt.of(coveredMonthsAhead(listed, YearMonth.now())) : OptionalInt.empty();
+    }
+
+    private double monthsAheadGauge() {
+        OptionalInt covered = coveredMonthsAhead();
+        return covered.isPresent() ? covered.getAsInt() : Double.NaN;
+    }
+
+    static int coveredMonthsAhead(Set<YearMonth> existing, YearMonth current) {
+        int covered = -1;
+        while (existing.contains(current.plusMonths(covered + 1L))) {
+            covered++;
+        }
+        return covered;
+    }
+
+    /**
+     * @return the months from {@code current} through {@code monthsAhead} later that have no partition yet
+     */
+    static List<YearMonth> missingPartitions(Set<YearMonth> existing, YearMonth current, int monthsAhead) {
+        List<YearMonth> missing = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(month)) {
+                missing.add(month);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * @return the partitioned months whose rows are all older than the retention period, oldest first
+     */
+    static List<YearMonth> expiredPartitions(Set<YearMonth> existing, YearMonth current, int retentionMonths) {
+        return existing.stream()
+                .filter(month -> !month.plusMonths(retentionMonths + 1L).isAfter(current))
+                .sorted()
+                .toList();
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + SUFFIX.format(month);
+    }
+
+    static Optional<YearMonth> monthOf(String partitionName) {
+        if (!partitionName.startsWith(PARTITION_PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), SUFFIX));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
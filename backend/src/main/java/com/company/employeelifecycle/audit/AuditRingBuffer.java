@@ -0,0 +1,125 @@
+package com.company.employeelifecycle.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free multi-producer queue backed by a ring of slots (after Dmitry Vyukov's bounded MPMC queue).
+ * <p>
+ * Each slot carries a sequence number telling whether it is free for the producer at a given position or
+ * holds an element for the consumer at that position. Producers and consumers claim positions with one CAS;
+ * {@link #offer} never blocks and fails immediately when the ring is full, which callers treat as backpressure.
+ *
+ * @param <E> element type
+ */
+final class AuditRingBuffer<E> {
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity minimum number of elements the ring holds; rounded up to a power of two
+     */
+    AuditRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity out of range: " + capacity);
+        }
+        int size = capacity == 1 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add an element if there is room.
+     *
+     * @param element the element, not null
+     * @return false if the ring is full
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    // Publishes the element to the consumer that claims this position
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Remove the oldest element.
+     *
+     * @return the element, or null if the ring is empty
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = (E) elements[index];
+                    elements[index] = null;
+                    // Frees the slot for the producer one lap ahead
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Move up to {@code max} elements, oldest first, into {@code target}.
+     *
+     * @return number of elements moved
+     */
+    int drainTo(List<? super E> target, int max) {
+        int drained = 0;
+        E element;
+        while (drained < max && (element = poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * @return the number of elements, exact only while no producer or consumer is active
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, elements.length));
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int capacity() {
+        return elements.length;
+    }
+}
@@ -0,0 +1,126 @@
+package com.company.employeelifecycle.audit;
+
+import com.company.employeelifecycle.entity.Employee;
+import com.company.employeelifecycle.entity.Task;
+import com.company.employeelifecycle.entity.WorkflowInstance;
+import com.company.employeelifecycle.enums.EmployeeStatus;
+import com.company.employeelifecycle.enums.EntityType;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.TaskType;
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * The audited fields of an entity type. A field's position in its schema is the id stored in audit deltas
+ * instead of its name, so fields may only ever be appended (never removed or reordered), and enums used as
+ * field types may only gain constants at the end.
+ * <p>
+ * Associations are recorded by id, which reads the foreign key without initializing lazy proxies.
+ *
+ * @param <T> the entity class
+ */
+public final class AuditSchema<T> {
+
+    public static final AuditSchema<Employee> EMPLOYEE = new AuditSchema<>(EntityType.EMPLOYEE, List.of(
+            new Field<>("firstName", String.class, Employee::getFirstName),
+            new Field<>("lastName", String.class, Employee::getLastName),
+            new Field<>("email", String.class, Employee::getEmail),
+            new Field<>("role", String.class, Employee::getRole),
+            new Field<>("department", String.class, Employee::getDepartment),
+            new Field<>("startDate", LocalDate.class, Employee::getStartDate),
+            new Field<>("managerId", UUID.class, e -> e.getManager() != null ? e.getManager().getId() : null),
+            new Field<>("status", EmployeeStatus.class, Employee::getStatus)));
+
+    public static final AuditSchema<Task> TASK = new AuditSchema<>(EntityType.TASK, List.of(
+            new Field<>("title", String.class, Task::getTitle),
+            new Field<>("description", String.class, Task::getDescription),
+            new Field<>("assignedToId", UUID.class, t -> t.getAssignedTo() != null ? t.getAssignedTo().getId() : null),
+            new Field<>("taskType", TaskType.class, Task::getTaskType),
+            new Field<>("status", TaskStatus.class, Task::getStatus),
+            new Field<>("dueDate", LocalDate.class, Task::getDueDate),
+            new Field<>("completedById", UUID.class,
+                    t -> t.getCompletedBy() != null ? t.getCompletedBy().getId() : null),
+            new Field<>("completedAt", LocalDateTime.class, Task::getCompletedAt),
+            new Field<>("unmetPrerequisites", Integer.class, Task::getUnmetPrerequisites)));
+
+    public static final AuditSchema<WorkflowInstance> WORKFLOW_INSTANCE = new AuditSchema<>(
+            EntityType.WORKFLOW_INSTANCE, List.of(
+            new Field<>("templateId", UUID.class, w -> w.getTemplate() != null ? w.getTemplate().getId() : null),
+            new Field<>("employeeId", UUID.class, w -> w.getEmployee() != null ? w.getEmployee().getId() : null),
+            new Field<>("initiatedById", UUID.class,
+                    w -> w.getInitiatedBy() != null ? w.getInitiatedBy().getId() : null),
+            new Field<>("status", WorkflowInstanceStatus.class, WorkflowInstance::getStatus),
+            new Field<>("currentStepIndex", Integer.class, WorkflowInstance::getCurrentStepIndex),
+            new Field<>("startedAt", LocalDateTime.class, WorkflowInstance::getStartedAt),
+            new Field<>("completedAt", LocalDateTime.class, WorkflowInstance::getCompletedAt)));
+
+    private static final Map<EntityType, AuditSchema<?>> BY_ENTITY_TYPE = new EnumMap<>(EntityType.class);
+
+    static {
+        for (AuditSchema<?> schema : List.of(EMPLOYEE, TASK, WORKFLOW_INSTANCE)) {
+            BY_ENTITY_TYPE.put(schema.entityType, schema);
+        }
+    }
+
+    private final EntityType entityType;
+    private final List<Field<T>> fields;
+
+    private AuditSchema(EntityType entityType, List<Field<T>> fields) {
+        this.entityType = entityType;
+        this.fields = fields;
+    }
+
+    /**
+     * @return the schema of the entity type
+     * @throws IllegalArgumentException if the entity type has no audited fields
+     */
+    public static AuditSchema<?> of(EntityType entityType) {
+        AuditSchema<?> schema = BY_ENTITY_TYPE.get(entityType);
+        if (schema == null) {
+            throw new IllegalArgumentException("No audit schema for " + entityType);
+        }
+        return schema;
+    }
+
+    public EntityType entityType() {
+        return entityType;
+    }
+
+    int size() {
+        return fields.size();
+    }
+
+    Field<T> field(int index) {
+        return fields.get(index);
+    }
+
+    int indexOf(String name) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).name().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(entityType + " has no audited field " + name);
+    }
+
+    Object[] read(T entity) {
+        Object[] values = new Object[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = fields.get(i).accessor().apply(entity);
+        }
+        return values;
+    }
+
+    /**
+     * One audited field: its name, value type and how to read it from the entity.
+     */
+    record Field<T>(String name, Class<?> type, Function<T, Object> accessor) {
+    }
+}
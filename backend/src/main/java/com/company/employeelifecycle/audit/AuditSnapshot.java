@@ -0,0 +1,53 @@
+package com.company.employeelifecycle.audit;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable copy of the audited field values of one entity at one point in time: a flat array read through
+ * the entity's {@link AuditSchema}, cheap enough to take before every change.
+ */
+public final class AuditSnapshot {
+
+    private final AuditSchema<?> schema;
+    private final Object[] values;
+
+    AuditSnapshot(AuditSchema<?> schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+    }
+
+    /**
+     * @return a snapshot with every field null, the "before" state of a created entity
+     */
+    public static AuditSnapshot empty(AuditSchema<?> schema) {
+        return new AuditSnapshot(schema, new Object[schema.size()]);
+    }
+
+    /**
+     * @return a copy of this snapshot with one field changed, for describing a change made with a bulk update
+     */
+    public AuditSnapshot with(String field, Object value) {
+        int index = schema.indexOf(field);
+        Class<?> type = schema.field(index).type();
+        if (value != null && !type.isInstance(value)) {
+            throw new IllegalArgumentException(field + " expects " + type.getSimpleName() + ", got "
+                    + value.getClass().getSimpleName());
+        }
+        Object[] copy = Arrays.copyOf(values, values.length);
+        copy[index] = value;
+        return new AuditSnapshot(schema, copy);
+    }
+
+    AuditSchema<?> schema() {
+        return schema;
+    }
+
+    Object value(int index) {
+        return values[index];
+    }
+
+    boolean changed(AuditSnapshot before, int index) {
+        return !Objects.equals(before.values[index], values[index]);
+    }
+}
@@ -0,0 +1,276 @@
+package com.company.employeelifecycle.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Local append-only file of audit events that could not be handed to the database, one JSON object per line.
+ * Appends are forced to disk before returning. Events whose rows the database rejected outright go to a
+ * separate {@code .rejected} file for manual inspection, so they are kept without blocking replay.
+ * <p>
+ * Replay streams the file one batch at a time and records how far it got in a {@code .replay.offset} file, so a replay
+ * interrupted by a failure or a crash resumes where it stopped. The offset is written after the batch commits,
+ * so the last batch may be handed to the writer again: writers must skip events they already wrote.
+ */
+@Slf4j
+class AuditSpillFile {
+
+    /** Times the database returned a spilled event to be retried, stored with the event. */
+    private static final String ATTEMPTS = "replayAttempts";
+
+    private final Path path;
+    private final Path replayPath;
+    private final Path offsetPath;
+    private final Path rejectedPath;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong pending = new AtomicLong();
+
+    AuditSpillFile(Path path, ObjectMapper objectMapper) {
+        this.path = path.toAbsolutePath();
+        this.replayPath = this.path.resolveSibling(this.path.getFileName() + ".replay");
+        this.offsetPath = this.path.resolveSibling(this.path.getFileName() + ".replay.offset");
+        this.rejectedPath = this.path.resolveSibling(this.path.getFileName() + ".rejected");
+        this.objectMapper = objectMapper;
+        try {
+            Files.createDirectories(this.path.getParent());
+            pending.set(countLines(this.path, 0) + countLines(replayPath, readOffset()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit spill file " + this.path, e);
+        }
+        if (pending.get() > 0) {
+            log.warn("Audit spill file {} holds {} events waiting to be written", this.path, pending.get());
+        }
+    }
+
+    /**
+     * Durably append events.
+     *
+     * @throws UncheckedIOException if the events could not be written
+     */
+    synchronized void append(List<AuditEvent> events) {
+        write(path, spilled(events));
+        pending.addAndGet(events.size());
+    }
+
+    /**
+     * Durably keep events the database refused, outside the replay path.
+     */
+    synchronized void reject(List<AuditEvent> events) {
+        write(rejectedPath, spilled(events));
+    }
+
+    /**
+     * @return number of events in the spill file waiting to be written
+     */
+    long pending() {
+        return pending.get();
+    }
+
+    /**
+     * Hand all spilled events to {@code writer} in batches, oldest first. Appends may continue meanwhile.
+     * Events the writer returns are spilled again for a later replay, or set aside once they were returned
+     * {@code maxAttempts} times. If the writer throws, the exception is rethrown and the next replay resumes
+     * at the failed batch.
+     *
+     * @param writer      writes one batch, atomically, skipping events already written, and returns the events
+     *                    to retry later
+     * @param batchSize   events per batch
+     * @param maxAttempts times an event may be returned by the writer before it is set aside
+     * @return the outcome of the replay
+     */
+    Replay replay(Function<List<AuditEvent>, List<AuditEvent>> writer, int batchSize, int maxAttempts) {
+        long offset;
+        synchronized (this) {
+            try {
+                // A replay left by a failure or a crash is finished first; otherwise take over the current file
+                if (!Files.exists(replayPath)) {
+                    if (!Files.exists(path) || Files.size(path) == 0) {
+                        return new Replay(0, 0, 0);
+                    }
+                    Files.deleteIfExists(offsetPath);
+                    Files.move(path, replayPath, StandardCopyOption.ATOMIC_MOVE);
+                }
+                offset = readOffset();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open audit spill file " + replayPath, e);
+            }
+        }
+        int written = 0;
+        int deferred = 0;
+        int rejected = 0;
+        try (FileChannel channel = FileChannel.open(replayPath, StandardOpenOption.READ)) {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(offset)));
+            List<Spilled> batch = new ArrayList<>(batchSize);
+            long batchBytes;
+            while ((batchBytes = readBatch(in, batch, batchSize)) > 0) {
+                List<AuditEvent> events = batch.stream().map(Spilled::event).toList();
+                Set<UUID> retry = new HashSet<>();
+                for (AuditEvent event : events.isEmpty() ? List.<AuditEvent>of() : writer.apply(events)) {
+                    retry.add(event.id());
+                }
+                List<Spilled> again = new ArrayList<>();
+                List<Spilled> setAside = new ArrayList<>();
+                for (Spilled spilled : batch) {
+                    if (!retry.contains(spilled.event().id())) {
+                        written++;
+                    } else if (spilled.attempts() + 1 < maxAttempts) {
+                        again.add(new Spilled(spilled.event(), spilled.attempts() + 1));
+                    } else {
+                        log.error("Audit event {} still rejected by the database after {} attempts, set aside",
+                                spilled.event().id(), maxAttempts);
+                        setAside.add(new Spilled(spilled.event(), 0));
+                    }
+                }
+                synchronized (this) {
+                    write(path, again);
+                    write(rejectedPath, setAside);
+                }
+                offset += batchBytes;
+                writeOffset(offset);
+                pending.addAndGet(-(batch.size() - again.size()));
+                deferred += again.size();
+                rejected += setAside.size();
+                batch.clear();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read audit spill file " + replayPath, e);
+        }
+        synchronized (this) {
+            try {
+                Files.deleteIfExists(replayPath);
+                Files.deleteIfExists(offsetPath);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete audit replay file " + replayPath, e);
+            }
+        }
+        return new Replay(written, deferred, rejected);
+    }
+
+    private void write(Path target, List<Spilled> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder(events.size() * 256);
+        for (Spilled spilled : events) {
+            ObjectNode line = objectMapper.valueToTree(spilled.event());
+            if (spilled.attempts() > 0) {
+                line.put(ATTEMPTS, spilled.attempts());
+            }
+            lines.append(line).append('\n');
+        }
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to audit spill file " + target, e);
+        }
+    }
+
+    private static List<Spilled> spilled(List<AuditEvent> events) {
+        return events.stream().map(event -> new Spilled(event, 0)).toList();
+    }
+
+    /**
+     * Read up to {@code max} events.
+     *
+     * @return the number of bytes read, 0 at the end of the file
+     */
+    private long readBatch(InputStream in, List<Spilled> batch, int max) throws IOException {
+        long bytes = 0;
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        while (batch.size() < max) {
+            line.reset();
+            int b;
+            while ((b = in.read()) != -1 && b != '\n') {
+                line.write(b);
+            }
+            if (b == -1 && line.size() == 0) {
+                break;
+            }
+            bytes += line.size() + (b == -1 ? 0 : 1);
+            String text = line.toString(StandardCharsets.UTF_8);
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                ObjectNode node = (ObjectNode) objectMapper.readTree(text);
+                int attempts = node.path(ATTEMPTS).asInt(0);
+                node.remove(ATTEMPTS);
+                batch.add(new Spilled(objectMapper.treeToValue(node, AuditEvent.class), attempts));
+            } catch (JsonProcessingException | ClassCastException e) {
+                // Only the last line can be torn, by a crash during an append
+                log.error("Skipping unreadable line in audit spill file {}: {}", replayPath, text);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @return where to resume the replay file, 0 if unknown: replays are idempotent
+     */
+    private long readOffset() {
+        try {
+            return Files.exists(offsetPath) ? Long.parseLong(Files.readString(offsetPath).trim()) : 0;
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Cannot read audit replay offset {}, replaying from the start: {}", offsetPath, e.getMessage());
+            return 0;
+        }
+    }
+
+    private void writeOffset(long offset) {
+        try {
+            // Not forced: a stale offset only replays batches that are skipped as written
+            Files.writeString(offsetPath, Long.toString(offset));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write audit replay offset " + offsetPath, e);
+        }
+    }
+
+    private static long countLines(Path file, long offset) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             var lines = new BufferedReader(Channels.newReader(channel.position(offset),
+                     StandardCharsets.UTF_8)).lines()) {
+            return lines.filter(line -> !line.isBlank()).count();
+        }
+    }
+
+    /**
+     * The outcome of a replay: events written, spilled again to retry later, and set aside.
+     */
+    record Replay(int written, int deferred, int rejected) {
+    }
+
+    private record Spilled(AuditEvent event, int attempts) {
+    }
+}
@@ -1,13 +1,28 @@
 package com.company.employeelifecycle.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
 /**
  * JPA configuration to enable auditing support.
  * Enables automatic population of @CreatedDate and @LastModifiedDate fields.
  */
 @Configuration
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 public class JpaConfig {
+
+    /**
+     * Audit timestamps truncated to the database's microsecond precision, so that the in-memory value of a
+     * just-saved entity equals the stored one (keyset cursors built from it must match the row exactly).
+     */
+    @Bean
+    public DateTimeProvider auditingDateTimeProvider() {
+        return () -> Optional.of(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+    }
 }
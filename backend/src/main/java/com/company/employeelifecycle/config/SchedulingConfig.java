@@ -0,0 +1,12 @@
+package com.company.employeelifecycle.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (session maintenance and similar housekeeping).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
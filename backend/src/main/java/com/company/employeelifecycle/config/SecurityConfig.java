@@ -1,16 +1,29 @@
 package com.company.employeelifecycle.config;
 
+import com.company.employeelifecycle.security.BoundedPasswordEncoder;
+import com.company.employeelifecycle.security.CustomUserDetailsService;
+import com.company.employeelifecycle.security.LoginRateLimiter;
+import com.company.employeelifecycle.security.LoginThrottleFilter;
+import com.company.employeelifecycle.security.PrincipalRefreshFilter;
+import com.company.employeelifecycle.security.UserProfileChangeTracker;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 
+import java.time.Duration;
+
 /**
  * Spring Security configuration for session-based authentication.
  * Configures HTTP-only cookies, CSRF protection, and session management.
@@ -22,12 +35,25 @@ public class SecurityConfig {
 
     private final com.company.employeelifecycle.security.AuthenticationSuccessHandler authenticationSuccessHandler;
     private final com.company.employeelifecycle.security.AuthenticationFailureHandler authenticationFailureHandler;
+    private final UserProfileChangeTracker userProfileChangeTracker;
+    private final CustomUserDetailsService userDetailsService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/auth/login", "/api/health").permitAll()
+                .requestMatchers("/api/auth/login", "/api/health", "/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("SYSTEM_ADMIN")
+                .requestMatchers("/api/audit/**").hasAnyRole("HR_ADMIN", "SYSTEM_ADMIN")
+                .requestMatchers("/api/employees/**").hasAnyRole("HR_ADMIN", "SYSTEM_ADMIN")
+                .requestMatchers("/api/reports/**").hasAnyRole("HR_ADMIN", "SYSTEM_ADMIN")
+                // Every role has a dashboard; what it shows is filtered by role (DashboardAggregates)
+                .requestMatchers("/api/dashboard/**")
+                    .hasAnyRole("HR_ADMIN", "MANAGER", "TECH_SUPPORT", "FINANCE", "SYSTEM_ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/workflows").hasRole("HR_ADMIN")
+                // Lists every employee's name, department and start date, like /api/employees
+                .requestMatchers(HttpMethod.GET, "/api/workflows/**").hasAnyRole("HR_ADMIN", "SYSTEM_ADMIN")
                 .requestMatchers("/api/**").authenticated()
                 .anyRequest().permitAll()
             )
@@ -35,11 +61,19 @@ public class SecurityConfig {
                 .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
                 .maximumSessions(1)
                 .maxSessionsPreventsLogin(false)
+                // Uses the SessionRegistry bean when present: with the shared session store
+                // (SessionConfig) concurrency control is enforced across all nodes
             )
             .sessionManagement(session -> session
                 .sessionFixation().changeSessionId()
                 .invalidSessionUrl("/api/auth/login")
             )
+            // Reload principals whose user changed since login, before authorization decisions
+            .addFilterBefore(new PrincipalRefreshFilter(userProfileChangeTracker, userDetailsService),
+                AuthorizationFilter.class)
+            // Rate-limit login submissions before any password is hashed
+            .addFilterBefore(new LoginThrottleFilter(loginRateLimiter, authenticationFailureHandler),
+                UsernamePasswordAuthenticationFilter.class)
             .formLogin(form -> form
                 .loginProcessingUrl("/api/auth/login")
                 .usernameParameter("email")
@@ -71,8 +105,16 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * BCrypt (strength 12) with verification confined to a bounded executor,
+     * so login bursts cannot starve request threads serving the rest of the API.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${app.security.password.verify-threads:0}") int threads,
+                                           @Value("${app.security.password.verify-queue-capacity:64}") int queueCapacity,
+                                           @Value("${app.security.password.verify-timeout:5s}") Duration timeout) {
+        int workers = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(12), workers, queueCapacity, timeout, meterRegistry);
     }
 }
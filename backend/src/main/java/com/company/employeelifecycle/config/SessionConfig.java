@@ -0,0 +1,68 @@
+package com.company.employeelifecycle.config;
+
+import com.company.employeelifecycle.session.SharedSession;
+import com.company.employeelifecycle.session.SharedSessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.security.SpringSessionBackedSessionRegistry;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Shared, database-backed HTTP sessions so the backend can run on several nodes (NFR19).
+ * Enabled with app.session.store=jdbc (the default); any other value falls back to
+ * container sessions, which the test profile uses.
+ */
+@Configuration
+@EnableSpringHttpSession
+@ConditionalOnProperty(name = "app.session.store", havingValue = "jdbc", matchIfMissing = true)
+public class SessionConfig {
+
+    @Bean
+    public SharedSessionRepository sessionRepository(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                                     MeterRegistry meterRegistry,
+                                                     @Value("${server.servlet.session.timeout:30m}") Duration timeout,
+                                                     @Value("${app.session.near-cache.max-size:10000}") long nearCacheMaxSize,
+                                                     @Value("${app.session.near-cache.ttl:10m}") Duration nearCacheTtl) {
+        return new SharedSessionRepository(jdbcTemplate, transactionTemplate, timeout, nearCacheMaxSize, nearCacheTtl,
+                Clock.systemUTC(), meterRegistry);
+    }
+
+    /**
+     * Cluster-wide session registry used by Spring Security's maximumSessions(1) control.
+     */
+    @Bean
+    public SpringSessionBackedSessionRegistry<SharedSession> sessionRegistry(SharedSessionRepository sessionRepository) {
+        return new SpringSessionBackedSessionRegistry<>(sessionRepository);
+    }
+
+    /**
+     * Periodic session maintenance: batched last-access writes and expiry cleanup.
+     */
+    @Configuration
+    @RequiredArgsConstructor
+    @ConditionalOnProperty(name = "app.session.store", havingValue = "jdbc", matchIfMissing = true)
+    static class SessionMaintenance {
+
+        private final SharedSessionRepository sessionRepository;
+
+        @Scheduled(fixedDelayString = "${app.session.access-flush-interval:PT10S}")
+        public void flushPendingAccessTimes() {
+            sessionRepository.flushPendingAccessTimes();
+        }
+
+        @Scheduled(fixedDelayString = "${app.session.cleanup-interval:PT1M}")
+        public void cleanUpExpiredSessions() {
+            sessionRepository.cleanUpExpiredSessions();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.company.employeelifecycle.controller;
+
+import com.company.employeelifecycle.audit.AuditChainVerificationJobs;
+import com.company.employeelifecycle.audit.AuditExportFormat;
+import com.company.employeelifecycle.dto.response.AuditChainVerificationJobResponse;
+import com.company.employeelifecycle.dto.response.AuditLogResponse;
+import com.company.employeelifecycle.dto.response.CursorPage;
+import com.company.employeelifecycle.enums.EntityType;
+import com.company.employeelifecycle.service.AuditExportService;
+import com.company.employeelifecycle.service.AuditService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Audit trail REST controller (HR admins and system admins, see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/audit")
+@RequiredArgsConstructor
+public class AuditController {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    private final AuditService auditService;
+    private final AuditExportService auditExportService;
+    private final AuditChainVerificationJobs auditChainVerificationJobs;
+
+    /**
+     * Get the audit trail of an entity ({@code entityType} and {@code entityId}) or of a user ({@code userId}),
+     * newest first, one page at a time. Pass the returned {@code nextCursor} as {@code cursor} to fetch the next page.
+     * An optional {@code from} (inclusive) / {@code to} (exclusive) range limits the search to the matching months.
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<AuditLogResponse>> getAuditTrail(
+            @RequestParam(required = false) EntityType entityType,
+            @RequestParam(required = false) UUID entityId,
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int size) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (entityType != null && entityId != null) {
+            return ResponseEntity.ok(auditService.getEntityHistory(entityType, entityId, from, to, cursor, size));
+        }
+        if (userId != null) {
+            return ResponseEntity.ok(auditService.getUserActivity(userId, from, to, cursor, size));
+        }
+        return ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * Export the audit logs of a time range, oldest first, as NDJSON or CSV, optionally only those of one entity
+     * ({@code entityType}, optionally with {@code entityId}) or one user ({@code userId}). The export is streamed
+     * as it is read, so it may cover any number of months.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAuditTrail(
+            @RequestParam(defaultValue = "NDJSON") AuditExportFormat format,
+            @RequestParam(required = false) EntityType entityType,
+            @RequestParam(required = false) UUID entityId,
+            @RequestParam(required = false) UUID userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to) || (entityId != null && entityType == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        String filename = "audit-" + from.toLocalDate() + "-" + to.toLocalDate() + "." + format.extension();
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build()
+                        .toString())
+                .body(out -> auditExportService.export(format, entityType, entityId, userId, from, to, out));
+    }
+
+    /**
+     * Start verifying the audit hash chain end to end in the background, or return the verification already
+     * running. Poll the job at the returned location for the first broken link of every broken segment.
+     */
+    @PostMapping("/verify")
+    public ResponseEntity<AuditChainVerificationJobResponse> verifyAuditChain() {
+        AuditChainVerificationJobResponse job = auditChainVerificationJobs.start();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/audit/verify/" + job.getJobId()))
+                .body(job);
+    }
+
+    /**
+     * Get a verification job of the audit hash chain, kept for a day on the node that ran it.
+     */
+    @GetMapping("/verify/{jobId}")
+    public ResponseEntity<AuditChainVerificationJobResponse> getAuditChainVerification(@PathVariable UUID jobId) {
+        return auditChainVerificationJobs.get(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
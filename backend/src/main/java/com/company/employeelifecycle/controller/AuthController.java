@@ -1,16 +1,16 @@
 package com.company.employeelifecycle.controller;
 
 import com.company.employeelifecycle.dto.response.LoginResponse;
-import com.company.employeelifecycle.entity.User;
-import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.mapper.UserMapper;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import com.company.employeelifecycle.security.CustomUserDetailsService;
+import com.company.employeelifecycle.util.ETags;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
-
-import java.security.Principal;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Authentication REST controller handling login, logout, and user session endpoints.
@@ -20,36 +20,32 @@ import java.security.Principal;
 @RequiredArgsConstructor
 public class AuthController {
 
-    private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserMapper userMapper;
 
     /**
      * Get current authenticated user profile.
+     * Served from the {@link AuthenticatedUser} principal in the SecurityContext; principals of
+     * other types (e.g. sessions created before this principal existed) are resolved by email.
+     * The ETag is the principal's identity and version: principals are reloaded whenever their user changes.
      * Note: Actual login is handled by Spring Security form login at /api/auth/login
      */
     @GetMapping("/me")
-    public ResponseEntity<LoginResponse> getCurrentUser(Principal principal) {
-        if (principal == null) {
+    public ResponseEntity<LoginResponse> getCurrentUser(Authentication authentication, WebRequest request) {
+        if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        String email = principal.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        LoginResponse.UserData userData = LoginResponse.UserData.builder()
-                .id(user.getId())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .role(user.getRole().name())
-                .build();
+        AuthenticatedUser principal = authentication.getPrincipal() instanceof AuthenticatedUser user
+                ? user
+                : userDetailsService.loadUserByUsername(authentication.getName());
 
-        LoginResponse response = LoginResponse.builder()
-                .success(true)
-                .user(userData)
-                .build();
-
-        return ResponseEntity.ok(response);
+        String etag = ETags.weak(principal.getId(), principal.getVersion());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(ETags.revalidate()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.revalidate())
+                .body(userMapper.toLoginResponse(userMapper.toUserData(principal)));
     }
 
     /**
@@ -0,0 +1,53 @@
+package com.company.employeelifecycle.controller;
+
+import com.company.employeelifecycle.dashboard.DashboardAggregates;
+import com.company.employeelifecycle.dashboard.DashboardStream;
+import com.company.employeelifecycle.dto.response.DashboardSummaryResponse;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import com.company.employeelifecycle.util.ETags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Dashboard REST controller.
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardAggregates dashboardAggregates;
+    private final DashboardStream dashboardStream;
+
+    /**
+     * Get workflow and task counts: organization-wide ones served from memory for HR and system admins, counts of
+     * their own tasks for other users. Answers 304 to an {@code If-None-Match} with the current ETag.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<DashboardSummaryResponse> getSummary(@AuthenticationPrincipal AuthenticatedUser user,
+                                                               WebRequest request) {
+        String etag = dashboardAggregates.summaryETag(user.getId(), user.getRole());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(ETags.revalidate()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.revalidate())
+                .body(dashboardAggregates.summary(user.getId(), user.getRole()));
+    }
+
+    /**
+     * Stream dashboard changes as Server-Sent Events: a {@code summary} event, then {@code deltas} events with the
+     * changes the user may see, and a {@code resync} event with a fresh summary whenever the stream fell behind.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(dashboardStream.subscribe(user.getId(), user.getRole()));
+    }
+}
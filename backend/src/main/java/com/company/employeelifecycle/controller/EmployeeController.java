@@ -0,0 +1,86 @@
+package com.company.employeelifecycle.controller;
+
+import com.company.employeelifecycle.dto.response.EmployeeDataExportResponse;
+import com.company.employeelifecycle.dto.response.EmployeeSearchResultResponse;
+import com.company.employeelifecycle.enums.EmployeeStatus;
+import com.company.employeelifecycle.search.EmployeeSearchIndex;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import com.company.employeelifecycle.service.EmployeeDataExport;
+import com.company.employeelifecycle.service.EmployeeDataExportService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Employee REST controller (HR admins and system admins, see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/employees")
+@RequiredArgsConstructor
+public class EmployeeController {
+
+    static final String EXPORT_ID_HEADER = "X-Export-Id";
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_SEARCH_LIMIT = 200;
+
+    private final EmployeeDataExportService employeeDataExportService;
+    private final EmployeeSearchIndex employeeSearchIndex;
+
+    /**
+     * Search employees by name, email and department ({@code q}), tolerating typos and partial words, optionally
+     * only those in a {@code status} or starting in a {@code startFrom} (inclusive) / {@code startTo} (exclusive)
+     * range. Served from an in-memory index; results are ranked best first.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<EmployeeSearchResultResponse>> searchEmployees(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) EmployeeStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startTo,
+            @RequestParam(defaultValue = "" + DEFAULT_SEARCH_LIMIT) @Min(1) @Max(MAX_SEARCH_LIMIT) int limit) {
+        if (startFrom != null && startTo != null && !startFrom.isBefore(startTo)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(employeeSearchIndex.search(q, status, startFrom, startTo, limit));
+    }
+
+    /**
+     * Export everything stored about an employee as a ZIP archive of NDJSON files, one per table, and a manifest.
+     * The archive is streamed as it is generated; its progress can be polled with the ID returned in the
+     * {@value #EXPORT_ID_HEADER} header.
+     */
+    @GetMapping("/{employeeId}/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployeeData(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable UUID employeeId) {
+        EmployeeDataExport export = employeeDataExportService.start(employeeId, user.getId());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("employee-" + employeeId + ".zip").build().toString())
+                .header(EXPORT_ID_HEADER, export.getId().toString())
+                .body(out -> employeeDataExportService.write(export, out));
+    }
+
+    /**
+     * Get the progress of an employee data export, for up to an hour after its last update.
+     */
+    @GetMapping("/exports/{exportId}")
+    public ResponseEntity<EmployeeDataExportResponse> getExportProgress(@PathVariable UUID exportId) {
+        return employeeDataExportService.getProgress(exportId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
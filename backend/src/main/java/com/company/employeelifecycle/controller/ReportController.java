@@ -0,0 +1,57 @@
+package com.company.employeelifecycle.controller;
+
+import com.company.employeelifecycle.dto.response.CompletionReportResponse;
+import com.company.employeelifecycle.enums.ReportDimension;
+import com.company.employeelifecycle.service.CompletionReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * Process metrics REST controller (HR admins and system admins, see SecurityConfig). Reports are served from
+ * daily rollups, which lag task completions by a few minutes.
+ */
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final CompletionReportService completionReportService;
+
+    /**
+     * Report task completion times (P50/P90/P95) and due date compliance for the tasks completed between
+     * {@code from} (inclusive) and {@code to} (exclusive), grouped by {@code groupBy}.
+     */
+    @GetMapping("/tasks")
+    public ResponseEntity<CompletionReportResponse> getTaskReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "TEMPLATE") ReportDimension groupBy) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(completionReportService.getTaskReport(from, to, groupBy));
+    }
+
+    /**
+     * Report workflow completion times (P50/P90/P95) for the instances whose last task was completed between
+     * {@code from} (inclusive) and {@code to} (exclusive), grouped by template or department.
+     */
+    @GetMapping("/workflows")
+    public ResponseEntity<CompletionReportResponse> getWorkflowReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "TEMPLATE") ReportDimension groupBy) {
+        if (!from.isBefore(to)
+                || groupBy != ReportDimension.TEMPLATE && groupBy != ReportDimension.DEPARTMENT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(completionReportService.getWorkflowReport(from, to, groupBy));
+    }
+}
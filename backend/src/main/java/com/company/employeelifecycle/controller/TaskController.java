@@ -0,0 +1,92 @@
+package com.company.employeelifecycle.controller;
+
+import com.company.employeelifecycle.dto.response.CursorPage;
+import com.company.employeelifecycle.dto.response.TaskCompletionResponse;
+import com.company.employeelifecycle.dto.response.TaskDependencyNodeResponse;
+import com.company.employeelifecycle.dto.response.TaskResponse;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import com.company.employeelifecycle.service.TaskService;
+import com.company.employeelifecycle.util.ETags;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Task REST controller.
+ */
+@RestController
+@RequestMapping("/api/tasks")
+@RequiredArgsConstructor
+public class TaskController {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int DEFAULT_DEPENDENCY_DEPTH = 20;
+    static final int MAX_DEPENDENCY_DEPTH = 100;
+
+    private final TaskService taskService;
+
+    /**
+     * Get the current user's task inbox, newest first, one page at a time.
+     * Pass the returned {@code nextCursor} as {@code cursor} to fetch the next page.
+     * Answers 304 to an {@code If-None-Match} with the current ETag, without loading the page.
+     */
+    @GetMapping("/inbox")
+    public ResponseEntity<CursorPage<TaskResponse>> getInbox(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int size,
+            WebRequest request) {
+        String etag = taskService.getInboxETag(user.getId(), status, cursor, size);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(ETags.revalidate()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.revalidate())
+                .body(taskService.getInbox(user.getId(), status, cursor, size));
+    }
+
+    /**
+     * Get the full chain of tasks blocking a task: its prerequisites, their prerequisites, and so on.
+     * Only for the task's assignee and admins.
+     */
+    @GetMapping("/{id}/upstream")
+    public ResponseEntity<List<TaskDependencyNodeResponse>> getUpstream(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "" + DEFAULT_DEPENDENCY_DEPTH) @Min(1) @Max(MAX_DEPENDENCY_DEPTH) int maxDepth) {
+        return ResponseEntity.ok(taskService.getUpstream(id, user.getId(), user.getRole(), maxDepth));
+    }
+
+    /**
+     * Get the full chain of tasks a task delays: its dependents, their dependents, and so on.
+     * Only for the task's assignee and admins.
+     */
+    @GetMapping("/{id}/downstream")
+    public ResponseEntity<List<TaskDependencyNodeResponse>> getDownstream(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "" + DEFAULT_DEPENDENCY_DEPTH) @Min(1) @Max(MAX_DEPENDENCY_DEPTH) int maxDepth) {
+        return ResponseEntity.ok(taskService.getDownstream(id, user.getId(), user.getRole(), maxDepth));
+    }
+
+    /**
+     * Complete a task. The response lists the dependent tasks that became ready as a result;
+     * completing a task that still has unmet prerequisites returns 409.
+     */
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<TaskCompletionResponse> completeTask(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable UUID id) {
+        return ResponseEntity.ok(taskService.completeTask(id, user.getId(), user.getRole()));
+    }
+}
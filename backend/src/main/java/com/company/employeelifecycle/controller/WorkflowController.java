@@ -0,0 +1,63 @@
+package com.company.employeelifecycle.controller;
+
+import com.company.employeelifecycle.dto.request.CreateWorkflowRequest;
+import com.company.employeelifecycle.dto.response.CursorPage;
+import com.company.employeelifecycle.dto.response.WorkflowForecastResponse;
+import com.company.employeelifecycle.dto.response.WorkflowResponse;
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import com.company.employeelifecycle.service.WorkflowService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Workflow REST controller.
+ */
+@RestController
+@RequestMapping("/api/workflows")
+@RequiredArgsConstructor
+public class WorkflowController {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final WorkflowService workflowService;
+
+    /**
+     * Start a workflow for an employee from a template (HR admins, see SecurityConfig).
+     */
+    @PostMapping
+    public ResponseEntity<WorkflowResponse> createWorkflow(@AuthenticationPrincipal AuthenticatedUser user,
+                                                           @Valid @RequestBody CreateWorkflowRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(workflowService.createWorkflow(request, user.getId()));
+    }
+
+    /**
+     * Get workflow instances, newest first, one page at a time.
+     * Pass the returned {@code nextCursor} as {@code cursor} to fetch the next page.
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<WorkflowResponse>> getWorkflows(
+            @RequestParam(required = false) WorkflowInstanceStatus status,
+            @RequestParam(required = false) UUID employeeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(workflowService.getWorkflows(status, employeeId, cursor, size));
+    }
+
+    /**
+     * Get the estimated completion of a workflow instance (P50 and P90), recomputed when one of its tasks changes.
+     */
+    @GetMapping("/{id}/forecast")
+    public ResponseEntity<WorkflowForecastResponse> getForecast(@PathVariable UUID id) {
+        return ResponseEntity.ok(workflowService.getForecast(id));
+    }
+}
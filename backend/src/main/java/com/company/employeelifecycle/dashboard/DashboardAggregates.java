@@ -0,0 +1,238 @@
+package com.company.employeelifecycle.dashboard;
+
+import com.company.employeelifecycle.dto.response.DashboardSummaryResponse;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import com.company.employeelifecycle.enums.WorkflowType;
+import com.company.employeelifecycle.event.TaskStatusChangedEvent;
+import com.company.employeelifecycle.event.WorkflowStartedEvent;
+import com.company.employeelifecycle.repository.DashboardAggregateRepository;
+import com.company.employeelifecycle.repository.DashboardAggregateRepository.AssignedTasksVersion;
+import com.company.employeelifecycle.repository.DashboardAggregateRepository.TaskCount;
+import com.company.employeelifecycle.repository.DashboardAggregateRepository.WorkflowCount;
+import com.company.employeelifecycle.util.ETags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory counts behind the dashboard: workflow instances by status, department and workflow type, tasks by
+ * status, and open tasks by due date (for overdue counts).
+ * <p>
+ * Counts are seeded from one GROUP BY per table at startup, then kept current from {@link WorkflowStartedEvent}
+ * and {@link TaskStatusChangedEvent} once their transaction commits. Each count is a {@link LongAdder}, so
+ * concurrent updates do not contend on one cache line, and a summary only sums a few dozen adders instead of
+ * querying. Overdue tasks are the open tasks due before today, read off the head of a map sorted by due date,
+ * so they need no update when the date changes.
+ * <p>
+ * Each node only sees its own changes, and changes committed while a rebuild is reading may be missed, so the
+ * counts are rebuilt from the database every {@code app.dashboard.rebuild-interval}.
+ * <p>
+ * The counts are organization-wide and only shown to HR and system admins. Other users get a summary of the
+ * tasks assigned to them, counted in the database.
+ */
+@Slf4j
+@Component
+public class DashboardAggregates {
+
+    /** Department key of employees without one. */
+    static final String NO_DEPARTMENT = "UNASSIGNED";
+
+    private final DashboardAggregateRepository repository;
+    private volatile Counts counts = new Counts(null);
+
+    public DashboardAggregates(DashboardAggregateRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Replace the counts with fresh ones from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.dashboard.rebuild-interval:PT5M}",
+            initialDelayString = "${app.dashboard.rebuild-interval:PT5M}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        Counts rebuilt = new Counts(LocalDateTime.now());
+        for (WorkflowCount row : repository.countWorkflows()) {
+            rebuilt.workflow(row.status(), row.department(), row.type()).add(row.instances());
+        }
+        for (TaskCount row : repository.countTasks()) {
+            rebuilt.addTasks(row.status(), row.dueDate(), row.tasks());
+        }
+        counts = rebuilt;
+        log.debug("Rebuilt dashboard aggregates in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWorkflowStarted(WorkflowStartedEvent event) {
+        Counts current = counts;
+        current.workflow(event.status(), event.department(), event.type()).increment();
+        for (LocalDate dueDate : event.taskDueDates()) {
+            current.addTasks(TaskStatus.NOT_STARTED, dueDate, 1);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskStatusChanged(TaskStatusChangedEvent event) {
+        Counts current = counts;
+        current.addTasks(event.from(), event.dueDate(), -1);
+        current.addTasks(event.to(), event.dueDate(), 1);
+    }
+
+    /**
+     * @param role a user's role
+     * @return true if the user may see organization-wide counts and every change; other users only see the
+     * tasks assigned to them
+     */
+    public static boolean seesEverything(UserRole role) {
+        return role == UserRole.HR_ADMIN || role == UserRole.SYSTEM_ADMIN;
+    }
+
+    /**
+     * Identify the current {@link #summary(UUID, UserRole)} without counting the user's tasks, so that a
+     * conditional request is answered before any aggregate query: for admins from the in-memory counts, for other
+     * users from the version of their tasks, read with one single-row aggregate. Either way from the data only,
+     * so every node agrees on it, and with the date, which moves tasks into the overdue count.
+     *
+     * @param userId the user the summary is for
+     * @param role   the user's role
+     * @return the weak ETag of the summary
+     */
+    public String summaryETag(UUID userId, UserRole role) {
+        if (!seesEverything(role)) {
+            AssignedTasksVersion version = repository.findAssignedTasksVersion(userId);
+            return ETags.weak(userId, version.tasks(), version.updatedAt(), LocalDate.now());
+        }
+        DashboardSummaryResponse summary = summary();
+        return ETags.weak(summary.getWorkflowsByStatus(), summary.getWorkflowsByDepartment(),
+                summary.getWorkflowsByType(), summary.getTasksByStatus(), summary.getOverdueTasks(),
+                summary.getAsOf());
+    }
+
+    /**
+     * @param userId the user the summary is for
+     * @param role   the user's role
+     * @return the current counts for admins, otherwise the counts of the user's own tasks, with no workflows
+     * (they have no assignee)
+     */
+    public DashboardSummaryResponse summary(UUID userId, UserRole role) {
+        if (seesEverything(role)) {
+            return summary();
+        }
+        LocalDate today = LocalDate.now();
+        Map<String, Long> tasksByStatus = new LinkedHashMap<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            tasksByStatus.put(status.name(), 0L);
+        }
+        long overdue = 0;
+        for (TaskCount row : repository.countTasksAssignedTo(userId)) {
+            tasksByStatus.merge(row.status().name(), row.tasks(), Long::sum);
+            if (row.dueDate() != null && row.dueDate().isBefore(today)) {
+                overdue += row.tasks();
+            }
+        }
+        return DashboardSummaryResponse.builder()
+                .workflowsByStatus(Map.of())
+                .workflowsByDepartment(Map.of())
+                .workflowsByType(Map.of())
+                .tasksByStatus(tasksByStatus)
+                .overdueTasks(overdue)
+                .asOf(today)
+                .rebuiltAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * @return the current organization-wide counts, with overdue tasks as of today
+     */
+    public DashboardSummaryResponse summary() {
+        Counts current = counts;
+        LocalDate today = LocalDate.now();
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (WorkflowInstanceStatus status : WorkflowInstanceStatus.values()) {
+            byStatus.put(status.name(), 0L);
+        }
+        Map<String, Map<String, Long>> byDepartment = new TreeMap<>();
+        Map<String, Map<String, Long>> byType = new TreeMap<>();
+        current.workflows.forEach((key, adder) -> {
+            long instances = adder.sum();
+            if (instances == 0) {
+                return;
+            }
+            String status = key.status().name();
+            byStatus.merge(status, instances, Long::sum);
+            byDepartment.computeIfAbsent(key.department(), k -> new TreeMap<>()).merge(status, instances, Long::sum);
+            byType.computeIfAbsent(key.type().name(), k -> new TreeMap<>()).merge(status, instances, Long::sum);
+        });
+        Map<String, Long> tasksByStatus = new LinkedHashMap<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            tasksByStatus.put(status.name(), current.tasks[status.ordinal()].sum());
+        }
+        long overdue = 0;
+        for (LongAdder adder : current.openTasksByDueDate.headMap(today).values()) {
+            overdue += adder.sum();
+        }
+        return DashboardSummaryResponse.builder()
+                .workflowsByStatus(byStatus)
+                .workflowsByDepartment(byDepartment)
+                .workflowsByType(byType)
+                .tasksByStatus(tasksByStatus)
+                .overdueTasks(overdue)
+                .asOf(today)
+                .rebuiltAt(current.rebuiltAt)
+                .build();
+    }
+
+    private record WorkflowKey(WorkflowInstanceStatus status, String department, WorkflowType type) {
+    }
+
+    /**
+     * One generation of counts; a rebuild replaces the whole generation.
+     */
+    private static final class Counts {
+
+        private final LocalDateTime rebuiltAt;
+        private final ConcurrentMap<WorkflowKey, LongAdder> workflows = new ConcurrentHashMap<>();
+        private final LongAdder[] tasks = new LongAdder[TaskStatus.values().length];
+        private final ConcurrentNavigableMap<LocalDate, LongAdder> openTasksByDueDate = new ConcurrentSkipListMap<>();
+
+        private Counts(LocalDateTime rebuiltAt) {
+            this.rebuiltAt = rebuiltAt;
+            for (int i = 0; i < tasks.length; i++) {
+                tasks[i] = new LongAdder();
+            }
+        }
+
+        private LongAdder workflow(WorkflowInstanceStatus status, String department, WorkflowType type) {
+            return workflows.computeIfAbsent(
+                    new WorkflowKey(status, department != null ? department : NO_DEPARTMENT, type),
+                    key -> new LongAdder());
+        }
+
+        private void addTasks(TaskStatus status, LocalDate dueDate, long delta) {
+            tasks[status.ordinal()].add(delta);
+            if (status != TaskStatus.COMPLETED && dueDate != null) {
+                openTasksByDueDate.computeIfAbsent(dueDate, date -> new LongAdder()).add(delta);
+            }
+        }
+    }
+}
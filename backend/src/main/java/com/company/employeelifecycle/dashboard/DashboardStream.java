@@ -0,0 +1,355 @@
+package com.company.employeelifecycle.dashboard;
+
+import com.company.employeelifecycle.dto.response.DashboardDeltaResponse;
+import com.company.employeelifecycle.enums.DashboardDeltaType;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.event.TaskStatusChangedEvent;
+import com.company.employeelifecycle.event.WorkflowStartedEvent;
+import com.company.employeelifecycle.exception.TooManySubscribersException;
+import com.company.employeelifecycle.repository.DashboardAggregateRepository;
+import com.company.employeelifecycle.repository.DashboardAggregateRepository.OpenTask;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes dashboard changes to browsers over Server-Sent Events, so that open dashboards do not poll.
+ * <p>
+ * A subscriber first receives a {@code summary} event with the {@link DashboardAggregates} counts its user may
+ * see. Committed changes are then queued on every subscriber allowed to see them (see
+ * {@link DashboardSubscriber#canSee}) and sent every {@code app.dashboard.stream.flush-interval} as one
+ * {@code deltas} event, coalesced per entity. A subscriber whose buffer overflows gets a {@code resync} event
+ * with a fresh summary instead. Idle streams get a comment line every
+ * {@code app.dashboard.stream.heartbeat-interval} to keep proxies from closing them.
+ * <p>
+ * Streams are async requests, so an idle connection holds no thread; one scheduler thread and a fixed pool of
+ * {@code app.dashboard.stream.sender-threads} sender threads serve all of them, fed by a queue of at most
+ * {@code app.dashboard.stream.send-queue-capacity} sends. A subscriber has at most one send queued or running,
+ * so one whose previous send is still blocked on a slow connection is skipped until it finishes; its changes
+ * pile up in its bounded buffer and turn into a resync. When the queue is full, the send is put off to the next
+ * flush the same way. A subscriber whose write has been blocked for longer than
+ * {@code app.dashboard.stream.send-timeout} is dropped: it gets no more changes and its stream is completed once
+ * the write returns, at the latest when the servlet container's write timeout fails it. Until then it holds one
+ * sender thread, so only as many stalled clients as there are sender threads can slow the other streams down.
+ * Tasks that became overdue are looked up once per day change. Each node pushes the changes committed on it.
+ */
+@Slf4j
+@Component
+public class DashboardStream implements SmartLifecycle {
+
+    private final DashboardAggregates aggregates;
+    private final DashboardAggregateRepository repository;
+    private final ConcurrentMap<UUID, DashboardSubscriber> subscribers = new ConcurrentHashMap<>();
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration flushInterval;
+    private final long heartbeatIntervalNanos;
+    private final Duration timeout;
+    private final int senderThreads;
+    private final int sendQueueCapacity;
+    private final long sendTimeoutNanos;
+    private final Counter resyncs;
+    private final Counter disconnects;
+    private final Counter stalls;
+    private final Counter deferrals;
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService senders;
+    private LocalDate overdueCheckedOn;
+
+    public DashboardStream(DashboardAggregates aggregates,
+                           DashboardAggregateRepository repository,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.dashboard.stream.buffer-size:256}") int bufferSize,
+                           @Value("${app.dashboard.stream.max-subscribers:10000}") int maxSubscribers,
+                           @Value("${app.dashboard.stream.flush-interval:1s}") Duration flushInterval,
+                           @Value("${app.dashboard.stream.heartbeat-interval:15s}") Duration heartbeatInterval,
+                           @Value("${app.dashboard.stream.timeout:30m}") Duration timeout,
+                           @Value("${app.dashboard.stream.sender-threads:4}") int senderThreads,
+                           @Value("${app.dashboard.stream.send-queue-capacity:1000}") int sendQueueCapacity,
+                           @Value("${app.dashboard.stream.send-timeout:10s}") Duration sendTimeout) {
+        this.aggregates = aggregates;
+        this.repository = repository;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.flushInterval = flushInterval;
+        this.heartbeatIntervalNanos = heartbeatInterval.toNanos();
+        this.timeout = timeout;
+        this.senderThreads = senderThreads;
+        this.sendQueueCapacity = sendQueueCapacity;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.resyncs = Counter.builder("dashboard.stream.resyncs")
+                .description("Dashboard streams that fell behind and were sent the full summary")
+                .register(meterRegistry);
+        this.disconnects = Counter.builder("dashboard.stream.disconnects")
+                .description("Dashboard streams closed by timeouts or failed sends")
+                .register(meterRegistry);
+        this.stalls = Counter.builder("dashboard.stream.stalls")
+                .description("Dashboard streams dropped because a send was blocked for longer than the send timeout")
+                .register(meterRegistry);
+        this.deferrals = Counter.builder("dashboard.stream.deferrals")
+                .description("Dashboard sends put off to the next flush because the send queue was full")
+                .register(meterRegistry);
+        Gauge.builder("dashboard.stream.subscribers", subscribers, ConcurrentMap::size)
+                .description("Open dashboard streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream for a user. The stream times out after {@code app.dashboard.stream.timeout}; browsers'
+     * EventSource reconnects and receives a fresh summary.
+     *
+     * @param userId the subscribing user
+     * @param role   the user's role, which decides what the stream shows
+     * @return the emitter to return from the controller
+     * @throws TooManySubscribersException if the node already serves {@code app.dashboard.stream.max-subscribers}
+     */
+    public SseEmitter subscribe(UUID userId, UserRole role) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new TooManySubscribersException("This node already serves " + maxSubscribers + " dashboard streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        DashboardSubscriber subscriber = new DashboardSubscriber(userId, role, emitter, bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber.getId()));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        // Registered before the summary is sent so that no change is missed, but held back until it is
+        subscriber.tryStartSending();
+        subscribers.put(subscriber.getId(), subscriber);
+        try {
+            emitter.send(SseEmitter.event().name("summary").data(aggregates.summary(userId, role)));
+        } catch (IOException e) {
+            remove(subscriber);
+            emitter.completeWithError(e);
+        } finally {
+            subscriber.finishSending();
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWorkflowStarted(WorkflowStartedEvent event) {
+        publish(DashboardDeltaResponse.builder()
+                .type(DashboardDeltaType.WORKFLOW_STATUS_CHANGED)
+                .entityId(event.instanceId())
+                .workflowInstanceId(event.instanceId())
+                .status(event.status().name())
+                .department(event.department())
+                .workflowType(event.type().name())
+                .occurredAt(LocalDateTime.now())
+                .build(), null);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskStatusChanged(TaskStatusChangedEvent event) {
+        if (event.to() != TaskStatus.COMPLETED) {
+            return;
+        }
+        publish(DashboardDeltaResponse.builder()
+                .type(DashboardDeltaType.TASK_COMPLETED)
+                .entityId(event.taskId())
+                .workflowInstanceId(event.workflowInstanceId())
+                .status(event.to().name())
+                .dueDate(event.dueDate())
+                .occurredAt(LocalDateTime.now())
+                .build(), event.assignedTo());
+    }
+
+    private void publish(DashboardDeltaResponse delta, UUID assignedTo) {
+        for (DashboardSubscriber subscriber : subscribers.values()) {
+            if (subscriber.canSee(assignedTo) && !subscriber.offer(delta)) {
+                resyncs.increment();
+            }
+        }
+    }
+
+    /**
+     * Send pending deltas and heartbeats. Runs on the scheduler thread every flush interval.
+     */
+    void flush() {
+        publishOverdueTasks();
+        long now = System.nanoTime();
+        for (DashboardSubscriber subscriber : subscribers.values()) {
+            if (subscriber.isStalled(now, sendTimeoutNanos)) {
+                drop(subscriber);
+                continue;
+            }
+            boolean heartbeat = now - subscriber.getLastSentNanos() >= heartbeatIntervalNanos;
+            if ((heartbeat || subscriber.hasPending()) && subscriber.tryStartSending()) {
+                try {
+                    senders.execute(() -> send(subscriber));
+                } catch (RejectedExecutionException e) {
+                    // Queue full, or stopping: the changes stay pending, and overflow into a resync
+                    subscriber.cancelSending();
+                    if (running) {
+                        deferrals.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    private void send(DashboardSubscriber subscriber) {
+        subscriber.startWriting();
+        try {
+            List<DashboardDeltaResponse> deltas = subscriber.take();
+            SseEmitter emitter = subscriber.getEmitter();
+            if (deltas == null) {
+                emitter.send(SseEmitter.event().name("resync")
+                        .data(aggregates.summary(subscriber.getUserId(), subscriber.getRole())));
+            } else if (!deltas.isEmpty()) {
+                emitter.send(SseEmitter.event().name("deltas").data(deltas));
+            } else {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            if (subscriber.isDropped()) {
+                // The client caught up after all, too late
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away, or the emitter already completed
+            remove(subscriber);
+            subscriber.getEmitter().completeWithError(e);
+        } finally {
+            subscriber.finishSending();
+        }
+    }
+
+    /**
+     * When the date changes, push the tasks that were due on the days since the last check and are still open.
+     */
+    private void publishOverdueTasks() {
+        LocalDate today = LocalDate.now();
+        if (overdueCheckedOn == null) {
+            // Tasks overdue before the node started are in the summary every subscriber starts with
+            overdueCheckedOn = today;
+            return;
+        }
+        if (!today.isAfter(overdueCheckedOn) || subscribers.isEmpty()) {
+            overdueCheckedOn = today;
+            return;
+        }
+        try {
+            List<OpenTask> overdue = repository.findOpenTasksDue(overdueCheckedOn, today);
+            for (OpenTask task : overdue) {
+                publish(DashboardDeltaResponse.builder()
+                        .type(DashboardDeltaType.TASK_OVERDUE)
+                        .entityId(task.id())
+                        .workflowInstanceId(task.workflowInstanceId())
+                        .status("OVERDUE")
+                        .dueDate(task.dueDate())
+                        .occurredAt(LocalDateTime.now())
+                        .build(), task.assignedTo());
+            }
+            log.debug("Pushed {} tasks that became overdue since {}", overdue.size(), overdueCheckedOn);
+            overdueCheckedOn = today;
+        } catch (RuntimeException e) {
+            log.warn("Could not look up overdue tasks, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stop sending to a subscriber whose send is blocked. The emitter cannot be completed meanwhile: completing
+     * it waits for the blocked send.
+     */
+    private void drop(DashboardSubscriber subscriber) {
+        if (subscribers.remove(subscriber.getId()) != null) {
+            subscriber.drop();
+            stalls.increment();
+            log.debug("Dropped dashboard stream {}: a send is blocked for longer than the send timeout",
+                    subscriber.getId());
+        }
+    }
+
+    private void remove(DashboardSubscriber subscriber) {
+        if (subscribers.remove(subscriber.getId()) != null) {
+            disconnects.increment();
+        }
+    }
+
+    /**
+     * @return the number of open streams
+     */
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        AtomicInteger senderIds = new AtomicInteger();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "dashboard-stream"));
+        senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(sendQueueCapacity),
+                runnable -> daemon(runnable, "dashboard-stream-send-" + senderIds.incrementAndGet()));
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("Dashboard stream flush failed: {}", e.getMessage());
+            }
+        }, flushInterval.toNanos(), flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+        running = true;
+    }
+
+    /** Completes the streams before the web server's graceful shutdown, which would otherwise wait for them. */
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        completeAll();
+    }
+
+    /**
+     * Close every open stream; clients reconnect and start over from a summary.
+     */
+    void completeAll() {
+        for (DashboardSubscriber subscriber : subscribers.values()) {
+            subscribers.remove(subscriber.getId());
+            subscriber.getEmitter().complete();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
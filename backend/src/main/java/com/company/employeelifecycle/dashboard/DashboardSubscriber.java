@@ -0,0 +1,161 @@
+package com.company.employeelifecycle.dashboard;
+
+import com.company.employeelifecycle.dto.response.DashboardDeltaResponse;
+import com.company.employeelifecycle.enums.UserRole;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One open dashboard stream: its emitter and the deltas waiting to be sent to it.
+ * <p>
+ * Pending deltas are coalesced by entity and kind, so an entity that changes several times between two sends
+ * is sent once, in its latest state. The buffer is bounded: a subscriber that falls more than {@code capacity}
+ * entities behind has its deltas dropped and is sent a resync (the full summary) instead.
+ */
+class DashboardSubscriber {
+
+    private static final long IDLE = Long.MIN_VALUE;
+    private static final long QUEUED = Long.MAX_VALUE;
+
+    private final UUID id = UUID.randomUUID();
+    private final UUID userId;
+    private final UserRole role;
+    private final SseEmitter emitter;
+    private final int capacity;
+    /** When the write in progress started, {@link #QUEUED} while its send waits for a thread, or {@link #IDLE}. */
+    private final AtomicLong sendingSince = new AtomicLong(IDLE);
+    // Guarded by this
+    private final Map<String, DashboardDeltaResponse> pending = new LinkedHashMap<>();
+    private boolean resync;
+    private volatile long lastSentNanos = System.nanoTime();
+    private volatile boolean dropped;
+
+    DashboardSubscriber(UUID userId, UserRole role, SseEmitter emitter, int capacity) {
+        this.userId = userId;
+        this.role = role;
+        this.emitter = emitter;
+        this.capacity = capacity;
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    UUID getUserId() {
+        return userId;
+    }
+
+    UserRole getRole() {
+        return role;
+    }
+
+    /**
+     * HR and system admins see every change; other users only see changes to the tasks assigned to them.
+     *
+     * @param assignedTo the assignee of the changed task, or null (workflow changes have none)
+     */
+    boolean canSee(UUID assignedTo) {
+        if (DashboardAggregates.seesEverything(role)) {
+            return true;
+        }
+        return assignedTo != null && assignedTo.equals(userId);
+    }
+
+    /**
+     * Queue a delta, replacing any pending delta of the same kind for the same entity.
+     *
+     * @return false if the buffer overflowed and the subscriber now needs a resync
+     */
+    synchronized boolean offer(DashboardDeltaResponse delta) {
+        if (resync) {
+            return true;
+        }
+        String key = delta.getType() + ":" + delta.getEntityId();
+        // Removed first so that the entity moves to the end, after the changes that preceded this one
+        pending.remove(key);
+        pending.put(key, delta);
+        if (pending.size() > capacity) {
+            pending.clear();
+            resync = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Take the pending deltas, or null if the subscriber needs a resync instead.
+     */
+    synchronized List<DashboardDeltaResponse> take() {
+        if (resync) {
+            resync = false;
+            return null;
+        }
+        List<DashboardDeltaResponse> deltas = new ArrayList<>(pending.values());
+        pending.clear();
+        return deltas;
+    }
+
+    synchronized boolean hasPending() {
+        return resync || !pending.isEmpty();
+    }
+
+    /**
+     * Claim the subscriber for one send; a subscriber whose previous send has not finished is skipped.
+     */
+    boolean tryStartSending() {
+        return sendingSince.compareAndSet(IDLE, QUEUED);
+    }
+
+    /**
+     * Mark the claimed send as writing: from now on it counts towards the send timeout.
+     */
+    void startWriting() {
+        sendingSince.set(System.nanoTime());
+    }
+
+    void finishSending() {
+        lastSentNanos = System.nanoTime();
+        sendingSince.set(IDLE);
+    }
+
+    /**
+     * Give up a claimed send that was never started; the pending deltas wait for the next one.
+     */
+    void cancelSending() {
+        sendingSince.set(IDLE);
+    }
+
+    /**
+     * @return true if a write has been in progress for longer than the timeout; a send waiting for a thread is
+     * not stalled
+     */
+    boolean isStalled(long nowNanos, long timeoutNanos) {
+        long since = sendingSince.get();
+        return since != IDLE && since != QUEUED && nowNanos - since > timeoutNanos;
+    }
+
+    /**
+     * Mark the subscriber as given up on: its stalled send completes the emitter once it returns.
+     */
+    void drop() {
+        dropped = true;
+    }
+
+    boolean isDropped() {
+        return dropped;
+    }
+
+    long getLastSentNanos() {
+        return lastSentNanos;
+    }
+}
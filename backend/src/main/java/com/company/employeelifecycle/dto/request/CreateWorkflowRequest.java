@@ -0,0 +1,52 @@
+package com.company.employeelifecycle.dto.request;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Request DTO for starting a workflow for an employee from a template.
+ * The employee is matched by email and created if they do not exist yet.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateWorkflowRequest {
+
+    @NotNull(message = "Workflow template is required")
+    private UUID workflowTemplateId;
+
+    @NotBlank(message = "Employee first name is required")
+    @Size(max = 255)
+    private String employeeFirstName;
+
+    @NotBlank(message = "Employee last name is required")
+    @Size(max = 255)
+    private String employeeLastName;
+
+    @NotBlank(message = "Employee email is required")
+    @Email(message = "Invalid email format")
+    private String employeeEmail;
+
+    @NotBlank(message = "Role is required")
+    @Size(max = 255)
+    private String role;
+
+    @Size(max = 255)
+    private String department;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    /** Optional user who receives tasks assigned to the MANAGER role. */
+    private UUID managerId;
+}
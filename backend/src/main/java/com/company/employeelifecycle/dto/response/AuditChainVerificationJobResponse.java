@@ -0,0 +1,29 @@
+package com.company.employeelifecycle.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Response DTO for a background verification of the audit hash chain.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditChainVerificationJobResponse {
+
+    private UUID jobId;
+    /** RUNNING, COMPLETED or FAILED. */
+    private String status;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    /** The outcome, once COMPLETED. */
+    private AuditChainVerificationResponse result;
+    /** Why the verification could not run, if FAILED. */
+    private String error;
+}
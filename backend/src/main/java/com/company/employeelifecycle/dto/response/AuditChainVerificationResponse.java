@@ -0,0 +1,45 @@
+package com.company.employeelifecycle.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for a verification of the audit hash chain.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditChainVerificationResponse {
+
+    /** True if every verified segment is intact. */
+    private boolean verified;
+    private long headSeq;
+    private long rowsVerified;
+    private int segmentsVerified;
+    /** Segments that lost rows to partition retention. */
+    private int segmentsSkipped;
+    /** Rows outside the chain: written before it existed, or inserted behind the audit writer's back. */
+    private long unchainedRows;
+    private List<Failure> failures;
+    private long durationMs;
+
+    /**
+     * The first broken link of a segment.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure {
+
+        private long seq;
+        private UUID auditLogId;
+        private String reason;
+    }
+}
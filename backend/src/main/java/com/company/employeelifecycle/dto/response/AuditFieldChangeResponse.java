@@ -0,0 +1,20 @@
+package com.company.employeelifecycle.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for one field changed by an audited action.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditFieldChangeResponse {
+
+    private String field;
+    private Object from;
+    private Object to;
+}
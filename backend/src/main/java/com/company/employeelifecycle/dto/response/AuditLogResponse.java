@@ -0,0 +1,30 @@
+package com.company.employeelifecycle.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for an audit trail entry.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogResponse {
+
+    private UUID id;
+    private String entityType;
+    private UUID entityId;
+    private String action;
+    private UUID userId;
+    private String userName;
+    private String changeDetails;
+    private List<AuditFieldChangeResponse> changes;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,28 @@
+package com.company.employeelifecycle.dto.response;
+
+import com.company.employeelifecycle.enums.ReportDimension;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for a completion report: completions of a date range, grouped by one dimension.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompletionReportResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+    private ReportDimension groupBy;
+    /** Completions committed after this time may not be in the report yet; null if nothing was rolled up yet. */
+    private LocalDateTime rolledUpTo;
+    private List<CompletionReportRowResponse> rows;
+}
@@ -0,0 +1,30 @@
+package com.company.employeelifecycle.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for one group of a completion report. Durations are in seconds, within 1% of the exact
+ * percentile; the due date counts are only reported for tasks.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompletionReportRowResponse {
+
+    /** Template ID, task type, department or assignee role. */
+    private String key;
+    /** Template name for templates, otherwise the key. */
+    private String label;
+    private long completed;
+    private Long withDueDate;
+    private Long onTime;
+    /** Share of the tasks with a due date completed on or before it; null if none had one. */
+    private Double onTimeRate;
+    private Long p50Seconds;
+    private Long p90Seconds;
+    private Long p95Seconds;
+}
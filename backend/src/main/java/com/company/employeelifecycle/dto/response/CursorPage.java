@@ -0,0 +1,38 @@
+package com.company.employeelifecycle.dto.response;
+
+import com.company.employeelifecycle.util.CursorCodec;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Response DTO for one page of a keyset-paginated listing.
+ * Pass {@code nextCursor} back as the {@code cursor} parameter to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasNext;
+
+    /**
+     * Build a page from a scroll window, mapping each entity to its response DTO.
+     *
+     * @param window the window returned by the repository
+     * @param mapper maps an entity to its DTO
+     * @return the page, with a cursor pointing after its last row when more rows exist
+     */
+    public static <E, T> CursorPage<T> of(Window<E> window, Function<? super E, T> mapper) {
+        List<T> items = window.getContent().stream().<T>map(mapper).toList();
+        boolean hasNext = window.hasNext() && !window.isEmpty();
+        String nextCursor = hasNext ? CursorCodec.encode(window.positionAt(window.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,31 @@
+package com.company.employeelifecycle.dto.response;
+
+import com.company.employeelifecycle.enums.DashboardDeltaType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Response DTO for one change pushed to live dashboards. Workflow deltas carry the instance's department and
+ * workflow type; task deltas carry the task's workflow instance and due date.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDeltaResponse {
+
+    private DashboardDeltaType type;
+    private UUID entityId;
+    private UUID workflowInstanceId;
+    private String status;
+    private String department;
+    private String workflowType;
+    private LocalDate dueDate;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,31 @@
+package com.company.employeelifecycle.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Response DTO for the dashboard summary. Workflow counts are broken down by status, and by status within each
+ * department and workflow type.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSummaryResponse {
+
+    private Map<String, Long> workflowsByStatus;
+    private Map<String, Map<String, Long>> workflowsByDepartment;
+    private Map<String, Map<String, Long>> workflowsByType;
+    private Map<String, Long> tasksByStatus;
+    /** Open tasks due before {@link #asOf}. */
+    private long overdueTasks;
+    private LocalDate asOf;
+    /** When the counts were last rebuilt from the database; null before the first rebuild. */
+    private LocalDateTime rebuiltAt;
+}
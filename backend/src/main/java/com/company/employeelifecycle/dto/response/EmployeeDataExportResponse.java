@@ -0,0 +1,46 @@
+package com.company.employeelifecycle.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for the progress of an employee data export.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeDataExportResponse {
+
+    private UUID exportId;
+    private UUID employeeId;
+    private String status;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    /** The section being written, while running. */
+    private String currentSection;
+    private long rowsWritten;
+    /** Rows counted when the export started; null until counted. */
+    private Long rowsTotal;
+    private List<Section> sections;
+
+    /**
+     * Progress of one file of the archive.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Section {
+
+        private String file;
+        private long rowsWritten;
+        private Long rowsTotal;
+    }
+}
@@ -0,0 +1,29 @@
+package com.company.employeelifecycle.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Response DTO for one employee search result.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeSearchResultResponse {
+
+    private UUID id;
+    /** Relevance to the query; higher is better, 0 without a query. */
+    private double score;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String department;
+    private String status;
+    private LocalDate startDate;
+}
@@ -0,0 +1,25 @@
+package com.company.employeelifecycle.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for a task completion: the completed task and the dependent tasks it unblocked.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskCompletionResponse {
+
+    private UUID taskId;
+    private String status;
+    private LocalDateTime completedAt;
+    private List<UUID> unblockedTaskIds;
+}
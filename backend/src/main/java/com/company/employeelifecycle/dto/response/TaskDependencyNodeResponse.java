@@ -0,0 +1,24 @@
+package com.company.employeelifecycle.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Response DTO for a task in the transitive dependency chain of another task.
+ * {@code depth} is the number of dependency hops between the two (1 for a direct dependency).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDependencyNodeResponse {
+
+    private UUID taskId;
+    private String title;
+    private String status;
+    private int depth;
+}
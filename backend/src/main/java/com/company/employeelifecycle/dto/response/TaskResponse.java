@@ -0,0 +1,32 @@
+package com.company.employeelifecycle.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Response DTO for a task, as listed in a user's task inbox.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskResponse {
+
+    private UUID id;
+    private UUID workflowInstanceId;
+    private String employeeName;
+    private String title;
+    private String description;
+    private String taskType;
+    private String status;
+    private LocalDate dueDate;
+    private boolean blocked;
+    private LocalDateTime completedAt;
+    private LocalDateTime createdAt;
+}
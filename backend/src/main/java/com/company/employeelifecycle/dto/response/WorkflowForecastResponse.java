@@ -0,0 +1,28 @@
+package com.company.employeelifecycle.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Response DTO for the forecast completion of a workflow instance. The estimates are null while any remaining
+ * task has no history to estimate it from, and for cancelled instances; once every task is completed both are
+ * the completion time of the last task.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowForecastResponse {
+
+    private UUID workflowId;
+    private String status;
+    private int remainingTasks;
+    private LocalDateTime estimatedCompletionP50;
+    private LocalDateTime estimatedCompletionP90;
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,31 @@
+package com.company.employeelifecycle.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Response DTO for a workflow instance in workflow listings.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowResponse {
+
+    private UUID id;
+    private UUID templateId;
+    private UUID employeeId;
+    private String employeeName;
+    private String department;
+    private LocalDate startDate;
+    private String status;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime createdAt;
+}
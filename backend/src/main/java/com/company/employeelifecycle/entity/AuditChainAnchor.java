@@ -0,0 +1,37 @@
+package com.company.employeelifecycle.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A checkpoint of the audit hash chain: the hash of the row at {@code seq}, and the time range of the rows
+ * since the previous anchor. Written only by {@link com.company.employeelifecycle.audit.AuditChain}.
+ */
+@Entity
+@Table(name = "audit_chain_anchors")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Immutable
+public class AuditChainAnchor {
+
+    @Id
+    private Long seq;
+
+    @Column(nullable = false, length = 32)
+    private byte[] hash;
+
+    @Column(nullable = false)
+    private LocalDateTime segmentStart;
+
+    @Column(nullable = false)
+    private LocalDateTime segmentEnd;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
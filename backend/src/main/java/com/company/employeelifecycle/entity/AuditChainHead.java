@@ -0,0 +1,33 @@
+package com.company.employeelifecycle.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The last link of the audit hash chain (a single row, id 1), with the time range of the rows appended since
+ * the last anchor. Written only by {@link com.company.employeelifecycle.audit.AuditChain}.
+ */
+@Entity
+@Table(name = "audit_chain_head")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditChainHead {
+
+    @Id
+    private Short id;
+
+    @Column(nullable = false)
+    private Long seq;
+
+    @Column(nullable = false, length = 32)
+    private byte[] hash;
+
+    private LocalDateTime segmentStart;
+
+    private LocalDateTime segmentEnd;
+}
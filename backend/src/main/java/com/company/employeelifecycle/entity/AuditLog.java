@@ -1,5 +1,6 @@
 package com.company.employeelifecycle.entity;
 
+import com.company.employeelifecycle.entity.id.UuidV7;
 import com.company.employeelifecycle.enums.AuditAction;
 import com.company.employeelifecycle.enums.EntityType;
 import jakarta.persistence.*;
@@ -16,6 +17,7 @@ import java.util.UUID;
  * Immutable - audit logs should never be modified after creation.
  */
 @Entity
+@NamedEntityGraph(name = AuditLog.GRAPH_VIEW, attributeNodes = @NamedAttributeNode("user"))
 @Table(name = "audit_logs")
 @Getter
 @Setter
@@ -26,8 +28,11 @@ import java.util.UUID;
 @EntityListeners(AuditingEntityListener.class)
 public class AuditLog {
 
+    /** Audit view: the log entry with the user who performed the action. */
+    public static final String GRAPH_VIEW = "AuditLog.view";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Enumerated(EnumType.STRING)
@@ -41,14 +46,25 @@ public class AuditLog {
     @Column(nullable = false)
     private AuditAction action;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
     @Column(columnDefinition = "TEXT")
     private String changeDetails;
 
+    /** Changed fields, encoded by {@link com.company.employeelifecycle.audit.AuditDiffer}. */
+    @Column(length = 1_048_576)
+    private byte[] changeDelta;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime timestamp;
+
+    /** Position in the audit hash chain; null for rows written before the chain existed. */
+    private Long chainSeq;
+
+    /** Hash of this row chained to its predecessor's, see {@link com.company.employeelifecycle.audit.AuditChain}. */
+    @Column(length = 32)
+    private byte[] rowHash;
 }
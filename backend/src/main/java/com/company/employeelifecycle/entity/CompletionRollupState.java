@@ -0,0 +1,26 @@
+package com.company.employeelifecycle.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far task completions have been rolled up (a single row, id 1): every completion committed before the
+ * watermark is counted in the completion rollups. Locked by every rollup run and written only by
+ * {@link com.company.employeelifecycle.reporting.CompletionRollupJob}.
+ */
+@Entity
+@Table(name = "completion_rollup_state")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompletionRollupState {
+
+    @Id
+    private Short id;
+
+    private LocalDateTime watermark;
+}
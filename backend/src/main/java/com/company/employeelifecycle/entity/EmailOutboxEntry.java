@@ -0,0 +1,56 @@
+package com.company.employeelifecycle.entity;
+
+import com.company.employeelifecycle.enums.EmailType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An email waiting in the outbox. Written and read only by
+ * {@link com.company.employeelifecycle.repository.EmailOutboxRepository}; deleted once sent.
+ */
+@Entity
+@Table(name = "email_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutboxEntry {
+
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private EmailType emailType;
+
+    private UUID taskId;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = 500)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime lockedUntil;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime failedAt;
+}
@@ -1,5 +1,6 @@
 package com.company.employeelifecycle.entity;
 
+import com.company.employeelifecycle.entity.listener.EmployeeEntityListener;
 import com.company.employeelifecycle.enums.EmployeeStatus;
 import jakarta.persistence.*;
 import lombok.*;
@@ -21,7 +22,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EmployeeEntityListener.class})
 public class Employee {
 
     @Id
@@ -44,7 +45,7 @@ public class Employee {
 
     private LocalDate startDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_id")
     private User manager;
 
@@ -1,5 +1,6 @@
 package com.company.employeelifecycle.entity;
 
+import com.company.employeelifecycle.entity.id.UuidV7;
 import com.company.employeelifecycle.enums.TaskStatus;
 import com.company.employeelifecycle.enums.TaskType;
 import jakarta.persistence.*;
@@ -14,8 +15,16 @@ import java.util.UUID;
 
 /**
  * Task entity representing a specific task within a workflow instance.
+ * All associations are lazy; callers pick a named fetch plan per use case.
  */
 @Entity
+@NamedEntityGraph(
+        name = Task.GRAPH_INBOX,
+        attributeNodes = @NamedAttributeNode(value = "workflowInstance", subgraph = "instance"),
+        subgraphs = @NamedSubgraph(name = "instance", attributeNodes = @NamedAttributeNode("employee")))
+@NamedEntityGraph(
+        name = Task.GRAPH_INSTANCE_DETAIL,
+        attributeNodes = {@NamedAttributeNode("assignedTo"), @NamedAttributeNode("completedBy")})
 @Table(name = "tasks")
 @Getter
 @Setter
@@ -25,11 +34,17 @@ import java.util.UUID;
 @EntityListeners(AuditingEntityListener.class)
 public class Task {
 
+    /** Task inbox: the task with its workflow instance and the employee it concerns. */
+    public static final String GRAPH_INBOX = "Task.inbox";
+
+    /** Tasks listed on an instance detail page: the task with its assignee and completer. */
+    public static final String GRAPH_INSTANCE_DETAIL = "Task.instanceDetail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "workflow_instance_id", nullable = false)
     private WorkflowInstance workflowInstance;
 
@@ -39,7 +54,7 @@ public class Task {
     @Column(columnDefinition = "TEXT")
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_to")
     private User assignedTo;
 
@@ -53,12 +68,29 @@ public class Task {
 
     private LocalDate dueDate;
 
-    @ManyToOne
+    /**
+     * Number of SEQUENTIAL prerequisites not yet completed; the task is blocked while this is above zero.
+     * Maintained by bulk updates in {@code TaskRepository}, never recomputed from the dependency graph.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer unmetPrerequisites = 0;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "completed_by")
     private User completedBy;
 
     private LocalDateTime completedAt;
 
+    /**
+     * Whether the completion is counted in the completion rollups; cleared whenever the task is completed.
+     * Set only by {@link com.company.employeelifecycle.reporting.CompletionRollupJob}. Not updatable, so that
+     * flushing a task loaded before a rollup run does not clear it again: only bulk updates change it.
+     */
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private Boolean rolledUp = false;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,33 @@
+package com.company.employeelifecycle.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The last step of a task's alert cadence that was fired, for the due date it was fired for. Written only by
+ * {@link com.company.employeelifecycle.repository.TaskAlertRepository}; a new due date starts the cadence over.
+ */
+@Entity
+@Table(name = "task_alert_state")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskAlertState {
+
+    @Id
+    private UUID taskId;
+
+    @Column(nullable = false)
+    private LocalDate dueDate;
+
+    @Column(nullable = false)
+    private Integer step;
+
+    private LocalDateTime firedAt;
+}
@@ -0,0 +1,68 @@
+package com.company.employeelifecycle.entity;
+
+import com.company.employeelifecycle.enums.TaskType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Task completions of one day, workflow template, task type, employee department and assignee role, with a
+ * {@link com.company.employeelifecycle.reporting.DurationSketch} of their durations. Written only by
+ * {@link com.company.employeelifecycle.reporting.CompletionRollupJob}.
+ */
+@Entity
+@Table(name = "task_completion_rollups")
+@IdClass(TaskCompletionRollup.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskCompletionRollup {
+
+    @Id
+    private LocalDate completedOn;
+
+    @Id
+    private UUID templateId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50)
+    private TaskType taskType;
+
+    @Id
+    private String department;
+
+    @Id
+    @Column(length = 50)
+    private String assigneeRole;
+
+    @Column(nullable = false)
+    private Long completed;
+
+    /** Completed tasks that had a due date. */
+    @Column(nullable = false)
+    private Long withDueDate;
+
+    /** Completed tasks that were completed on or before their due date. */
+    @Column(nullable = false)
+    private Long onTime;
+
+    @Column(nullable = false, length = 1_048_576)
+    private byte[] durationSketch;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate completedOn;
+        private UUID templateId;
+        private TaskType taskType;
+        private String department;
+        private String assigneeRole;
+    }
+}
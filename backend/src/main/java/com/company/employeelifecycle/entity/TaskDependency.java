@@ -1,5 +1,6 @@
 package com.company.employeelifecycle.entity;
 
+import com.company.employeelifecycle.entity.id.UuidV7;
 import com.company.employeelifecycle.enums.DependencyType;
 import jakarta.persistence.*;
 import lombok.*;
@@ -19,14 +20,14 @@ import java.util.UUID;
 public class TaskDependency {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id", nullable = false)
     private Task task;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "prerequisite_task_id", nullable = false)
     private Task prerequisiteTask;
 
@@ -1,6 +1,7 @@
 package com.company.employeelifecycle.entity;
 
 import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.entity.listener.UserEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
@@ -21,7 +22,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, UserEntityListener.class})
 public class User {
 
     @Id
@@ -55,4 +56,10 @@ public class User {
     @LastModifiedDate
     @Column(nullable = false)
     private LocalDateTime updatedAt;
+
+    /**
+     * Incremented by every change; session principals compare it with the version they were loaded from.
+     */
+    @Version
+    private Long version;
 }
@@ -0,0 +1,48 @@
+package com.company.employeelifecycle.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Workflow instances of one workflow template and employee department whose last task was completed on one day,
+ * with a {@link com.company.employeelifecycle.reporting.DurationSketch} of their durations. Written only by
+ * {@link com.company.employeelifecycle.reporting.CompletionRollupJob}.
+ */
+@Entity
+@Table(name = "workflow_completion_rollups")
+@IdClass(WorkflowCompletionRollup.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkflowCompletionRollup {
+
+    @Id
+    private LocalDate completedOn;
+
+    @Id
+    private UUID templateId;
+
+    @Id
+    private String department;
+
+    @Column(nullable = false)
+    private Long completed;
+
+    @Column(nullable = false, length = 1_048_576)
+    private byte[] durationSketch;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate completedOn;
+        private UUID templateId;
+        private String department;
+    }
+}
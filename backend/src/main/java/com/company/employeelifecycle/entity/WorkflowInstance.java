@@ -12,8 +12,16 @@ import java.util.UUID;
 
 /**
  * Workflow instance entity representing an execution of a workflow template.
+ * All associations are lazy; callers pick a named fetch plan per use case.
  */
 @Entity
+@NamedEntityGraph(
+        name = WorkflowInstance.GRAPH_DETAIL,
+        attributeNodes = {
+                @NamedAttributeNode("template"),
+                @NamedAttributeNode("employee"),
+                @NamedAttributeNode("initiatedBy")
+        })
 @Table(name = "workflow_instances")
 @Getter
 @Setter
@@ -23,19 +31,22 @@ import java.util.UUID;
 @EntityListeners(AuditingEntityListener.class)
 public class WorkflowInstance {
 
+    /** Instance detail: the instance with its template, employee and initiator. */
+    public static final String GRAPH_DETAIL = "WorkflowInstance.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "template_id", nullable = false)
     private WorkflowTemplate template;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", nullable = false)
     private Employee employee;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "initiated_by", nullable = false)
     private User initiatedBy;
 
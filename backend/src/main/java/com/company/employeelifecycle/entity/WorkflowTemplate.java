@@ -1,5 +1,6 @@
 package com.company.employeelifecycle.entity;
 
+import com.company.employeelifecycle.entity.listener.WorkflowTemplateEntityListener;
 import com.company.employeelifecycle.enums.WorkflowType;
 import jakarta.persistence.*;
 import lombok.*;
@@ -20,7 +21,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, WorkflowTemplateEntityListener.class})
 public class WorkflowTemplate {
 
     @Id
@@ -0,0 +1,68 @@
+package com.company.employeelifecycle.entity.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free source of RFC 9562 version 7 UUIDs.
+ * <p>
+ * The 48-bit Unix millisecond timestamp and a 12-bit counter (the {@code rand_a} field) are packed
+ * into a single {@link AtomicLong} and advanced with compare-and-set, so values are strictly
+ * increasing within the JVM even when the wall clock stalls or steps back; a counter overflow
+ * borrows from the next millisecond. The remaining 62 bits come from {@link ThreadLocalRandom}
+ * and keep values unique across nodes. Each call allocates only the returned UUID.
+ */
+public final class TimeOrderedUuidSource {
+
+    private static final TimeOrderedUuidSource SHARED = new TimeOrderedUuidSource(System::currentTimeMillis);
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC = 0x8000000000000000L;
+    private static final long RANDOM_62_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+
+    TimeOrderedUuidSource(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return the JVM-wide instance used by {@link UuidV7Generator}
+     */
+    public static TimeOrderedUuidSource shared() {
+        return SHARED;
+    }
+
+    /**
+     * Generate the next identifier.
+     *
+     * @return a version 7 UUID greater than any previously returned by this source
+     */
+    public UUID next() {
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long fresh = clock.getAsLong() << COUNTER_BITS;
+            next = fresh > current ? fresh : current + 1;
+        } while (!state.compareAndSet(current, next));
+
+        long mostSigBits = (next >>> COUNTER_BITS) << 16 | VERSION_7 | (next & 0xFFFL);
+        long leastSigBits = ThreadLocalRandom.current().nextLong() & RANDOM_62_MASK | VARIANT_RFC;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Extract the embedded Unix millisecond timestamp from a version 7 UUID.
+     *
+     * @param uuid a version 7 UUID
+     * @return milliseconds since the epoch
+     */
+    public static long timestampOf(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
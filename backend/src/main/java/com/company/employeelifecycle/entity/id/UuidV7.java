@@ -0,0 +1,19 @@
+package com.company.employeelifecycle.entity.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a UUID identifier as generated with a time-ordered UUIDv7 value.
+ * Use on write-heavy tables so that new rows append to the right edge of the primary key index
+ * instead of landing on random B-tree pages.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
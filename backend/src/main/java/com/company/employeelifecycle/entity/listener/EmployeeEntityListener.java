@@ -0,0 +1,31 @@
+package com.company.employeelifecycle.entity.listener;
+
+import com.company.employeelifecycle.entity.Employee;
+import com.company.employeelifecycle.event.EmployeeChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that publishes an {@link EmployeeChangedEvent} for every flushed change to an Employee.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmployeeEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onChange(Employee employee) {
+        eventPublisher.publishEvent(new EmployeeChangedEvent(employee, false));
+    }
+
+    @PostRemove
+    public void onRemove(Employee employee) {
+        eventPublisher.publishEvent(new EmployeeChangedEvent(employee, true));
+    }
+}
@@ -0,0 +1,31 @@
+package com.company.employeelifecycle.entity.listener;
+
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.event.UserChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that publishes a {@link UserChangedEvent} for every flushed change to a User.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onChange(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user));
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user, true));
+    }
+}
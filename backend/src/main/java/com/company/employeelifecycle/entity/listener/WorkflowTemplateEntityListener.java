@@ -0,0 +1,26 @@
+package com.company.employeelifecycle.entity.listener;
+
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.event.WorkflowTemplateChangedEvent;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that publishes a {@link WorkflowTemplateChangedEvent} for every flushed update or
+ * removal of a WorkflowTemplate.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkflowTemplateEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(WorkflowTemplate template) {
+        eventPublisher.publishEvent(new WorkflowTemplateChangedEvent(template));
+    }
+}
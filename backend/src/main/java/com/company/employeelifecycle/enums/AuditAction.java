@@ -9,5 +9,6 @@ public enum AuditAction {
     DELETED,
     COMPLETED,
     ASSIGNED,
-    STATUS_CHANGED
+    STATUS_CHANGED,
+    EXPORTED
 }
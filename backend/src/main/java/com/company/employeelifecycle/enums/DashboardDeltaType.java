@@ -0,0 +1,10 @@
+package com.company.employeelifecycle.enums;
+
+/**
+ * Kinds of change pushed to live dashboards.
+ */
+public enum DashboardDeltaType {
+    WORKFLOW_STATUS_CHANGED,
+    TASK_COMPLETED,
+    TASK_OVERDUE
+}
@@ -0,0 +1,11 @@
+package com.company.employeelifecycle.enums;
+
+/**
+ * Email type enumeration: the notification an outbox email carries.
+ */
+public enum EmailType {
+    TASK_ASSIGNMENT,
+    TASK_REMINDER,
+    TASK_OVERDUE,
+    TASK_ESCALATION
+}
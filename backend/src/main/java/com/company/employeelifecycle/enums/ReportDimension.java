@@ -0,0 +1,11 @@
+package com.company.employeelifecycle.enums;
+
+/**
+ * Dimension completion reports are grouped by. Workflow reports support TEMPLATE and DEPARTMENT only.
+ */
+public enum ReportDimension {
+    TEMPLATE,
+    TASK_TYPE,
+    DEPARTMENT,
+    ASSIGNEE_ROLE
+}
@@ -0,0 +1,11 @@
+package com.company.employeelifecycle.enums;
+
+/**
+ * Task alert type enumeration: reminders before a task's due date passes, the alert that it is overdue, and
+ * escalations while it stays overdue.
+ */
+public enum TaskAlertType {
+    REMINDER,
+    OVERDUE,
+    ESCALATION
+}
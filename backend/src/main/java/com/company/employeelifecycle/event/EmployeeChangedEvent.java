@@ -0,0 +1,12 @@
+package com.company.employeelifecycle.event;
+
+import com.company.employeelifecycle.entity.Employee;
+
+/**
+ * Published whenever an Employee row is inserted, updated or deleted.
+ *
+ * @param employee the changed employee entity
+ * @param removed  true if the employee was deleted
+ */
+public record EmployeeChangedEvent(Employee employee, boolean removed) {
+}
@@ -0,0 +1,20 @@
+package com.company.employeelifecycle.event;
+
+import com.company.employeelifecycle.enums.TaskAlertType;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Published when a task alert fires, in the transaction that records it as fired.
+ *
+ * @param taskId             the task
+ * @param workflowInstanceId the workflow instance of the task
+ * @param assignedTo         the assignee, or null
+ * @param type               the kind of alert
+ * @param level              the number of the alert among those of its type, from 1
+ * @param dueDate            the task's due date
+ */
+public record TaskAlertEvent(UUID taskId, UUID workflowInstanceId, UUID assignedTo, TaskAlertType type, int level,
+                             LocalDate dueDate) {
+}
@@ -0,0 +1,20 @@
+package com.company.employeelifecycle.event;
+
+import com.company.employeelifecycle.enums.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Published when a task moves from one status to another.
+ *
+ * @param taskId             the task
+ * @param workflowInstanceId the workflow instance of the task
+ * @param assignedTo         the assignee, or null
+ * @param from               the previous status
+ * @param to                 the new status
+ * @param dueDate            the task's due date, or null
+ */
+public record TaskStatusChangedEvent(UUID taskId, UUID workflowInstanceId, UUID assignedTo, TaskStatus from,
+                                     TaskStatus to, LocalDate dueDate) {
+}
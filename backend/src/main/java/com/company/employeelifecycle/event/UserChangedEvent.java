@@ -0,0 +1,16 @@
+package com.company.employeelifecycle.event;
+
+import com.company.employeelifecycle.entity.User;
+
+/**
+ * Published whenever a User row is inserted, updated or deleted.
+ *
+ * @param user    the changed user entity
+ * @param removed whether the row was deleted
+ */
+public record UserChangedEvent(User user, boolean removed) {
+
+    public UserChangedEvent(User user) {
+        this(user, false);
+    }
+}
@@ -0,0 +1,22 @@
+package com.company.employeelifecycle.event;
+
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import com.company.employeelifecycle.enums.WorkflowType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published when a workflow instance is materialized with its tasks, all of them NOT_STARTED.
+ *
+ * @param instanceId   the workflow instance
+ * @param employeeId   the employee it runs for
+ * @param department   the employee's department, or null
+ * @param type         the template's workflow type
+ * @param status       the status the instance starts in
+ * @param taskDueDates the due date of each task, null for tasks without one
+ */
+public record WorkflowStartedEvent(UUID instanceId, UUID employeeId, String department, WorkflowType type,
+                                   WorkflowInstanceStatus status, List<LocalDate> taskDueDates) {
+}
@@ -0,0 +1,11 @@
+package com.company.employeelifecycle.event;
+
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+
+/**
+ * Published whenever a WorkflowTemplate row is updated or deleted.
+ *
+ * @param template the changed template entity
+ */
+public record WorkflowTemplateChangedEvent(WorkflowTemplate template) {
+}
@@ -0,0 +1,19 @@
+package com.company.employeelifecycle.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a workflow template cannot be used: it is inactive, or its JSON definition is malformed.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class InvalidTemplateException extends RuntimeException {
+
+    public InvalidTemplateException(String message) {
+        super(message);
+    }
+
+    public InvalidTemplateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
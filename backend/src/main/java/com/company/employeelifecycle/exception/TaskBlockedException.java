@@ -0,0 +1,15 @@
+package com.company.employeelifecycle.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a task cannot be completed because some of its SEQUENTIAL prerequisites are not completed yet.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class TaskBlockedException extends RuntimeException {
+
+    public TaskBlockedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.company.employeelifecycle.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a node already serves as many live streams as it is configured for.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class TooManySubscribersException extends RuntimeException {
+
+    public TooManySubscribersException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,139 @@
+package com.company.employeelifecycle.forecast;
+
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.TaskType;
+import com.company.employeelifecycle.event.TaskStatusChangedEvent;
+import com.company.employeelifecycle.reporting.DurationSketch;
+import com.company.employeelifecycle.repository.TaskDurationRepository;
+import com.company.employeelifecycle.repository.TaskDurationRepository.CompletedTaskDuration;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory histograms of how long completed tasks took, for completion forecasts.
+ * <p>
+ * Each completion is counted in four {@link DurationSketch}es, from the most to the least specific profile:
+ * the same template, title, task type and assignee role; the same template, title and type with any assignee;
+ * the same type in any template; and every task. A task is estimated from the most specific profile with at
+ * least {@code app.forecast.min-samples} completions, so a new template borrows from similar tasks until it has
+ * a history of its own.
+ * <p>
+ * The histograms are seeded from the completions of the last {@code app.forecast.history} at startup and kept
+ * current from {@link TaskStatusChangedEvent}s once their transaction commits. Each node only sees its own
+ * completions, so they are rebuilt from the database every {@code app.forecast.rebuild-interval}.
+ */
+@Slf4j
+@Component
+public class TaskDurationModel {
+
+    private final TaskDurationRepository repository;
+    private final Duration history;
+    private final long minSamples;
+    private volatile Map<Profile, DurationSketch> sketches = new ConcurrentHashMap<>();
+
+    public TaskDurationModel(TaskDurationRepository repository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.forecast.history:P365D}") Duration history,
+                             @Value("${app.forecast.min-samples:5}") long minSamples) {
+        this.repository = repository;
+        this.history = history;
+        this.minSamples = minSamples;
+        Gauge.builder("workflow.forecast.profiles", this, model -> model.sketches.size())
+                .description("Task profiles with a duration histogram")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replace the histograms with fresh ones from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.forecast.rebuild-interval:PT1H}",
+            initialDelayString = "${app.forecast.rebuild-interval:PT1H}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        Map<Profile, DurationSketch> rebuilt = new ConcurrentHashMap<>();
+        long[] completions = new long[1];
+        repository.streamCompletedTasks(LocalDateTime.now().minus(history), task -> {
+            add(rebuilt, task);
+            completions[0]++;
+        });
+        sketches = rebuilt;
+        log.debug("Rebuilt task duration histograms from {} completions in {} ms", completions[0],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskStatusChanged(TaskStatusChangedEvent event) {
+        if (event.to() == TaskStatus.COMPLETED) {
+            repository.findCompletedTask(event.taskId()).ifPresent(task -> add(sketches, task));
+        }
+    }
+
+    /**
+     * Get the durations to estimate a task from.
+     *
+     * @param templateId   the task's workflow template
+     * @param title        the task's title
+     * @param taskType     the task's type
+     * @param assigneeRole the assignee's role, or null if unassigned
+     * @return a copy of the most specific histogram with enough completions, or null if no task was completed
+     */
+    public DurationSketch durationsOf(UUID templateId, String title, TaskType taskType, String assigneeRole) {
+        Map<Profile, DurationSketch> current = sketches;
+        Profile[] profiles = Profile.of(templateId, title, taskType, assigneeRole);
+        for (int i = 0; i < profiles.length; i++) {
+            DurationSketch sketch = current.get(profiles[i]);
+            if (sketch == null) {
+                continue;
+            }
+            synchronized (sketch) {
+                if (sketch.count() >= minSamples || i == profiles.length - 1) {
+                    return sketch.copy();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void add(Map<Profile, DurationSketch> sketches, CompletedTaskDuration task) {
+        for (Profile profile : Profile.of(task.templateId(), task.title(), task.taskType(), task.assigneeRole())) {
+            DurationSketch sketch = sketches.computeIfAbsent(profile, p -> new DurationSketch());
+            synchronized (sketch) {
+                sketch.add(task.duration());
+            }
+        }
+    }
+
+    /**
+     * A group of similar tasks; null fields match any value. The assignee role of unassigned tasks is null
+     * too, which only the most specific profile tells apart from any role.
+     */
+    private record Profile(int level, UUID templateId, String title, TaskType taskType, String assigneeRole) {
+
+        /**
+         * @return the profiles of a task, most specific first
+         */
+        static Profile[] of(UUID templateId, String title, TaskType taskType, String assigneeRole) {
+            return new Profile[]{
+                    new Profile(0, templateId, title, taskType, assigneeRole),
+                    new Profile(1, templateId, title, taskType, null),
+                    new Profile(2, null, null, taskType, null),
+                    new Profile(3, null, null, null, null)};
+        }
+    }
+}
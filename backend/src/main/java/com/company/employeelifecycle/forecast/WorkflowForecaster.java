@@ -0,0 +1,262 @@
+package com.company.employeelifecycle.forecast;
+
+import com.company.employeelifecycle.dto.response.WorkflowForecastResponse;
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import com.company.employeelifecycle.event.TaskStatusChangedEvent;
+import com.company.employeelifecycle.exception.ResourceNotFoundException;
+import com.company.employeelifecycle.reporting.DurationSketch;
+import com.company.employeelifecycle.repository.TaskDurationRepository;
+import com.company.employeelifecycle.repository.TaskDurationRepository.Dependency;
+import com.company.employeelifecycle.repository.TaskDurationRepository.InstanceProgress;
+import com.company.employeelifecycle.repository.TaskDurationRepository.OpenTask;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Forecasts when workflow instances will complete, from the open tasks' dependency graph and the durations of
+ * similar completed tasks ({@link TaskDurationModel}).
+ * <p>
+ * A forecast simulates the rest of the instance {@code app.forecast.simulations} times: each run draws a
+ * duration for every open task from its histogram and finishes each task that long after the latest of its
+ * open SEQUENTIAL prerequisites, or after now for ready tasks. A ready task's draw is limited to durations
+ * longer than it has been ready already. P50 and P90 are taken over the runs' latest finish, so they account
+ * for parallel branches, which a sum of per-task percentiles would not. The draws are seeded from the instance
+ * ID, so a forecast does not change unless its inputs do.
+ * <p>
+ * Forecasts are cached per instance, up to {@code app.forecast.cache.max-size}, and evicted when a task of the
+ * instance changes status and its transaction commits. Each node only sees its own changes, so entries also
+ * expire after {@code app.forecast.cache.ttl}. Hit, miss and eviction counts are published to Micrometer under
+ * "workflowForecasts".
+ */
+@Slf4j
+@Component
+public class WorkflowForecaster {
+
+    static final String CACHE_NAME = "workflowForecasts";
+
+    private final TaskDurationRepository repository;
+    private final TaskDurationModel durationModel;
+    private final int simulations;
+    private final Cache<UUID, WorkflowForecastResponse> cache;
+    private final Timer forecastTimer;
+    /** Evictions per stripe of instance IDs, to detect forecasts that went stale while they were computed. */
+    private final AtomicLongArray evictions = new AtomicLongArray(64);
+
+    public WorkflowForecaster(TaskDurationRepository repository,
+                              TaskDurationModel durationModel,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.forecast.simulations:1000}") int simulations,
+                              @Value("${app.forecast.cache.max-size:10000}") long maxSize,
+                              @Value("${app.forecast.cache.ttl:PT1H}") Duration ttl) {
+        this.repository = repository;
+        this.durationModel = durationModel;
+        this.simulations = simulations;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.forecastTimer = Timer.builder("workflow.forecast")
+                .description("Time to forecast the completion of a workflow instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Forecast when a workflow instance will complete.
+     *
+     * @param instanceId the workflow instance ID
+     * @return the forecast, cached until a task of the instance changes
+     * @throws ResourceNotFoundException if the instance does not exist
+     */
+    public WorkflowForecastResponse forecast(UUID instanceId) {
+        WorkflowForecastResponse cached = cache.getIfPresent(instanceId);
+        if (cached != null) {
+            return cached;
+        }
+        // Not computed inside the cache, whose evictions would wait for the computation: a forecast read before a
+        // commit is instead dropped if an eviction for the instance ran while it was computed or cached
+        int stripe = stripe(instanceId);
+        long evicted = evictions.get(stripe);
+        WorkflowForecastResponse forecast = forecastTimer.record(() -> compute(instanceId));
+        if (evictions.get(stripe) == evicted) {
+            cache.put(instanceId, forecast);
+            if (evictions.get(stripe) != evicted) {
+                cache.asMap().remove(instanceId, forecast);
+            }
+        }
+        return forecast;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskStatusChanged(TaskStatusChangedEvent event) {
+        evict(event.workflowInstanceId());
+    }
+
+    /**
+     * Drop the cached forecast of a workflow instance.
+     *
+     * @param instanceId the workflow instance ID
+     */
+    public void evict(UUID instanceId) {
+        evictions.incrementAndGet(stripe(instanceId));
+        cache.invalidate(instanceId);
+    }
+
+    private int stripe(UUID instanceId) {
+        return Math.floorMod(instanceId.hashCode(), evictions.length());
+    }
+
+    private WorkflowForecastResponse compute(UUID instanceId) {
+        InstanceProgress instance = repository.findInstance(instanceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Workflow instance not found: " + instanceId));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<OpenTask> tasks = repository.findOpenTasks(instanceId);
+        WorkflowForecastResponse.WorkflowForecastResponseBuilder response = WorkflowForecastResponse.builder()
+                .workflowId(instanceId)
+                .status(instance.status())
+                .remainingTasks(tasks.size())
+                .computedAt(now);
+        if (tasks.isEmpty()) {
+            return response.estimatedCompletionP50(instance.lastCompletedAt())
+                    .estimatedCompletionP90(instance.lastCompletedAt())
+                    .build();
+        }
+        if (WorkflowInstanceStatus.CANCELLED.name().equals(instance.status())) {
+            return response.build();
+        }
+
+        int n = tasks.size();
+        DurationSketch[] durations = new DurationSketch[n];
+        double[] readyFraction = new double[n];
+        double[] readySeconds = new double[n];
+        for (int i = 0; i < n; i++) {
+            OpenTask task = tasks.get(i);
+            durations[i] = durationModel.durationsOf(instance.templateId(), task.title(), task.taskType(),
+                    task.assigneeRole());
+            if (durations[i] == null) {
+                return response.build();
+            }
+            if (task.unmetPrerequisites() == 0) {
+                Duration ready = Duration.between(task.readyAt(), now);
+                readySeconds[i] = Math.max(0, ready.toNanos() / 1e9);
+                readyFraction[i] = durations[i].fractionAtMost(ready);
+            }
+        }
+        int[][] prerequisites = prerequisites(tasks, repository.findOpenDependencies(instanceId));
+        int[] order = topologicalOrder(prerequisites);
+
+        SplittableRandom random = new SplittableRandom(instanceId.getMostSignificantBits()
+                ^ instanceId.getLeastSignificantBits());
+        double[] finish = new double[n];
+        double[] outcomes = new double[simulations];
+        for (int run = 0; run < simulations; run++) {
+            Arrays.fill(finish, 0);
+            double last = 0;
+            for (int i : order) {
+                double start = 0;
+                for (int p : prerequisites[i]) {
+                    start = Math.max(start, finish[p]);
+                }
+                double u = readyFraction[i] + random.nextDouble() * (1 - readyFraction[i]);
+                double seconds = durations[i].quantile(u).toMillis() / 1000.0;
+                finish[i] = start + Math.max(0, seconds - readySeconds[i]);
+                last = Math.max(last, finish[i]);
+            }
+            outcomes[run] = last;
+        }
+        Arrays.sort(outcomes);
+        return response.estimatedCompletionP50(now.plusSeconds(Math.round(percentile(outcomes, 0.5))))
+                .estimatedCompletionP90(now.plusSeconds(Math.round(percentile(outcomes, 0.9))))
+                .build();
+    }
+
+    /**
+     * @return for each task, the indexes of its open prerequisites
+     */
+    private static int[][] prerequisites(List<OpenTask> tasks, List<Dependency> dependencies) {
+        Map<UUID, Integer> index = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            index.put(tasks.get(i).id(), i);
+        }
+        List<List<Integer>> lists = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            lists.add(new ArrayList<>());
+        }
+        for (Dependency dependency : dependencies) {
+            Integer task = index.get(dependency.taskId());
+            Integer prerequisite = index.get(dependency.prerequisiteTaskId());
+            if (task != null && prerequisite != null) {
+                lists.get(task).add(prerequisite);
+            }
+        }
+        return lists.stream().map(list -> list.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+    }
+
+    /**
+     * Order the tasks so that each comes after its prerequisites. Tasks on a cycle, which template compilation
+     * rejects, are appended in index order and do not wait for the prerequisites that come after them.
+     */
+    private static int[] topologicalOrder(int[][] prerequisites) {
+        int n = prerequisites.length;
+        int[] pending = new int[n];
+        List<List<Integer>> dependents = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; i++) {
+            pending[i] = prerequisites[i].length;
+            for (int p : prerequisites[i]) {
+                dependents.get(p).add(i);
+            }
+        }
+        int[] order = new int[n];
+        boolean[] placed = new boolean[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (pending[i] == 0) {
+                order[size++] = i;
+                placed[i] = true;
+            }
+        }
+        for (int head = 0; head < size; head++) {
+            for (int dependent : dependents.get(order[head])) {
+                if (--pending[dependent] == 0) {
+                    order[size++] = dependent;
+                    placed[dependent] = true;
+                }
+            }
+        }
+        for (int i = 0; i < n && size < n; i++) {
+            if (!placed[i]) {
+                log.warn("Dependency cycle through task index {} in a forecast", i);
+                order[size++] = i;
+            }
+        }
+        return order;
+    }
+
+    private static double percentile(double[] sorted, double quantile) {
+        return sorted[(int) Math.floor(quantile * (sorted.length - 1))];
+    }
+}
@@ -0,0 +1,42 @@
+package com.company.employeelifecycle.mapper;
+
+import com.company.employeelifecycle.audit.AuditDiffer;
+import com.company.employeelifecycle.dto.response.AuditFieldChangeResponse;
+import com.company.employeelifecycle.dto.response.AuditLogResponse;
+import com.company.employeelifecycle.entity.AuditLog;
+import com.company.employeelifecycle.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps audit log entities to audit response DTOs.
+ * Expects the acting user to be fetched (see {@link AuditLog#GRAPH_VIEW}).
+ * The stored change delta is decoded into the list of changed fields.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditLogMapper {
+
+    private final AuditDiffer auditDiffer;
+
+    public AuditLogResponse toResponse(AuditLog auditLog) {
+        User user = auditLog.getUser();
+        return AuditLogResponse.builder()
+                .id(auditLog.getId())
+                .entityType(auditLog.getEntityType().name())
+                .entityId(auditLog.getEntityId())
+                .action(auditLog.getAction().name())
+                .userId(user != null ? user.getId() : null)
+                .userName(user != null ? user.getFirstName() + " " + user.getLastName() : null)
+                .changeDetails(auditLog.getChangeDetails())
+                .changes(auditDiffer.decode(auditLog.getEntityType(), auditLog.getChangeDelta()).stream()
+                        .map(change -> AuditFieldChangeResponse.builder()
+                                .field(change.field())
+                                .from(change.from())
+                                .to(change.to())
+                                .build())
+                        .toList())
+                .timestamp(auditLog.getTimestamp())
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.company.employeelifecycle.mapper;
+
+import com.company.employeelifecycle.dto.response.TaskDependencyNodeResponse;
+import com.company.employeelifecycle.dto.response.TaskResponse;
+import com.company.employeelifecycle.entity.Employee;
+import com.company.employeelifecycle.entity.Task;
+import com.company.employeelifecycle.repository.TaskGraphRepository.ClosureNode;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps task entities to task response DTOs.
+ * Expects the workflow instance and its employee to be fetched (see {@link Task#GRAPH_INBOX}).
+ */
+@Component
+public class TaskMapper {
+
+    public TaskResponse toResponse(Task task) {
+        Employee employee = task.getWorkflowInstance().getEmployee();
+        return TaskResponse.builder()
+                .id(task.getId())
+                .workflowInstanceId(task.getWorkflowInstance().getId())
+                .employeeName(employee.getFirstName() + " " + employee.getLastName())
+                .title(task.getTitle())
+                .description(task.getDescription())
+                .taskType(task.getTaskType().name())
+                .status(task.getStatus().name())
+                .dueDate(task.getDueDate())
+                .blocked(task.getUnmetPrerequisites() > 0)
+                .completedAt(task.getCompletedAt())
+                .createdAt(task.getCreatedAt())
+                .build();
+    }
+
+    public TaskDependencyNodeResponse toResponse(ClosureNode node) {
+        return TaskDependencyNodeResponse.builder()
+                .taskId(node.taskId())
+                .title(node.title())
+                .status(node.status().name())
+                .depth(node.depth())
+                .build();
+    }
+}
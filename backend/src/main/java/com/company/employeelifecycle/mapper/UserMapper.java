@@ -0,0 +1,29 @@
+package com.company.employeelifecycle.mapper;
+
+import com.company.employeelifecycle.dto.response.LoginResponse;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps authenticated principals to user response DTOs.
+ */
+@Component
+public class UserMapper {
+
+    public LoginResponse.UserData toUserData(AuthenticatedUser principal) {
+        return LoginResponse.UserData.builder()
+                .id(principal.getId())
+                .email(principal.getEmail())
+                .firstName(principal.getFirstName())
+                .lastName(principal.getLastName())
+                .role(principal.getRole().name())
+                .build();
+    }
+
+    public LoginResponse toLoginResponse(LoginResponse.UserData userData) {
+        return LoginResponse.builder()
+                .success(true)
+                .user(userData)
+                .build();
+    }
+}
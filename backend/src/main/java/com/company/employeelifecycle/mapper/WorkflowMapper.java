@@ -0,0 +1,46 @@
+package com.company.employeelifecycle.mapper;
+
+import com.company.employeelifecycle.dto.response.WorkflowResponse;
+import com.company.employeelifecycle.entity.Employee;
+import com.company.employeelifecycle.entity.WorkflowInstance;
+import com.company.employeelifecycle.service.WorkflowInstantiationService.InstantiatedWorkflow;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps workflow instance entities to workflow response DTOs.
+ * Expects the employee to be fetched; only the id of the template is read.
+ */
+@Component
+public class WorkflowMapper {
+
+    public WorkflowResponse toResponse(WorkflowInstance instance) {
+        Employee employee = instance.getEmployee();
+        return WorkflowResponse.builder()
+                .id(instance.getId())
+                .templateId(instance.getTemplate().getId())
+                .employeeId(employee.getId())
+                .employeeName(employee.getFirstName() + " " + employee.getLastName())
+                .department(employee.getDepartment())
+                .startDate(employee.getStartDate())
+                .status(instance.getStatus().name())
+                .startedAt(instance.getStartedAt())
+                .completedAt(instance.getCompletedAt())
+                .createdAt(instance.getCreatedAt())
+                .build();
+    }
+
+    public WorkflowResponse toResponse(InstantiatedWorkflow workflow) {
+        Employee employee = workflow.employee();
+        return WorkflowResponse.builder()
+                .id(workflow.instanceId())
+                .templateId(workflow.templateId())
+                .employeeId(employee.getId())
+                .employeeName(employee.getFirstName() + " " + employee.getLastName())
+                .department(employee.getDepartment())
+                .startDate(employee.getStartDate())
+                .status(workflow.status().name())
+                .startedAt(workflow.createdAt())
+                .createdAt(workflow.createdAt())
+                .build();
+    }
+}
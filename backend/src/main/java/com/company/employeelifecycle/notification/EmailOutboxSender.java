@@ -0,0 +1,314 @@
+package com.company.employeelifecycle.notification;
+
+import com.company.employeelifecycle.notification.SmtpConnection.Attempt;
+import com.company.employeelifecycle.repository.EmailOutboxRepository;
+import com.company.employeelifecycle.repository.EmailOutboxRepository.FailedAttempt;
+import com.company.employeelifecycle.repository.EmailOutboxRepository.OutboxEmail;
+import com.company.employeelifecycle.repository.EmailOutboxRepository.QueueStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the emails of the outbox (see {@link com.company.employeelifecycle.service.NotificationService}).
+ * <p>
+ * Every {@code app.mail.outbox.poll-interval}, on a poll thread of its own so that draining a backlog does not
+ * hold up the scheduled jobs, the emails due for an attempt are leased, oldest first, up to
+ * {@code app.mail.outbox.batch-size} for each of the {@code app.mail.outbox.senders} sender threads, and each
+ * thread sends its share over an SMTP connection of its own, kept open across batches until idle for
+ * {@code app.mail.outbox.idle-timeout}. Polling repeats while full batches come back, so a backlog drains at
+ * the speed of the senders.
+ * <p>
+ * The lease is {@code app.mail.outbox.lease}, or as long as a batch may take with the SMTP timeouts of
+ * {@code spring.mail.properties} if longer. A sender stops attempting its batch when the next email might
+ * outlast the lease, reconnecting first included, and releases the rest. Sent emails are deleted; an email that
+ * fails is retried after a backoff doubling from {@code app.mail.outbox.retry.initial-backoff} up to
+ * {@code app.mail.outbox.retry.max-backoff}, and kept as failed after {@code app.mail.outbox.max-attempts}.
+ * Emails are only deleted, released or rescheduled under the sender's own lease; those another sender has leased
+ * since are left to it, and counted as "mail.outbox.lease.lost".
+ * <p>
+ * Delivery is at least once: an email sent by a node that dies, or loses its lease, before deleting it is sent
+ * again. The queue is published as the "mail.outbox.pending" and "mail.outbox.oldest.age" gauges, and the
+ * time from enqueueing to sending as the "mail.outbox.delivery" timer. Disabled with
+ * {@code app.mail.outbox.enabled=false} (the test profile), which only stops the scheduled polling.
+ */
+@Slf4j
+@Component
+public class EmailOutboxSender implements DisposableBean {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository repository;
+    private final String from;
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final Duration attemptTimeout;
+    private final Duration lease;
+    private final Duration idleTimeout;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("mail-outbox-poll-"));
+    private final List<SmtpConnection> connections = new ArrayList<>();
+    private final Timer deliveryTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Counter leaseLostCounter;
+    private volatile QueueStats queue = new QueueStats(0, null);
+
+    public EmailOutboxSender(EmailOutboxRepository repository,
+                             JavaMailSenderImpl mailSender,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.mail.from:no-reply@company.com}") String from,
+                             @Value("${app.mail.outbox.enabled:true}") boolean enabled,
+                             @Value("${app.mail.outbox.poll-interval:PT1S}") Duration pollInterval,
+                             @Value("${app.mail.outbox.senders:4}") int senderCount,
+                             @Value("${app.mail.outbox.batch-size:50}") int batchSize,
+                             @Value("${app.mail.outbox.lease:PT5M}") Duration lease,
+                             @Value("${app.mail.outbox.idle-timeout:PT1M}") Duration idleTimeout,
+                             @Value("${app.mail.outbox.retry.initial-backoff:PT30S}") Duration initialBackoff,
+                             @Value("${app.mail.outbox.retry.max-backoff:PT1H}") Duration maxBackoff,
+                             @Value("${app.mail.outbox.max-attempts:10}") int maxAttempts) {
+        this.repository = repository;
+        this.from = from;
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        Duration connectionTimeout = timeout(mailSender, "connectiontimeout");
+        Duration emailTimeout = timeout(mailSender, "timeout").plus(timeout(mailSender, "writetimeout"));
+        // The connection may be opened again before any email of the batch
+        this.attemptTimeout = connectionTimeout.plus(emailTimeout);
+        Duration batchTime = connectionTimeout.plus(emailTimeout.multipliedBy(batchSize));
+        this.lease = batchTime.compareTo(lease) > 0 ? batchTime : lease;
+        this.idleTimeout = idleTimeout;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+        this.senders = Executors.newFixedThreadPool(senderCount, new CustomizableThreadFactory("mail-outbox-"));
+        for (int i = 0; i < senderCount; i++) {
+            connections.add(new SmtpConnection(mailSender));
+        }
+        this.deliveryTimer = Timer.builder("mail.outbox.delivery")
+                .description("Time from enqueueing an email to sending it")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("mail.outbox.sent")
+                .description("Emails sent from the outbox")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("mail.outbox.failed")
+                .description("Failed attempts to send an email from the outbox")
+                .tag("outcome", "retry")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.outbox.failed")
+                .description("Failed attempts to send an email from the outbox")
+                .tag("outcome", "given_up")
+                .register(meterRegistry);
+        this.leaseLostCounter = Counter.builder("mail.outbox.lease.lost")
+                .description("Emails left to another sender that leased them before they were settled")
+                .register(meterRegistry);
+        Gauge.builder("mail.outbox.pending", this, sender -> sender.queue.pending())
+                .description("Emails waiting in the outbox, including those waiting for a retry")
+                .register(meterRegistry);
+        Gauge.builder("mail.outbox.oldest.age", this, EmailOutboxSender::oldestAgeSeconds)
+                .description("Age of the oldest email waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startPolling() {
+        if (enabled) {
+            long interval = pollInterval.toMillis();
+            poller.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void poll() {
+        try {
+            send();
+        } catch (RuntimeException e) {
+            // Thrown out of a scheduled task, it would cancel the polling
+            log.error("Failed to poll the email outbox", e);
+        }
+    }
+
+    /**
+     * Send the emails due for an attempt, until the outbox has none left.
+     *
+     * @return the number of emails sent
+     */
+    public synchronized int send() {
+        int sent = 0;
+        try {
+            int limit = batchSize * connections.size();
+            List<OutboxEmail> leased;
+            do {
+                LocalDateTime now = LocalDateTime.now();
+                long deadlineNanos = System.nanoTime() + lease.minus(attemptTimeout).toNanos();
+                // Identifies the lease when the emails are settled, at the precision of the column
+                LocalDateTime leasedUntil = now.plus(lease).truncatedTo(ChronoUnit.MICROS);
+                leased = repository.lease(now, leasedUntil, limit);
+                if (!leased.isEmpty()) {
+                    sent += send(leased, leasedUntil, deadlineNanos);
+                }
+            } while (leased.size() == limit);
+            queue = repository.queueStats();
+        } catch (DataAccessException e) {
+            // Leased emails are sent again once their lease expires
+            log.warn("Failed to send emails from the outbox", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SmtpConnection connection : connections) {
+            connection.closeIfIdle(idleTimeout);
+        }
+        return sent;
+    }
+
+    private int send(List<OutboxEmail> emails, LocalDateTime leasedUntil, long deadlineNanos)
+            throws InterruptedException {
+        // Contiguous shares, so that each connection sends the oldest of its emails first
+        int share = (emails.size() + connections.size() - 1) / connections.size();
+        List<List<OutboxEmail>> shares = new ArrayList<>();
+        List<Callable<List<Attempt>>> batches = new ArrayList<>();
+        for (int i = 0; i * share < emails.size(); i++) {
+            SmtpConnection connection = connections.get(i);
+            List<OutboxEmail> batch = emails.subList(i * share, Math.min((i + 1) * share, emails.size()));
+            shares.add(batch);
+            batches.add(() -> connection.send(batch, from, deadlineNanos));
+        }
+
+        List<UUID> sent = new ArrayList<>();
+        List<UUID> unattempted = new ArrayList<>();
+        List<FailedAttempt> retries = new ArrayList<>();
+        List<FailedAttempt> failures = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        List<Future<List<Attempt>>> outcomes = senders.invokeAll(batches);
+        for (int i = 0; i < outcomes.size(); i++) {
+            List<Attempt> attempted = outcome(outcomes.get(i));
+            List<OutboxEmail> batch = shares.get(i);
+            batch.subList(attempted.size(), batch.size()).forEach(email -> unattempted.add(email.id()));
+            for (Attempt attempt : attempted) {
+                OutboxEmail email = attempt.email();
+                if (attempt.error() == null) {
+                    sent.add(email.id());
+                    deliveryTimer.record(Duration.between(email.createdAt(), now));
+                    continue;
+                }
+                int attempts = email.attempts() + 1;
+                FailedAttempt failed = new FailedAttempt(email.id(), attempts, now.plus(backoff(attempts)),
+                        error(attempt.error()));
+                if (attempts < maxAttempts) {
+                    retries.add(failed);
+                } else {
+                    log.warn("Giving up on email {} to {} after {} attempts", email.id(), email.recipient(), attempts,
+                            attempt.error());
+                    failures.add(failed);
+                }
+            }
+        }
+        int lostSent = repository.delete(sent, leasedUntil);
+        int lostUnattempted = repository.release(unattempted, leasedUntil);
+        int lostRetries = repository.reschedule(retries, leasedUntil);
+        int lostFailures = repository.giveUp(failures, leasedUntil, now);
+        int lost = lostSent + lostUnattempted + lostRetries + lostFailures;
+        if (lost > 0) {
+            // The lease expired and another sender took the emails over: it settles them, and sends the sent ones again
+            log.warn("Lost the lease of {} emails before settling them, {} of them sent", lost, lostSent);
+            leaseLostCounter.increment(lost);
+        }
+        sentCounter.increment(sent.size());
+        retriedCounter.increment(retries.size() - lostRetries);
+        failedCounter.increment(failures.size() - lostFailures);
+        if (!retries.isEmpty()) {
+            log.debug("Failed to send {} emails, retrying later: {}", retries.size(), retries.get(0).error());
+        }
+        return sent.size();
+    }
+
+    /**
+     * @return how long emails are leased for
+     */
+    Duration lease() {
+        return lease;
+    }
+
+    /**
+     * @return how long the last email attempted under a lease may take, reconnecting first
+     */
+    Duration attemptTimeout() {
+        return attemptTimeout;
+    }
+
+    /**
+     * @return how long to wait after the given number of failed attempts
+     */
+    Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private double oldestAgeSeconds() {
+        LocalDateTime oldest = queue.oldestCreatedAt();
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+
+    private static List<Attempt> outcome(Future<List<Attempt>> batch) throws InterruptedException {
+        try {
+            return batch.get();
+        } catch (ExecutionException e) {
+            // SmtpConnection reports failures per email
+            throw new IllegalStateException("Email sender failed", e.getCause());
+        }
+    }
+
+    /**
+     * @return the SMTP timeout of the given name, zero if there is none
+     */
+    private static Duration timeout(JavaMailSenderImpl mailSender, String name) {
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+        String millis = mailSender.getJavaMailProperties().getProperty("mail." + protocol + "." + name);
+        return millis != null ? Duration.ofMillis(Long.parseLong(millis.trim())) : Duration.ZERO;
+    }
+
+    private static String error(Exception e) {
+        String error = e.toString();
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    @Override
+    public void destroy() {
+        poller.shutdownNow();
+        senders.shutdownNow();
+        synchronized (this) {
+            connections.forEach(SmtpConnection::close);
+        }
+    }
+}
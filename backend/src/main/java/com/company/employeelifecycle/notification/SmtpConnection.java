@@ -0,0 +1,132 @@
+package com.company.employeelifecycle.notification;
+
+import com.company.employeelifecycle.repository.EmailOutboxRepository.OutboxEmail;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * An SMTP connection kept open across emails and batches, with the mail sender's settings. It is opened on the
+ * first email, checked before each batch and opened again if the server closed it, and closed once idle.
+ * <p>
+ * Not thread-safe: each sender thread uses its own.
+ */
+@Slf4j
+final class SmtpConnection {
+
+    private final JavaMailSenderImpl mailSender;
+    private Transport transport;
+    private long lastUsedNanos;
+
+    SmtpConnection(JavaMailSenderImpl mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    /**
+     * Send emails one after the other over the connection. An email that fails does not stop the others; the
+     * emails left when the deadline passes are not attempted.
+     *
+     * @param emails        the emails to send
+     * @param from          the sender address
+     * @param deadlineNanos the {@link System#nanoTime()} after which no email is attempted any more
+     * @return the outcome of each email attempted, in order: the first emails of {@code emails}
+     */
+    List<Attempt> send(List<OutboxEmail> emails, String from, long deadlineNanos) {
+        List<Attempt> attempts = new ArrayList<>(emails.size());
+        if (transport != null && !transport.isConnected()) {
+            // Closed by the server while idle
+            close();
+        }
+        for (OutboxEmail email : emails) {
+            if (System.nanoTime() - deadlineNanos > 0) {
+                break;
+            }
+            try {
+                MimeMessage message = message(email, from);
+                Transport connection;
+                try {
+                    connection = connected();
+                } catch (MessagingException e) {
+                    // The server is unreachable: the rest of the batch would wait for the same timeout
+                    for (int i = attempts.size(); i < emails.size(); i++) {
+                        attempts.add(new Attempt(emails.get(i), e));
+                    }
+                    break;
+                }
+                connection.sendMessage(message, message.getAllRecipients());
+                attempts.add(new Attempt(email, null));
+            } catch (MessagingException | RuntimeException e) {
+                if (transport != null && !transport.isConnected()) {
+                    close();
+                }
+                attempts.add(new Attempt(email, e));
+            }
+        }
+        lastUsedNanos = System.nanoTime();
+        return attempts;
+    }
+
+    /**
+     * Close the connection if it was not used for the given time.
+     */
+    void closeIfIdle(Duration idleTimeout) {
+        if (transport != null && System.nanoTime() - lastUsedNanos >= idleTimeout.toNanos()) {
+            close();
+        }
+    }
+
+    void close() {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Failed to close SMTP connection", e);
+            }
+            transport = null;
+        }
+    }
+
+    private Transport connected() throws MessagingException {
+        if (transport == null) {
+            Transport opened = mailSender.getSession().getTransport(
+                    mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+            String username = mailSender.getUsername();
+            String password = mailSender.getPassword();
+            if (!StringUtils.hasLength(username)) {
+                username = null;
+                password = null;
+            }
+            opened.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+            transport = opened;
+        }
+        return transport;
+    }
+
+    private MimeMessage message(OutboxEmail email, String from) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(from);
+        helper.setTo(email.recipient());
+        helper.setSubject(email.subject());
+        helper.setText(email.body());
+        message.setSentDate(new Date());
+        message.saveChanges();
+        return message;
+    }
+
+    /**
+     * The outcome of sending an email: {@code error} is null if it was sent.
+     */
+    record Attempt(OutboxEmail email, Exception error) {
+    }
+}
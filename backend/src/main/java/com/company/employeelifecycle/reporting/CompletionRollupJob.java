@@ -0,0 +1,176 @@
+package com.company.employeelifecycle.reporting;
+
+import com.company.employeelifecycle.enums.TaskType;
+import com.company.employeelifecycle.repository.CompletionRollupRepository;
+import com.company.employeelifecycle.repository.CompletionRollupRepository.CompletedTask;
+import com.company.employeelifecycle.repository.CompletionRollupRepository.CompletedWorkflow;
+import com.company.employeelifecycle.repository.CompletionRollupRepository.TaskRollup;
+import com.company.employeelifecycle.repository.CompletionRollupRepository.WorkflowRollup;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Rolls task completions up into the daily completion rollups that reports read.
+ * <p>
+ * Runs every {@code app.reporting.rollup-interval} on one node at a time (the rollup state row is locked for the
+ * whole run) and reads only the completed tasks not marked {@code rolled_up} yet, through a partial index: the cost
+ * of a run follows the number of completions, not the size of the table. The mark is set in the transaction that
+ * adds the task to the rollups and cleared by the transaction that completes it, so a completion is counted exactly
+ * once, in the first run after it commits, however long after its {@code completed_at} that is. A backlog (e.g. the
+ * history at the first run) is rolled up in batches of {@code app.reporting.rollup-batch-size} tasks, one
+ * transaction each.
+ * <p>
+ * Task durations run from task creation to completion; workflow durations from the start of the instance to the
+ * completion of its last task. A workflow is counted in the batch that rolls up the last of its completions.
+ */
+@Slf4j
+@Component
+public class CompletionRollupJob {
+
+    /** Rollup key of employees without a department and of unassigned tasks. */
+    public static final String UNASSIGNED = "UNASSIGNED";
+
+    private final CompletionRollupRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Timer rollupTimer;
+    /** Watermark as of this node's last run, for the delay gauge. */
+    private volatile LocalDateTime watermark;
+
+    public CompletionRollupJob(CompletionRollupRepository repository,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.reporting.rollup-batch-size:1000}") int batchSize) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.rollupTimer = Timer.builder("report.rollup")
+                .description("Time to roll up one batch of task completions")
+                .register(meterRegistry);
+        Gauge.builder("report.rollup.delay", this, CompletionRollupJob::delaySeconds)
+                .description("Seconds since every committed completion was last rolled up")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Roll up every committed completion that is not rolled up yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.reporting.rollup-interval:PT1M}",
+            initialDelayString = "${app.reporting.rollup-interval:PT1M}")
+    public synchronized void rollUp() {
+        while (Boolean.TRUE.equals(transactionTemplate.execute(status -> rollUpBatch()))) {
+            log.debug("Completion rollups not caught up yet, rolling up the next batch");
+        }
+    }
+
+    /**
+     * Roll up the next batch of completions, in the current transaction.
+     *
+     * @return true if more completions may be waiting
+     */
+    private boolean rollUpBatch() {
+        repository.lockWatermark();
+        // Every completion committed before the batch is read is in this batch or an earlier one, unless it is full
+        LocalDateTime readAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        List<CompletedTask> completed = repository.findPendingCompletions(batchSize);
+        if (completed.size() < batchSize) {
+            repository.updateWatermark(readAt);
+            watermark = readAt;
+        }
+        if (completed.isEmpty()) {
+            return false;
+        }
+        Map<TaskKey, Totals> tasks = new HashMap<>();
+        Set<UUID> instanceIds = new HashSet<>();
+        for (CompletedTask task : completed) {
+            TaskKey key = new TaskKey(task.completedAt().toLocalDate(), task.templateId(), task.taskType(),
+                    orUnassigned(task.department()), orUnassigned(task.assigneeRole()));
+            tasks.computeIfAbsent(key, k -> new Totals()).add(task);
+            instanceIds.add(task.workflowInstanceId());
+        }
+        repository.markRolledUp(completed);
+        Map<WorkflowKey, Totals> workflows = new HashMap<>();
+        List<CompletedWorkflow> completedWorkflows = repository.findCompletedWorkflows(instanceIds);
+        for (CompletedWorkflow workflow : completedWorkflows) {
+            WorkflowKey key = new WorkflowKey(workflow.completedAt().toLocalDate(), workflow.templateId(),
+                    orUnassigned(workflow.department()));
+            workflows.computeIfAbsent(key, k -> new Totals())
+                    .add(Duration.between(workflow.startedAt(), workflow.completedAt()));
+        }
+        repository.addTaskRollups(tasks.entrySet().stream().map(e -> e.getKey().rollup(e.getValue())).toList());
+        repository.addWorkflowRollups(workflows.entrySet().stream().map(e -> e.getKey().rollup(e.getValue()))
+                .toList());
+        rollupTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        log.debug("Rolled up {} task and {} workflow completions", completed.size(), completedWorkflows.size());
+        return completed.size() == batchSize;
+    }
+
+    private double delaySeconds() {
+        LocalDateTime current = watermark;
+        return current != null ? Duration.between(current, LocalDateTime.now()).toSeconds() : Double.NaN;
+    }
+
+    private static String orUnassigned(String value) {
+        return value != null ? value : UNASSIGNED;
+    }
+
+    private record TaskKey(LocalDate completedOn, UUID templateId, TaskType taskType, String department,
+                           String assigneeRole) {
+
+        TaskRollup rollup(Totals totals) {
+            return new TaskRollup(completedOn, templateId, taskType, department, assigneeRole, totals.completed,
+                    totals.withDueDate, totals.onTime, totals.durations);
+        }
+    }
+
+    private record WorkflowKey(LocalDate completedOn, UUID templateId, String department) {
+
+        WorkflowRollup rollup(Totals totals) {
+            return new WorkflowRollup(completedOn, templateId, department, totals.completed, totals.durations);
+        }
+    }
+
+    private static final class Totals {
+
+        private final DurationSketch durations = new DurationSketch();
+        private long completed;
+        private long withDueDate;
+        private long onTime;
+
+        private void add(CompletedTask task) {
+            add(Duration.between(task.createdAt(), task.completedAt()));
+            if (task.dueDate() != null) {
+                withDueDate++;
+                if (!task.completedAt().toLocalDate().isAfter(task.dueDate())) {
+                    onTime++;
+                }
+            }
+        }
+
+        private void add(Duration duration) {
+            completed++;
+            durations.add(duration);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.company.employeelifecycle.reporting;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch of durations, with a relative error of at most {@value #RELATIVE_ACCURACY}.
+ * <p>
+ * Durations are counted in logarithmic buckets: bucket {@code i} holds the durations in
+ * {@code (gamma^(i-1), gamma^i]} seconds, with {@code gamma = (1 + a) / (1 - a)}, and a quantile is answered
+ * with the midpoint of its bucket. Durations under a second share one bucket. Two sketches merge by adding
+ * their bucket counts, so the sketch of a year is the merge of its daily sketches and loses no accuracy.
+ * A year of durations spans about a thousand buckets; a day of one kind of task usually only a few dozen.
+ * <p>
+ * Binary format, as stored in the rollup tables:
+ * <pre>
+ * sketch := version varint(sub-second count) zigzag(first bucket) varint(bucket count) varint(count)*
+ * </pre>
+ * Not thread-safe.
+ */
+public final class DurationSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final int FORMAT_VERSION = 1;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    /** Durations under a second. */
+    private long subSecond;
+    /** Bucket index of {@code counts[0]}. */
+    private int offset;
+    private long[] counts = new long[0];
+    private long total;
+
+    /**
+     * Count one duration; negative durations count as zero.
+     */
+    public void add(Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        total++;
+        if (seconds < 1) {
+            subSecond++;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(seconds) / LOG_GAMMA);
+        ensure(index, index);
+        counts[index - offset]++;
+    }
+
+    /**
+     * Add the counts of another sketch to this one.
+     */
+    public void merge(DurationSketch other) {
+        total += other.total;
+        subSecond += other.subSecond;
+        if (other.counts.length == 0) {
+            return;
+        }
+        ensure(other.offset, other.offset + other.counts.length - 1);
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[other.offset + i - offset] += other.counts[i];
+        }
+    }
+
+    /**
+     * @return the number of durations counted
+     */
+    public long count() {
+        return total;
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.9 for the 90th percentile
+     * @return the duration at that quantile, to within the relative accuracy, or null if the sketch is empty
+     */
+    public Duration quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile out of range: " + quantile);
+        }
+        if (total == 0) {
+            return null;
+        }
+        long rank = (long) Math.floor(quantile * (total - 1));
+        if (rank < subSecond) {
+            return Duration.ZERO;
+        }
+        long seen = subSecond;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                double seconds = 2 * Math.pow(GAMMA, offset + i) / (GAMMA + 1);
+                return Duration.ofMillis(Math.round(seconds * 1000));
+            }
+        }
+        throw new IllegalStateException("Sketch counts do not add up to " + total);
+    }
+
+    /**
+     * @param duration a duration
+     * @return the fraction of the counted durations in buckets up to the one of the given duration, or 0 if the
+     *         sketch is empty
+     */
+    public double fractionAtMost(Duration duration) {
+        if (total == 0) {
+            return 0;
+        }
+        double seconds = duration.toNanos() / 1e9;
+        long seen = subSecond;
+        if (seconds >= 1) {
+            int index = (int) Math.ceil(Math.log(seconds) / LOG_GAMMA);
+            for (int i = 0; i < counts.length && offset + i <= index; i++) {
+                seen += counts[i];
+            }
+        }
+        return (double) seen / total;
+    }
+
+    /**
+     * @return an independent copy of this sketch
+     */
+    public DurationSketch copy() {
+        DurationSketch copy = new DurationSketch();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * @return the sketch in its binary format
+     */
+    public byte[] toBytes() {
+        int first = 0;
+        int last = counts.length - 1;
+        while (first <= last && counts[first] == 0) {
+            first++;
+        }
+        while (last >= first && counts[last] == 0) {
+            last--;
+        }
+        int buckets = last - first + 1;
+        ByteBuffer out = ByteBuffer.allocate(1 + 10 + 5 + 5 + 10 * buckets);
+        out.put((byte) FORMAT_VERSION);
+        putVarlong(out, subSecond);
+        putVarlong(out, zigzagEncode(buckets > 0 ? offset + first : 0));
+        putVarlong(out, buckets);
+        for (int i = first; i <= last; i++) {
+            putVarlong(out, counts[i]);
+        }
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /**
+     * @param bytes a sketch in its binary format
+     * @return the decoded sketch
+     */
+    public static DurationSketch fromBytes(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        int version = in.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported duration sketch version " + version);
+        }
+        DurationSketch sketch = new DurationSketch();
+        sketch.subSecond = readVarlong(in);
+        sketch.offset = (int) zigzagDecode(readVarlong(in));
+        sketch.counts = new long[(int) readVarlong(in)];
+        sketch.total = sketch.subSecond;
+        for (int i = 0; i < sketch.counts.length; i++) {
+            sketch.counts[i] = readVarlong(in);
+            sketch.total += sketch.counts[i];
+        }
+        return sketch;
+    }
+
+    /**
+     * Grow the buckets to cover indexes {@code from} to {@code to}.
+     */
+    private void ensure(int from, int to) {
+        if (counts.length == 0) {
+            offset = from;
+            counts = new long[to - from + 1];
+            return;
+        }
+        int newOffset = Math.min(offset, from);
+        int newEnd = Math.max(offset + counts.length - 1, to);
+        if (newOffset == offset && newEnd == offset + counts.length - 1) {
+            return;
+        }
+        long[] grown = new long[newEnd - newOffset + 1];
+        System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+        counts = grown;
+        offset = newOffset;
+    }
+
+    private static void putVarlong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long readVarlong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    private static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
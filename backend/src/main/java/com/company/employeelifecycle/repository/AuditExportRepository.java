@@ -0,0 +1,92 @@
+package com.company.employeelifecycle.repository;
+
+import com.company.employeelifecycle.enums.AuditAction;
+import com.company.employeelifecycle.enums.EntityType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads audit_logs for exports one row at a time, without materializing the result.
+ * <p>
+ * Queries run with a fixed JDBC fetch size ({@code app.audit.export.fetch-size}), which the PostgreSQL driver
+ * turns into a server-side cursor as long as the connection is not in auto-commit mode, so callers must run
+ * inside a transaction. Rows are handed to the consumer as they are read and never collected.
+ */
+@Repository
+public class AuditExportRepository {
+
+    private static final String SELECT_AUDIT_LOGS = """
+            SELECT a.id, a.entity_type, a.entity_id, a.action, a.user_id, u.email AS user_email,
+                   a.change_details, a.change_delta, a.timestamp
+            FROM audit_logs a
+            LEFT JOIN users u ON u.id = a.user_id
+            WHERE a.timestamp >= ? AND a.timestamp < ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditExportRepository(JdbcTemplate jdbcTemplate,
+                                 @Value("${app.audit.export.fetch-size:1000}") int fetchSize) {
+        // A copy: the fetch size applies to every statement of the template
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Stream the audit logs of a time range in chronological order, optionally only those of one entity or
+     * one user.
+     *
+     * @param entityType the entity type, or null
+     * @param entityId   the entity ID, or null (requires the entity type)
+     * @param userId     the acting user, or null
+     * @param from       inclusive lower bound of the timestamp
+     * @param to         exclusive upper bound of the timestamp
+     * @param sink       receives each row as it is read
+     */
+    public void stream(EntityType entityType, UUID entityId, UUID userId, LocalDateTime from, LocalDateTime to,
+                       Consumer<AuditExportRow> sink) {
+        StringBuilder sql = new StringBuilder(SELECT_AUDIT_LOGS);
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        if (entityType != null) {
+            sql.append(" AND a.entity_type = ?");
+            args.add(entityType.name());
+        }
+        if (entityId != null) {
+            sql.append(" AND a.entity_id = ?");
+            args.add(entityId);
+        }
+        if (userId != null) {
+            sql.append(" AND a.user_id = ?");
+            args.add(userId);
+        }
+        sql.append(" ORDER BY a.timestamp, a.id");
+
+        RowCallbackHandler handler = rs -> sink.accept(new AuditExportRow(
+                rs.getObject("id", UUID.class),
+                EntityType.valueOf(rs.getString("entity_type")),
+                rs.getObject("entity_id", UUID.class),
+                AuditAction.valueOf(rs.getString("action")),
+                rs.getObject("user_id", UUID.class),
+                rs.getString("user_email"),
+                rs.getString("change_details"),
+                rs.getBytes("change_delta"),
+                rs.getTimestamp("timestamp").toLocalDateTime()));
+        jdbcTemplate.query(sql.toString(), handler, args.toArray());
+    }
+
+    /**
+     * One exported audit log row, with the acting user's email.
+     */
+    public record AuditExportRow(UUID id, EntityType entityType, UUID entityId, AuditAction action, UUID userId,
+                                 String userEmail, String changeDetails, byte[] changeDelta,
+                                 LocalDateTime timestamp) {
+    }
+}
@@ -2,9 +2,14 @@ package com.company.employeelifecycle.repository;
 
 import com.company.employeelifecycle.entity.AuditLog;
 import com.company.employeelifecycle.enums.EntityType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +26,7 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
      * @param entityId   the entity ID
      * @return List of audit logs for the entity
      */
+    @EntityGraph(AuditLog.GRAPH_VIEW)
     List<AuditLog> findByEntityTypeAndEntityId(EntityType entityType, UUID entityId);
 
     /**
@@ -29,5 +35,62 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
      * @param userId the user ID
      * @return List of audit logs by the user
      */
+    @EntityGraph(AuditLog.GRAPH_VIEW)
     List<AuditLog> findByUserIdOrderByTimestampDesc(UUID userId);
+
+    /**
+     * Scroll the audit history of a specific entity, newest first, using keyset pagination.
+     *
+     * @param entityType the entity type
+     * @param entityId   the entity ID
+     * @param position   keyset position after which to continue ({@code ScrollPosition.keyset()} for the first page)
+     * @param limit      maximum number of rows to return
+     * @return Window of audit logs with the position of each row
+     */
+    @EntityGraph(AuditLog.GRAPH_VIEW)
+    Window<AuditLog> findByEntityTypeAndEntityIdOrderByTimestampDescIdDesc(EntityType entityType, UUID entityId,
+                                                                           ScrollPosition position, Limit limit);
+
+    /**
+     * Scroll the audit logs produced by a specific user, newest first, using keyset pagination.
+     *
+     * @param userId   the user ID
+     * @param position keyset position after which to continue ({@code ScrollPosition.keyset()} for the first page)
+     * @param limit    maximum number of rows to return
+     * @return Window of audit logs with the position of each row
+     */
+    @EntityGraph(AuditLog.GRAPH_VIEW)
+    Window<AuditLog> findByUserIdOrderByTimestampDescIdDesc(UUID userId, ScrollPosition position, Limit limit);
+
+    /**
+     * Scroll the audit history of a specific entity within a time range, newest first, using keyset pagination.
+     * The range bounds the partition key, so only the audit_logs partitions it overlaps are scanned.
+     *
+     * @param entityType the entity type
+     * @param entityId   the entity ID
+     * @param from       inclusive lower bound of the timestamp
+     * @param to         exclusive upper bound of the timestamp
+     * @param position   keyset position after which to continue ({@code ScrollPosition.keyset()} for the first page)
+     * @param limit      maximum number of rows to return
+     * @return Window of audit logs with the position of each row
+     */
+    @EntityGraph(AuditLog.GRAPH_VIEW)
+    Window<AuditLog> findByEntityTypeAndEntityIdAndTimestampGreaterThanEqualAndTimestampLessThanOrderByTimestampDescIdDesc(
+            EntityType entityType, UUID entityId, LocalDateTime from, LocalDateTime to, ScrollPosition position,
+            Limit limit);
+
+    /**
+     * Scroll the audit logs produced by a specific user within a time range, newest first, using keyset pagination.
+     * The range bounds the partition key, so only the audit_logs partitions it overlaps are scanned.
+     *
+     * @param userId   the user ID
+     * @param from     inclusive lower bound of the timestamp
+     * @param to       exclusive upper bound of the timestamp
+     * @param position keyset position after which to continue ({@code ScrollPosition.keyset()} for the first page)
+     * @param limit    maximum number of rows to return
+     * @return Window of audit logs with the position of each row
+     */
+    @EntityGraph(AuditLog.GRAPH_VIEW)
+    Window<AuditLog> findByUserIdAndTimestampGreaterThanEqualAndTimestampLessThanOrderByTimestampDescIdDesc(
+            UUID userId, LocalDateTime from, LocalDateTime to, ScrollPosition position, Limit limit);
 }
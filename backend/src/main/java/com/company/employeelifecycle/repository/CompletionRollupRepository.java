@@ -0,0 +1,305 @@
+package com.company.employeelifecycle.repository;
+
+import com.company.employeelifecycle.enums.TaskType;
+import com.company.employeelifecycle.reporting.DurationSketch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads task completions and maintains the daily completion rollups built from them
+ * (see V12__completion_rollups.sql and V16__task_rolled_up.sql).
+ * <p>
+ * Rollup rows are read, merged and written back without row locks: every writer first locks the rollup state
+ * ({@link #lockWatermark}) for the length of its transaction.
+ */
+@Slf4j
+@Repository
+public class CompletionRollupRepository {
+
+    private static final String LOCK_STATE = """
+            SELECT watermark FROM completion_rollup_state WHERE id = 1 FOR UPDATE""";
+    private static final String SELECT_WATERMARK = """
+            SELECT watermark FROM completion_rollup_state WHERE id = 1""";
+    private static final String INSERT_STATE = """
+            INSERT INTO completion_rollup_state (id, watermark) VALUES (1, NULL)""";
+    private static final String UPDATE_WATERMARK = """
+            UPDATE completion_rollup_state SET watermark = ? WHERE id = 1""";
+    private static final String SELECT_PENDING_TASKS = """
+            SELECT t.id, t.workflow_instance_id, w.template_id, t.task_type, e.department, u.role AS assignee_role,
+                   t.created_at, t.completed_at, t.due_date
+            FROM tasks t
+            JOIN workflow_instances w ON w.id = t.workflow_instance_id
+            JOIN employees e ON e.id = w.employee_id
+            LEFT JOIN users u ON u.id = t.assigned_to
+            WHERE t.completed_at IS NOT NULL AND NOT t.rolled_up
+            ORDER BY t.completed_at
+            LIMIT ?""";
+    // Only marks the completion that was read: a task completed again meanwhile stays pending
+    private static final String MARK_ROLLED_UP = """
+            UPDATE tasks SET rolled_up = TRUE WHERE id = ? AND completed_at = ?""";
+    // Instances whose tasks are all completed and rolled up, that is whose last completion was just rolled up
+    private static final String SELECT_COMPLETED_WORKFLOWS = """
+            SELECT w.template_id, e.department, COALESCE(w.started_at, w.created_at) AS started_at,
+                   MAX(t.completed_at) AS completed_at
+            FROM workflow_instances w
+            JOIN employees e ON e.id = w.employee_id
+            JOIN tasks t ON t.workflow_instance_id = w.id
+            WHERE w.status <> 'CANCELLED' AND w.id IN (%s)
+            GROUP BY w.id, w.template_id, e.department, w.started_at, w.created_at
+            HAVING SUM(CASE WHEN t.status <> 'COMPLETED' OR NOT t.rolled_up THEN 1 ELSE 0 END) = 0""";
+    private static final String SELECT_TASK_ROLLUP = """
+            SELECT completed, with_due_date, on_time, duration_sketch FROM task_completion_rollups
+            WHERE completed_on = ? AND template_id = ? AND task_type = ? AND department = ? AND assignee_role = ?""";
+    private static final String INSERT_TASK_ROLLUP = """
+            INSERT INTO task_completion_rollups (completed_on, template_id, task_type, department, assignee_role,
+                                                 completed, with_due_date, on_time, duration_sketch)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+    private static final String UPDATE_TASK_ROLLUP = """
+            UPDATE task_completion_rollups SET completed = ?, with_due_date = ?, on_time = ?, duration_sketch = ?
+            WHERE completed_on = ? AND template_id = ? AND task_type = ? AND department = ? AND assignee_role = ?""";
+    private static final String SELECT_WORKFLOW_ROLLUP = """
+            SELECT completed, duration_sketch FROM workflow_completion_rollups
+            WHERE completed_on = ? AND template_id = ? AND department = ?""";
+    private static final String INSERT_WORKFLOW_ROLLUP = """
+            INSERT INTO workflow_completion_rollups (completed_on, template_id, department, completed, duration_sketch)
+            VALUES (?, ?, ?, ?, ?)""";
+    private static final String UPDATE_WORKFLOW_ROLLUP = """
+            UPDATE workflow_completion_rollups SET completed = ?, duration_sketch = ?
+            WHERE completed_on = ? AND template_id = ? AND department = ?""";
+    private static final String SELECT_TASK_ROLLUPS = """
+            SELECT completed_on, template_id, task_type, department, assignee_role, completed, with_due_date, on_time,
+                   duration_sketch
+            FROM task_completion_rollups
+            WHERE completed_on >= ? AND completed_on < ?""";
+    private static final String SELECT_WORKFLOW_ROLLUPS = """
+            SELECT completed_on, template_id, department, completed, duration_sketch
+            FROM workflow_completion_rollups
+            WHERE completed_on >= ? AND completed_on < ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CompletionRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Lock the rollup state until the end of the current transaction.
+     *
+     * @return the current watermark, or null if nothing was rolled up yet
+     */
+    public LocalDateTime lockWatermark() {
+        List<Timestamp> state = jdbcTemplate.queryForList(LOCK_STATE, Timestamp.class);
+        if (state.isEmpty()) {
+            // Seeded by the migration; only a schema created without it (tests) starts empty
+            try {
+                jdbcTemplate.update(INSERT_STATE);
+            } catch (DuplicateKeyException e) {
+                log.debug("Completion rollup state created concurrently");
+            }
+            state = jdbcTemplate.queryForList(LOCK_STATE, Timestamp.class);
+        }
+        Timestamp watermark = state.get(0);
+        return watermark != null ? watermark.toLocalDateTime() : null;
+    }
+
+    /**
+     * @return the current watermark, or null if nothing was rolled up yet
+     */
+    public LocalDateTime findWatermark() {
+        List<Timestamp> state = jdbcTemplate.queryForList(SELECT_WATERMARK, Timestamp.class);
+        return state.isEmpty() || state.get(0) == null ? null : state.get(0).toLocalDateTime();
+    }
+
+    public void updateWatermark(LocalDateTime watermark) {
+        jdbcTemplate.update(UPDATE_WATERMARK, Timestamp.valueOf(watermark));
+    }
+
+    /**
+     * Find completed tasks that are not rolled up yet, whatever their completion time: a completion committed
+     * after later ones were rolled up is still found.
+     *
+     * @param limit maximum number of tasks
+     * @return the tasks, oldest completion first
+     */
+    public List<CompletedTask> findPendingCompletions(int limit) {
+        return jdbcTemplate.query(SELECT_PENDING_TASKS, (rs, rowNum) -> {
+            Date dueDate = rs.getDate("due_date");
+            return new CompletedTask(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("workflow_instance_id", UUID.class),
+                    rs.getObject("template_id", UUID.class),
+                    TaskType.valueOf(rs.getString("task_type")),
+                    rs.getString("department"),
+                    rs.getString("assignee_role"),
+                    rs.getTimestamp("created_at").toLocalDateTime(),
+                    rs.getTimestamp("completed_at").toLocalDateTime(),
+                    dueDate != null ? dueDate.toLocalDate() : null);
+        }, limit);
+    }
+
+    /**
+     * Mark completions as rolled up, unless the task was completed again since it was read.
+     * Requires the rollup state lock.
+     */
+    public void markRolledUp(List<CompletedTask> tasks) {
+        jdbcTemplate.batchUpdate(MARK_ROLLED_UP, tasks, tasks.size(), (ps, task) -> {
+            ps.setObject(1, task.id());
+            ps.setTimestamp(2, Timestamp.valueOf(task.completedAt()));
+        });
+    }
+
+    /**
+     * Find the workflow instances, among the given ones, whose tasks are all completed and rolled up.
+     * Call after {@link #markRolledUp} in the same transaction, with the instances of the tasks it marked:
+     * an instance is then found once, in the batch that rolls up its last completion.
+     *
+     * @param instanceIds the instances of the tasks just rolled up
+     * @return the completed instances
+     */
+    public List<CompletedWorkflow> findCompletedWorkflows(Collection<UUID> instanceIds) {
+        if (instanceIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = SELECT_COMPLETED_WORKFLOWS.formatted(String.join(", ",
+                Collections.nCopies(instanceIds.size(), "?")));
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new CompletedWorkflow(
+                rs.getObject("template_id", UUID.class), rs.getString("department"),
+                rs.getTimestamp("started_at").toLocalDateTime(), rs.getTimestamp("completed_at").toLocalDateTime()),
+                instanceIds.toArray());
+    }
+
+    /**
+     * Merge task rollups into the stored ones. Requires the rollup state lock.
+     */
+    public void addTaskRollups(Iterable<TaskRollup> rollups) {
+        for (TaskRollup rollup : rollups) {
+            Object[] key = {Date.valueOf(rollup.completedOn()), rollup.templateId(), rollup.taskType().name(),
+                    rollup.department(), rollup.assigneeRole()};
+            List<TaskRollup> stored = jdbcTemplate.query(SELECT_TASK_ROLLUP, (rs, rowNum) -> new TaskRollup(
+                    rollup.completedOn(), rollup.templateId(), rollup.taskType(), rollup.department(),
+                    rollup.assigneeRole(), rs.getLong("completed"), rs.getLong("with_due_date"), rs.getLong("on_time"),
+                    DurationSketch.fromBytes(rs.getBytes("duration_sketch"))), key);
+            if (stored.isEmpty()) {
+                jdbcTemplate.update(INSERT_TASK_ROLLUP, key[0], key[1], key[2], key[3], key[4], rollup.completed(),
+                        rollup.withDueDate(), rollup.onTime(), rollup.durations().toBytes());
+            } else {
+                TaskRollup merged = stored.get(0).plus(rollup);
+                jdbcTemplate.update(UPDATE_TASK_ROLLUP, merged.completed(), merged.withDueDate(), merged.onTime(),
+                        merged.durations().toBytes(), key[0], key[1], key[2], key[3], key[4]);
+            }
+        }
+    }
+
+    /**
+     * Merge workflow rollups into the stored ones. Requires the rollup state lock.
+     */
+    public void addWorkflowRollups(Iterable<WorkflowRollup> rollups) {
+        for (WorkflowRollup rollup : rollups) {
+            Object[] key = {Date.valueOf(rollup.completedOn()), rollup.templateId(), rollup.department()};
+            List<WorkflowRollup> stored = jdbcTemplate.query(SELECT_WORKFLOW_ROLLUP, (rs, rowNum) ->
+                    new WorkflowRollup(rollup.completedOn(), rollup.templateId(), rollup.department(),
+                            rs.getLong("completed"), DurationSketch.fromBytes(rs.getBytes("duration_sketch"))), key);
+            if (stored.isEmpty()) {
+                jdbcTemplate.update(INSERT_WORKFLOW_ROLLUP, key[0], key[1], key[2], rollup.completed(),
+                        rollup.durations().toBytes());
+            } else {
+                WorkflowRollup merged = stored.get(0).plus(rollup);
+                jdbcTemplate.update(UPDATE_WORKFLOW_ROLLUP, merged.completed(), merged.durations().toBytes(),
+                        key[0], key[1], key[2]);
+            }
+        }
+    }
+
+    /**
+     * Stream the task rollups of a date range.
+     *
+     * @param from inclusive lower bound of the completion date
+     * @param to   exclusive upper bound of the completion date
+     * @param sink receives each rollup as it is read
+     */
+    public void streamTaskRollups(LocalDate from, LocalDate to, Consumer<TaskRollup> sink) {
+        RowCallbackHandler handler = rs -> sink.accept(new TaskRollup(
+                rs.getDate("completed_on").toLocalDate(),
+                rs.getObject("template_id", UUID.class),
+                TaskType.valueOf(rs.getString("task_type")),
+                rs.getString("department"),
+                rs.getString("assignee_role"),
+                rs.getLong("completed"),
+                rs.getLong("with_due_date"),
+                rs.getLong("on_time"),
+                DurationSketch.fromBytes(rs.getBytes("duration_sketch"))));
+        jdbcTemplate.query(SELECT_TASK_ROLLUPS, handler, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Stream the workflow rollups of a date range.
+     *
+     * @param from inclusive lower bound of the completion date
+     * @param to   exclusive upper bound of the completion date
+     * @param sink receives each rollup as it is read
+     */
+    public void streamWorkflowRollups(LocalDate from, LocalDate to, Consumer<WorkflowRollup> sink) {
+        RowCallbackHandler handler = rs -> sink.accept(new WorkflowRollup(
+                rs.getDate("completed_on").toLocalDate(),
+                rs.getObject("template_id", UUID.class),
+                rs.getString("department"),
+                rs.getLong("completed"),
+                DurationSketch.fromBytes(rs.getBytes("duration_sketch"))));
+        jdbcTemplate.query(SELECT_WORKFLOW_ROLLUPS, handler, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * A completed task with the dimensions it is rolled up by; the department and role are null if unset.
+     */
+    public record CompletedTask(UUID id, UUID workflowInstanceId, UUID templateId, TaskType taskType,
+                                String department, String assigneeRole, LocalDateTime createdAt,
+                                LocalDateTime completedAt, LocalDate dueDate) {
+    }
+
+    /**
+     * A workflow instance whose tasks are all completed; the department is null if unset.
+     */
+    public record CompletedWorkflow(UUID templateId, String department, LocalDateTime startedAt,
+                                    LocalDateTime completedAt) {
+    }
+
+    /**
+     * Task completions of one day and dimension combination.
+     */
+    public record TaskRollup(LocalDate completedOn, UUID templateId, TaskType taskType, String department,
+                             String assigneeRole, long completed, long withDueDate, long onTime,
+                             DurationSketch durations) {
+
+        TaskRollup plus(TaskRollup other) {
+            durations.merge(other.durations());
+            return new TaskRollup(completedOn, templateId, taskType, department, assigneeRole,
+                    completed + other.completed(), withDueDate + other.withDueDate(), onTime + other.onTime(),
+                    durations);
+        }
+    }
+
+    /**
+     * Workflow completions of one day and dimension combination.
+     */
+    public record WorkflowRollup(LocalDate completedOn, UUID templateId, String department, long completed,
+                                 DurationSketch durations) {
+
+        WorkflowRollup plus(WorkflowRollup other) {
+            durations.merge(other.durations());
+            return new WorkflowRollup(completedOn, templateId, department, completed + other.completed(), durations);
+        }
+    }
+}
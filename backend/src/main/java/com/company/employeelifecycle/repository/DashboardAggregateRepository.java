@@ -0,0 +1,139 @@
+package com.company.employeelifecycle.repository;
+
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import com.company.employeelifecycle.enums.WorkflowType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Counts workflow instances and tasks with one GROUP BY each, to seed the in-memory dashboard aggregates,
+ * counts the tasks of one assignee for users who may only see their own (and reads the version of those counts),
+ * and finds the tasks that turned overdue for the dashboard stream.
+ */
+@Repository
+public class DashboardAggregateRepository {
+
+    private static final String COUNT_WORKFLOWS = """
+            SELECT w.status, e.department, t.type, COUNT(*) AS instances
+            FROM workflow_instances w
+            JOIN employees e ON e.id = w.employee_id
+            JOIN workflow_templates t ON t.id = w.template_id
+            GROUP BY w.status, e.department, t.type""";
+    // Due dates only matter for open tasks; grouping completed ones by date would just multiply the rows
+    private static final String COUNT_TASKS = """
+            SELECT t.status, CASE WHEN t.status <> 'COMPLETED' THEN t.due_date END AS due_date, COUNT(*) AS tasks
+            FROM tasks t
+            GROUP BY t.status, CASE WHEN t.status <> 'COMPLETED' THEN t.due_date END""";
+    private static final String COUNT_TASKS_ASSIGNED_TO = """
+            SELECT t.status, CASE WHEN t.status <> 'COMPLETED' THEN t.due_date END AS due_date, COUNT(*) AS tasks
+            FROM tasks t
+            WHERE t.assigned_to = ?
+            GROUP BY t.status, CASE WHEN t.status <> 'COMPLETED' THEN t.due_date END""";
+    private static final String SELECT_ASSIGNED_TASKS_VERSION = """
+            SELECT COUNT(*) AS tasks, MAX(t.updated_at) AS updated_at
+            FROM tasks t
+            WHERE t.assigned_to = ?""";
+    private static final String SELECT_OPEN_TASKS_DUE = """
+            SELECT t.id, t.workflow_instance_id, t.assigned_to, t.due_date
+            FROM tasks t
+            WHERE t.status <> 'COMPLETED' AND t.due_date IS NOT NULL AND t.due_date >= ? AND t.due_date < ?
+            ORDER BY t.due_date, t.id""";
+
+    private static final RowMapper<TaskCount> TASK_COUNT_MAPPER = (rs, rowNum) -> {
+        Date dueDate = rs.getDate("due_date");
+        return new TaskCount(TaskStatus.valueOf(rs.getString("status")),
+                dueDate != null ? dueDate.toLocalDate() : null, rs.getLong("tasks"));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DashboardAggregateRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the number of workflow instances per status, department and workflow type
+     */
+    public List<WorkflowCount> countWorkflows() {
+        return jdbcTemplate.query(COUNT_WORKFLOWS, (rs, rowNum) -> new WorkflowCount(
+                WorkflowInstanceStatus.valueOf(rs.getString("status")), rs.getString("department"),
+                WorkflowType.valueOf(rs.getString("type")), rs.getLong("instances")));
+    }
+
+    /**
+     * @return the number of tasks per status and, for open tasks, due date
+     */
+    public List<TaskCount> countTasks() {
+        return jdbcTemplate.query(COUNT_TASKS, TASK_COUNT_MAPPER);
+    }
+
+    /**
+     * @param userId the assignee
+     * @return the number of tasks assigned to the user per status and, for open tasks, due date
+     */
+    public List<TaskCount> countTasksAssignedTo(UUID userId) {
+        return jdbcTemplate.query(COUNT_TASKS_ASSIGNED_TO, TASK_COUNT_MAPPER, userId);
+    }
+
+    /**
+     * Read what changes whenever the counts of {@link #countTasksAssignedTo} do, with one single-row aggregate:
+     * a task assigned to or away from the user changes the count, any other change the latest update.
+     *
+     * @param userId the assignee
+     * @return the number of tasks assigned to the user and when the latest of them changed
+     */
+    public AssignedTasksVersion findAssignedTasksVersion(UUID userId) {
+        return jdbcTemplate.queryForObject(SELECT_ASSIGNED_TASKS_VERSION, (rs, rowNum) -> {
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            return new AssignedTasksVersion(rs.getLong("tasks"),
+                    updatedAt != null ? updatedAt.toLocalDateTime() : null);
+        }, userId);
+    }
+
+    /**
+     * Find the open tasks due in a date range.
+     *
+     * @param from inclusive lower bound of the due date
+     * @param to   exclusive upper bound of the due date
+     * @return the tasks, by due date
+     */
+    public List<OpenTask> findOpenTasksDue(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(SELECT_OPEN_TASKS_DUE, (rs, rowNum) -> new OpenTask(
+                rs.getObject("id", UUID.class), rs.getObject("workflow_instance_id", UUID.class),
+                rs.getObject("assigned_to", UUID.class), rs.getDate("due_date").toLocalDate()),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Number of workflow instances in one status, department and workflow type.
+     */
+    public record WorkflowCount(WorkflowInstanceStatus status, String department, WorkflowType type, long instances) {
+    }
+
+    /**
+     * Number of tasks in one status with one due date (always null for completed tasks).
+     */
+    public record TaskCount(TaskStatus status, LocalDate dueDate, long tasks) {
+    }
+
+    /**
+     * Number of tasks assigned to a user and when the latest of them changed (null without tasks).
+     */
+    public record AssignedTasksVersion(long tasks, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * A task that is not completed yet.
+     */
+    public record OpenTask(UUID id, UUID workflowInstanceId, UUID assignedTo, LocalDate dueDate) {
+    }
+}
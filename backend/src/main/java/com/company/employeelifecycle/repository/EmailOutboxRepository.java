@@ -0,0 +1,297 @@
+package com.company.employeelifecycle.repository;
+
+import com.company.employeelifecycle.entity.id.TimeOrderedUuidSource;
+import com.company.employeelifecycle.enums.EmailType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to the email outbox (see V14__email_outbox.sql): emails are enqueued on the caller's transaction,
+ * and leased, deleted or rescheduled by the senders.
+ * <p>
+ * Emails are leased with a conditional update of their lease, so of several nodes polling the outbox only one
+ * sends each email; an email whose sender died is leased again once its lease expires. Deleting, releasing or
+ * rescheduling an email is conditional on the sender's lease too: once another sender has leased the email
+ * again, the update leaves it to that sender.
+ */
+@Repository
+public class EmailOutboxRepository {
+
+    private static final String INSERT_EMAIL = """
+            INSERT INTO email_outbox (id, email_type, task_id, recipient, subject, body, created_at, attempts,
+                                      next_attempt_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?)""";
+    private static final String SELECT_DUE = """
+            SELECT id, recipient, subject, body, created_at, attempts
+            FROM email_outbox
+            WHERE failed_at IS NULL AND next_attempt_at <= ? AND (locked_until IS NULL OR locked_until <= ?)
+            ORDER BY next_attempt_at
+            LIMIT ?""";
+    private static final String LEASE = """
+            UPDATE email_outbox SET locked_until = ?
+            WHERE id = ? AND failed_at IS NULL AND (locked_until IS NULL OR locked_until <= ?)""";
+    private static final String DELETE_EMAIL = "DELETE FROM email_outbox WHERE id = ? AND locked_until = ?";
+    private static final String RELEASE = """
+            UPDATE email_outbox SET locked_until = NULL
+            WHERE id = ? AND locked_until = ?""";
+    private static final String RESCHEDULE = """
+            UPDATE email_outbox SET attempts = ?, next_attempt_at = ?, locked_until = NULL, last_error = ?
+            WHERE id = ? AND locked_until = ?""";
+    private static final String GIVE_UP = """
+            UPDATE email_outbox SET attempts = ?, locked_until = NULL, last_error = ?, failed_at = ?
+            WHERE id = ? AND locked_until = ?""";
+    private static final String SELECT_QUEUE = """
+            SELECT COUNT(*) AS pending, MIN(created_at) AS oldest_created_at
+            FROM email_outbox
+            WHERE failed_at IS NULL""";
+    private static final String SELECT_TASK_MAILS = """
+            SELECT t.id, t.title, t.description, t.due_date, a.email AS assignee_email,
+                   a.first_name AS assignee_first_name, e.first_name AS employee_first_name,
+                   e.last_name AS employee_last_name, i.email AS initiator_email
+            FROM tasks t
+            JOIN users a ON a.id = t.assigned_to AND a.active = TRUE
+            JOIN workflow_instances w ON w.id = t.workflow_instance_id
+            JOIN employees e ON e.id = w.employee_id
+            LEFT JOIN users i ON i.id = w.initiated_by AND i.active = TRUE
+            WHERE t.id IN (%s)""";
+
+    private static final RowMapper<OutboxEmail> OUTBOX_EMAIL = (rs, rowNum) -> new OutboxEmail(
+            rs.getObject("id", UUID.class),
+            rs.getString("recipient"),
+            rs.getString("subject"),
+            rs.getString("body"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getInt("attempts"));
+    private static final RowMapper<TaskMail> TASK_MAIL = (rs, rowNum) -> {
+        Date dueDate = rs.getDate("due_date");
+        return new TaskMail(
+                rs.getObject("id", UUID.class),
+                rs.getString("title"),
+                rs.getString("description"),
+                dueDate != null ? dueDate.toLocalDate() : null,
+                rs.getString("assignee_email"),
+                rs.getString("assignee_first_name"),
+                rs.getString("employee_first_name") + " " + rs.getString("employee_last_name"),
+                rs.getString("initiator_email"));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmailOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add emails to the outbox, due for sending right away. Must run in the transaction of the change they
+     * notify about.
+     *
+     * @param emails the emails to send
+     */
+    public void enqueue(List<NewEmail> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        TimeOrderedUuidSource ids = TimeOrderedUuidSource.shared();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_EMAIL, emails, emails.size(), (ps, email) -> {
+            ps.setObject(1, ids.next());
+            ps.setString(2, email.type().name());
+            ps.setObject(3, email.taskId());
+            ps.setString(4, email.recipient());
+            ps.setString(5, email.subject());
+            ps.setString(6, email.body());
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+    }
+
+    /**
+     * Lease the emails due for an attempt, oldest first, that no other sender holds.
+     *
+     * @param now          the current time
+     * @param leasedUntil  when the lease expires, and other senders may take the emails over; it identifies the
+     *                     lease when the emails are settled, so it must fit the column's microsecond precision
+     * @param limit        maximum number of emails to lease
+     * @return the leased emails
+     */
+    public List<OutboxEmail> lease(LocalDateTime now, LocalDateTime leasedUntil, int limit) {
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        List<OutboxEmail> due = jdbcTemplate.query(SELECT_DUE, OUTBOX_EMAIL, nowTimestamp, nowTimestamp, limit);
+        if (due.isEmpty()) {
+            return due;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(LEASE, due, due.size(), (ps, email) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(leasedUntil));
+            ps.setObject(2, email.id());
+            ps.setTimestamp(3, nowTimestamp);
+        });
+        List<OutboxEmail> leased = new ArrayList<>(due.size());
+        for (int i = 0; i < due.size(); i++) {
+            if (counts[0][i] > 0) {
+                leased.add(due.get(i));
+            }
+        }
+        return leased;
+    }
+
+    /**
+     * Remove sent emails from the outbox.
+     *
+     * @param ids         the IDs of the sent emails
+     * @param leasedUntil the sender's lease of the emails
+     * @return the number of emails left alone, as another sender has leased them since
+     */
+    public int delete(List<UUID> ids, LocalDateTime leasedUntil) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Timestamp lease = Timestamp.valueOf(leasedUntil);
+        return lost(jdbcTemplate.batchUpdate(DELETE_EMAIL, ids, ids.size(), (ps, id) -> {
+            ps.setObject(1, id);
+            ps.setTimestamp(2, lease);
+        }));
+    }
+
+    /**
+     * Release leased emails that were not attempted, for any sender to lease them again.
+     *
+     * @param ids         the IDs of the emails
+     * @param leasedUntil the sender's lease of the emails
+     * @return the number of emails left alone, as another sender has leased them since
+     */
+    public int release(List<UUID> ids, LocalDateTime leasedUntil) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Timestamp lease = Timestamp.valueOf(leasedUntil);
+        return lost(jdbcTemplate.batchUpdate(RELEASE, ids, ids.size(), (ps, id) -> {
+            ps.setObject(1, id);
+            ps.setTimestamp(2, lease);
+        }));
+    }
+
+    /**
+     * Release emails whose attempt failed, for another attempt later.
+     *
+     * @param attempts    the failed attempts, with the time of the next one
+     * @param leasedUntil the sender's lease of the emails
+     * @return the number of emails left alone, as another sender has leased them since
+     */
+    public int reschedule(List<FailedAttempt> attempts, LocalDateTime leasedUntil) {
+        if (attempts.isEmpty()) {
+            return 0;
+        }
+        Timestamp lease = Timestamp.valueOf(leasedUntil);
+        return lost(jdbcTemplate.batchUpdate(RESCHEDULE, attempts, attempts.size(), (ps, attempt) -> {
+            ps.setInt(1, attempt.attempts());
+            ps.setTimestamp(2, Timestamp.valueOf(attempt.nextAttemptAt()));
+            ps.setString(3, attempt.error());
+            ps.setObject(4, attempt.id());
+            ps.setTimestamp(5, lease);
+        }));
+    }
+
+    /**
+     * Keep emails whose last attempt failed in the outbox, without attempting them again.
+     *
+     * @param attempts    the last attempts
+     * @param leasedUntil the sender's lease of the emails
+     * @param failedAt    the time they are given up on
+     * @return the number of emails left alone, as another sender has leased them since
+     */
+    public int giveUp(List<FailedAttempt> attempts, LocalDateTime leasedUntil, LocalDateTime failedAt) {
+        if (attempts.isEmpty()) {
+            return 0;
+        }
+        Timestamp lease = Timestamp.valueOf(leasedUntil);
+        return lost(jdbcTemplate.batchUpdate(GIVE_UP, attempts, attempts.size(), (ps, attempt) -> {
+            ps.setInt(1, attempt.attempts());
+            ps.setString(2, attempt.error());
+            ps.setTimestamp(3, Timestamp.valueOf(failedAt));
+            ps.setObject(4, attempt.id());
+            ps.setTimestamp(5, lease);
+        }));
+    }
+
+    /**
+     * @return the emails waiting to be sent, including those waiting for a retry
+     */
+    public QueueStats queueStats() {
+        return jdbcTemplate.queryForObject(SELECT_QUEUE, (rs, rowNum) -> {
+            Timestamp oldest = rs.getTimestamp("oldest_created_at");
+            return new QueueStats(rs.getLong("pending"), oldest != null ? oldest.toLocalDateTime() : null);
+        });
+    }
+
+    /**
+     * Read what emails about tasks say, for the tasks that have an active assignee.
+     *
+     * @param taskIds the task IDs
+     * @return the tasks' email details, in no particular order
+     */
+    public List<TaskMail> findTaskMails(Collection<UUID> taskIds) {
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = SELECT_TASK_MAILS.formatted(String.join(", ", Collections.nCopies(taskIds.size(), "?")));
+        return jdbcTemplate.query(sql, TASK_MAIL, taskIds.toArray());
+    }
+
+    /**
+     * @return the number of statements of the batch that matched no row
+     */
+    private static int lost(int[][] counts) {
+        int lost = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    lost++;
+                }
+            }
+        }
+        return lost;
+    }
+
+    /**
+     * An email to add to the outbox; {@code taskId} is the task it is about, or null.
+     */
+    public record NewEmail(EmailType type, UUID taskId, String recipient, String subject, String body) {
+    }
+
+    /**
+     * An email waiting in the outbox, with the number of attempts that failed so far.
+     */
+    public record OutboxEmail(UUID id, String recipient, String subject, String body, LocalDateTime createdAt,
+                              int attempts) {
+    }
+
+    /**
+     * A failed attempt to send an email: the attempts so far, the error, and when to try again.
+     */
+    public record FailedAttempt(UUID id, int attempts, LocalDateTime nextAttemptAt, String error) {
+    }
+
+    /**
+     * The emails waiting to be sent, and when the oldest was enqueued (null if none is waiting).
+     */
+    public record QueueStats(long pending, LocalDateTime oldestCreatedAt) {
+    }
+
+    /**
+     * A task with an active assignee, with what emails about it say.
+     */
+    public record TaskMail(UUID taskId, String title, String description, LocalDate dueDate, String assigneeEmail,
+                           String assigneeFirstName, String employeeName, String initiatorEmail) {
+    }
+}
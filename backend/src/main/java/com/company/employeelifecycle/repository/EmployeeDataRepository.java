@@ -0,0 +1,116 @@
+package com.company.employeelifecycle.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Reads everything stored about one employee, one {@link Section} at a time, for data subject exports.
+ * <p>
+ * Like {@link AuditExportRepository}, queries run with a fixed JDBC fetch size so that inside a transaction
+ * PostgreSQL streams them through a server-side cursor; rows are handed to the callback and never collected.
+ * Every section is keyed by the employee id through the indexed foreign keys.
+ */
+@Repository
+public class EmployeeDataRepository {
+
+    /**
+     * The tables holding an employee's data, in export order.
+     */
+    public enum Section {
+
+        EMPLOYEE("employee", 1, """
+                SELECT e.id, e.first_name, e.last_name, e.email, e.role, e.department, e.start_date, e.manager_id,
+                       e.status, e.created_at, e.updated_at
+                FROM employees e
+                WHERE e.id = ?""", ""),
+
+        WORKFLOW_INSTANCES("workflow_instances", 1, """
+                SELECT w.id, w.template_id, t.name AS template_name, t.type AS template_type, w.initiated_by,
+                       w.status, w.current_step_index, w.started_at, w.completed_at, w.created_at, w.updated_at
+                FROM workflow_instances w
+                JOIN workflow_templates t ON t.id = w.template_id
+                WHERE w.employee_id = ?""", " ORDER BY w.created_at, w.id"),
+
+        TASKS("tasks", 1, """
+                SELECT t.id, t.workflow_instance_id, t.title, t.description, t.assigned_to, t.task_type, t.status,
+                       t.due_date, t.completed_by, t.completed_at, t.created_at, t.updated_at
+                FROM tasks t
+                JOIN workflow_instances w ON w.id = t.workflow_instance_id
+                WHERE w.employee_id = ?""", " ORDER BY t.workflow_instance_id, t.created_at, t.id"),
+
+        TASK_DEPENDENCIES("task_dependencies", 1, """
+                SELECT d.id, d.task_id, d.prerequisite_task_id, d.dependency_type
+                FROM task_dependencies d
+                JOIN tasks t ON t.id = d.task_id
+                JOIN workflow_instances w ON w.id = t.workflow_instance_id
+                WHERE w.employee_id = ?""", " ORDER BY d.task_id, d.id"),
+
+        AUDIT_LOGS("audit_logs", 3, """
+                SELECT a.id, a.entity_type, a.entity_id, a.action, a.user_id, a.change_details, a.change_delta,
+                       a.timestamp
+                FROM audit_logs a
+                WHERE (a.entity_type = 'EMPLOYEE' AND a.entity_id = ?)
+                   OR (a.entity_type = 'WORKFLOW_INSTANCE' AND a.entity_id IN (
+                           SELECT w.id FROM workflow_instances w WHERE w.employee_id = ?))
+                   OR (a.entity_type = 'TASK' AND a.entity_id IN (
+                           SELECT t.id FROM tasks t
+                           JOIN workflow_instances w ON w.id = t.workflow_instance_id
+                           WHERE w.employee_id = ?))""", " ORDER BY a.timestamp, a.id");
+
+        private final String name;
+        private final int employeeIdParameters;
+        private final String select;
+        private final String orderBy;
+
+        Section(String name, int employeeIdParameters, String select, String orderBy) {
+            this.name = name;
+            this.employeeIdParameters = employeeIdParameters;
+            this.select = select;
+            this.orderBy = orderBy;
+        }
+
+        /** @return the file name of the section in an export, without extension */
+        public String fileName() {
+            return name;
+        }
+
+        private Object[] parameters(UUID employeeId) {
+            return Collections.nCopies(employeeIdParameters, employeeId).toArray();
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeDataRepository(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.employee.export.fetch-size:1000}") int fetchSize) {
+        // A copy: the fetch size applies to every statement of the template
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * @return the number of rows of the section for the employee
+     */
+    public long count(Section section, UUID employeeId) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (" + section.select + ") c", Long.class,
+                section.parameters(employeeId));
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Stream the rows of the section for the employee, labelled as in the select lists above (in upper case on
+     * databases that fold unquoted identifiers).
+     *
+     * @param section    the section
+     * @param employeeId the employee
+     * @param handler    receives each row as it is read
+     */
+    public void stream(Section section, UUID employeeId, RowCallbackHandler handler) {
+        jdbcTemplate.query(section.select + section.orderBy, handler, section.parameters(employeeId));
+    }
+}
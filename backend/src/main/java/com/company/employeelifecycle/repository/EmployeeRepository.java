@@ -2,6 +2,9 @@ package com.company.employeelifecycle.repository;
 
 import com.company.employeelifecycle.entity.Employee;
 import com.company.employeelifecycle.enums.EmployeeStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -30,4 +33,14 @@ public interface EmployeeRepository extends JpaRepository<Employee, UUID> {
      * @return List of employees with the given status
      */
     List<Employee> findByStatus(EmployeeStatus status);
+
+    /**
+     * Scroll employees by status, ordered by last name, using keyset pagination.
+     *
+     * @param status   the employee status
+     * @param position keyset position after which to continue ({@code ScrollPosition.keyset()} for the first page)
+     * @param limit    maximum number of rows to return
+     * @return Window of employees with the position of each row
+     */
+    Window<Employee> findByStatusOrderByLastNameAscIdAsc(EmployeeStatus status, ScrollPosition position, Limit limit);
 }
@@ -0,0 +1,68 @@
+package com.company.employeelifecycle.repository;
+
+import com.company.employeelifecycle.entity.Employee;
+import com.company.employeelifecycle.enums.EmployeeStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads the searchable columns of every employee, one row at a time, to build the employee search index.
+ * <p>
+ * Like the export repositories, the query runs with a fixed JDBC fetch size ({@code app.search.employees.fetch-size})
+ * so that, inside a transaction, the PostgreSQL driver reads it through a server-side cursor.
+ */
+@Repository
+public class EmployeeSearchRepository {
+
+    private static final String SELECT_EMPLOYEES = """
+            SELECT e.id, e.first_name, e.last_name, e.email, e.department, e.status, e.start_date
+            FROM employees e""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeSearchRepository(JdbcTemplate jdbcTemplate,
+                                    @Value("${app.search.employees.fetch-size:1000}") int fetchSize) {
+        // A copy: the fetch size applies to every statement of the template
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Stream every employee.
+     *
+     * @param sink receives each row as it is read
+     */
+    public void stream(Consumer<EmployeeSearchRow> sink) {
+        RowCallbackHandler handler = rs -> {
+            Date startDate = rs.getDate("start_date");
+            sink.accept(new EmployeeSearchRow(
+                    rs.getObject("id", UUID.class),
+                    rs.getString("first_name"),
+                    rs.getString("last_name"),
+                    rs.getString("email"),
+                    rs.getString("department"),
+                    EmployeeStatus.valueOf(rs.getString("status")),
+                    startDate != null ? startDate.toLocalDate() : null));
+        };
+        jdbcTemplate.query(SELECT_EMPLOYEES, handler);
+    }
+
+    /**
+     * The searchable columns of one employee.
+     */
+    public record EmployeeSearchRow(UUID id, String firstName, String lastName, String email, String department,
+                                    EmployeeStatus status, LocalDate startDate) {
+
+        public static EmployeeSearchRow of(Employee employee) {
+            return new EmployeeSearchRow(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                    employee.getEmail(), employee.getDepartment(), employee.getStatus(), employee.getStartDate());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.company.employeelifecycle.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the open tasks that have a due date, with the alerts fired for them so far, and records fired alerts
+ * (see V13__task_alert_state.sql).
+ * <p>
+ * Open tasks are read in pages through the partial index on open tasks' {@code (due_date, id)}, so loading
+ * them costs the number of open tasks due in the window, not the size of the table. Alerts are claimed with a
+ * conditional update of the task's alert state: of several nodes, or of a node before and after a restart,
+ * only the first to claim a step fires it.
+ */
+@Repository
+public class TaskAlertRepository {
+
+    private static final String SELECT_DUE_TASKS = """
+            SELECT t.id, t.workflow_instance_id, t.assigned_to, t.due_date, s.due_date AS fired_due_date,
+                   s.step AS fired_step
+            FROM tasks t
+            LEFT JOIN task_alert_state s ON s.task_id = t.id
+            WHERE t.status <> 'COMPLETED' AND t.due_date IS NOT NULL AND t.due_date <= ?
+            """;
+    private static final String SELECT_FIRST_PAGE = SELECT_DUE_TASKS + """
+            ORDER BY t.due_date, t.id
+            LIMIT ?""";
+    private static final String SELECT_NEXT_PAGE = SELECT_DUE_TASKS + """
+              AND (t.due_date > ? OR (t.due_date = ? AND t.id > ?))
+            ORDER BY t.due_date, t.id
+            LIMIT ?""";
+    private static final String SELECT_INSTANCE_TASKS = SELECT_DUE_TASKS + """
+              AND t.workflow_instance_id = ?""";
+    private static final String INSERT_STATE = """
+            INSERT INTO task_alert_state (task_id, due_date, step)
+            SELECT t.id, t.due_date, -1 FROM tasks t
+            WHERE t.id = ? AND t.due_date IS NOT NULL
+            ON CONFLICT DO NOTHING""";
+    // Claims a step if it is later than the last one fired for the same due date, and the task is still open
+    // with that due date
+    private static final String CLAIM_STEP = """
+            UPDATE task_alert_state SET due_date = ?, step = ?, fired_at = ?
+            WHERE task_id = ? AND (due_date <> ? OR step < ?)
+              AND EXISTS (SELECT 1 FROM tasks t WHERE t.id = ? AND t.status <> 'COMPLETED' AND t.due_date = ?)""";
+
+    private static final RowMapper<DueTask> DUE_TASK = (rs, rowNum) -> {
+        Date firedDueDate = rs.getDate("fired_due_date");
+        int firedStep = rs.getInt("fired_step");
+        boolean neverFired = rs.wasNull();
+        return new DueTask(
+                rs.getObject("id", UUID.class),
+                rs.getObject("workflow_instance_id", UUID.class),
+                rs.getObject("assigned_to", UUID.class),
+                rs.getDate("due_date").toLocalDate(),
+                firedDueDate != null ? firedDueDate.toLocalDate() : null,
+                neverFired ? -1 : firedStep);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskAlertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Find one page of the open tasks due on or before a date, by due date and ID.
+     *
+     * @param dueBy inclusive upper bound of the due date
+     * @param after the last task of the previous page, or null for the first page
+     * @param limit maximum number of tasks to return
+     * @return the page of tasks
+     */
+    public List<DueTask> findOpenTasksDueBy(LocalDate dueBy, DueTask after, int limit) {
+        if (after == null) {
+            return jdbcTemplate.query(SELECT_FIRST_PAGE, DUE_TASK, Date.valueOf(dueBy), limit);
+        }
+        Date afterDueDate = Date.valueOf(after.dueDate());
+        return jdbcTemplate.query(SELECT_NEXT_PAGE, DUE_TASK, Date.valueOf(dueBy), afterDueDate, afterDueDate,
+                after.id(), limit);
+    }
+
+    /**
+     * @param instanceId the workflow instance ID
+     * @param dueBy      inclusive upper bound of the due date
+     * @return the instance's open tasks due on or before the date
+     */
+    public List<DueTask> findOpenTasksOfInstance(UUID instanceId, LocalDate dueBy) {
+        return jdbcTemplate.query(SELECT_INSTANCE_TASKS, DUE_TASK, Date.valueOf(dueBy), instanceId);
+    }
+
+    /**
+     * Record alert steps as fired, unless they were already fired, or the task was completed or got another due
+     * date since it was loaded. Must run in a transaction with the alerts' consequences (e.g. emails to send).
+     *
+     * @param claims  the steps to fire
+     * @param firedAt the time they fire
+     * @return for each claim, whether it was recorded and should fire
+     */
+    public boolean[] claim(List<Claim> claims, LocalDateTime firedAt) {
+        jdbcTemplate.batchUpdate(INSERT_STATE, claims, claims.size(), (ps, claim) -> ps.setObject(1, claim.taskId()));
+        int[][] counts = jdbcTemplate.batchUpdate(CLAIM_STEP, claims, claims.size(), (ps, claim) -> {
+            Date dueDate = Date.valueOf(claim.dueDate());
+            ps.setDate(1, dueDate);
+            ps.setInt(2, claim.step());
+            ps.setTimestamp(3, Timestamp.valueOf(firedAt));
+            ps.setObject(4, claim.taskId());
+            ps.setDate(5, dueDate);
+            ps.setInt(6, claim.step());
+            ps.setObject(7, claim.taskId());
+            ps.setDate(8, dueDate);
+        });
+        boolean[] claimed = new boolean[claims.size()];
+        for (int i = 0; i < claimed.length; i++) {
+            claimed[i] = counts[0][i] > 0;
+        }
+        return claimed;
+    }
+
+    /**
+     * An open task with a due date, and the last alert step fired for it, for the due date it had then
+     * ({@code firedStep} is -1 if none was fired).
+     */
+    public record DueTask(UUID id, UUID workflowInstanceId, UUID assignedTo, LocalDate dueDate,
+                          LocalDate firedDueDate, int firedStep) {
+
+        /**
+         * @return the last step fired for the current due date, or -1
+         */
+        public int firedStepForDueDate() {
+            return dueDate.equals(firedDueDate) ? firedStep : -1;
+        }
+    }
+
+    /**
+     * A step of a task's alert cadence to fire, for the due date it was scheduled for.
+     */
+    public record Claim(UUID taskId, LocalDate dueDate, int step) {
+    }
+}
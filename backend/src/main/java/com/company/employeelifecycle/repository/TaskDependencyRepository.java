@@ -1,6 +1,7 @@
 package com.company.employeelifecycle.repository;
 
 import com.company.employeelifecycle.entity.TaskDependency;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -17,15 +18,17 @@ public interface TaskDependencyRepository extends JpaRepository<TaskDependency,
      * Find all prerequisites for a specific task.
      *
      * @param taskId the task ID
-     * @return List of task dependencies for the task
+     * @return List of task dependencies for the task, with the prerequisite task fetched
      */
+    @EntityGraph(attributePaths = "prerequisiteTask")
     List<TaskDependency> findByTaskId(UUID taskId);
 
     /**
      * Find all tasks dependent on a specific prerequisite task.
      *
      * @param prerequisiteTaskId the prerequisite task ID
-     * @return List of task dependencies with the given prerequisite
+     * @return List of task dependencies with the given prerequisite, with the dependent task fetched
      */
+    @EntityGraph(attributePaths = "task")
     List<TaskDependency> findByPrerequisiteTaskId(UUID prerequisiteTaskId);
 }
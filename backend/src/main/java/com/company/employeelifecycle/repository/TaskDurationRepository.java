@@ -0,0 +1,182 @@
+package com.company.employeelifecycle.repository;
+
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.TaskType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads how long completed tasks took, and the open tasks and dependencies of a workflow instance, for
+ * completion forecasts.
+ * <p>
+ * A task is timed from when it became ready, i.e. from its creation or the completion of its last SEQUENTIAL
+ * prerequisite, whichever is later, to its completion: tasks are all created when their workflow starts, so
+ * the time from creation would count the wait for prerequisites twice in a forecast. The history query runs
+ * with a fixed JDBC fetch size ({@code app.forecast.fetch-size}), like the export repositories.
+ */
+@Repository
+public class TaskDurationRepository {
+
+    // When the task became ready, with t.created_at: the completion of its last SEQUENTIAL prerequisite
+    private static final String PREREQUISITES_COMPLETED_AT = """
+            (SELECT MAX(p.completed_at) FROM task_dependencies d JOIN tasks p ON p.id = d.prerequisite_task_id
+                    WHERE d.task_id = t.id AND d.dependency_type = 'SEQUENTIAL') AS prerequisites_completed_at""";
+    private static final String SELECT_COMPLETED_TASKS = """
+            SELECT w.template_id, t.title, t.task_type, u.role AS assignee_role, t.created_at, t.completed_at,
+                   %s
+            FROM tasks t
+            JOIN workflow_instances w ON w.id = t.workflow_instance_id
+            LEFT JOIN users u ON u.id = t.assigned_to
+            WHERE t.completed_at >= ?""".formatted(PREREQUISITES_COMPLETED_AT);
+    private static final String SELECT_COMPLETED_TASK = """
+            SELECT w.template_id, t.title, t.task_type, u.role AS assignee_role, t.created_at, t.completed_at,
+                   %s
+            FROM tasks t
+            JOIN workflow_instances w ON w.id = t.workflow_instance_id
+            LEFT JOIN users u ON u.id = t.assigned_to
+            WHERE t.id = ? AND t.completed_at IS NOT NULL""".formatted(PREREQUISITES_COMPLETED_AT);
+    private static final String SELECT_INSTANCE = """
+            SELECT w.template_id, w.status,
+                   (SELECT MAX(t.completed_at) FROM tasks t WHERE t.workflow_instance_id = w.id) AS last_completed_at
+            FROM workflow_instances w
+            WHERE w.id = ?""";
+    private static final String SELECT_OPEN_TASKS = """
+            SELECT t.id, t.title, t.task_type, u.role AS assignee_role, t.status, t.unmet_prerequisites, t.created_at,
+                   %s
+            FROM tasks t
+            LEFT JOIN users u ON u.id = t.assigned_to
+            WHERE t.workflow_instance_id = ? AND t.status <> 'COMPLETED'
+            ORDER BY t.id""".formatted(PREREQUISITES_COMPLETED_AT);
+    // Only SEQUENTIAL dependencies block a task (see Task#unmetPrerequisites)
+    private static final String SELECT_OPEN_DEPENDENCIES = """
+            SELECT d.task_id, d.prerequisite_task_id
+            FROM task_dependencies d
+            JOIN tasks t ON t.id = d.task_id
+            JOIN tasks p ON p.id = d.prerequisite_task_id
+            WHERE t.workflow_instance_id = ? AND d.dependency_type = 'SEQUENTIAL'
+              AND t.status <> 'COMPLETED' AND p.status <> 'COMPLETED'""";
+
+    private static final RowMapper<CompletedTaskDuration> COMPLETED_TASK_DURATION = (rs, rowNum) ->
+            new CompletedTaskDuration(
+                    rs.getObject("template_id", UUID.class),
+                    rs.getString("title"),
+                    TaskType.valueOf(rs.getString("task_type")),
+                    rs.getString("assignee_role"),
+                    Duration.between(readyAt(rs), rs.getTimestamp("completed_at").toLocalDateTime()));
+    private static final RowMapper<OpenTask> OPEN_TASK = (rs, rowNum) -> new OpenTask(
+            rs.getObject("id", UUID.class),
+            rs.getString("title"),
+            TaskType.valueOf(rs.getString("task_type")),
+            rs.getString("assignee_role"),
+            TaskStatus.valueOf(rs.getString("status")),
+            rs.getInt("unmet_prerequisites"),
+            readyAt(rs));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public TaskDurationRepository(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.forecast.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // A copy: the fetch size applies to every statement of the template
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Stream the tasks completed since the given time, through the index on {@code tasks.completed_at}.
+     *
+     * @param since inclusive lower bound of the completion time
+     * @param sink  receives each task as it is read
+     */
+    public void streamCompletedTasks(LocalDateTime since, Consumer<CompletedTaskDuration> sink) {
+        RowCallbackHandler handler = rs -> sink.accept(COMPLETED_TASK_DURATION.mapRow(rs, 0));
+        streamingJdbcTemplate.query(SELECT_COMPLETED_TASKS, handler, Timestamp.valueOf(since));
+    }
+
+    /**
+     * @param taskId the task ID
+     * @return the task's duration, or empty if it does not exist or is not completed
+     */
+    public Optional<CompletedTaskDuration> findCompletedTask(UUID taskId) {
+        return jdbcTemplate.query(SELECT_COMPLETED_TASK, COMPLETED_TASK_DURATION, taskId).stream().findFirst();
+    }
+
+    /**
+     * @param instanceId the workflow instance ID
+     * @return the instance, or empty if it does not exist
+     */
+    public Optional<InstanceProgress> findInstance(UUID instanceId) {
+        return jdbcTemplate.query(SELECT_INSTANCE, (rs, rowNum) -> {
+            Timestamp lastCompletedAt = rs.getTimestamp("last_completed_at");
+            return new InstanceProgress(
+                    rs.getObject("template_id", UUID.class),
+                    rs.getString("status"),
+                    lastCompletedAt != null ? lastCompletedAt.toLocalDateTime() : null);
+        }, instanceId).stream().findFirst();
+    }
+
+    /**
+     * @param instanceId the workflow instance ID
+     * @return the instance's tasks that are not completed yet
+     */
+    public List<OpenTask> findOpenTasks(UUID instanceId) {
+        return jdbcTemplate.query(SELECT_OPEN_TASKS, OPEN_TASK, instanceId);
+    }
+
+    /**
+     * @param instanceId the workflow instance ID
+     * @return the SEQUENTIAL dependencies between the instance's tasks that are not completed yet
+     */
+    public List<Dependency> findOpenDependencies(UUID instanceId) {
+        return jdbcTemplate.query(SELECT_OPEN_DEPENDENCIES, (rs, rowNum) -> new Dependency(
+                rs.getObject("task_id", UUID.class),
+                rs.getObject("prerequisite_task_id", UUID.class)), instanceId);
+    }
+
+    private static LocalDateTime readyAt(ResultSet rs) throws SQLException {
+        LocalDateTime createdAt = rs.getTimestamp("created_at").toLocalDateTime();
+        Timestamp prerequisitesCompletedAt = rs.getTimestamp("prerequisites_completed_at");
+        return prerequisitesCompletedAt != null && prerequisitesCompletedAt.toLocalDateTime().isAfter(createdAt)
+                ? prerequisitesCompletedAt.toLocalDateTime() : createdAt;
+    }
+
+    /**
+     * How long a completed task took from becoming ready; the assignee role is null for unassigned tasks.
+     */
+    public record CompletedTaskDuration(UUID templateId, String title, TaskType taskType, String assigneeRole,
+                                        Duration duration) {
+    }
+
+    /**
+     * A workflow instance's template and status, and the completion time of its latest completed task.
+     */
+    public record InstanceProgress(UUID templateId, String status, LocalDateTime lastCompletedAt) {
+    }
+
+    /**
+     * A task that is not completed yet. Tasks without unmet prerequisites have been ready since {@code readyAt}.
+     */
+    public record OpenTask(UUID id, String title, TaskType taskType, String assigneeRole, TaskStatus status,
+                           int unmetPrerequisites, LocalDateTime readyAt) {
+    }
+
+    /**
+     * The task {@code taskId} cannot start before {@code prerequisiteTaskId} is completed.
+     */
+    public record Dependency(UUID taskId, UUID prerequisiteTaskId) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.company.employeelifecycle.repository;
+
+import com.company.employeelifecycle.enums.TaskStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transitive queries over the task dependency graph. Each method walks the whole graph in one
+ * recursive SQL query, instead of one {@link TaskDependencyRepository} round trip per level.
+ * <p>
+ * Tasks reachable over several paths are returned once, at the length of the shortest path. The depth
+ * limit bounds the walk, which also makes it terminate on cyclic data.
+ */
+@Repository
+public class TaskGraphRepository {
+
+    private static final String UPSTREAM_CLOSURE = """
+            WITH RECURSIVE upstream(task_id, depth) AS (
+                SELECT d.prerequisite_task_id, 1
+                FROM task_dependencies d
+                WHERE d.task_id = ?
+                UNION
+                SELECT d.prerequisite_task_id, u.depth + 1
+                FROM upstream u
+                JOIN task_dependencies d ON d.task_id = u.task_id
+                WHERE u.depth < ?
+            )
+            SELECT t.id, t.title, t.status, MIN(u.depth) AS depth
+            FROM upstream u
+            JOIN tasks t ON t.id = u.task_id
+            GROUP BY t.id, t.title, t.status
+            ORDER BY depth, t.id""";
+    private static final String DOWNSTREAM_CLOSURE = """
+            WITH RECURSIVE downstream(task_id, depth) AS (
+                SELECT d.task_id, 1
+                FROM task_dependencies d
+                WHERE d.prerequisite_task_id = ?
+                UNION
+                SELECT d.task_id, w.depth + 1
+                FROM downstream w
+                JOIN task_dependencies d ON d.prerequisite_task_id = w.task_id
+                WHERE w.depth < ?
+            )
+            SELECT t.id, t.title, t.status, MIN(w.depth) AS depth
+            FROM downstream w
+            JOIN tasks t ON t.id = w.task_id
+            GROUP BY t.id, t.title, t.status
+            ORDER BY depth, t.id""";
+
+    private static final RowMapper<ClosureNode> CLOSURE_NODE = (rs, rowNum) -> new ClosureNode(
+            rs.getObject("id", UUID.class),
+            rs.getString("title"),
+            TaskStatus.valueOf(rs.getString("status")),
+            rs.getInt("depth"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskGraphRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Find every task the given task transitively depends on.
+     *
+     * @param taskId   the task ID
+     * @param maxDepth maximum number of dependency hops to follow
+     * @return the prerequisite tasks, nearest first
+     */
+    public List<ClosureNode> findUpstreamClosure(UUID taskId, int maxDepth) {
+        return jdbcTemplate.query(UPSTREAM_CLOSURE, CLOSURE_NODE, taskId, maxDepth);
+    }
+
+    /**
+     * Find every task that transitively depends on the given task.
+     *
+     * @param taskId   the task ID
+     * @param maxDepth maximum number of dependency hops to follow
+     * @return the dependent tasks, nearest first
+     */
+    public List<ClosureNode> findDownstreamClosure(UUID taskId, int maxDepth) {
+        return jdbcTemplate.query(DOWNSTREAM_CLOSURE, CLOSURE_NODE, taskId, maxDepth);
+    }
+
+    /**
+     * A task reached while walking the dependency graph, with its distance from the starting task.
+     */
+    public record ClosureNode(UUID taskId, String title, TaskStatus status, int depth) {
+    }
+}
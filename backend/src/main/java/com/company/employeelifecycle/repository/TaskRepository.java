@@ -1,10 +1,19 @@
 package com.company.employeelifecycle.repository;
 
 import com.company.employeelifecycle.entity.Task;
+import com.company.employeelifecycle.entity.User;
 import com.company.employeelifecycle.enums.TaskStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,26 +25,150 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
 
     /**
      * Find all tasks assigned to a specific user.
+     * Uses the inbox fetch plan (workflow instance and employee).
      *
      * @param userId the user ID
      * @return List of tasks assigned to the user
      */
+    @EntityGraph(Task.GRAPH_INBOX)
     List<Task> findByAssignedToId(UUID userId);
 
     /**
      * Find all tasks for a specific workflow instance.
+     * Uses the instance detail fetch plan (assignee and completer).
      *
      * @param workflowInstanceId the workflow instance ID
      * @return List of tasks for the workflow instance
      */
+    @EntityGraph(Task.GRAPH_INSTANCE_DETAIL)
     List<Task> findByWorkflowInstanceId(UUID workflowInstanceId);
 
     /**
      * Find all tasks by status and assigned user.
+     * Uses the inbox fetch plan (workflow instance and employee).
      *
      * @param status the task status
      * @param userId the user ID
      * @return List of tasks matching the status and user
      */
+    @EntityGraph(Task.GRAPH_INBOX)
     List<Task> findByStatusAndAssignedToId(TaskStatus status, UUID userId);
+
+    /**
+     * Read the version of a user's task inbox without loading it: the number of tasks and when they, or the
+     * employees shown with them, last changed.
+     *
+     * @param userId the user ID
+     * @return the inbox version
+     */
+    @Query("""
+            select count(t) as tasks, max(t.updatedAt) as tasksUpdatedAt, max(e.updatedAt) as employeesUpdatedAt
+            from Task t join t.workflowInstance w join w.employee e
+            where t.assignedTo.id = :userId""")
+    InboxVersion findInboxVersion(@Param("userId") UUID userId);
+
+    /**
+     * Scroll the tasks assigned to a specific user, newest first, using keyset pagination.
+     * Uses the inbox fetch plan (workflow instance and employee).
+     *
+     * @param userId   the user ID
+     * @param position keyset position after which to continue ({@code ScrollPosition.keyset()} for the first page)
+     * @param limit    maximum number of rows to return
+     * @return Window of tasks with the position of each row
+     */
+    @EntityGraph(Task.GRAPH_INBOX)
+    Window<Task> findByAssignedToIdOrderByCreatedAtDescIdDesc(UUID userId, ScrollPosition position, Limit limit);
+
+    /**
+     * Scroll the tasks in a given status assigned to a specific user, newest first, using keyset pagination.
+     * Uses the inbox fetch plan (workflow instance and employee).
+     *
+     * @param status   the task status
+     * @param userId   the user ID
+     * @param position keyset position after which to continue ({@code ScrollPosition.keyset()} for the first page)
+     * @param limit    maximum number of rows to return
+     * @return Window of tasks with the position of each row
+     */
+    @EntityGraph(Task.GRAPH_INBOX)
+    Window<Task> findByStatusAndAssignedToIdOrderByCreatedAtDescIdDesc(TaskStatus status, UUID userId,
+                                                                       ScrollPosition position, Limit limit);
+
+    /**
+     * Mark a task completed, unless it is already completed or still has unmet prerequisites.
+     * The conditions make concurrent completions of the same task succeed at most once.
+     *
+     * @param taskId      the task ID
+     * @param completedBy the user completing the task
+     * @param now         completion timestamp
+     * @return 1 if the task was completed by this call, otherwise 0
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Task t
+            set t.status = com.company.employeelifecycle.enums.TaskStatus.COMPLETED,
+                t.completedBy = :completedBy, t.completedAt = :now, t.rolledUp = false, t.updatedAt = :now
+            where t.id = :taskId
+              and t.status <> com.company.employeelifecycle.enums.TaskStatus.COMPLETED
+              and t.unmetPrerequisites = 0""")
+    int markCompleted(@Param("taskId") UUID taskId, @Param("completedBy") User completedBy,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Decrement the unmet-prerequisite count of every task that SEQUENTIALly depends on a just-completed task.
+     * Call once per completion, in the transaction that completed the prerequisite.
+     *
+     * @param prerequisiteTaskId the completed task
+     * @param now                update timestamp
+     * @return number of dependent tasks updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Task t
+            set t.unmetPrerequisites = t.unmetPrerequisites - 1, t.updatedAt = :now
+            where t.id in (select d.task.id from TaskDependency d
+                           where d.prerequisiteTask.id = :prerequisiteTaskId
+                             and d.dependencyType = com.company.employeelifecycle.enums.DependencyType.SEQUENTIAL)""")
+    int decrementUnmetPrerequisites(@Param("prerequisiteTaskId") UUID prerequisiteTaskId,
+                                    @Param("now") LocalDateTime now);
+
+    /**
+     * Find the not-started dependents of a task that no longer have unmet prerequisites,
+     * i.e. the tasks unblocked by completing it.
+     *
+     * @param prerequisiteTaskId the completed task
+     * @return IDs of the ready dependent tasks
+     */
+    @Query("""
+            select t.id from Task t
+            where t.unmetPrerequisites = 0
+              and t.status = com.company.employeelifecycle.enums.TaskStatus.NOT_STARTED
+              and t.id in (select d.task.id from TaskDependency d
+                           where d.prerequisiteTask.id = :prerequisiteTaskId
+                             and d.dependencyType = com.company.employeelifecycle.enums.DependencyType.SEQUENTIAL)""")
+    List<UUID> findReadyDependentIds(@Param("prerequisiteTaskId") UUID prerequisiteTaskId);
+
+    /**
+     * Find the tasks of a workflow instance that can be started: not started and without unmet prerequisites.
+     *
+     * @param workflowInstanceId the workflow instance ID
+     * @return List of ready tasks
+     */
+    @Query("""
+            select t from Task t
+            where t.workflowInstance.id = :workflowInstanceId
+              and t.unmetPrerequisites = 0
+              and t.status = com.company.employeelifecycle.enums.TaskStatus.NOT_STARTED""")
+    List<Task> findReadyByWorkflowInstanceId(@Param("workflowInstanceId") UUID workflowInstanceId);
+
+    /**
+     * Projection of the values that change whenever a task inbox does.
+     */
+    interface InboxVersion {
+
+        Long getTasks();
+
+        LocalDateTime getTasksUpdatedAt();
+
+        LocalDateTime getEmployeesUpdatedAt();
+    }
 }
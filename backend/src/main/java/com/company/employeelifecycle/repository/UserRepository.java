@@ -1,9 +1,14 @@
 package com.company.employeelifecycle.repository;
 
 import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.enums.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -21,4 +26,35 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      * @return Optional containing the user if found, empty otherwise
      */
     Optional<User> findByEmail(String email);
+
+    /**
+     * Find a user by email address, ignoring case.
+     * Used by the authentication path, which normalizes login emails before lookup.
+     * Compares {@code lower(email)} so that the lookup is served by the unique index {@code idx_users_email_lower},
+     * which also keeps two case variants of one address from both matching.
+     *
+     * @param email the email address to search for
+     * @return Optional containing the user if found, empty otherwise
+     */
+    @Query("SELECT u FROM User u WHERE lower(u.email) = lower(:email)")
+    Optional<User> findByEmailIgnoreCase(@Param("email") String email);
+
+    /**
+     * Find active users holding any of the given roles, oldest account first.
+     * Used to resolve role-based task assignments when a workflow is instantiated.
+     *
+     * @param roles the roles to look up
+     * @return List of active users with one of the roles
+     */
+    List<User> findByRoleInAndActiveTrueOrderByCreatedAtAsc(Collection<UserRole> roles);
+
+    /**
+     * Find the version of a user, which every change to the user increments.
+     * Used to tell whether a session principal is stale without loading the user.
+     *
+     * @param id the user ID
+     * @return Optional containing the version if the user exists
+     */
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
 }
@@ -0,0 +1,120 @@
+package com.company.employeelifecycle.repository;
+
+import com.company.employeelifecycle.enums.DependencyType;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.TaskType;
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC batch writer for materializing a workflow instance: the instance row, its tasks and their
+ * dependency edges. Rows are inserted in ordered batches on the caller's transaction, instead of
+ * one persist and one round trip per entity.
+ * <p>
+ * On PostgreSQL, set {@code reWriteBatchedInserts} on the driver so each batch becomes a multi-row insert.
+ */
+@Repository
+public class WorkflowBatchWriter {
+
+    private static final String INSERT_INSTANCE = """
+            INSERT INTO workflow_instances (id, template_id, employee_id, initiated_by, status, current_step_index,
+                                            started_at, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+    private static final String INSERT_TASK = """
+            INSERT INTO tasks (id, workflow_instance_id, title, description, assigned_to, task_type, status,
+                               due_date, unmet_prerequisites, created_at, updated_at, rolled_up)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE)""";
+    private static final String INSERT_DEPENDENCY = """
+            INSERT INTO task_dependencies (id, task_id, prerequisite_task_id, dependency_type)
+            VALUES (?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public WorkflowBatchWriter(JdbcTemplate jdbcTemplate,
+                               @Value("${app.workflow.instantiation.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Insert a workflow instance row.
+     *
+     * @param instance the instance to insert
+     */
+    public void insertInstance(InstanceRow instance) {
+        Timestamp createdAt = Timestamp.valueOf(instance.createdAt());
+        jdbcTemplate.update(INSERT_INSTANCE, instance.id(), instance.templateId(), instance.employeeId(),
+                instance.initiatedBy(), instance.status().name(), 0, createdAt, createdAt, createdAt);
+    }
+
+    /**
+     * Insert task rows in batches, in list order.
+     *
+     * @param tasks the tasks to insert
+     * @return number of rows inserted
+     */
+    public int insertTasks(List<TaskRow> tasks) {
+        jdbcTemplate.batchUpdate(INSERT_TASK, tasks, batchSize, (ps, task) -> {
+            Timestamp createdAt = Timestamp.valueOf(task.createdAt());
+            ps.setObject(1, task.id());
+            ps.setObject(2, task.workflowInstanceId());
+            ps.setString(3, task.title());
+            ps.setString(4, task.description());
+            ps.setObject(5, task.assignedTo());
+            ps.setString(6, task.taskType().name());
+            ps.setString(7, task.status().name());
+            ps.setDate(8, task.dueDate() != null ? Date.valueOf(task.dueDate()) : null);
+            ps.setInt(9, task.unmetPrerequisites());
+            ps.setTimestamp(10, createdAt);
+            ps.setTimestamp(11, createdAt);
+        });
+        return tasks.size();
+    }
+
+    /**
+     * Insert dependency edges in batches. The referenced tasks must already be inserted.
+     *
+     * @param dependencies the edges to insert
+     * @return number of rows inserted
+     */
+    public int insertDependencies(List<DependencyRow> dependencies) {
+        jdbcTemplate.batchUpdate(INSERT_DEPENDENCY, dependencies, batchSize, (ps, dependency) -> {
+            ps.setObject(1, dependency.id());
+            ps.setObject(2, dependency.taskId());
+            ps.setObject(3, dependency.prerequisiteTaskId());
+            ps.setString(4, dependency.dependencyType().name());
+        });
+        return dependencies.size();
+    }
+
+    /**
+     * Row values for a new workflow instance.
+     */
+    public record InstanceRow(UUID id, UUID templateId, UUID employeeId, UUID initiatedBy,
+                              WorkflowInstanceStatus status, LocalDateTime createdAt) {
+    }
+
+    /**
+     * Row values for a new task.
+     */
+    public record TaskRow(UUID id, UUID workflowInstanceId, String title, String description, UUID assignedTo,
+                          TaskType taskType, TaskStatus status, LocalDate dueDate, int unmetPrerequisites,
+                          LocalDateTime createdAt) {
+    }
+
+    /**
+     * Row values for a new dependency edge.
+     */
+    public record DependencyRow(UUID id, UUID taskId, UUID prerequisiteTaskId, DependencyType dependencyType) {
+    }
+}
@@ -2,10 +2,15 @@ package com.company.employeelifecycle.repository;
 
 import com.company.employeelifecycle.entity.WorkflowInstance;
 import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -29,4 +34,65 @@ public interface WorkflowInstanceRepository extends JpaRepository<WorkflowInstan
      * @return List of workflow instances for the employee
      */
     List<WorkflowInstance> findByEmployeeId(UUID employeeId);
+
+    /**
+     * Find a workflow instance for the detail view, with its template, employee and initiator.
+     *
+     * @param id the workflow instance ID
+     * @return Optional containing the workflow instance if found
+     */
+    @EntityGraph(WorkflowInstance.GRAPH_DETAIL)
+    Optional<WorkflowInstance> findDetailById(UUID id);
+
+    /**
+     * Scroll all workflow instances, newest first, using keyset pagination.
+     * Fetches the employee for the list view; the template stays lazy.
+     *
+     * @param position keyset position after which to continue ({@code ScrollPosition.keyset()} for the first page)
+     * @param limit    maximum number of rows to return
+     * @return Window of workflow instances with the position of each row
+     */
+    @EntityGraph(attributePaths = "employee")
+    Window<WorkflowInstance> findAllByOrderByCreatedAtDescIdDesc(ScrollPosition position, Limit limit);
+
+    /**
+     * Scroll workflow instances by status, newest first, using keyset pagination.
+     * Fetches the employee for the list view; the template stays lazy.
+     *
+     * @param status   the workflow instance status
+     * @param position keyset position after which to continue ({@code ScrollPosition.keyset()} for the first page)
+     * @param limit    maximum number of rows to return
+     * @return Window of workflow instances with the position of each row
+     */
+    @EntityGraph(attributePaths = "employee")
+    Window<WorkflowInstance> findByStatusOrderByCreatedAtDescIdDesc(WorkflowInstanceStatus status,
+                                                                    ScrollPosition position, Limit limit);
+
+    /**
+     * Scroll the workflow instances of a specific employee, newest first, using keyset pagination.
+     * Fetches the employee for the list view; the template stays lazy.
+     *
+     * @param employeeId the employee ID
+     * @param position   keyset position after which to continue ({@code ScrollPosition.keyset()} for the first page)
+     * @param limit      maximum number of rows to return
+     * @return Window of workflow instances with the position of each row
+     */
+    @EntityGraph(attributePaths = "employee")
+    Window<WorkflowInstance> findByEmployeeIdOrderByCreatedAtDescIdDesc(UUID employeeId,
+                                                                        ScrollPosition position, Limit limit);
+
+    /**
+     * Scroll the workflow instances of a specific employee in a given status, newest first, using keyset pagination.
+     * Fetches the employee for the list view; the template stays lazy.
+     *
+     * @param employeeId the employee ID
+     * @param status     the workflow instance status
+     * @param position   keyset position after which to continue ({@code ScrollPosition.keyset()} for the first page)
+     * @param limit      maximum number of rows to return
+     * @return Window of workflow instances with the position of each row
+     */
+    @EntityGraph(attributePaths = "employee")
+    Window<WorkflowInstance> findByEmployeeIdAndStatusOrderByCreatedAtDescIdDesc(UUID employeeId,
+                                                                                 WorkflowInstanceStatus status,
+                                                                                 ScrollPosition position, Limit limit);
 }
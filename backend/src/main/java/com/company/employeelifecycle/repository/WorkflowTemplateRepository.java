@@ -5,7 +5,9 @@ import com.company.employeelifecycle.enums.WorkflowType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -21,4 +23,38 @@ public interface WorkflowTemplateRepository extends JpaRepository<WorkflowTempla
      * @return List of active workflow templates with the given type
      */
     List<WorkflowTemplate> findByTypeAndActiveTrue(WorkflowType type);
+
+    /**
+     * Find all active workflow templates.
+     *
+     * @return List of active workflow templates
+     */
+    List<WorkflowTemplate> findByActiveTrue();
+
+    /**
+     * Find the header columns of a template, without its JSON definition.
+     * Used to validate cached template plans with a single-row lookup.
+     *
+     * @param id the template ID
+     * @return Optional containing the template header if found
+     */
+    Optional<TemplateHeader> findHeaderById(UUID id);
+
+    /**
+     * Projection of the workflow template columns other than templateJson.
+     */
+    interface TemplateHeader {
+
+        UUID getId();
+
+        String getName();
+
+        WorkflowType getType();
+
+        Integer getVersion();
+
+        Boolean getActive();
+
+        LocalDateTime getUpdatedAt();
+    }
 }
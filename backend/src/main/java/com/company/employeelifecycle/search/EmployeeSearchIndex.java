@@ -0,0 +1,182 @@
+package com.company.employeelifecycle.search;
+
+import com.company.employeelifecycle.dto.response.EmployeeSearchResultResponse;
+import com.company.employeelifecycle.enums.EmployeeStatus;
+import com.company.employeelifecycle.event.EmployeeChangedEvent;
+import com.company.employeelifecycle.repository.EmployeeSearchRepository;
+import com.company.employeelifecycle.repository.EmployeeSearchRepository.EmployeeSearchRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory search over employees by name, email and department, filtered by status and start date.
+ * <p>
+ * The {@link NgramIndex} is built from the database at startup and kept current from {@link EmployeeChangedEvent}
+ * once the change commits. Searches share a read lock; changes take the write lock, which only covers a handful
+ * of map updates. A rebuild reads into a new index outside the lock and swaps it in, replaying the changes that
+ * committed while it was reading.
+ * <p>
+ * Each node only sees its own changes, so the index is also rebuilt every
+ * {@code app.search.employees.rebuild-interval}.
+ */
+@Slf4j
+@Component
+public class EmployeeSearchIndex {
+
+    private final EmployeeSearchRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double minSimilarity;
+    private final Timer searchTimer;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Guarded by {@link #lock}. */
+    private NgramIndex index;
+    /** Changes seen while a rebuild reads, or null when no rebuild runs; guarded by {@link #lock}. */
+    private List<EmployeeChangedEvent> pending;
+
+    public EmployeeSearchIndex(EmployeeSearchRepository repository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.search.employees.min-similarity:0.5}") double minSimilarity) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.minSimilarity = minSimilarity;
+        this.index = new NgramIndex(minSimilarity);
+        this.searchTimer = Timer.builder("employee.search")
+                .description("Time to search the in-memory employee index")
+                .register(meterRegistry);
+        Gauge.builder("employee.search.indexed", this, EmployeeSearchIndex::size)
+                .description("Employees in the search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replace the index with a fresh one from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.search.employees.rebuild-interval:PT5M}",
+            initialDelayString = "${app.search.employees.rebuild-interval:PT5M}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            writeLock.unlock();
+        }
+        NgramIndex rebuilt = new NgramIndex(minSimilarity);
+        boolean complete = false;
+        try {
+            // In a transaction, so that the driver reads through a cursor
+            readOnlyTransaction.executeWithoutResult(status -> repository.stream(rebuilt::put));
+            complete = true;
+        } finally {
+            writeLock.lock();
+            try {
+                if (complete) {
+                    pending.forEach(event -> apply(rebuilt, event));
+                    index = rebuilt;
+                }
+                pending = null;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        log.debug("Rebuilt employee search index with {} employees in {} ms", rebuilt.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            apply(index, event);
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Search employees by name, email and department. Misspelled and partially typed words still match.
+     *
+     * @param query     free text; blank lists the employees matching the filters by name
+     * @param status    optional status filter
+     * @param startFrom optional inclusive lower bound of the start date
+     * @param startTo   optional exclusive upper bound of the start date
+     * @param limit     maximum number of results
+     * @return the matching employees, best first
+     */
+    public List<EmployeeSearchResultResponse> search(String query, EmployeeStatus status, LocalDate startFrom,
+                                                     LocalDate startTo, int limit) {
+        Predicate<EmployeeSearchRow> filter = employee -> (status == null || employee.status() == status)
+                && (startFrom == null || employee.startDate() != null && !employee.startDate().isBefore(startFrom))
+                && (startTo == null || employee.startDate() != null && employee.startDate().isBefore(startTo));
+        long start = System.nanoTime();
+        List<NgramIndex.Hit> hits;
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            hits = index.search(query, filter, limit);
+        } finally {
+            readLock.unlock();
+        }
+        searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return hits.stream().map(EmployeeSearchIndex::toResponse).toList();
+    }
+
+    private int size() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return index.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private static void apply(NgramIndex index, EmployeeChangedEvent event) {
+        if (event.removed()) {
+            index.remove(event.employee().getId());
+        } else {
+            index.put(EmployeeSearchRow.of(event.employee()));
+        }
+    }
+
+    private static EmployeeSearchResultResponse toResponse(NgramIndex.Hit hit) {
+        EmployeeSearchRow employee = hit.employee();
+        return EmployeeSearchResultResponse.builder()
+                .id(employee.id())
+                .score(hit.score())
+                .firstName(employee.firstName())
+                .lastName(employee.lastName())
+                .email(employee.email())
+                .department(employee.department())
+                .status(employee.status().name())
+                .startDate(employee.startDate())
+                .build();
+    }
+}
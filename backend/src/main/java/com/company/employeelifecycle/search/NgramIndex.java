@@ -0,0 +1,292 @@
+package com.company.employeelifecycle.search;
+
+import com.company.employeelifecycle.repository.EmployeeSearchRepository.EmployeeSearchRow;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Trigram index over employee names, emails and departments.
+ * <p>
+ * Each field is normalized (accents stripped, lower-cased) and split into terms on anything that is not a letter
+ * or digit, so {@code jane.smith@example.com} indexes {@code jane}, {@code smith}, {@code example} and
+ * {@code com}. Terms are padded like pg_trgm ({@code "  jane "}) and every trigram maps to a posting list of the
+ * employees whose terms contain it.
+ * <p>
+ * A query token matches an employee when enough of its trigrams occur in the employee's terms: all of them for
+ * tokens of up to two characters, {@code minSimilarity} of them otherwise. Query tokens are not padded at the end,
+ * so a token also matches the start of a longer term. Every token must match. Employees are ranked by the summed
+ * trigram ratios, plus a bonus per token that equals (1) or starts (0.5) one of their terms, then by name.
+ * <p>
+ * Employees get ordinals in the order they are added; updating one adds it again under a new ordinal and
+ * leaves the old one as a dead entry in the posting lists until the index compacts itself.
+ * <p>
+ * Not thread-safe: {@link EmployeeSearchIndex} guards it with a read-write lock.
+ */
+final class NgramIndex {
+
+    /** Dead entries tolerated before compaction, on top of one per live employee. */
+    private static final int COMPACTION_SLACK = 1024;
+    private static final int SHORT_TOKEN = 2;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparing(hit -> hit.doc().sortKey())
+            .thenComparing(Hit::id);
+
+    private final double minSimilarity;
+    private final Map<Long, Postings> postings = new HashMap<>();
+    /** Employees by ordinal; null once removed or replaced. */
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private int dead;
+
+    NgramIndex(double minSimilarity) {
+        this.minSimilarity = minSimilarity;
+    }
+
+    /**
+     * Add an employee, or replace its previous version.
+     */
+    void put(EmployeeSearchRow employee) {
+        remove(employee.id());
+        int ordinal = docs.size();
+        String[] terms = terms(employee.firstName(), employee.lastName(), employee.email(), employee.department())
+                .toArray(String[]::new);
+        docs.add(new Doc(employee, terms, sortKey(employee)));
+        ordinals.put(employee.id(), ordinal);
+        int length = 0;
+        for (String term : terms) {
+            length += term.length() + 1;
+        }
+        long[] grams = new long[length];
+        int offset = 0;
+        for (String term : terms) {
+            long[] termGrams = grams(term, true);
+            System.arraycopy(termGrams, 0, grams, offset, termGrams.length);
+            offset += termGrams.length;
+        }
+        for (long gram : distinct(Arrays.copyOf(grams, offset))) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(ordinal);
+        }
+    }
+
+    /**
+     * Remove an employee, if indexed.
+     */
+    void remove(UUID employeeId) {
+        Integer ordinal = ordinals.remove(employeeId);
+        if (ordinal == null) {
+            return;
+        }
+        docs.set(ordinal, null);
+        if (++dead > ordinals.size() + COMPACTION_SLACK) {
+            compact();
+        }
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    /**
+     * Find the best matching employees.
+     *
+     * @param query  free text; blank matches every employee
+     * @param filter further condition on the matching employees
+     * @param limit  maximum number of hits
+     * @return the hits, best first
+     */
+    List<Hit> search(String query, Predicate<EmployeeSearchRow> filter, int limit) {
+        List<String> tokens = terms(query);
+        int size = docs.size();
+        float[] scores = new float[size];
+        // Number of leading tokens each employee matched; an employee stays a candidate only while it matches all
+        int[] matched = new int[size];
+        int[] shared = new int[size];
+        int[] touched = new int[size];
+        for (int t = 0; t < tokens.size(); t++) {
+            String token = tokens.get(t);
+            long[] grams = grams(token, false);
+            int touchedCount = 0;
+            for (long gram : grams) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    int ordinal = list.ordinals[i];
+                    if (matched[ordinal] == t && shared[ordinal]++ == 0) {
+                        touched[touchedCount++] = ordinal;
+                    }
+                }
+            }
+            double threshold = token.length() <= SHORT_TOKEN ? 1.0 : minSimilarity;
+            for (int i = 0; i < touchedCount; i++) {
+                int ordinal = touched[i];
+                double ratio = (double) shared[ordinal] / grams.length;
+                shared[ordinal] = 0;
+                if (ratio >= threshold) {
+                    matched[ordinal] = t + 1;
+                    scores[ordinal] += (float) ratio;
+                }
+            }
+        }
+
+        // Worst of the best hits at the head
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (matched[ordinal] != tokens.size()) {
+                continue;
+            }
+            Doc doc = docs.get(ordinal);
+            // The bonus adds at most 1 per token: skip employees that cannot beat the worst hit kept so far
+            if (doc == null || best.size() == limit && scores[ordinal] + tokens.size() < best.peek().score()
+                    || !filter.test(doc.employee())) {
+                continue;
+            }
+            Hit hit = new Hit(doc, scores[ordinal] + bonus(doc.terms(), tokens));
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (RANKING.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return hits;
+    }
+
+    private static double bonus(String[] terms, List<String> tokens) {
+        double bonus = 0;
+        for (String token : tokens) {
+            double tokenBonus = 0;
+            for (String term : terms) {
+                if (term.equals(token)) {
+                    tokenBonus = 1;
+                    break;
+                }
+                if (term.startsWith(token)) {
+                    tokenBonus = 0.5;
+                }
+            }
+            bonus += tokenBonus;
+        }
+        return bonus;
+    }
+
+    private void compact() {
+        List<EmployeeSearchRow> live = new ArrayList<>(ordinals.size());
+        for (Doc doc : docs) {
+            if (doc != null) {
+                live.add(doc.employee());
+            }
+        }
+        postings.clear();
+        docs.clear();
+        ordinals.clear();
+        dead = 0;
+        live.forEach(this::put);
+    }
+
+    /**
+     * Last name, then first name, normalized like the terms.
+     */
+    private static String sortKey(EmployeeSearchRow employee) {
+        return String.join(" ", terms(employee.lastName())) + "\u0000" + String.join(" ", terms(employee.firstName()));
+    }
+
+    /**
+     * Split text into normalized terms.
+     */
+    static List<String> terms(String... fields) {
+        List<String> terms = new ArrayList<>();
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            String normalized = MARKS.matcher(Normalizer.normalize(field, Normalizer.Form.NFD)).replaceAll("")
+                    .toLowerCase(Locale.ROOT);
+            for (String term : SEPARATORS.split(normalized)) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * The distinct trigrams of a term padded with two leading blanks and, for indexed terms, one trailing blank.
+     * Each trigram is packed into a long, 16 bits per char.
+     */
+    static long[] grams(String term, boolean indexed) {
+        String padded = indexed ? "  " + term + " " : "  " + term;
+        long[] grams = new long[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        return distinct(grams);
+    }
+
+    /**
+     * Sorts the grams and drops the duplicates.
+     */
+    private static long[] distinct(long[] grams) {
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == grams.length ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * One matching employee and its score.
+     */
+    record Hit(Doc doc, double score) {
+
+        EmployeeSearchRow employee() {
+            return doc.employee();
+        }
+
+        private UUID id() {
+            return doc.employee().id();
+        }
+    }
+
+    /**
+     * An indexed employee with its terms and its name as sort key.
+     */
+    record Doc(EmployeeSearchRow employee, String[] terms, String sortKey) {
+    }
+
+    /**
+     * Ordinals of the employees containing one trigram, ascending.
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        private void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.company.employeelifecycle.security;
+
+import com.company.employeelifecycle.enums.UserRole;
+import lombok.Getter;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Security principal carrying the immutable profile of the authenticated user.
+ * Stored in the SecurityContext so the login response and /api/auth/me can be served
+ * without reloading the User row. {@code version} is the version of the users row the profile
+ * was read from, and is used by {@link PrincipalRefreshFilter} to detect stale principals.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+    private final UUID id;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final UserRole role;
+    private final boolean active;
+    private final long version;
+    private String password;
+
+    public AuthenticatedUser(UUID id, String email, String password, String firstName, String lastName,
+                             UserRole role, boolean active, long version) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.role = role;
+        this.active = active;
+        this.version = version;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+
+    /**
+     * Principals are equal when they represent the same user, which is what
+     * session-concurrency control relies on.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AuthenticatedUser other && id.equals(other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser[id=" + id + ", email=" + email + ", role=" + role + "]";
+    }
+}
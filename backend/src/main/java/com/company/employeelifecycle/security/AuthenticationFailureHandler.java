@@ -5,6 +5,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
 import org.springframework.stereotype.Component;
@@ -15,6 +17,7 @@ import java.util.Map;
 
 /**
  * Custom authentication failure handler that returns error details as JSON.
+ * Throttled attempts ({@link LoginThrottledException}) are answered with 429 and Retry-After.
  */
 @Component
 @RequiredArgsConstructor
@@ -28,11 +31,19 @@ public class AuthenticationFailureHandler extends SimpleUrlAuthenticationFailure
 
         Map<String, Object> responseBody = new HashMap<>();
         responseBody.put("success", false);
-        responseBody.put("error", "Invalid email or password");
+
+        if (exception instanceof LoginThrottledException throttled) {
+            responseBody.put("error", "Too many login attempts, please try again later");
+            long retryAfterSeconds = Math.max(1, (throttled.getRetryAfter().toMillis() + 999) / 1000);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        } else {
+            responseBody.put("error", "Invalid email or password");
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        }
 
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
         response.getWriter().write(objectMapper.writeValueAsString(responseBody));
     }
 }
@@ -1,57 +1,39 @@
 package com.company.employeelifecycle.security;
 
-import com.company.employeelifecycle.entity.User;
-import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.mapper.UserMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Custom authentication success handler that returns user details as JSON.
+ * The profile is taken from the {@link AuthenticatedUser} principal loaded during authentication,
+ * so no further database query is needed.
  */
 @Component
 @RequiredArgsConstructor
 public class AuthenticationSuccessHandler extends SimpleUrlAuthenticationSuccessHandler {
 
     private final ObjectMapper objectMapper;
-    private final UserRepository userRepository;
+    private final UserMapper userMapper;
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
                                         Authentication authentication) throws IOException, ServletException {
 
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String email = userDetails.getUsername();
-
-        // Fetch full user details from database
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Map<String, Object> responseBody = new HashMap<>();
-        responseBody.put("success", true);
-
-        Map<String, Object> userData = new HashMap<>();
-        userData.put("id", user.getId().toString());
-        userData.put("email", user.getEmail());
-        userData.put("firstName", user.getFirstName());
-        userData.put("lastName", user.getLastName());
-        userData.put("role", user.getRole().name());
-
-        responseBody.put("user", userData);
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
 
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
         response.setStatus(HttpServletResponse.SC_OK);
-        response.getWriter().write(objectMapper.writeValueAsString(responseBody));
+        response.getWriter().write(objectMapper.writeValueAsString(
+                userMapper.toLoginResponse(userMapper.toUserData(principal))));
     }
 }
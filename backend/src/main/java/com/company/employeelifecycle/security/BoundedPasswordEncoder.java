@@ -0,0 +1,120 @@
+package com.company.employeelifecycle.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * PasswordEncoder that runs {@link #matches} on a dedicated, size-bounded executor.
+ * BCrypt verification is CPU-bound, so capping its concurrency keeps a burst of logins from
+ * taking CPU away from the rest of the API. When the queue is full, or the verifications ahead of an attempt
+ * would take longer than the timeout at their mean duration so far, the attempt fails fast with
+ * {@link LoginThrottledException} instead of queueing behind the burst: a running BCrypt hash cannot be
+ * interrupted, so a caller that times out would only have held its request thread for nothing.
+ * Encoding runs on the caller's thread: it only happens on administrative paths.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer verificationTimer;
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-verify-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.verificationTimer = Timer.builder("auth.password.verification")
+                .description("Time spent hashing a password for verification")
+                .register(meterRegistry);
+        this.queueFullRejections = LoginRateLimiter.rejectionCounter(meterRegistry, "queue_full");
+        this.timeoutRejections = LoginRateLimiter.rejectionCounter(meterRegistry, "timeout");
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password verifications waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password verifications currently running")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (executor.getQueue().remainingCapacity() == 0 || estimatedWaitMillis() > timeout.toMillis()) {
+            throw rejected();
+        }
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> verificationTimer.recordCallable(
+                    () -> delegate.matches(rawPassword, encodedPassword)));
+        } catch (RejectedExecutionException ex) {
+            throw rejected();
+        }
+
+        try {
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while verifying password", ex);
+        } catch (TimeoutException ex) {
+            result.cancel(true);
+            timeoutRejections.increment();
+            throw new LoginThrottledException("Password verification timed out", Duration.ofSeconds(1));
+        } catch (ExecutionException ex) {
+            throw new AuthenticationServiceException("Password verification failed", ex.getCause());
+        }
+    }
+
+    /**
+     * @return how long a verification submitted now would take, waiting for those running and queued ahead of it
+     */
+    private double estimatedWaitMillis() {
+        double ahead = executor.getQueue().size() + executor.getActiveCount();
+        return (Math.ceil(ahead / executor.getMaximumPoolSize()) + 1)
+                * verificationTimer.mean(TimeUnit.MILLISECONDS);
+    }
+
+    private LoginThrottledException rejected() {
+        queueFullRejections.increment();
+        log.warn("Password verification queue full ({} waiting); rejecting login attempt",
+                executor.getQueue().size());
+        return new LoginThrottledException("Login capacity exceeded", Duration.ofSeconds(1));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -1,54 +1,50 @@
 package com.company.employeelifecycle.security;
 
-import com.company.employeelifecycle.entity.User;
 import com.company.employeelifecycle.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Custom UserDetailsService implementation that loads users from the database.
- * Maps User entities to Spring Security UserDetails.
+ * Maps User entities to {@link AuthenticatedUser} principals carrying the user profile.
+ * Lookups are served from {@link UserDetailsCache} and only hit the database on a miss.
  */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+    public AuthenticatedUser loadUserByUsername(String email) throws UsernameNotFoundException {
+        UserDetailsCache.CachedUser user = userDetailsCache.get(email, userRepository::findByEmailIgnoreCase)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        if (!user.getActive()) {
+        if (!user.active()) {
             throw new UsernameNotFoundException("User account is inactive: " + email);
         }
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities(getAuthorities(user))
-                .accountExpired(false)
-                .accountLocked(false)
-                .credentialsExpired(false)
-                .disabled(!user.getActive())
-                .build();
+        // Build a fresh instance per call: credentials are erased on the returned principal
+        return user.toPrincipal();
     }
 
     /**
-     * Map UserRole enum to Spring Security GrantedAuthority with ROLE_ prefix.
+     * Reload a principal by user id, bypassing the cache.
+     * Used to refresh a session principal after the user's profile changed (including email).
+     *
+     * @param id the user ID
+     * @return Optional containing the refreshed principal, empty if the user is gone or inactive
      */
-    private Collection<? extends GrantedAuthority> getAuthorities(User user) {
-        return Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
-        );
+    public Optional<AuthenticatedUser> reloadUserById(UUID id) {
+        return userRepository.findById(id)
+                .map(UserDetailsCache.CachedUser::of)
+                .filter(UserDetailsCache.CachedUser::active)
+                .map(UserDetailsCache.CachedUser::toPrincipal);
     }
 }
@@ -0,0 +1,73 @@
+package com.company.employeelifecycle.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Per-email and per-client-IP token buckets for login attempts.
+ * Buckets are held in bounded caches that forget idle keys once they would be full again.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Cache<String, TokenBucket> emailBuckets;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final long emailCapacity;
+    private final long ipCapacity;
+    private final Duration refillPeriod;
+    private final Counter emailRejections;
+    private final Counter ipRejections;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${app.security.login.per-email-attempts:5}") long emailCapacity,
+                            @Value("${app.security.login.per-ip-attempts:20}") long ipCapacity,
+                            @Value("${app.security.login.refill-period:1m}") Duration refillPeriod,
+                            @Value("${app.security.login.max-tracked-keys:100000}") long maxTrackedKeys) {
+        this.emailCapacity = emailCapacity;
+        this.ipCapacity = ipCapacity;
+        this.refillPeriod = refillPeriod;
+        this.emailBuckets = Caffeine.newBuilder().maximumSize(maxTrackedKeys).expireAfterAccess(refillPeriod).build();
+        this.ipBuckets = Caffeine.newBuilder().maximumSize(maxTrackedKeys).expireAfterAccess(refillPeriod).build();
+        this.emailRejections = rejectionCounter(meterRegistry, "email_rate");
+        this.ipRejections = rejectionCounter(meterRegistry, "ip_rate");
+    }
+
+    /**
+     * Consume one attempt from both the email and the IP bucket.
+     *
+     * @param email    the submitted login email, may be null
+     * @param clientIp the client address
+     * @return empty if the attempt may proceed, otherwise how long the client should wait
+     */
+    public Optional<Duration> tryAcquire(String email, String clientIp) {
+        long now = System.nanoTime();
+
+        TokenBucket ipBucket = ipBuckets.get(clientIp, k -> new TokenBucket(ipCapacity, refillPeriod, now));
+        if (!ipBucket.tryConsume(now)) {
+            ipRejections.increment();
+            return Optional.of(ipBucket.timeUntilNextToken(now));
+        }
+
+        String key = UserDetailsCache.normalize(email);
+        TokenBucket emailBucket = emailBuckets.get(key, k -> new TokenBucket(emailCapacity, refillPeriod, now));
+        if (!emailBucket.tryConsume(now)) {
+            emailRejections.increment();
+            return Optional.of(emailBucket.timeUntilNextToken(now));
+        }
+        return Optional.empty();
+    }
+
+    static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("auth.login.rejected")
+                .description("Login attempts rejected before password verification")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
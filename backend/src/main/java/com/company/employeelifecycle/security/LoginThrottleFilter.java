@@ -0,0 +1,45 @@
+package com.company.employeelifecycle.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Applies {@link LoginRateLimiter} to login submissions before any password is hashed.
+ * Throttled attempts are answered by {@link AuthenticationFailureHandler} with HTTP 429.
+ * Registered inside the security filter chain by SecurityConfig rather than as a servlet filter.
+ */
+@RequiredArgsConstructor
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private static final RequestMatcher LOGIN_REQUEST = new AntPathRequestMatcher("/api/auth/login", "POST");
+
+    private final LoginRateLimiter rateLimiter;
+    private final AuthenticationFailureHandler failureHandler;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !LOGIN_REQUEST.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Optional<Duration> retryAfter = rateLimiter.tryAcquire(request.getParameter("email"), request.getRemoteAddr());
+        if (retryAfter.isPresent()) {
+            failureHandler.onAuthenticationFailure(request, response,
+                    new LoginThrottledException("Too many login attempts", retryAfter.get()));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,21 @@
+package com.company.employeelifecycle.security;
+
+import lombok.Getter;
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a login attempt is rejected for capacity or rate-limit reasons rather than
+ * bad credentials. Mapped to HTTP 429 by {@link AuthenticationFailureHandler}.
+ */
+@Getter
+public class LoginThrottledException extends AuthenticationServiceException {
+
+    private final Duration retryAfter;
+
+    public LoginThrottledException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,64 @@
+package com.company.employeelifecycle.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Replaces the session principal when its user's profile has changed since it was loaded,
+ * so role and name changes take effect on the next request without forcing a re-login.
+ * Sessions of users that were deleted or deactivated are invalidated.
+ * Registered inside the security filter chain by SecurityConfig rather than as a servlet filter.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PrincipalRefreshFilter extends OncePerRequestFilter {
+
+    private final UserProfileChangeTracker changeTracker;
+    private final CustomUserDetailsService userDetailsService;
+    private final SecurityContextRepository securityContextRepository = new HttpSessionSecurityContextRepository();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser principal
+                && changeTracker.isStale(principal)) {
+            Optional<AuthenticatedUser> refreshed = userDetailsService.reloadUserById(principal.getId());
+
+            if (refreshed.isPresent()) {
+                log.debug("Refreshing session principal for user {}", principal.getId());
+                refreshed.get().eraseCredentials();
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                        refreshed.get(), null, refreshed.get().getAuthorities()));
+                SecurityContextHolder.setContext(context);
+                securityContextRepository.saveContext(context, request, response);
+            } else {
+                log.debug("User {} removed or deactivated; invalidating session", principal.getId());
+                SecurityContextHolder.clearContext();
+                HttpSession session = request.getSession(false);
+                if (session != null) {
+                    session.invalidate();
+                }
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
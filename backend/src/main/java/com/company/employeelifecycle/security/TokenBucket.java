@@ -0,0 +1,56 @@
+package com.company.employeelifecycle.security;
+
+import java.time.Duration;
+
+/**
+ * Token bucket holding up to {@code capacity} tokens, refilled continuously at
+ * {@code capacity} tokens per {@code refillPeriod}.
+ */
+class TokenBucket {
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(long capacity, Duration refillPeriod, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) capacity / refillPeriod.toNanos();
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Take one token if available.
+     *
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return true if a token was taken
+     */
+    synchronized boolean tryConsume(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Time until the next token becomes available.
+     */
+    synchronized Duration timeUntilNextToken(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos((long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.company.employeelifecycle.security;
+
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based in-process cache of resolved users keyed by normalized email.
+ * Stores immutable snapshots rather than principals, because Spring Security erases
+ * credentials on the principal after authentication; each lookup builds a fresh copy.
+ * Hit, miss, eviction and invalidation counts are published to Micrometer under "userDetails".
+ * <p>
+ * Entries are evicted when a {@link UserChangedEvent} is flushed and again after the transaction
+ * commits, so a concurrent login that reloads the row in between cannot keep a stale snapshot.
+ * Changes committed on other nodes are caught on a hit by comparing the snapshot's version with
+ * the one {@link UserProfileChangeTracker} last read from the database.
+ */
+@Slf4j
+@Component
+public class UserDetailsCache {
+
+    static final String CACHE_NAME = "userDetails";
+
+    private final Cache<String, CachedUser> cache;
+    private final Counter invalidations;
+    private final UserProfileChangeTracker changeTracker;
+
+    public UserDetailsCache(MeterRegistry meterRegistry, UserProfileChangeTracker changeTracker,
+                            @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+                            @Value("${app.security.user-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.invalidations = Counter.builder("cache.invalidations")
+                .description("Entries removed because the underlying user row changed")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        this.changeTracker = changeTracker;
+    }
+
+    /**
+     * Return the cached snapshot for the email, loading it with the given function on a miss.
+     * Misses that resolve to no user are not cached.
+     *
+     * @param email  the login email (normalized internally)
+     * @param loader loads the user from the database on a miss
+     * @return Optional containing the snapshot if the user exists
+     */
+    public Optional<CachedUser> get(String email, Function<String, Optional<User>> loader) {
+        String key = normalize(email);
+        CachedUser cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (cached.version() >= changeTracker.currentVersion(cached.id())) {
+                return Optional.of(cached);
+            }
+            // Changed on another node since it was cached
+            if (cache.asMap().remove(key, cached)) {
+                invalidations.increment();
+            }
+        }
+        // Load outside the cache's compute: the query may auto-flush pending User changes,
+        // whose listeners evict from this same map
+        Optional<CachedUser> loaded = loader.apply(key).map(CachedUser::of);
+        loaded.ifPresent(user -> cache.put(key, user));
+        return loaded;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.user());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChangeCommitted(UserChangedEvent event) {
+        evict(event.user());
+    }
+
+    /**
+     * Evict every entry belonging to the given user.
+     * Matches on id as well as email so that an email change also drops the old key.
+     *
+     * @param user the changed user
+     */
+    public void evict(User user) {
+        boolean removed = false;
+        if (user.getEmail() != null) {
+            removed = cache.asMap().remove(normalize(user.getEmail())) != null;
+        }
+        if (user.getId() != null) {
+            removed |= cache.asMap().values().removeIf(cached -> user.getId().equals(cached.id()));
+        }
+        if (removed) {
+            invalidations.increment();
+            log.debug("Evicted cached user details for user {}", user.getId());
+        }
+    }
+
+    /**
+     * Drop all cached entries.
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable snapshot of the user fields needed for authentication and the profile response.
+     */
+    public record CachedUser(UUID id, String email, String passwordHash, String firstName, String lastName,
+                             UserRole role, boolean active, long version) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getEmail(), user.getPassword(), user.getFirstName(),
+                    user.getLastName(), user.getRole(), Boolean.TRUE.equals(user.getActive()),
+                    user.getVersion() != null ? user.getVersion() : 0);
+        }
+
+        /**
+         * Build a new principal from this snapshot; each call returns a distinct instance.
+         */
+        AuthenticatedUser toPrincipal() {
+            return new AuthenticatedUser(id, email, passwordHash, firstName, lastName, role, active, version);
+        }
+    }
+}
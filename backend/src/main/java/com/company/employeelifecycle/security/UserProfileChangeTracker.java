@@ -0,0 +1,80 @@
+package com.company.employeelifecycle.security;
+
+import com.company.employeelifecycle.event.UserChangedEvent;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Tracks the current version of each user's row so that session principals and cached user
+ * details loaded from an older version can be detected and refreshed, however long they have
+ * lived. Versions are raised by the changes committed on this node and read from the database
+ * again once {@code app.security.user-versions.check-interval} has passed, which bounds how long
+ * a change committed on another node goes unnoticed. A deleted user counts as a version newer
+ * than any principal.
+ */
+@Component
+public class UserProfileChangeTracker {
+
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final Cache<UUID, Long> versions;
+
+    public UserProfileChangeTracker(UserRepository userRepository,
+                                    @Value("${app.security.user-versions.max-size:100000}") long maxSize,
+                                    @Value("${app.security.user-versions.check-interval:5s}") Duration checkInterval) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(checkInterval)
+                .build();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        UUID id = event.user().getId();
+        if (id != null && (event.removed() || event.user().getVersion() != null)) {
+            raise(id, event.removed() ? DELETED : event.user().getVersion());
+        }
+    }
+
+    /**
+     * Check whether the principal was loaded from an older version of its user than the current one.
+     *
+     * @param principal the session principal
+     * @return true if the principal should be reloaded
+     */
+    public boolean isStale(AuthenticatedUser principal) {
+        return currentVersion(principal.getId()) > principal.getVersion();
+    }
+
+    /**
+     * @param id the user ID
+     * @return the current version of the user, at most a check interval old; {@code Long.MAX_VALUE}
+     * if the user does not exist
+     */
+    public long currentVersion(UUID id) {
+        Long version = versions.getIfPresent(id);
+        if (version == null) {
+            // Loaded outside the cache's compute: a concurrent change may raise the entry meanwhile
+            version = raise(id, userRepository.findVersionById(id).orElse(DELETED));
+        }
+        return version;
+    }
+
+    /**
+     * Record a version of the user unless a newer one is known already, so that a version read before
+     * a change committed cannot replace the version the change wrote.
+     */
+    private long raise(UUID id, long version) {
+        return versions.asMap().merge(id, version, Math::max);
+    }
+}
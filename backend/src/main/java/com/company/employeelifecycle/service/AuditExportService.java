@@ -0,0 +1,124 @@
+package com.company.employeelifecycle.service;
+
+import com.company.employeelifecycle.audit.AuditDiffer;
+import com.company.employeelifecycle.audit.AuditExportFormat;
+import com.company.employeelifecycle.audit.AuditExportWriter;
+import com.company.employeelifecycle.enums.EntityType;
+import com.company.employeelifecycle.repository.AuditExportRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams audit trail exports straight to an output stream, in constant memory whatever the row count.
+ * <p>
+ * The time range is read one calendar month at a time, each slice from one audit_logs partition, so the
+ * database never sorts more than a month of rows; within a slice rows come through a server-side cursor
+ * (see {@link AuditExportRepository}) and are written as they arrive. Exports are published as the
+ * "audit.export" timer, "audit.export.rows" counter and "audit.export.throughput" summary (rows/s),
+ * each tagged with the format.
+ */
+@Slf4j
+@Service
+public class AuditExportService {
+
+    private final AuditExportRepository auditExportRepository;
+    private final AuditDiffer auditDiffer;
+    private final JsonFactory jsonFactory;
+    private final Map<AuditExportFormat, Timer> exportTimers = new EnumMap<>(AuditExportFormat.class);
+    private final Map<AuditExportFormat, Counter> exportedRows = new EnumMap<>(AuditExportFormat.class);
+    private final Map<AuditExportFormat, DistributionSummary> throughput = new EnumMap<>(AuditExportFormat.class);
+
+    public AuditExportService(AuditExportRepository auditExportRepository,
+                              AuditDiffer auditDiffer,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.auditExportRepository = auditExportRepository;
+        this.auditDiffer = auditDiffer;
+        this.jsonFactory = objectMapper.getFactory();
+        for (AuditExportFormat format : AuditExportFormat.values()) {
+            String tag = format.name().toLowerCase();
+            exportTimers.put(format, Timer.builder("audit.export")
+                    .description("Time to stream an audit trail export")
+                    .tag("format", tag)
+                    .register(meterRegistry));
+            exportedRows.put(format, Counter.builder("audit.export.rows").tag("format", tag)
+                    .register(meterRegistry));
+            throughput.put(format, DistributionSummary.builder("audit.export.throughput")
+                    .description("Rows per second of completed audit trail exports")
+                    .baseUnit("rows/s")
+                    .tag("format", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Write the audit logs of a time range, oldest first, optionally only those of one entity or one user.
+     *
+     * @param format     the file format
+     * @param entityType the entity type, or null
+     * @param entityId   the entity ID, or null
+     * @param userId     the acting user, or null
+     * @param from       inclusive lower bound of the timestamp
+     * @param to         exclusive upper bound of the timestamp
+     * @param out        the stream to write to; left open
+     * @return the number of rows written
+     * @throws IOException if writing fails, typically because the client went away
+     */
+    @Transactional(readOnly = true)
+    public long export(AuditExportFormat format, EntityType entityType, UUID entityId, UUID userId,
+                       LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long[] rows = new long[1];
+        try (AuditExportWriter writer = AuditExportWriter.of(format, out, auditDiffer, jsonFactory)) {
+            for (LocalDateTime sliceStart = from; sliceStart.isBefore(to); ) {
+                LocalDateTime sliceEnd = min(nextMonth(sliceStart), to);
+                auditExportRepository.stream(entityType, entityId, userId, sliceStart, sliceEnd, row -> {
+                    try {
+                        writer.write(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                });
+                sliceStart = sliceEnd;
+            }
+        } catch (UncheckedIOException e) {
+            log.info("Audit export aborted after {} rows: {}", rows[0], e.getCause().getMessage());
+            throw e.getCause();
+        } finally {
+            exportedRows.get(format).increment(rows[0]);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        exportTimers.get(format).record(elapsed, TimeUnit.NANOSECONDS);
+        double rowsPerSecond = rows[0] / (elapsed / 1_000_000_000.0);
+        throughput.get(format).record(rowsPerSecond);
+        log.info("Exported {} audit rows from {} to {} as {} in {} ms ({} rows/s)", rows[0], from, to, format,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), Math.round(rowsPerSecond));
+        return rows[0];
+    }
+
+    private static LocalDateTime nextMonth(LocalDateTime time) {
+        return time.toLocalDate().withDayOfMonth(1).plusMonths(1).atStartOfDay();
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,91 @@
+package com.company.employeelifecycle.service;
+
+import com.company.employeelifecycle.dto.response.AuditLogResponse;
+import com.company.employeelifecycle.dto.response.CursorPage;
+import com.company.employeelifecycle.entity.AuditLog;
+import com.company.employeelifecycle.enums.EntityType;
+import com.company.employeelifecycle.mapper.AuditLogMapper;
+import com.company.employeelifecycle.repository.AuditLogRepository;
+import com.company.employeelifecycle.util.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service for audit trail queries.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AuditService {
+
+    /** Sort keys of audit listings (timestamp desc, id desc). */
+    static final Set<String> AUDIT_KEYS = Set.of("timestamp", "id");
+
+    /** Stand-ins for an open end of a time range; both are within the range of a PostgreSQL timestamp. */
+    static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditLogMapper auditLogMapper;
+
+    /**
+     * Get one page of the audit history of an entity, newest first.
+     * Passing a time range restricts the scan to the audit_logs partitions it overlaps.
+     *
+     * @param entityType the entity type
+     * @param entityId   the entity ID
+     * @param from       inclusive lower bound of the timestamp, or null
+     * @param to         exclusive upper bound of the timestamp, or null
+     * @param cursor     cursor from the previous page, or null for the first page
+     * @param size       maximum number of entries to return
+     * @return the page of audit entries
+     */
+    public CursorPage<AuditLogResponse> getEntityHistory(EntityType entityType, UUID entityId, LocalDateTime from,
+                                                         LocalDateTime to, String cursor, int size) {
+        ScrollPosition position = CursorCodec.decode(cursor, AUDIT_KEYS);
+        Window<AuditLog> window = from == null && to == null
+                ? auditLogRepository.findByEntityTypeAndEntityIdOrderByTimestampDescIdDesc(
+                        entityType, entityId, position, Limit.of(size))
+                : auditLogRepository
+                        .findByEntityTypeAndEntityIdAndTimestampGreaterThanEqualAndTimestampLessThanOrderByTimestampDescIdDesc(
+                                entityType, entityId, lowerBound(from), upperBound(to), position, Limit.of(size));
+        return CursorPage.of(window, auditLogMapper::toResponse);
+    }
+
+    /**
+     * Get one page of the audit entries produced by a user, newest first.
+     * Passing a time range restricts the scan to the audit_logs partitions it overlaps.
+     *
+     * @param userId the user ID
+     * @param from   inclusive lower bound of the timestamp, or null
+     * @param to     exclusive upper bound of the timestamp, or null
+     * @param cursor cursor from the previous page, or null for the first page
+     * @param size   maximum number of entries to return
+     * @return the page of audit entries
+     */
+    public CursorPage<AuditLogResponse> getUserActivity(UUID userId, LocalDateTime from, LocalDateTime to,
+                                                        String cursor, int size) {
+        ScrollPosition position = CursorCodec.decode(cursor, AUDIT_KEYS);
+        Window<AuditLog> window = from == null && to == null
+                ? auditLogRepository.findByUserIdOrderByTimestampDescIdDesc(userId, position, Limit.of(size))
+                : auditLogRepository.findByUserIdAndTimestampGreaterThanEqualAndTimestampLessThanOrderByTimestampDescIdDesc(
+                        userId, lowerBound(from), upperBound(to), position, Limit.of(size));
+        return CursorPage.of(window, auditLogMapper::toResponse);
+    }
+
+    private static LocalDateTime lowerBound(LocalDateTime from) {
+        return from != null ? from : EARLIEST;
+    }
+
+    private static LocalDateTime upperBound(LocalDateTime to) {
+        return to != null ? to : LATEST;
+    }
+}
@@ -0,0 +1,168 @@
+package com.company.employeelifecycle.service;
+
+import com.company.employeelifecycle.dto.response.CompletionReportResponse;
+import com.company.employeelifecycle.dto.response.CompletionReportRowResponse;
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.enums.ReportDimension;
+import com.company.employeelifecycle.reporting.DurationSketch;
+import com.company.employeelifecycle.repository.CompletionRollupRepository;
+import com.company.employeelifecycle.repository.CompletionRollupRepository.TaskRollup;
+import com.company.employeelifecycle.repository.CompletionRollupRepository.WorkflowRollup;
+import com.company.employeelifecycle.repository.WorkflowTemplateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Service for completion reports: task completion times and due date compliance, and workflow completion times.
+ * <p>
+ * Reports only read the daily completion rollups (see
+ * {@link com.company.employeelifecycle.reporting.CompletionRollupJob}), never the tasks themselves: a report
+ * over a year merges at most a few rows per day and dimension combination, and percentiles come from merging
+ * their duration sketches.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CompletionReportService {
+
+    private final CompletionRollupRepository rollupRepository;
+    private final WorkflowTemplateRepository workflowTemplateRepository;
+    private final Timer taskReportTimer;
+    private final Timer workflowReportTimer;
+
+    public CompletionReportService(CompletionRollupRepository rollupRepository,
+                                   WorkflowTemplateRepository workflowTemplateRepository,
+                                   MeterRegistry meterRegistry) {
+        this.rollupRepository = rollupRepository;
+        this.workflowTemplateRepository = workflowTemplateRepository;
+        this.taskReportTimer = reportTimer(meterRegistry, "tasks");
+        this.workflowReportTimer = reportTimer(meterRegistry, "workflows");
+    }
+
+    private static Timer reportTimer(MeterRegistry meterRegistry, String report) {
+        return Timer.builder("report.query")
+                .description("Time to build a completion report from the rollups")
+                .tag("report", report)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Report the tasks completed in a date range.
+     *
+     * @param from    inclusive lower bound of the completion date
+     * @param to      exclusive upper bound of the completion date
+     * @param groupBy the dimension to group by
+     * @return one row per group, most completions first
+     */
+    public CompletionReportResponse getTaskReport(LocalDate from, LocalDate to, ReportDimension groupBy) {
+        return taskReportTimer.record(() -> {
+            Function<TaskRollup, String> key = switch (groupBy) {
+                case TEMPLATE -> rollup -> rollup.templateId().toString();
+                case TASK_TYPE -> rollup -> rollup.taskType().name();
+                case DEPARTMENT -> TaskRollup::department;
+                case ASSIGNEE_ROLE -> TaskRollup::assigneeRole;
+            };
+            Map<String, Group> groups = new HashMap<>();
+            rollupRepository.streamTaskRollups(from, to, rollup -> groups
+                    .computeIfAbsent(key.apply(rollup), k -> new Group(true))
+                    .add(rollup.completed(), rollup.withDueDate(), rollup.onTime(), rollup.durations()));
+            return response(from, to, groupBy, groups);
+        });
+    }
+
+    /**
+     * Report the workflow instances completed in a date range, by the completion date of their last task.
+     *
+     * @param from    inclusive lower bound of the completion date
+     * @param to      exclusive upper bound of the completion date
+     * @param groupBy the dimension to group by, TEMPLATE or DEPARTMENT
+     * @return one row per group, most completions first
+     * @throws IllegalArgumentException if workflows cannot be grouped by the dimension
+     */
+    public CompletionReportResponse getWorkflowReport(LocalDate from, LocalDate to, ReportDimension groupBy) {
+        Function<WorkflowRollup, String> key = switch (groupBy) {
+            case TEMPLATE -> rollup -> rollup.templateId().toString();
+            case DEPARTMENT -> WorkflowRollup::department;
+            default -> throw new IllegalArgumentException("Workflow reports cannot be grouped by " + groupBy);
+        };
+        return workflowReportTimer.record(() -> {
+            Map<String, Group> groups = new HashMap<>();
+            rollupRepository.streamWorkflowRollups(from, to, rollup -> groups
+                    .computeIfAbsent(key.apply(rollup), k -> new Group(false))
+                    .add(rollup.completed(), 0, 0, rollup.durations()));
+            return response(from, to, groupBy, groups);
+        });
+    }
+
+    private CompletionReportResponse response(LocalDate from, LocalDate to, ReportDimension groupBy,
+                                              Map<String, Group> groups) {
+        Map<String, String> labels = new HashMap<>();
+        if (groupBy == ReportDimension.TEMPLATE && !groups.isEmpty()) {
+            for (WorkflowTemplate template : workflowTemplateRepository.findAllById(
+                    groups.keySet().stream().map(UUID::fromString).toList())) {
+                labels.put(template.getId().toString(), template.getName());
+            }
+        }
+        List<CompletionReportRowResponse> rows = groups.entrySet().stream()
+                .map(entry -> entry.getValue().toResponse(entry.getKey(),
+                        labels.getOrDefault(entry.getKey(), entry.getKey())))
+                .sorted(Comparator.comparingLong(CompletionReportRowResponse::getCompleted).reversed()
+                        .thenComparing(CompletionReportRowResponse::getKey))
+                .toList();
+        return CompletionReportResponse.builder()
+                .from(from)
+                .to(to)
+                .groupBy(groupBy)
+                .rolledUpTo(rollupRepository.findWatermark())
+                .rows(rows)
+                .build();
+    }
+
+    private static final class Group {
+
+        private final boolean dueDates;
+        private final DurationSketch durations = new DurationSketch();
+        private long completed;
+        private long withDueDate;
+        private long onTime;
+
+        private Group(boolean dueDates) {
+            this.dueDates = dueDates;
+        }
+
+        private void add(long completed, long withDueDate, long onTime, DurationSketch durations) {
+            this.completed += completed;
+            this.withDueDate += withDueDate;
+            this.onTime += onTime;
+            this.durations.merge(durations);
+        }
+
+        private CompletionReportRowResponse toResponse(String key, String label) {
+            return CompletionReportRowResponse.builder()
+                    .key(key)
+                    .label(label)
+                    .completed(completed)
+                    .withDueDate(dueDates ? withDueDate : null)
+                    .onTime(dueDates ? onTime : null)
+                    .onTimeRate(dueDates && withDueDate > 0 ? (double) onTime / withDueDate : null)
+                    .p50Seconds(seconds(durations.quantile(0.5)))
+                    .p90Seconds(seconds(durations.quantile(0.9)))
+                    .p95Seconds(seconds(durations.quantile(0.95)))
+                    .build();
+        }
+
+        private static Long seconds(Duration duration) {
+            return duration != null ? duration.toSeconds() : null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.company.employeelifecycle.service;
+
+import com.company.employeelifecycle.dto.response.EmployeeDataExportResponse;
+import com.company.employeelifecycle.repository.EmployeeDataRepository.Section;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Progress of one employee data export. Written by the thread streaming the export, read by progress requests.
+ */
+public class EmployeeDataExport {
+
+    /** Lifecycle of an export. */
+    public enum Status { PENDING, RUNNING, COMPLETED, FAILED }
+
+    private static final Section[] SECTIONS = Section.values();
+
+    private final UUID id;
+    private final UUID employeeId;
+    private final UUID requestedBy;
+    private final LocalDateTime startedAt;
+    private final AtomicLongArray written = new AtomicLongArray(SECTIONS.length);
+    /** -1 until counted. */
+    private final AtomicLongArray totals = new AtomicLongArray(SECTIONS.length);
+    private volatile Status status = Status.PENDING;
+    private volatile Section currentSection;
+    private volatile LocalDateTime finishedAt;
+
+    EmployeeDataExport(UUID id, UUID employeeId, UUID requestedBy) {
+        this.id = id;
+        this.employeeId = employeeId;
+        this.requestedBy = requestedBy;
+        this.startedAt = LocalDateTime.now();
+        for (int i = 0; i < SECTIONS.length; i++) {
+            totals.set(i, -1);
+        }
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getEmployeeId() {
+        return employeeId;
+    }
+
+    UUID getRequestedBy() {
+        return requestedBy;
+    }
+
+    void counted(Section section, long total) {
+        totals.set(section.ordinal(), total);
+    }
+
+    void begin(Section section) {
+        status = Status.RUNNING;
+        currentSection = section;
+    }
+
+    void rowWritten(Section section) {
+        written.incrementAndGet(section.ordinal());
+    }
+
+    long rowsWritten() {
+        long rows = 0;
+        for (int i = 0; i < SECTIONS.length; i++) {
+            rows += written.get(i);
+        }
+        return rows;
+    }
+
+    void finish(Status outcome) {
+        currentSection = null;
+        finishedAt = LocalDateTime.now();
+        status = outcome;
+    }
+
+    EmployeeDataExportResponse toResponse() {
+        List<EmployeeDataExportResponse.Section> sections = new ArrayList<>(SECTIONS.length);
+        long rowsTotal = 0;
+        boolean counted = true;
+        for (Section section : SECTIONS) {
+            long total = totals.get(section.ordinal());
+            counted &= total >= 0;
+            rowsTotal += Math.max(total, 0);
+            sections.add(EmployeeDataExportResponse.Section.builder()
+                    .file(section.fileName() + ".ndjson")
+                    .rowsWritten(written.get(section.ordinal()))
+                    .rowsTotal(total >= 0 ? total : null)
+                    .build());
+        }
+        Section current = currentSection;
+        return EmployeeDataExportResponse.builder()
+                .exportId(id)
+                .employeeId(employeeId)
+                .status(status.name())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .currentSection(current != null ? current.fileName() + ".ndjson" : null)
+                .rowsWritten(rowsWritten())
+                .rowsTotal(counted ? rowsTotal : null)
+                .sections(sections)
+                .build();
+    }
+}
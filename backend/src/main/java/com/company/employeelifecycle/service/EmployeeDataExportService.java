@@ -0,0 +1,241 @@
+package com.company.employeelifecycle.service;
+
+import com.company.employeelifecycle.audit.AsyncAuditWriter;
+import com.company.employeelifecycle.audit.AuditDiffer;
+import com.company.employeelifecycle.audit.AuditFieldChange;
+import com.company.employeelifecycle.dto.response.EmployeeDataExportResponse;
+import com.company.employeelifecycle.enums.AuditAction;
+import com.company.employeelifecycle.enums.EntityType;
+import com.company.employeelifecycle.exception.ResourceNotFoundException;
+import com.company.employeelifecycle.repository.EmployeeDataRepository;
+import com.company.employeelifecycle.repository.EmployeeDataRepository.Section;
+import com.company.employeelifecycle.repository.EmployeeRepository;
+import com.company.employeelifecycle.service.EmployeeDataExport.Status;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports everything stored about one employee (GDPR data subject access) as a ZIP archive with one NDJSON
+ * file per {@link Section} and a manifest.
+ * <p>
+ * The archive is generated while it is sent: each section is read through a cursor keyed by the employee id
+ * (see {@link EmployeeDataRepository}) and every row goes straight through the JSON generator and the ZIP
+ * deflater to the response, so neither memory nor disk ever holds more than a row and the compression window.
+ * Each export is tracked as an {@link EmployeeDataExport}, kept for {@code app.employee.export.progress-ttl}
+ * after its last update, so clients can poll the progress of exports of long histories. Completed exports
+ * are recorded in the employee's audit trail.
+ */
+@Slf4j
+@Service
+public class EmployeeDataExportService {
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeDataRepository employeeDataRepository;
+    private final AuditDiffer auditDiffer;
+    private final AsyncAuditWriter auditWriter;
+    private final JsonFactory jsonFactory;
+    private final Cache<UUID, EmployeeDataExport> exports;
+    private final Timer exportTimer;
+
+    public EmployeeDataExportService(EmployeeRepository employeeRepository,
+                                     EmployeeDataRepository employeeDataRepository,
+                                     AuditDiffer auditDiffer,
+                                     AsyncAuditWriter auditWriter,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.employee.export.progress-ttl:1h}") Duration progressTtl) {
+        this.employeeRepository = employeeRepository;
+        this.employeeDataRepository = employeeDataRepository;
+        this.auditDiffer = auditDiffer;
+        this.auditWriter = auditWriter;
+        this.jsonFactory = objectMapper.getFactory();
+        this.exports = Caffeine.newBuilder()
+                .expireAfterAccess(progressTtl)
+                .maximumSize(10_000)
+                .build();
+        this.exportTimer = Timer.builder("employee.export")
+                .description("Time to stream an employee data export")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register an export of an employee's data; {@link #write} produces it.
+     *
+     * @param employeeId  the employee
+     * @param requestedBy the user requesting the export
+     * @return the export, not started yet
+     * @throws ResourceNotFoundException if the employee does not exist
+     */
+    public EmployeeDataExport start(UUID employeeId, UUID requestedBy) {
+        if (!employeeRepository.existsById(employeeId)) {
+            throw new ResourceNotFoundException("Employee not found: " + employeeId);
+        }
+        EmployeeDataExport export = new EmployeeDataExport(UUID.randomUUID(), employeeId, requestedBy);
+        exports.put(export.getId(), export);
+        return export;
+    }
+
+    /**
+     * Get the progress of an export.
+     *
+     * @param exportId the export ID
+     * @return the progress, or empty if the export is unknown or expired
+     */
+    public Optional<EmployeeDataExportResponse> getProgress(UUID exportId) {
+        return Optional.ofNullable(exports.getIfPresent(exportId)).map(EmployeeDataExport::toResponse);
+    }
+
+    /**
+     * Write the archive of an export. Sections are counted first so that progress can be reported against a
+     * total, then written in order.
+     *
+     * @param export the export from {@link #start}
+     * @param out    the stream to write to; left open
+     * @throws IOException if writing fails, typically because the client went away
+     */
+    @Transactional(readOnly = true)
+    public void write(EmployeeDataExport export, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        UUID employeeId = export.getEmployeeId();
+        try {
+            for (Section section : Section.values()) {
+                export.counted(section, employeeDataRepository.count(section, employeeId));
+            }
+            ZipOutputStream zip = new ZipOutputStream(out);
+            for (Section section : Section.values()) {
+                export.begin(section);
+                zip.putNextEntry(new ZipEntry(section.fileName() + ".ndjson"));
+                try (JsonGenerator json = generator(zip)) {
+                    employeeDataRepository.stream(section, employeeId, rs -> {
+                        try {
+                            writeRow(json, rs);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        export.rowWritten(section);
+                    });
+                }
+                zip.closeEntry();
+            }
+            zip.putNextEntry(new ZipEntry("manifest.json"));
+            try (JsonGenerator json = generator(zip)) {
+                writeManifest(json, export);
+            }
+            zip.closeEntry();
+            zip.finish();
+        } catch (UncheckedIOException e) {
+            fail(export, e.getCause());
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            fail(export, e);
+            throw e;
+        }
+
+        export.finish(Status.COMPLETED);
+        long elapsed = System.nanoTime() - start;
+        exportTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        long rows = export.rowsWritten();
+        auditWriter.record(EntityType.EMPLOYEE, employeeId, AuditAction.EXPORTED, export.getRequestedBy(),
+                "{\"exportId\":\"" + export.getId() + "\",\"rows\":" + rows + "}");
+        log.info("Exported data of employee {}: {} rows in {} ms ({} rows/s)", employeeId, rows,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), Math.round(rows / (elapsed / 1_000_000_000.0)));
+    }
+
+    private JsonGenerator generator(OutputStream zip) throws IOException {
+        return jsonFactory.createGenerator(zip).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static void writeManifest(JsonGenerator json, EmployeeDataExport export) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("exportId", export.getId().toString());
+        json.writeStringField("employeeId", export.getEmployeeId().toString());
+        json.writeStringField("generatedAt", LocalDateTime.now().toString());
+        json.writeArrayFieldStart("files");
+        for (EmployeeDataExportResponse.Section section : export.toResponse().getSections()) {
+            json.writeStartObject();
+            json.writeStringField("file", section.getFile());
+            json.writeNumberField("rows", section.getRowsWritten());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private static void fail(EmployeeDataExport export, Exception e) {
+        export.finish(Status.FAILED);
+        log.warn("Data export {} of employee {} failed after {} rows: {}", export.getId(), export.getEmployeeId(),
+                export.rowsWritten(), e.getMessage());
+    }
+
+    /**
+     * Write the current row as one JSON object keyed by lower-case column label. Audit change deltas are
+     * decoded into their changed fields, since the binary form means nothing outside the application.
+     */
+    private void writeRow(JsonGenerator json, ResultSet rs) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        json.writeStartObject();
+        for (int column = 1; column <= meta.getColumnCount(); column++) {
+            String label = meta.getColumnLabel(column).toLowerCase(Locale.ROOT);
+            if (label.equals("change_delta")) {
+                json.writeArrayFieldStart("changes");
+                for (AuditFieldChange change : auditDiffer.decode(EntityType.valueOf(rs.getString("entity_type")),
+                        rs.getBytes(column))) {
+                    json.writeStartObject();
+                    json.writeStringField("field", change.field());
+                    json.writeStringField("from", change.from() != null ? change.from().toString() : null);
+                    json.writeStringField("to", change.to() != null ? change.to().toString() : null);
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+                continue;
+            }
+            json.writeFieldName(label);
+            Object value = rs.getObject(column);
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+                json.writeNumber(((Number) value).longValue());
+            } else if (value instanceof BigDecimal decimal) {
+                json.writeNumber(decimal);
+            } else if (value instanceof Boolean bool) {
+                json.writeBoolean(bool);
+            } else if (value instanceof Timestamp timestamp) {
+                json.writeString(timestamp.toLocalDateTime().toString());
+            } else if (value instanceof Date date) {
+                json.writeString(date.toLocalDate().toString());
+            } else {
+                // UUIDs, strings, java.time values
+                json.writeString(value.toString());
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+}
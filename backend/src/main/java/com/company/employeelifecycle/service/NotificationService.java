@@ -0,0 +1,118 @@
+package com.company.employeelifecycle.service;
+
+import com.company.employeelifecycle.enums.EmailType;
+import com.company.employeelifecycle.event.TaskAlertEvent;
+import com.company.employeelifecycle.repository.EmailOutboxRepository;
+import com.company.employeelifecycle.repository.EmailOutboxRepository.NewEmail;
+import com.company.employeelifecycle.repository.EmailOutboxRepository.TaskMail;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes task notification emails to the outbox, in the transaction of the change they notify about: they are
+ * sent if and only if it commits, and sending them never holds it up (see
+ * {@link com.company.employeelifecycle.notification.EmailOutboxSender}).
+ * <p>
+ * Assignees are notified when a task they are assigned becomes ready, i.e. when its workflow starts or its last
+ * prerequisite completes, and when a task alert fires; escalations go to the user who started the workflow.
+ * Tasks without an active assignee are skipped.
+ */
+@Slf4j
+@Service
+public class NotificationService {
+
+    private static final String FOOTER = """
+
+            --
+            Employee Lifecycle Management System. Do not reply to this email.
+            """;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final String baseUrl;
+
+    public NotificationService(EmailOutboxRepository outboxRepository,
+                               @Value("${app.mail.base-url:http://localhost:5173}") String baseUrl) {
+        this.outboxRepository = outboxRepository;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Notify the assignees of tasks that became ready.
+     *
+     * @param taskIds the ready tasks
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueTaskAssignments(Collection<UUID> taskIds) {
+        List<NewEmail> emails = new ArrayList<>(taskIds.size());
+        for (TaskMail task : outboxRepository.findTaskMails(taskIds)) {
+            emails.add(new NewEmail(EmailType.TASK_ASSIGNMENT, task.taskId(), task.assigneeEmail(),
+                    "New Task Assigned: " + task.title() + " for " + task.employeeName(),
+                    body(greeting(task.assigneeFirstName()),
+                            "A task for " + task.employeeName() + " has been assigned to you and is ready to start.",
+                            task)));
+        }
+        outboxRepository.enqueue(emails);
+        log.debug("Enqueued {} task assignment emails", emails.size());
+    }
+
+    /**
+     * Notify a task alert; runs in the transaction that records the alert as fired.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskAlert(TaskAlertEvent event) {
+        List<TaskMail> tasks = outboxRepository.findTaskMails(List.of(event.taskId()));
+        if (tasks.isEmpty()) {
+            return;
+        }
+        TaskMail task = tasks.get(0);
+        NewEmail email = switch (event.type()) {
+            case REMINDER -> new NewEmail(EmailType.TASK_REMINDER, task.taskId(), task.assigneeEmail(),
+                    "Reminder: Task Due Soon - " + task.title(),
+                    body(greeting(task.assigneeFirstName()),
+                            "This is a reminder that a task assigned to you is due on " + task.dueDate() + ".",
+                            task));
+            case OVERDUE -> new NewEmail(EmailType.TASK_OVERDUE, task.taskId(), task.assigneeEmail(),
+                    "OVERDUE: Task Requires Attention - " + task.title(),
+                    body(greeting(task.assigneeFirstName()),
+                            "A task assigned to you was due on " + task.dueDate() + " and is not completed yet.",
+                            task));
+            case ESCALATION -> new NewEmail(EmailType.TASK_ESCALATION, task.taskId(),
+                    task.initiatorEmail() != null ? task.initiatorEmail() : task.assigneeEmail(),
+                    "ESCALATION: Overdue Task - " + task.title() + " for " + task.employeeName(),
+                    body("Hello,", "A task of a workflow you started was due on " + task.dueDate()
+                            + " and is still not completed (escalation " + event.level() + "). It is assigned to "
+                            + task.assigneeEmail() + ".", task));
+        };
+        outboxRepository.enqueue(List.of(email));
+    }
+
+    private String body(String greeting, String message, TaskMail task) {
+        StringBuilder body = new StringBuilder()
+                .append(greeting).append("\n\n")
+                .append(message).append("\n\n")
+                .append("Employee: ").append(task.employeeName()).append('\n')
+                .append("Task: ").append(task.title()).append('\n');
+        if (task.description() != null && !task.description().isBlank()) {
+            body.append("Description: ").append(task.description()).append('\n');
+        }
+        if (task.dueDate() != null) {
+            body.append("Due date: ").append(task.dueDate()).append('\n');
+        }
+        body.append('\n').append("View task: ").append(baseUrl).append("/tasks/").append(task.taskId()).append('\n');
+        return body.append(FOOTER).toString();
+    }
+
+    private static String greeting(String firstName) {
+        return firstName != null && !firstName.isBlank() ? "Hello " + firstName + "," : "Hello,";
+    }
+}
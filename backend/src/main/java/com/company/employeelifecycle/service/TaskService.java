@@ -0,0 +1,210 @@
+package com.company.employeelifecycle.service;
+
+import com.company.employeelifecycle.audit.AsyncAuditWriter;
+import com.company.employeelifecycle.audit.AuditDiffer;
+import com.company.employeelifecycle.audit.AuditSnapshot;
+import com.company.employeelifecycle.dto.response.CursorPage;
+import com.company.employeelifecycle.dto.response.TaskCompletionResponse;
+import com.company.employeelifecycle.dto.response.TaskDependencyNodeResponse;
+import com.company.employeelifecycle.dto.response.TaskResponse;
+import com.company.employeelifecycle.entity.Task;
+import com.company.employeelifecycle.enums.AuditAction;
+import com.company.employeelifecycle.enums.EntityType;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.event.TaskStatusChangedEvent;
+import com.company.employeelifecycle.exception.ResourceNotFoundException;
+import com.company.employeelifecycle.exception.TaskBlockedException;
+import com.company.employeelifecycle.mapper.TaskMapper;
+import com.company.employeelifecycle.repository.TaskGraphRepository;
+import com.company.employeelifecycle.repository.TaskRepository;
+import com.company.employeelifecycle.repository.TaskRepository.InboxVersion;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.util.CursorCodec;
+import com.company.employeelifecycle.util.ETags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service for task queries and task completion.
+ * <p>
+ * Whether a task is blocked is read from its denormalized unmet-prerequisite counter; the full chain of
+ * prerequisites or dependents is read with one recursive query. Completing a task
+ * decrements the counters of its SEQUENTIAL dependents with one set-based update, and the tasks it
+ * unblocked are found with one indexed query; their assignees are notified through the email outbox.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TaskService {
+
+    /** Sort keys of the inbox listing (createdAt desc, id desc). */
+    static final Set<String> INBOX_KEYS = Set.of("createdAt", "id");
+
+    private final TaskRepository taskRepository;
+    private final TaskGraphRepository taskGraphRepository;
+    private final UserRepository userRepository;
+    private final AsyncAuditWriter auditWriter;
+    private final AuditDiffer auditDiffer;
+    private final TaskMapper taskMapper;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Get one page of a user's task inbox, newest first.
+     *
+     * @param userId the assignee
+     * @param status optional status filter
+     * @param cursor cursor from the previous page, or null for the first page
+     * @param size   maximum number of tasks to return
+     * @return the page of tasks
+     */
+    public CursorPage<TaskResponse> getInbox(UUID userId, TaskStatus status, String cursor, int size) {
+        ScrollPosition position = CursorCodec.decode(cursor, INBOX_KEYS);
+        Window<Task> window = status == null
+                ? taskRepository.findByAssignedToIdOrderByCreatedAtDescIdDesc(userId, position, Limit.of(size))
+                : taskRepository.findByStatusAndAssignedToIdOrderByCreatedAtDescIdDesc(status, userId, position,
+                        Limit.of(size));
+        return CursorPage.of(window, taskMapper::toResponse);
+    }
+
+    /**
+     * Get the ETag of one page of a user's task inbox. It is derived from the inbox version, read with one
+     * aggregate query, so it is cheap enough to check before loading the page.
+     *
+     * @param userId the assignee
+     * @param status optional status filter
+     * @param cursor cursor from the previous page, or null for the first page
+     * @param size   maximum number of tasks to return
+     * @return the weak ETag of the page
+     */
+    public String getInboxETag(UUID userId, TaskStatus status, String cursor, int size) {
+        InboxVersion version = taskRepository.findInboxVersion(userId);
+        return ETags.weak(userId, status, cursor, size, version.getTasks(), version.getTasksUpdatedAt(),
+                version.getEmployeesUpdatedAt());
+    }
+
+    /**
+     * Get every task the given task transitively depends on, nearest first.
+     *
+     * @param taskId   the task ID
+     * @param userId   the user asking
+     * @param role     the user's role; HR and system admins may read the chains of any task
+     * @param maxDepth maximum number of dependency hops to follow
+     * @return the prerequisite chain
+     * @throws ResourceNotFoundException if the task does not exist
+     * @throws AccessDeniedException     if the user may not act on the task
+     */
+    public List<TaskDependencyNodeResponse> getUpstream(UUID taskId, UUID userId, UserRole role, int maxDepth) {
+        requireAccess(requireTask(taskId), userId, role);
+        return taskGraphRepository.findUpstreamClosure(taskId, maxDepth).stream().map(taskMapper::toResponse).toList();
+    }
+
+    /**
+     * Get every task that transitively depends on the given task, nearest first.
+     *
+     * @param taskId   the task ID
+     * @param userId   the user asking
+     * @param role     the user's role; HR and system admins may read the chains of any task
+     * @param maxDepth maximum number of dependency hops to follow
+     * @return the dependent chain
+     * @throws ResourceNotFoundException if the task does not exist
+     * @throws AccessDeniedException     if the user may not act on the task
+     */
+    public List<TaskDependencyNodeResponse> getDownstream(UUID taskId, UUID userId, UserRole role, int maxDepth) {
+        requireAccess(requireTask(taskId), userId, role);
+        return taskGraphRepository.findDownstreamClosure(taskId, maxDepth).stream().map(taskMapper::toResponse)
+                .toList();
+    }
+
+    /**
+     * Complete a task and unblock its dependents. Completing an already completed task is a no-op.
+     *
+     * @param taskId the task to complete
+     * @param userId the user completing it
+     * @param role   the user's role; HR and system admins may complete tasks assigned to others or to no one
+     * @return the completion with the IDs of the tasks it unblocked
+     * @throws ResourceNotFoundException if the task does not exist
+     * @throws AccessDeniedException     if the task is assigned to another user, or unassigned and the user is no
+     *                                   admin
+     * @throws TaskBlockedException      if the task still has unmet prerequisites
+     */
+    @Transactional
+    public TaskCompletionResponse completeTask(UUID taskId, UUID userId, UserRole role) {
+        Task task = requireTask(taskId);
+        requireAccess(task, userId, role);
+        if (task.getStatus() == TaskStatus.COMPLETED) {
+            return completion(task.getId(), task.getCompletedAt(), List.of());
+        }
+
+        AuditSnapshot before = auditDiffer.snapshot(task);
+        TaskStatus previousStatus = task.getStatus();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (taskRepository.markCompleted(taskId, userRepository.getReferenceById(userId), now) == 0) {
+            // Lost a race with another completion, or still blocked; the bulk update cleared the context
+            Task current = taskRepository.findById(taskId).orElseThrow();
+            if (current.getStatus() == TaskStatus.COMPLETED) {
+                return completion(current.getId(), current.getCompletedAt(), List.of());
+            }
+            throw new TaskBlockedException("Task " + taskId + " has " + current.getUnmetPrerequisites()
+                    + " unmet prerequisites");
+        }
+        taskRepository.decrementUnmetPrerequisites(taskId, now);
+        List<UUID> unblocked = taskRepository.findReadyDependentIds(taskId);
+        notificationService.enqueueTaskAssignments(unblocked);
+
+        AuditSnapshot after = before.with("status", TaskStatus.COMPLETED).with("completedById", userId)
+                .with("completedAt", now);
+        auditWriter.record(EntityType.TASK, taskId, AuditAction.COMPLETED, userId,
+                "{\"unblockedTasks\":" + unblocked.size() + "}", auditDiffer.diff(before, after));
+        eventPublisher.publishEvent(new TaskStatusChangedEvent(taskId, task.getWorkflowInstance().getId(),
+                task.getAssignedTo() != null ? task.getAssignedTo().getId() : null, previousStatus,
+                TaskStatus.COMPLETED, task.getDueDate()));
+        log.debug("Task {} completed by {}, unblocking {} tasks", taskId, userId, unblocked.size());
+        return completion(taskId, now, unblocked);
+    }
+
+    /**
+     * Only the assignee may act on a task, or an HR or system admin. Tasks are left unassigned when no active
+     * user held the template's role, so only admins may act on those.
+     */
+    private static void requireAccess(Task task, UUID userId, UserRole role) {
+        if (role == UserRole.HR_ADMIN || role == UserRole.SYSTEM_ADMIN) {
+            return;
+        }
+        if (task.getAssignedTo() == null) {
+            throw new AccessDeniedException("Task " + task.getId() + " is not assigned to anyone");
+        }
+        if (!task.getAssignedTo().getId().equals(userId)) {
+            throw new AccessDeniedException("Task " + task.getId() + " is assigned to another user");
+        }
+    }
+
+    private Task requireTask(UUID taskId) {
+        return taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found: " + taskId));
+    }
+
+    private static TaskCompletionResponse completion(UUID taskId, LocalDateTime completedAt, List<UUID> unblocked) {
+        return TaskCompletionResponse.builder()
+                .taskId(taskId)
+                .status(TaskStatus.COMPLETED.name())
+                .completedAt(completedAt)
+                .unblockedTaskIds(unblocked)
+                .build();
+    }
+}
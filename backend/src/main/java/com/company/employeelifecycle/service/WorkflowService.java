@@ -0,0 +1,89 @@
+package com.company.employeelifecycle.service;
+
+import com.company.employeelifecycle.dto.request.CreateWorkflowRequest;
+import com.company.employeelifecycle.dto.response.CursorPage;
+import com.company.employeelifecycle.dto.response.WorkflowForecastResponse;
+import com.company.employeelifecycle.dto.response.WorkflowResponse;
+import com.company.employeelifecycle.entity.WorkflowInstance;
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import com.company.employeelifecycle.exception.ResourceNotFoundException;
+import com.company.employeelifecycle.forecast.WorkflowForecaster;
+import com.company.employeelifecycle.mapper.WorkflowMapper;
+import com.company.employeelifecycle.repository.WorkflowInstanceRepository;
+import com.company.employeelifecycle.util.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service for workflow instance queries.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class WorkflowService {
+
+    /** Sort keys of workflow listings (createdAt desc, id desc). */
+    static final Set<String> LIST_KEYS = Set.of("createdAt", "id");
+
+    private final WorkflowInstanceRepository workflowInstanceRepository;
+    private final WorkflowInstantiationService workflowInstantiationService;
+    private final WorkflowMapper workflowMapper;
+    private final WorkflowForecaster workflowForecaster;
+
+    /**
+     * Start a workflow for an employee from a template.
+     *
+     * @param request     the workflow request
+     * @param initiatedBy the user starting the workflow
+     * @return the created workflow
+     */
+    @Transactional
+    public WorkflowResponse createWorkflow(CreateWorkflowRequest request, UUID initiatedBy) {
+        return workflowMapper.toResponse(workflowInstantiationService.instantiate(request, initiatedBy));
+    }
+
+    /**
+     * Get one page of workflow instances, newest first, optionally filtered by status and employee.
+     *
+     * @param status     optional status filter
+     * @param employeeId optional employee filter
+     * @param cursor     cursor from the previous page, or null for the first page
+     * @param size       maximum number of instances to return
+     * @return the page of workflow instances
+     */
+    public CursorPage<WorkflowResponse> getWorkflows(WorkflowInstanceStatus status, UUID employeeId, String cursor,
+                                                     int size) {
+        ScrollPosition position = CursorCodec.decode(cursor, LIST_KEYS);
+        Limit limit = Limit.of(size);
+        Window<WorkflowInstance> window;
+        if (employeeId != null && status != null) {
+            window = workflowInstanceRepository.findByEmployeeIdAndStatusOrderByCreatedAtDescIdDesc(
+                    employeeId, status, position, limit);
+        } else if (employeeId != null) {
+            window = workflowInstanceRepository.findByEmployeeIdOrderByCreatedAtDescIdDesc(employeeId, position, limit);
+        } else if (status != null) {
+            window = workflowInstanceRepository.findByStatusOrderByCreatedAtDescIdDesc(status, position, limit);
+        } else {
+            window = workflowInstanceRepository.findAllByOrderByCreatedAtDescIdDesc(position, limit);
+        }
+        return CursorPage.of(window, workflowMapper::toResponse);
+    }
+
+    /**
+     * Forecast when a workflow instance will complete, from the durations of similar completed tasks.
+     *
+     * @param instanceId the workflow instance ID
+     * @return the P50 and P90 completion estimates
+     * @throws ResourceNotFoundException if the instance does not exist
+     */
+    public WorkflowForecastResponse getForecast(UUID instanceId) {
+        return workflowForecaster.forecast(instanceId);
+    }
+}
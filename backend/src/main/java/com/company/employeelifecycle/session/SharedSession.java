@@ -0,0 +1,144 @@
+package com.company.employeelifecycle.session;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Session stored in the shared http_sessions tables.
+ * Wraps a {@link MapSession} and records which parts changed during the request, so that
+ * {@link SharedSessionRepository} only writes dirty attributes and can defer access-time-only changes.
+ */
+@Getter(AccessLevel.PACKAGE)
+public class SharedSession implements Session {
+
+    private final UUID primaryId;
+    private final MapSession delegate;
+    private boolean isNew;
+    private String originalId;
+    private String principalName;
+    private Set<String> persistedAttributeNames;
+    private final Set<String> dirtyAttributeNames = new HashSet<>();
+    private boolean lastAccessChanged;
+    private boolean maxInactiveChanged;
+
+    /**
+     * Create a brand-new session.
+     */
+    SharedSession(MapSession delegate) {
+        this(UUID.randomUUID(), delegate, true, null, Set.of());
+    }
+
+    /**
+     * Wrap a session loaded from the store (or copied from the near-cache).
+     */
+    SharedSession(UUID primaryId, MapSession delegate, boolean isNew, String principalName,
+                  Set<String> persistedAttributeNames) {
+        this.primaryId = primaryId;
+        this.delegate = delegate;
+        this.isNew = isNew;
+        this.originalId = delegate.getId();
+        this.principalName = principalName;
+        this.persistedAttributeNames = new HashSet<>(persistedAttributeNames);
+    }
+
+    /**
+     * Reset change tracking after the repository wrote this session.
+     * The servlet filter may save the same session more than once per request.
+     */
+    void markSaved(String savedPrincipalName) {
+        isNew = false;
+        originalId = delegate.getId();
+        principalName = savedPrincipalName;
+        persistedAttributeNames = new HashSet<>(delegate.getAttributeNames());
+        dirtyAttributeNames.clear();
+        lastAccessChanged = false;
+        maxInactiveChanged = false;
+    }
+
+    boolean isIdChanged() {
+        return !isNew && !originalId.equals(delegate.getId());
+    }
+
+    /**
+     * Whether anything other than the last access time needs writing.
+     */
+    boolean hasStructuralChanges() {
+        return isNew || isIdChanged() || maxInactiveChanged || !dirtyAttributeNames.isEmpty();
+    }
+
+    @Override
+    public String getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public String changeSessionId() {
+        return delegate.changeSessionId();
+    }
+
+    @Override
+    public <T> T getAttribute(String attributeName) {
+        return delegate.getAttribute(attributeName);
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+        return delegate.getAttributeNames();
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+        delegate.setAttribute(attributeName, attributeValue);
+        dirtyAttributeNames.add(attributeName);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+        delegate.removeAttribute(attributeName);
+        dirtyAttributeNames.add(attributeName);
+    }
+
+    @Override
+    public Instant getCreationTime() {
+        return delegate.getCreationTime();
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+        delegate.setLastAccessedTime(lastAccessedTime);
+        lastAccessChanged = true;
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+        return delegate.getLastAccessedTime();
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+        delegate.setMaxInactiveInterval(interval);
+        maxInactiveChanged = true;
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+        return delegate.getMaxInactiveInterval();
+    }
+
+    @Override
+    public boolean isExpired() {
+        return delegate.isExpired();
+    }
+
+    Instant getExpiryTime() {
+        return delegate.getLastAccessedTime().plus(delegate.getMaxInactiveInterval());
+    }
+}
@@ -0,0 +1,364 @@
+package com.company.employeelifecycle.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.PrincipalNameIndexResolver;
+import org.springframework.session.Session;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Spring Session repository backed by the shared http_sessions tables, so any backend node can
+ * serve any session without sticky routing.
+ * <p>
+ * Three things keep the per-request cost low:
+ * <ul>
+ *   <li>A per-node near-cache of deserialized sessions. A hit is validated with a single-row
+ *       version lookup, so attributes are only re-read and deserialized after another node changed them.</li>
+ *   <li>Only attributes set or removed during the request are written.</li>
+ *   <li>Requests that only touch the session (the common case) queue their last-access time, which
+ *       {@link #flushPendingAccessTimes()} writes for all sessions in one batch.</li>
+ * </ul>
+ */
+@Slf4j
+public class SharedSessionRepository implements FindByIndexNameSessionRepository<SharedSession> {
+
+    private static final String SELECT_SESSION = """
+            SELECT primary_id, session_id, principal_name, creation_time, last_access_time,
+                   max_inactive_interval, version
+            FROM http_sessions WHERE session_id = ?""";
+    private static final String SELECT_VERSION = """
+            SELECT version, last_access_time FROM http_sessions WHERE session_id = ?""";
+    private static final String SELECT_ATTRIBUTES = """
+            SELECT attribute_name, attribute_bytes FROM http_session_attributes WHERE session_primary_id = ?""";
+    private static final String INSERT_SESSION = """
+            INSERT INTO http_sessions (primary_id, session_id, principal_name, creation_time, last_access_time,
+                                       max_inactive_interval, expiry_time, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)""";
+    private static final String UPDATE_SESSION = """
+            UPDATE http_sessions SET session_id = ?, principal_name = ?, last_access_time = ?,
+                   max_inactive_interval = ?, expiry_time = ?, version = ?
+            WHERE primary_id = ?""";
+    private static final String UPDATE_ACCESS_TIME = """
+            UPDATE http_sessions SET last_access_time = ?, expiry_time = ?
+            WHERE primary_id = ? AND last_access_time < ?""";
+    private static final String INSERT_ATTRIBUTE = """
+            INSERT INTO http_session_attributes (session_primary_id, attribute_name, attribute_bytes) VALUES (?, ?, ?)""";
+    private static final String UPDATE_ATTRIBUTE = """
+            UPDATE http_session_attributes SET attribute_bytes = ? WHERE session_primary_id = ? AND attribute_name = ?""";
+    private static final String DELETE_ATTRIBUTE = """
+            DELETE FROM http_session_attributes WHERE session_primary_id = ? AND attribute_name = ?""";
+    private static final String SELECT_IDS_BY_PRINCIPAL = """
+            SELECT session_id FROM http_sessions WHERE principal_name = ?""";
+    private static final String DELETE_SESSION = "DELETE FROM http_sessions WHERE session_id = ?";
+    private static final String DELETE_EXPIRED = "DELETE FROM http_sessions WHERE expiry_time < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration defaultMaxInactiveInterval;
+    private final Clock clock;
+    private final Cache<String, CachedSession> nearCache;
+    private final Map<UUID, PendingAccess> pendingAccess = new ConcurrentHashMap<>();
+    private final PrincipalNameIndexResolver<Session> principalNameResolver = new PrincipalNameIndexResolver<>();
+    private final SerializingConverter serializer = new SerializingConverter();
+    private final DeserializingConverter deserializer = new DeserializingConverter();
+    private final Counter nearCacheHits;
+    private final Counter nearCacheMisses;
+    private final Counter structuralWrites;
+    private final Counter deferredTouches;
+
+    public SharedSessionRepository(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   Duration defaultMaxInactiveInterval, long nearCacheMaxSize, Duration nearCacheTtl,
+                                   Clock clock, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+        this.clock = clock;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(nearCacheMaxSize)
+                .expireAfterAccess(nearCacheTtl)
+                .build();
+        this.nearCacheHits = Counter.builder("sessions.near_cache").tag("result", "hit").register(meterRegistry);
+        this.nearCacheMisses = Counter.builder("sessions.near_cache").tag("result", "miss").register(meterRegistry);
+        this.structuralWrites = Counter.builder("sessions.writes").tag("type", "attributes").register(meterRegistry);
+        this.deferredTouches = Counter.builder("sessions.writes").tag("type", "deferred_access").register(meterRegistry);
+        Gauge.builder("sessions.pending_access_updates", pendingAccess, Map::size)
+                .description("Last-access updates waiting for the next batch flush")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SharedSession createSession() {
+        MapSession session = new MapSession();
+        session.setCreationTime(clock.instant());
+        session.setLastAccessedTime(session.getCreationTime());
+        session.setMaxInactiveInterval(defaultMaxInactiveInterval);
+        return new SharedSession(session);
+    }
+
+    @Override
+    public void save(SharedSession session) {
+        Instant lastAccess = session.getLastAccessedTime();
+
+        if (session.hasStructuralChanges()) {
+            String principalName = principalNameResolver.resolveIndexValueFor(session);
+            long version = ThreadLocalRandom.current().nextLong();
+            transactionTemplate.executeWithoutResult(status -> {
+                if (session.isNew()) {
+                    insertSession(session, principalName, version);
+                } else {
+                    updateSession(session, principalName, version);
+                }
+                writeDirtyAttributes(session);
+            });
+            pendingAccess.remove(session.getPrimaryId());
+            structuralWrites.increment();
+
+            if (session.isIdChanged()) {
+                nearCache.invalidate(session.getOriginalId());
+            }
+            session.markSaved(principalName);
+            nearCache.put(session.getId(), new CachedSession(session.getPrimaryId(), new MapSession(session.getDelegate()),
+                    principalName, new HashSet<>(session.getPersistedAttributeNames()), version));
+        } else if (session.isLastAccessChanged()) {
+            pendingAccess.merge(session.getPrimaryId(),
+                    new PendingAccess(lastAccess, session.getExpiryTime()),
+                    (existing, update) -> update.lastAccess().isAfter(existing.lastAccess()) ? update : existing);
+            deferredTouches.increment();
+            session.markSaved(session.getPrincipalName());
+            CachedSession cached = nearCache.getIfPresent(session.getId());
+            if (cached != null) {
+                cached.touch(lastAccess);
+            }
+        }
+    }
+
+    @Override
+    public SharedSession findById(String id) {
+        CachedSession cached = nearCache.getIfPresent(id);
+        CachedSession current = cached != null ? revalidate(id, cached) : null;
+
+        if (current == null) {
+            nearCacheMisses.increment();
+            current = load(id);
+            if (current == null) {
+                return null;
+            }
+            nearCache.put(id, current);
+        } else {
+            nearCacheHits.increment();
+        }
+
+        PendingAccess pending = pendingAccess.get(current.primaryId);
+        if (pending != null) {
+            current.touch(pending.lastAccess());
+        }
+
+        SharedSession session = current.toSession();
+        if (session.getExpiryTime().isBefore(clock.instant())) {
+            deleteById(id);
+            return null;
+        }
+        return session;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        CachedSession cached = nearCache.getIfPresent(id);
+        if (cached != null) {
+            pendingAccess.remove(cached.primaryId);
+        }
+        nearCache.invalidate(id);
+        jdbcTemplate.update(DELETE_SESSION, id);
+    }
+
+    @Override
+    public Map<String, SharedSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        if (!PRINCIPAL_NAME_INDEX_NAME.equals(indexName)) {
+            return Map.of();
+        }
+        Map<String, SharedSession> sessions = new HashMap<>();
+        for (String sessionId : jdbcTemplate.queryForList(SELECT_IDS_BY_PRINCIPAL, String.class, indexValue)) {
+            SharedSession session = findById(sessionId);
+            if (session != null) {
+                sessions.put(sessionId, session);
+            }
+        }
+        return sessions;
+    }
+
+    /**
+     * Write all queued last-access times in one JDBC batch.
+     * Updates never move a session's last access time backwards.
+     *
+     * @return the number of sessions flushed
+     */
+    public int flushPendingAccessTimes() {
+        if (pendingAccess.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> batch = new ArrayList<>();
+        for (UUID primaryId : new ArrayList<>(pendingAccess.keySet())) {
+            PendingAccess pending = pendingAccess.remove(primaryId);
+            if (pending != null) {
+                long lastAccess = pending.lastAccess().toEpochMilli();
+                batch.add(new Object[]{lastAccess, pending.expiry().toEpochMilli(), primaryId, lastAccess});
+            }
+        }
+        jdbcTemplate.batchUpdate(UPDATE_ACCESS_TIME, batch);
+        log.debug("Flushed last-access times for {} sessions", batch.size());
+        return batch.size();
+    }
+
+    /**
+     * Flush queued access times, then delete sessions whose expiry time has passed.
+     *
+     * @return the number of sessions deleted
+     */
+    public int cleanUpExpiredSessions() {
+        flushPendingAccessTimes();
+        int deleted = jdbcTemplate.update(DELETE_EXPIRED, clock.millis());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired sessions", deleted);
+        }
+        return deleted;
+    }
+
+    private void insertSession(SharedSession session, String principalName, long version) {
+        jdbcTemplate.update(INSERT_SESSION, session.getPrimaryId(), session.getId(), principalName,
+                session.getCreationTime().toEpochMilli(), session.getLastAccessedTime().toEpochMilli(),
+                (int) session.getMaxInactiveInterval().toSeconds(), session.getExpiryTime().toEpochMilli(), version);
+    }
+
+    private void updateSession(SharedSession session, String principalName, long version) {
+        jdbcTemplate.update(UPDATE_SESSION, session.getId(), principalName,
+                session.getLastAccessedTime().toEpochMilli(), (int) session.getMaxInactiveInterval().toSeconds(),
+                session.getExpiryTime().toEpochMilli(), version, session.getPrimaryId());
+    }
+
+    private void writeDirtyAttributes(SharedSession session) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+
+        for (String name : session.getDirtyAttributeNames()) {
+            Object value = session.getAttribute(name);
+            boolean persisted = session.getPersistedAttributeNames().contains(name);
+            if (value == null) {
+                if (persisted) {
+                    deletes.add(new Object[]{session.getPrimaryId(), name});
+                }
+            } else if (persisted) {
+                updates.add(new Object[]{serializer.convert(value), session.getPrimaryId(), name});
+            } else {
+                inserts.add(new Object[]{session.getPrimaryId(), name, serializer.convert(value)});
+            }
+        }
+
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_ATTRIBUTE, deletes);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_ATTRIBUTE, updates);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ATTRIBUTE, inserts);
+        }
+    }
+
+    /**
+     * Confirm a near-cache entry is still current.
+     *
+     * @return the entry (with the shared last access time applied), or null if it must be reloaded
+     */
+    private CachedSession revalidate(String id, CachedSession cached) {
+        List<long[]> rows = jdbcTemplate.query(SELECT_VERSION,
+                (rs, rowNum) -> new long[]{rs.getLong("version"), rs.getLong("last_access_time")}, id);
+        if (rows.isEmpty() || rows.get(0)[0] != cached.version) {
+            nearCache.invalidate(id);
+            return null;
+        }
+        cached.touch(Instant.ofEpochMilli(rows.get(0)[1]));
+        return cached;
+    }
+
+    private CachedSession load(String id) {
+        List<CachedSession> rows = jdbcTemplate.query(SELECT_SESSION, this::mapSession, id);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        CachedSession loaded = rows.get(0);
+        jdbcTemplate.query(SELECT_ATTRIBUTES, rs -> {
+            String name = rs.getString("attribute_name");
+            loaded.session.setAttribute(name, deserializer.convert(rs.getBytes("attribute_bytes")));
+            loaded.attributeNames.add(name);
+        }, loaded.primaryId);
+        return loaded;
+    }
+
+    private CachedSession mapSession(ResultSet rs, int rowNum) throws SQLException {
+        MapSession session = new MapSession(rs.getString("session_id"));
+        session.setCreationTime(Instant.ofEpochMilli(rs.getLong("creation_time")));
+        session.setLastAccessedTime(Instant.ofEpochMilli(rs.getLong("last_access_time")));
+        session.setMaxInactiveInterval(Duration.ofSeconds(rs.getInt("max_inactive_interval")));
+        return new CachedSession(rs.getObject("primary_id", UUID.class), session, rs.getString("principal_name"),
+                new HashSet<>(), rs.getLong("version"));
+    }
+
+    private record PendingAccess(Instant lastAccess, Instant expiry) {
+    }
+
+    /**
+     * Near-cache entry. The snapshot is never handed out directly; each request gets a copy.
+     */
+    private static final class CachedSession {
+
+        private final UUID primaryId;
+        private final MapSession session;
+        private final String principalName;
+        private final Set<String> attributeNames;
+        private final long version;
+
+        private CachedSession(UUID primaryId, MapSession session, String principalName, Set<String> attributeNames,
+                              long version) {
+            this.primaryId = primaryId;
+            this.session = session;
+            this.principalName = principalName;
+            this.attributeNames = attributeNames;
+            this.version = version;
+        }
+
+        private synchronized void touch(Instant lastAccess) {
+            if (lastAccess.isAfter(session.getLastAccessedTime())) {
+                session.setLastAccessedTime(lastAccess);
+            }
+        }
+
+        private synchronized SharedSession toSession() {
+            return new SharedSession(primaryId, new MapSession(session), false, principalName, attributeNames);
+        }
+    }
+}
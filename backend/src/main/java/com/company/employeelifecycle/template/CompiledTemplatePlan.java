@@ -0,0 +1,121 @@
+package com.company.employeelifecycle.template;
+
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.enums.WorkflowType;
+import com.company.employeelifecycle.template.TemplateDefinition.TaskDefinition;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable, compiled form of one version of a workflow template, built once by {@link TemplatePlanCompiler}
+ * and shared through {@link TemplatePlanCache}.
+ * <p>
+ * Tasks are held in topological order: every task comes after all of its prerequisites. Tasks are
+ * addressed by their position in that order, so the dependency DAG is a set of index arrays and
+ * instantiating a plan needs no key lookups. Each task also has a step: 0 for tasks without
+ * prerequisites, otherwise one more than the latest step among its prerequisites.
+ */
+public final class CompiledTemplatePlan {
+
+    private final UUID templateId;
+    private final int version;
+    private final LocalDateTime templateUpdatedAt;
+    private final String name;
+    private final WorkflowType type;
+    private final List<TaskDefinition> tasks;
+    private final int[][] prerequisites;
+    private final int[] steps;
+    private final int stepCount;
+    private final int dependencyCount;
+    private final Set<UserRole> assignedRoles;
+
+    CompiledTemplatePlan(UUID templateId, int version, LocalDateTime templateUpdatedAt, String name, WorkflowType type,
+                         List<TaskDefinition> tasks, int[][] prerequisites, int[] steps, Set<UserRole> assignedRoles) {
+        this.templateId = templateId;
+        this.version = version;
+        this.templateUpdatedAt = templateUpdatedAt;
+        this.name = name;
+        this.type = type;
+        this.tasks = List.copyOf(tasks);
+        this.prerequisites = prerequisites;
+        this.steps = steps;
+        int maxStep = -1;
+        int edges = 0;
+        for (int i = 0; i < steps.length; i++) {
+            maxStep = Math.max(maxStep, steps[i]);
+            edges += prerequisites[i].length;
+        }
+        this.stepCount = maxStep + 1;
+        this.dependencyCount = edges;
+        this.assignedRoles = Collections.unmodifiableSet(assignedRoles);
+    }
+
+    public UUID templateId() {
+        return templateId;
+    }
+
+    public int version() {
+        return version;
+    }
+
+    /**
+     * @return the template's updatedAt when the plan was compiled, used to detect edits that kept the version
+     */
+    public LocalDateTime templateUpdatedAt() {
+        return templateUpdatedAt;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public WorkflowType type() {
+        return type;
+    }
+
+    /**
+     * @return task definitions in topological order
+     */
+    public List<TaskDefinition> tasks() {
+        return tasks;
+    }
+
+    public int taskCount() {
+        return tasks.size();
+    }
+
+    /**
+     * @param taskIndex index of a task in topological order
+     * @return indexes of the task's prerequisites, all lower than {@code taskIndex}; do not modify
+     */
+    public int[] prerequisitesOf(int taskIndex) {
+        return prerequisites[taskIndex];
+    }
+
+    /**
+     * @param taskIndex index of a task in topological order
+     * @return the step the task belongs to
+     */
+    public int stepOf(int taskIndex) {
+        return steps[taskIndex];
+    }
+
+    public int stepCount() {
+        return stepCount;
+    }
+
+    public int dependencyCount() {
+        return dependencyCount;
+    }
+
+    /**
+     * @return roles that tasks of this template are assigned to
+     */
+    public Set<UserRole> assignedRoles() {
+        return assignedRoles;
+    }
+}
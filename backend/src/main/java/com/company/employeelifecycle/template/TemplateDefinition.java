@@ -0,0 +1,32 @@
+package com.company.employeelifecycle.template;
+
+import com.company.employeelifecycle.enums.DependencyType;
+import com.company.employeelifecycle.enums.TaskType;
+import com.company.employeelifecycle.enums.UserRole;
+
+import java.util.List;
+
+/**
+ * Parsed form of {@code WorkflowTemplate.templateJson}: the tasks a workflow instance starts with.
+ *
+ * @param tasks task definitions in template order
+ */
+public record TemplateDefinition(List<TaskDefinition> tasks) {
+
+    /**
+     * One task of a template.
+     *
+     * @param key            identifier of the task within the template, referenced by {@code dependsOn}
+     * @param title          task title
+     * @param description    optional task description
+     * @param taskType       type of the task
+     * @param assignedRole   role whose user the task is assigned to, or null to leave it unassigned
+     * @param dueInDays      due date offset from the employee's start date, or null for no due date
+     * @param dependsOn      keys of prerequisite tasks
+     * @param dependencyType how the prerequisites gate this task
+     */
+    public record TaskDefinition(String key, String title, String description, TaskType taskType,
+                                 UserRole assignedRole, Integer dueInDays, List<String> dependsOn,
+                                 DependencyType dependencyType) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.company.employeelifecycle.template;
+
+import com.company.employeelifecycle.enums.DependencyType;
+import com.company.employeelifecycle.enums.TaskType;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.exception.InvalidTemplateException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses and validates {@code WorkflowTemplate.templateJson}.
+ * <p>
+ * Expected shape:
+ * <pre>
+ * {
+ *   "tasks": [
+ *     {"key": "accounts", "title": "Create accounts", "taskType": "CHECKLIST", "assignedRole": "TECH_SUPPORT"},
+ *     {"key": "laptop", "title": "Provision laptop", "description": "...", "taskType": "CHECKLIST",
+ *      "assignedRole": "TECH_SUPPORT", "dueInDays": 1, "dependsOn": ["accounts"], "dependencyType": "SEQUENTIAL"}
+ *   ]
+ * }
+ * </pre>
+ * {@code dependencyType} defaults to SEQUENTIAL.
+ */
+@Component
+@RequiredArgsConstructor
+public class TemplateDefinitionParser {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Parse a template definition.
+     *
+     * @param templateJson the template JSON
+     * @return the parsed definition
+     * @throws InvalidTemplateException if the JSON is malformed, a key or dependency is duplicated or a
+     *                                  dependency is unknown
+     */
+    public TemplateDefinition parse(String templateJson) {
+        if (templateJson == null || templateJson.isBlank()) {
+            throw new InvalidTemplateException("Template has no definition");
+        }
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(templateJson);
+        } catch (JsonProcessingException e) {
+            throw new InvalidTemplateException("Template definition is not valid JSON", e);
+        }
+        JsonNode tasksNode = root.path("tasks");
+        if (!tasksNode.isArray()) {
+            throw new InvalidTemplateException("Template definition must contain a \"tasks\" array");
+        }
+
+        List<TemplateDefinition.TaskDefinition> tasks = new ArrayList<>(tasksNode.size());
+        Set<String> keys = new HashSet<>();
+        for (JsonNode node : tasksNode) {
+            String key = requiredText(node, "key");
+            if (!keys.add(key)) {
+                throw new InvalidTemplateException("Duplicate task key: " + key);
+            }
+            List<String> dependsOn = new ArrayList<>();
+            for (JsonNode dependency : node.path("dependsOn")) {
+                if (dependsOn.contains(dependency.asText())) {
+                    throw new InvalidTemplateException("Task " + key + " lists dependency " + dependency.asText()
+                            + " twice");
+                }
+                dependsOn.add(dependency.asText());
+            }
+            tasks.add(new TemplateDefinition.TaskDefinition(
+                    key,
+                    requiredText(node, "title"),
+                    node.hasNonNull("description") ? node.get("description").asText() : null,
+                    enumValue(TaskType.class, requiredText(node, "taskType"), key),
+                    node.hasNonNull("assignedRole")
+                            ? enumValue(UserRole.class, node.get("assignedRole").asText(), key) : null,
+                    node.hasNonNull("dueInDays") ? node.get("dueInDays").asInt() : null,
+                    List.copyOf(dependsOn),
+                    node.hasNonNull("dependencyType")
+                            ? enumValue(DependencyType.class, node.get("dependencyType").asText(), key)
+                            : DependencyType.SEQUENTIAL));
+        }
+        for (TemplateDefinition.TaskDefinition task : tasks) {
+            for (String dependency : task.dependsOn()) {
+                if (!keys.contains(dependency)) {
+                    throw new InvalidTemplateException("Task " + task.key() + " depends on unknown task " + dependency);
+                }
+            }
+        }
+        return new TemplateDefinition(List.copyOf(tasks));
+    }
+
+    private static String requiredText(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isTextual() || value.asText().isBlank()) {
+            throw new InvalidTemplateException("Template task is missing \"" + field + "\"");
+        }
+        return value.asText();
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String value, String key) {
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTemplateException("Task " + key + " has unknown " + type.getSimpleName() + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.company.employeelifecycle.template;
+
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.event.WorkflowTemplateChangedEvent;
+import com.company.employeelifecycle.exception.InvalidTemplateException;
+import com.company.employeelifecycle.exception.ResourceNotFoundException;
+import com.company.employeelifecycle.repository.WorkflowTemplateRepository;
+import com.company.employeelifecycle.repository.WorkflowTemplateRepository.TemplateHeader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Bounded in-process cache of {@link CompiledTemplatePlan}s keyed by template id and version, so that
+ * instantiating a workflow does not re-parse and re-sort its template. Hit, miss and eviction counts are
+ * published to Micrometer under "templatePlans".
+ * <p>
+ * Callers pass the template's header row; a cached plan is only used if the template's updatedAt still
+ * matches, which covers edits that did not bump the version. Entries are also evicted when a
+ * {@link WorkflowTemplateChangedEvent} is flushed and again after the transaction commits. Active
+ * templates are compiled when the application starts.
+ */
+@Slf4j
+@Component
+public class TemplatePlanCache {
+
+    static final String CACHE_NAME = "templatePlans";
+
+    private final WorkflowTemplateRepository workflowTemplateRepository;
+    private final TemplatePlanCompiler compiler;
+    private final Cache<PlanKey, CompiledTemplatePlan> cache;
+
+    public TemplatePlanCache(WorkflowTemplateRepository workflowTemplateRepository,
+                             TemplatePlanCompiler compiler,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.workflow.template-cache.max-size:256}") long maxSize) {
+        this.workflowTemplateRepository = workflowTemplateRepository;
+        this.compiler = compiler;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Return the compiled plan for the template, compiling it on a miss or if the template changed.
+     *
+     * @param header the template's current header row
+     * @return the compiled plan
+     * @throws InvalidTemplateException if the template definition is invalid
+     */
+    public CompiledTemplatePlan get(TemplateHeader header) {
+        PlanKey key = new PlanKey(header.getId(), TemplatePlanCompiler.versionOf(header.getVersion()));
+        CompiledTemplatePlan cached = cache.getIfPresent(key);
+        if (cached != null && Objects.equals(cached.templateUpdatedAt(), header.getUpdatedAt())) {
+            return cached;
+        }
+        // Compile outside the cache's compute: the query may auto-flush pending template changes,
+        // whose listeners evict from this same map
+        WorkflowTemplate template = workflowTemplateRepository.findById(header.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Workflow template not found: " + header.getId()));
+        return put(compiler.compile(template));
+    }
+
+    /**
+     * Compile every active template, so the first instantiations after startup hit the cache.
+     * Invalid templates are logged and skipped; they fail when used instead.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        int compiled = 0;
+        for (WorkflowTemplate template : workflowTemplateRepository.findByActiveTrue()) {
+            try {
+                put(compiler.compile(template));
+                compiled++;
+            } catch (InvalidTemplateException e) {
+                log.warn("Skipping invalid workflow template {} ({}): {}", template.getId(), template.getName(),
+                        e.getMessage());
+            }
+        }
+        log.info("Compiled {} workflow template plans", compiled);
+    }
+
+    @EventListener
+    public void onTemplateChanged(WorkflowTemplateChangedEvent event) {
+        evict(event.template().getId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTemplateChangeCommitted(WorkflowTemplateChangedEvent event) {
+        evict(event.template().getId());
+    }
+
+    /**
+     * Evict every cached version of the given template.
+     *
+     * @param templateId the template ID
+     */
+    public void evict(UUID templateId) {
+        if (templateId != null && cache.asMap().keySet().removeIf(key -> key.templateId().equals(templateId))) {
+            log.debug("Evicted compiled plans for workflow template {}", templateId);
+        }
+    }
+
+    /**
+     * Drop all cached plans.
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private CompiledTemplatePlan put(CompiledTemplatePlan plan) {
+        cache.put(new PlanKey(plan.templateId(), plan.version()), plan);
+        return plan;
+    }
+
+    record PlanKey(UUID templateId, int version) {
+    }
+}
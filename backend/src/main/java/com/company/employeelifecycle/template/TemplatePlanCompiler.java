@@ -0,0 +1,112 @@
+package com.company.employeelifecycle.template;
+
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.exception.InvalidTemplateException;
+import com.company.employeelifecycle.template.TemplateDefinition.TaskDefinition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles a workflow template into a {@link CompiledTemplatePlan}: parses its JSON definition and orders
+ * the tasks topologically (Kahn's algorithm, keeping template order among tasks that are ready together).
+ */
+@Component
+@RequiredArgsConstructor
+public class TemplatePlanCompiler {
+
+    private final TemplateDefinitionParser parser;
+
+    /**
+     * Compile a template.
+     *
+     * @param template the template to compile
+     * @return the compiled plan
+     * @throws InvalidTemplateException if the definition is invalid or its dependencies form a cycle
+     */
+    public CompiledTemplatePlan compile(WorkflowTemplate template) {
+        List<TaskDefinition> definitions = parser.parse(template.getTemplateJson()).tasks();
+        int count = definitions.size();
+
+        Map<String, Integer> indexByKey = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            indexByKey.put(definitions.get(i).key(), i);
+        }
+        int[] unmet = new int[count];
+        List<List<Integer>> dependents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < count; i++) {
+            for (String prerequisite : definitions.get(i).dependsOn()) {
+                dependents.get(indexByKey.get(prerequisite)).add(i);
+                unmet[i]++;
+            }
+        }
+
+        // Kahn's algorithm over template positions; a FIFO queue keeps ready tasks in template order
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < count; i++) {
+            if (unmet[i] == 0) {
+                ready.add(i);
+            }
+        }
+        int[] order = new int[count];
+        int ordered = 0;
+        while (!ready.isEmpty()) {
+            int current = ready.poll();
+            order[ordered++] = current;
+            for (int dependent : dependents.get(current)) {
+                if (--unmet[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (ordered < count) {
+            throw new InvalidTemplateException("Template " + template.getId() + " has a dependency cycle");
+        }
+
+        int[] positionOf = new int[count];
+        for (int position = 0; position < count; position++) {
+            positionOf[order[position]] = position;
+        }
+        List<TaskDefinition> tasks = new ArrayList<>(count);
+        int[][] prerequisites = new int[count][];
+        int[] steps = new int[count];
+        Set<UserRole> roles = EnumSet.noneOf(UserRole.class);
+        for (int position = 0; position < count; position++) {
+            TaskDefinition task = definitions.get(order[position]);
+            tasks.add(task);
+            int[] taskPrerequisites = new int[task.dependsOn().size()];
+            int step = 0;
+            for (int p = 0; p < taskPrerequisites.length; p++) {
+                int prerequisite = positionOf[indexByKey.get(task.dependsOn().get(p))];
+                taskPrerequisites[p] = prerequisite;
+                step = Math.max(step, steps[prerequisite] + 1);
+            }
+            Arrays.sort(taskPrerequisites);
+            prerequisites[position] = taskPrerequisites;
+            steps[position] = step;
+            if (task.assignedRole() != null) {
+                roles.add(task.assignedRole());
+            }
+        }
+
+        return new CompiledTemplatePlan(template.getId(), versionOf(template.getVersion()), template.getUpdatedAt(),
+                template.getName(), template.getType(), tasks, prerequisites, steps, roles);
+    }
+
+    static int versionOf(Integer version) {
+        return version != null ? version : 0;
+    }
+}
@@ -0,0 +1,123 @@
+package com.company.employeelifecycle.util;
+
+import com.company.employeelifecycle.exception.InvalidCursorException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Encodes keyset scroll positions (the sort key values and id of the last row of a page) as
+ * opaque, URL-safe cursor tokens, and decodes them back for the next query.
+ * <p>
+ * Decoding checks that the token carries exactly the sort keys of the listing it is used with,
+ * so a token from one listing cannot steer the query of another.
+ */
+public final class CursorCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> KEYS_TYPE = new TypeReference<>() {
+    };
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Encode a keyset position as a cursor token.
+     *
+     * @param position the position of the last row returned, as provided by {@code Window.positionAt}
+     * @return opaque cursor token
+     */
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded as cursors");
+        }
+        Map<String, String> keys = new LinkedHashMap<>();
+        keyset.getKeys().forEach((name, value) -> keys.put(name, encodeValue(value)));
+        try {
+            return ENCODER.encodeToString(MAPPER.writeValueAsBytes(keys));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    /**
+     * Decode a cursor token into the position to continue from.
+     *
+     * @param cursor       the token from a previous page, or null/blank for the first page
+     * @param expectedKeys the sort keys of the listing the cursor is used with
+     * @return the keyset position to continue from
+     * @throws InvalidCursorException if the token is malformed or belongs to a different listing
+     */
+    public static ScrollPosition decode(String cursor, Set<String> expectedKeys) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, String> encoded;
+        try {
+            encoded = MAPPER.readValue(DECODER.decode(cursor.getBytes(StandardCharsets.US_ASCII)), KEYS_TYPE);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+        if (encoded == null || !encoded.keySet().equals(expectedKeys)) {
+            throw new InvalidCursorException("Cursor does not belong to this listing");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        encoded.forEach((name, value) -> keys.put(name, decodeValue(value)));
+        return ScrollPosition.forward(keys);
+    }
+
+    private static String encodeValue(Object value) {
+        if (value instanceof UUID uuid) {
+            return "u:" + uuid;
+        } else if (value instanceof LocalDateTime dateTime) {
+            return "t:" + dateTime;
+        } else if (value instanceof LocalDate date) {
+            return "d:" + date;
+        } else if (value instanceof String string) {
+            return "s:" + string;
+        } else if (value instanceof Long number) {
+            return "l:" + number;
+        } else if (value instanceof Integer number) {
+            return "i:" + number;
+        }
+        throw new IllegalArgumentException("Unsupported cursor key type: "
+                + (value == null ? "null" : value.getClass().getName()));
+    }
+
+    private static Object decodeValue(String value) {
+        if (value == null || value.length() < 2 || value.charAt(1) != ':') {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        String raw = value.substring(2);
+        try {
+            return switch (value.charAt(0)) {
+                case 'u' -> UUID.fromString(raw);
+                case 't' -> LocalDateTime.parse(raw);
+                case 'd' -> LocalDate.parse(raw);
+                case 's' -> raw;
+                case 'l' -> Long.parseLong(raw);
+                case 'i' -> Integer.parseInt(raw);
+                default -> throw new InvalidCursorException("Malformed cursor");
+            };
+        } catch (RuntimeException e) {
+            if (e instanceof InvalidCursorException invalid) {
+                throw invalid;
+            }
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.company.employeelifecycle.util;
+
+import org.springframework.http.CacheControl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Builds ETags from the version of a resource (timestamps, counts, version counters and the request
+ * parameters that select the representation) rather than from its body, so that a conditional GET can be
+ * answered before the body is loaded or serialized.
+ */
+public final class ETags {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private ETags() {
+    }
+
+    /**
+     * Build a weak ETag from the values that identify a version of a representation. Nulls are allowed.
+     *
+     * @param parts the version values, in a fixed order
+     * @return the ETag, quoted and with the weak prefix
+     */
+    public static String weak(Object... parts) {
+        MessageDigest digest = sha256();
+        for (Object part : parts) {
+            // Length-prefixed so that ("ab", "c") and ("a", "bc") differ
+            byte[] bytes = String.valueOf(part).getBytes(StandardCharsets.UTF_8);
+            digest.update(new byte[]{(byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+                    (byte) (bytes.length >>> 8), (byte) bytes.length});
+            digest.update(bytes);
+        }
+        // 128 bits: collisions would turn a changed resource into a 304
+        byte[] hash = digest.digest();
+        return "W/\"" + HEX.formatHex(hash, 0, 16) + "\"";
+    }
+
+    /**
+     * Cache-Control for responses with a version ETag: clients may keep them, privately, but must revalidate
+     * them with {@code If-None-Match} before every use.
+     *
+     * @return a new Cache-Control
+     */
+    public static CacheControl revalidate() {
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
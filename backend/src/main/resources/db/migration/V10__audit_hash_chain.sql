@@ -0,0 +1,44 @@
+-- Hash chain over audit_logs (see AuditChain): each row carries its position in the chain and a SHA-256 hash
+-- of its content chained to the previous row's hash. Rows written before this migration stay unchained.
+
+ALTER TABLE audit_logs ADD COLUMN chain_seq BIGINT;
+ALTER TABLE audit_logs ADD COLUMN row_hash BYTEA;
+
+-- Verification reads the chain in sequence order, one segment at a time
+CREATE INDEX idx_audit_logs_chain_seq ON audit_logs(chain_seq);
+-- Rows outside the chain (legacy, or inserted behind the writer's back) are counted by every verification
+CREATE INDEX idx_audit_logs_unchained ON audit_logs(timestamp) WHERE chain_seq IS NULL;
+
+-- Last link of the chain, locked by every writing transaction
+CREATE TABLE audit_chain_head (
+    id            SMALLINT PRIMARY KEY CHECK (id = 1),
+    seq           BIGINT NOT NULL,
+    hash          BYTEA NOT NULL,
+    segment_start TIMESTAMP,
+    segment_end   TIMESTAMP
+);
+INSERT INTO audit_chain_head (id, seq, hash) VALUES (1, 0, decode(repeat('00', 32), 'hex'));
+
+-- Checkpoints every app.audit.chain.anchor-interval rows, with the time range of the segment they close
+CREATE TABLE audit_chain_anchors (
+    seq           BIGINT PRIMARY KEY,
+    hash          BYTEA NOT NULL,
+    segment_start TIMESTAMP NOT NULL,
+    segment_end   TIMESTAMP NOT NULL,
+    created_at    TIMESTAMP NOT NULL
+);
+
+-- Audit rows and anchors are append-only. Retention drops whole partitions, which these triggers do not see.
+CREATE FUNCTION reject_audit_modification() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION '% is append-only', TG_TABLE_NAME;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER audit_logs_append_only
+    BEFORE UPDATE OR DELETE ON audit_logs
+    FOR EACH ROW EXECUTE FUNCTION reject_audit_modification();
+
+CREATE TRIGGER audit_chain_anchors_append_only
+    BEFORE UPDATE OR DELETE ON audit_chain_anchors
+    FOR EACH ROW EXECUTE FUNCTION reject_audit_modification();
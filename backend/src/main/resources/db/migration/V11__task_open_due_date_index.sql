@@ -0,0 +1,4 @@
+-- Open tasks by due date: the dashboard stream looks up the tasks that became overdue when the date changes.
+
+CREATE INDEX idx_tasks_open_due_date ON tasks(due_date)
+    WHERE status <> 'COMPLETED' AND due_date IS NOT NULL;
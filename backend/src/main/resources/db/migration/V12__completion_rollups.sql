@@ -0,0 +1,35 @@
+-- Daily rollups of task and workflow completions for reports (see CompletionRollupJob). Each row counts the
+-- completions of one day and dimension combination, with a DurationSketch of their durations. Employees without
+-- a department and unassigned tasks are rolled up under 'UNASSIGNED'.
+
+CREATE TABLE task_completion_rollups (
+    completed_on    DATE NOT NULL,
+    template_id     UUID NOT NULL,
+    task_type       VARCHAR(50) NOT NULL,
+    department      VARCHAR(255) NOT NULL,
+    assignee_role   VARCHAR(50) NOT NULL,
+    completed       BIGINT NOT NULL,
+    with_due_date   BIGINT NOT NULL,
+    on_time         BIGINT NOT NULL,
+    duration_sketch BYTEA NOT NULL,
+    PRIMARY KEY (completed_on, template_id, task_type, department, assignee_role)
+);
+
+CREATE TABLE workflow_completion_rollups (
+    completed_on    DATE NOT NULL,
+    template_id     UUID NOT NULL,
+    department      VARCHAR(255) NOT NULL,
+    completed       BIGINT NOT NULL,
+    duration_sketch BYTEA NOT NULL,
+    PRIMARY KEY (completed_on, template_id, department)
+);
+
+-- Completions up to the watermark are rolled up; locked by every rollup run, so only one node rolls up at a time
+CREATE TABLE completion_rollup_state (
+    id        SMALLINT PRIMARY KEY CHECK (id = 1),
+    watermark TIMESTAMP
+);
+INSERT INTO completion_rollup_state (id, watermark) VALUES (1, NULL);
+
+-- Each rollup run reads the tasks completed since the watermark
+CREATE INDEX idx_tasks_completed_at ON tasks(completed_at) WHERE completed_at IS NOT NULL;
@@ -0,0 +1,15 @@
+-- Task alerts (reminders, overdue alerts, escalations) fired so far: one row per task, holding the last step of
+-- its alert cadence that was fired for its current due date. Written when an alert is claimed, so that restarts
+-- and other nodes do not fire it again.
+
+CREATE TABLE task_alert_state (
+    task_id  UUID PRIMARY KEY REFERENCES tasks(id) ON DELETE CASCADE,
+    due_date DATE NOT NULL,
+    step     INTEGER NOT NULL,
+    fired_at TIMESTAMP
+);
+
+-- The alert scheduler pages through open tasks by (due_date, id); the index also serves the lookups by due date
+CREATE INDEX idx_tasks_open_due_date_id ON tasks(due_date, id)
+    WHERE status <> 'COMPLETED' AND due_date IS NOT NULL;
+DROP INDEX idx_tasks_open_due_date;
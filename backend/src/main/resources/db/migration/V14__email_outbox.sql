@@ -0,0 +1,21 @@
+-- Emails to send, written in the transaction of the change they notify about and deleted once sent (see
+-- EmailOutboxSender). A row is leased to one sender until locked_until; failed sends are retried from
+-- next_attempt_at with backoff, and given up on (failed_at) after the last attempt.
+
+CREATE TABLE email_outbox (
+    id              UUID PRIMARY KEY,
+    email_type      VARCHAR(50) NOT NULL,
+    task_id         UUID,
+    recipient       VARCHAR(255) NOT NULL,
+    subject         VARCHAR(500) NOT NULL,
+    body            TEXT NOT NULL,
+    created_at      TIMESTAMP NOT NULL,
+    attempts        INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    locked_until    TIMESTAMP,
+    last_error      VARCHAR(1000),
+    failed_at       TIMESTAMP
+);
+
+-- Senders poll for the emails due for an attempt, oldest first
+CREATE INDEX idx_email_outbox_pending ON email_outbox(next_attempt_at) WHERE failed_at IS NULL;
@@ -0,0 +1,18 @@
+-- Version of each user row, incremented by every change. Session principals keep the version they were loaded
+-- from, so any node can tell a principal is stale by comparing it with the row's.
+
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- The application increments it itself (optimistic locking); changes made by hand increment it here
+CREATE FUNCTION users_increment_version() RETURNS trigger AS $$
+BEGIN
+    IF NEW.version = OLD.version THEN
+        NEW.version := OLD.version + 1;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_users_increment_version
+    BEFORE UPDATE ON users
+    FOR EACH ROW EXECUTE FUNCTION users_increment_version();
@@ -0,0 +1,26 @@
+-- Marks the completed tasks counted in the completion rollups (see CompletionRollupJob). A completion is rolled up
+-- in the run after its transaction commits, however long after completed_at that is, and counted exactly once.
+
+ALTER TABLE tasks ADD COLUMN rolled_up BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Completions up to the time watermark that the rollups used until now are counted already
+UPDATE tasks SET rolled_up = TRUE
+WHERE completed_at IS NOT NULL
+  AND completed_at <= (SELECT watermark FROM completion_rollup_state WHERE id = 1);
+
+-- The application clears the mark when it completes a task; completions edited by hand are cleared here
+CREATE FUNCTION tasks_clear_rolled_up() RETURNS trigger AS $$
+BEGIN
+    IF NEW.completed_at IS DISTINCT FROM OLD.completed_at THEN
+        NEW.rolled_up := FALSE;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_tasks_clear_rolled_up
+    BEFORE UPDATE OF completed_at ON tasks
+    FOR EACH ROW EXECUTE FUNCTION tasks_clear_rolled_up();
+
+-- Each rollup run reads the completions not rolled up yet
+CREATE INDEX idx_tasks_rollup_pending ON tasks(completed_at) WHERE completed_at IS NOT NULL AND NOT rolled_up;
@@ -0,0 +1,14 @@
+-- Login looks users up by email ignoring case; the plain email index cannot serve lower(email) = ?, and email is
+-- only unique as typed, so two case variants of one address would both match.
+
+-- Users are referenced ON DELETE RESTRICT, so case variants other than the oldest are deactivated and given a
+-- placeholder address instead of being deleted
+UPDATE users u
+SET email = 'duplicate-' || u.id || '@invalid', active = FALSE
+WHERE EXISTS (
+    SELECT 1 FROM users o
+    WHERE lower(o.email) = lower(u.email)
+      AND (o.created_at < u.created_at OR (o.created_at = u.created_at AND o.id < u.id))
+);
+
+CREATE UNIQUE INDEX idx_users_email_lower ON users(lower(email));
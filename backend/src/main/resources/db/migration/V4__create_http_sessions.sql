@@ -0,0 +1,29 @@
+-- Shared HTTP session store
+-- Lets any backend node serve any session (NFR19) without sticky routing.
+-- Times are epoch milliseconds; session_id changes on login (session fixation protection),
+-- so attributes reference the stable primary_id.
+
+CREATE TABLE http_sessions (
+    primary_id UUID PRIMARY KEY,
+    session_id VARCHAR(64) NOT NULL UNIQUE,
+    principal_name VARCHAR(255),
+    creation_time BIGINT NOT NULL,
+    last_access_time BIGINT NOT NULL,
+    max_inactive_interval INTEGER NOT NULL,
+    expiry_time BIGINT NOT NULL,
+    version BIGINT NOT NULL
+);
+
+CREATE TABLE http_session_attributes (
+    session_primary_id UUID NOT NULL,
+    attribute_name VARCHAR(200) NOT NULL,
+    attribute_bytes BYTEA NOT NULL,
+    PRIMARY KEY (session_primary_id, attribute_name)
+);
+
+ALTER TABLE http_session_attributes
+ADD CONSTRAINT fk_http_session_attributes_session
+FOREIGN KEY (session_primary_id) REFERENCES http_sessions(primary_id) ON DELETE CASCADE;
+
+CREATE INDEX idx_http_sessions_principal_name ON http_sessions(principal_name);
+CREATE INDEX idx_http_sessions_expiry_time ON http_sessions(expiry_time);
@@ -0,0 +1,20 @@
+-- Composite indexes matching the keyset (seek) pagination order of list queries:
+-- filter columns first, then the sort key, then id as the tie-breaker.
+-- Each replaces a single-column index that is a prefix of it.
+
+DROP INDEX IF EXISTS idx_tasks_assigned_to;
+CREATE INDEX idx_tasks_assigned_to_created ON tasks(assigned_to, created_at DESC, id DESC);
+CREATE INDEX idx_tasks_assigned_to_status_created ON tasks(assigned_to, status, created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_workflow_instances_status;
+DROP INDEX IF EXISTS idx_workflow_instances_employee_id;
+CREATE INDEX idx_workflow_instances_created ON workflow_instances(created_at DESC, id DESC);
+CREATE INDEX idx_workflow_instances_status_created ON workflow_instances(status, created_at DESC, id DESC);
+CREATE INDEX idx_workflow_instances_employee_created ON workflow_instances(employee_id, created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_employees_status;
+CREATE INDEX idx_employees_status_last_name ON employees(status, last_name, id);
+
+DROP INDEX IF EXISTS idx_audit_logs_entity;
+CREATE INDEX idx_audit_logs_entity_timestamp ON audit_logs(entity_type, entity_id, timestamp DESC, id DESC);
+CREATE INDEX idx_audit_logs_user_timestamp ON audit_logs(user_id, timestamp DESC, id DESC);
@@ -0,0 +1,22 @@
+-- Denormalized count of a task's incomplete SEQUENTIAL prerequisites.
+-- A task is blocked while the count is above zero; completing a prerequisite decrements its dependents
+-- in one set-based update, so readiness never requires walking the dependency graph.
+
+ALTER TABLE tasks ADD COLUMN unmet_prerequisites INTEGER NOT NULL DEFAULT 0;
+
+UPDATE tasks t
+SET unmet_prerequisites = (
+    SELECT COUNT(*)
+    FROM task_dependencies d
+    JOIN tasks p ON p.id = d.prerequisite_task_id
+    WHERE d.task_id = t.id
+      AND d.dependency_type = 'SEQUENTIAL'
+      AND p.status <> 'COMPLETED'
+);
+
+-- Dependents of a completed task
+CREATE INDEX idx_task_dependencies_prerequisite_task_id ON task_dependencies(prerequisite_task_id);
+
+-- Ready (unblocked, not started) tasks of an instance
+CREATE INDEX idx_tasks_instance_ready ON tasks(workflow_instance_id)
+    WHERE unmet_prerequisites = 0 AND status = 'NOT_STARTED';
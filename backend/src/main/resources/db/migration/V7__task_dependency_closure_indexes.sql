@@ -0,0 +1,9 @@
+-- Covering indexes for walking the task dependency graph in either direction with recursive queries:
+-- each hop is an index-only lookup from one end of an edge to the other.
+-- Each replaces a single-column index that is a prefix of it.
+
+DROP INDEX IF EXISTS idx_task_dependencies_task_id;
+CREATE INDEX idx_task_dependencies_task_prerequisite ON task_dependencies(task_id, prerequisite_task_id);
+
+DROP INDEX IF EXISTS idx_task_dependencies_prerequisite_task_id;
+CREATE INDEX idx_task_dependencies_prerequisite_task ON task_dependencies(prerequisite_task_id, task_id);
@@ -0,0 +1,6 @@
+-- Field-level change delta of an audit row (see AuditDeltaCodec): only the changed fields, by schema index,
+-- with enums as ordinals and optional deflate. Binary rather than jsonb: a typical delta is under 50 bytes,
+-- below the size at which PostgreSQL would compress or toast either type, and jsonb would repeat every
+-- field name in every row. change_details stays for free-form context (counts, reasons).
+
+ALTER TABLE audit_logs ADD COLUMN change_delta BYTEA;
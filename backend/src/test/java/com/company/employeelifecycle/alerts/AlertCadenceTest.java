@@ -0,0 +1,43 @@
+package com.company.employeelifecycle.alerts;
+
+import com.company.employeelifecycle.enums.TaskAlertType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertCadenceTest {
+
+    private final AlertCadence cadence = new AlertCadence(
+            List.of(Duration.ofHours(24), Duration.ofHours(48)),
+            List.of(Duration.ofDays(3), Duration.ofDays(1)));
+    private final LocalDate due = LocalDate.of(2030, 5, 10);
+
+    @Test
+    void steps_AreRemindersThenOverdueThenEscalations() {
+        assertEquals(5, cadence.steps());
+        assertEquals(Duration.ofHours(48), cadence.lead());
+
+        assertEquals(TaskAlertType.REMINDER, cadence.type(0));
+        assertEquals(1, cadence.level(0));
+        assertEquals(LocalDateTime.of(2030, 5, 9, 0, 0), cadence.fireTime(due, 0));
+        assertEquals(LocalDateTime.of(2030, 5, 10, 0, 0), cadence.fireTime(due, 1));
+        assertEquals(TaskAlertType.OVERDUE, cadence.type(2));
+        assertEquals(LocalDateTime.of(2030, 5, 11, 0, 0), cadence.fireTime(due, 2));
+        assertEquals(TaskAlertType.ESCALATION, cadence.type(4));
+        assertEquals(2, cadence.level(4));
+        assertEquals(LocalDateTime.of(2030, 5, 14, 0, 0), cadence.fireTime(due, 4));
+    }
+
+    @Test
+    void lastDueStep_IsTheLatestStepWhoseTimeHasCome() {
+        assertEquals(-1, cadence.lastDueStep(due, LocalDateTime.of(2030, 5, 8, 23, 59)));
+        assertEquals(0, cadence.lastDueStep(due, LocalDateTime.of(2030, 5, 9, 0, 0)));
+        assertEquals(3, cadence.lastDueStep(due, LocalDateTime.of(2030, 5, 12, 0, 0)));
+        assertEquals(4, cadence.lastDueStep(due, LocalDateTime.of(2031, 1, 1, 0, 0)));
+    }
+}
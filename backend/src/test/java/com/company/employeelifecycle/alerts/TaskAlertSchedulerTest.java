@@ -0,0 +1,233 @@
+package com.company.employeelifecycle.alerts;
+
+import com.company.employeelifecycle.entity.Employee;
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.enums.EmployeeStatus;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.TaskType;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import com.company.employeelifecycle.enums.WorkflowType;
+import com.company.employeelifecycle.event.TaskAlertEvent;
+import com.company.employeelifecycle.event.TaskStatusChangedEvent;
+import com.company.employeelifecycle.repository.EmployeeRepository;
+import com.company.employeelifecycle.repository.TaskAlertRepository;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter.InstanceRow;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter.TaskRow;
+import com.company.employeelifecycle.repository.WorkflowTemplateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: alerts are claimed in transactions of their own. Each test builds schedulers of its own
+ * (the shared one is disabled in tests), with the default cadence: reminders 48 and 24 hours before the end of
+ * the due date, then escalations one and three days after it. Every fire time is a midnight, so alerts due
+ * "now" do not depend on the time of day the test runs.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class TaskAlertSchedulerTest {
+
+    @Autowired
+    private TaskAlertRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private WorkflowTemplateRepository workflowTemplateRepository;
+
+    @Autowired
+    private WorkflowBatchWriter batchWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+    private User tech;
+    private Employee employee;
+    private WorkflowTemplate template;
+    private UUID instanceId;
+    private final List<UUID> taskIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tech = userRepository.save(User.builder()
+                .email("alerts-tech@example.com")
+                .password("hashed")
+                .firstName("Tech")
+                .lastName("Support")
+                .role(UserRole.TECH_SUPPORT)
+                .active(true)
+                .build());
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("Jane")
+                .lastName("Alerts")
+                .email("jane.alerts@example.com")
+                .role("Software Engineer")
+                .department("Engineering")
+                .startDate(today)
+                .status(EmployeeStatus.ACTIVE)
+                .build());
+        template = workflowTemplateRepository.save(WorkflowTemplate.builder()
+                .name("Alerts onboarding")
+                .type(WorkflowType.ONBOARDING)
+                .version(1)
+                .templateJson("{\"tasks\":[]}")
+                .active(true)
+                .build());
+        instanceId = UUID.randomUUID();
+        batchWriter.insertInstance(new InstanceRow(instanceId, template.getId(), employee.getId(), tech.getId(),
+                WorkflowInstanceStatus.IN_PROGRESS, LocalDateTime.now().minusDays(7)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (UUID taskId : taskIds) {
+            jdbcTemplate.update("DELETE FROM task_alert_state WHERE task_id = ?", taskId);
+            jdbcTemplate.update("DELETE FROM email_outbox WHERE task_id = ?", taskId);
+        }
+        jdbcTemplate.update("DELETE FROM tasks WHERE workflow_instance_id = ?", instanceId);
+        jdbcTemplate.update("DELETE FROM workflow_instances WHERE id = ?", instanceId);
+        employeeRepository.delete(employee);
+        workflowTemplateRepository.delete(template);
+        userRepository.delete(tech);
+    }
+
+    @Test
+    void fireDue_FiresTheLatestDueStepOnceAcrossRestarts() {
+        UUID dueToday = insertTask(today);
+        UUID overdue = insertTask(today.minusDays(2));
+        TaskAlertScheduler scheduler = newScheduler();
+        scheduler.reload();
+
+        // Both reminders of the first task are due: only the second fires. The second task is an escalation past
+        // its overdue alert
+        scheduler.fireDue(LocalDateTime.now());
+
+        assertEquals(Map.of(dueToday, "REMINDER 2", overdue, "ESCALATION 1"), firedAlerts());
+        assertEquals(1, firedStep(dueToday));
+        assertEquals(3, firedStep(overdue));
+
+        scheduler.fireDue(LocalDateTime.now());
+        TaskAlertScheduler restarted = newScheduler();
+        restarted.reload();
+        restarted.fireDue(LocalDateTime.now());
+
+        assertEquals(2, alertEvents().size());
+
+        // Both tasks are escalated at midnight in two days, the first one past its overdue alert
+        restarted.fireDue(today.plusDays(2).atStartOfDay().plusMinutes(1));
+
+        assertEquals(4, alertEvents().size());
+        assertEquals(Map.of(dueToday, "ESCALATION 1", overdue, "ESCALATION 2"), firedAlerts());
+        assertEquals(3, firedStep(dueToday));
+        assertEquals(4, firedStep(overdue));
+    }
+
+    @Test
+    void fireDue_SkipsCompletedTasksAndStartsOverForANewDueDate() {
+        UUID completed = insertTask(today.minusDays(1));
+        UUID rescheduled = insertTask(today);
+        TaskAlertScheduler scheduler = newScheduler();
+        scheduler.reload();
+        int scheduled = scheduler.scheduled();
+
+        // Completed on another node: the claim finds the task completed
+        jdbcTemplate.update("UPDATE tasks SET status = 'COMPLETED', completed_at = ? WHERE id = ?",
+                LocalDateTime.now(), completed);
+        scheduler.fireDue(LocalDateTime.now());
+
+        assertEquals(Map.of(rescheduled, "REMINDER 2"), firedAlerts());
+        assertEquals(-1, firedStep(completed));
+
+        // Completed on this node: the alert is cancelled
+        scheduler.onTaskStatusChanged(new TaskStatusChangedEvent(completed, instanceId, tech.getId(),
+                TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED, today.minusDays(1)));
+        assertEquals(scheduled - 1, scheduler.scheduled());
+
+        // Moved to a due date it is already overdue for: the cadence starts over at the overdue alert
+        jdbcTemplate.update("UPDATE tasks SET due_date = ? WHERE id = ?", Date.valueOf(today.minusDays(1)),
+                rescheduled);
+        scheduler.reload();
+        scheduler.fireDue(LocalDateTime.now());
+
+        assertEquals(Map.of(rescheduled, "OVERDUE 1"), firedAlerts());
+        assertEquals(2, alertEvents().size());
+    }
+
+    private TaskAlertScheduler newScheduler() {
+        return new TaskAlertScheduler(repository, transactionTemplate, eventPublisher, new SimpleMeterRegistry(),
+                false, List.of(Duration.ofHours(48), Duration.ofHours(24)), List.of(Duration.ofDays(1),
+                Duration.ofDays(3)), Duration.ofMinutes(1), Duration.ofHours(1), 1, 1);
+    }
+
+    private UUID insertTask(LocalDate dueDate) {
+        UUID taskId = UUID.randomUUID();
+        batchWriter.insertTasks(List.of(new TaskRow(taskId, instanceId, "Task due " + dueDate, null, tech.getId(),
+                TaskType.CHECKLIST, TaskStatus.NOT_STARTED, dueDate, 0, LocalDateTime.now().minusDays(7))));
+        taskIds.add(taskId);
+        return taskId;
+    }
+
+    private List<TaskAlertEvent> alertEvents() {
+        return events.stream(TaskAlertEvent.class)
+                .filter(event -> taskIds.contains(event.taskId()))
+                .toList();
+    }
+
+    /**
+     * @return the type and level of the latest alert of each task that had one
+     */
+    private Map<UUID, String> firedAlerts() {
+        Map<UUID, String> fired = new HashMap<>();
+        for (TaskAlertEvent event : alertEvents()) {
+            fired.put(event.taskId(), event.type().name() + " " + event.level());
+        }
+        return fired;
+    }
+
+    private int firedStep(UUID taskId) {
+        List<Integer> steps = jdbcTemplate.queryForList(
+                "SELECT step FROM task_alert_state WHERE task_id = ? AND fired_at IS NOT NULL", Integer.class, taskId);
+        return steps.isEmpty() ? -1 : steps.get(0);
+    }
+}
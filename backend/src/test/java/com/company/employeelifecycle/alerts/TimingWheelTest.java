@@ -0,0 +1,88 @@
+package com.company.employeelifecycle.alerts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void advance_FiresTimersInDeadlineOrderAcrossLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1_000);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            // Up to three levels ahead
+            long deadline = 1_001 + random.nextInt(300_000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+        assertEquals(2_000, wheel.size());
+
+        List<Long> fired = new ArrayList<>();
+        long now = 1_000;
+        while (now < 302_000) {
+            now += 1 + random.nextInt(5_000);
+            long until = now;
+            wheel.advance(now, deadline -> {
+                assertTrue(deadline <= until, "Fired " + deadline + " early at " + until);
+                fired.add(deadline);
+            });
+        }
+
+        deadlines.sort(null);
+        assertEquals(deadlines, fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_FiresEachTimerOnItsTick() {
+        TimingWheel<Long> wheel = new TimingWheel<>(0);
+        for (long deadline : new long[]{1, 63, 64, 65, 4_096, 4_097, 262_144}) {
+            wheel.schedule(deadline, deadline);
+        }
+
+        for (long tick = 1; tick <= 262_144; tick++) {
+            List<Long> fired = new ArrayList<>();
+            wheel.advance(tick, fired::add);
+            assertTrue(fired.isEmpty() || fired.equals(List.of(tick)), "Fired " + fired + " at " + tick);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancel_RemovesTheTimer() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        TimingWheel.Timer<String> cancelled = wheel.schedule("cancelled", 100);
+        wheel.schedule("kept", 100);
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        List<String> fired = new ArrayList<>();
+        wheel.advance(200, fired::add);
+
+        assertEquals(List.of("kept"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_PastDeadlineFiresOnNextAdvanceAndFarDeadlineWaits() {
+        TimingWheel<String> wheel = new TimingWheel<>(1_000);
+        long beyondTopLevel = 1_000 + (1L << 25);
+        wheel.schedule("far", beyondTopLevel);
+        wheel.schedule("past", 10);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(1_000, fired::add);
+        assertEquals(List.of("past"), fired);
+
+        wheel.advance(beyondTopLevel - 1, fired::add);
+        assertEquals(List.of("past"), fired);
+        wheel.advance(beyondTopLevel, fired::add);
+        assertEquals(List.of("past", "far"), fired);
+    }
+}
@@ -0,0 +1,236 @@
+package com.company.employeelifecycle.audit;
+
+import com.company.employeelifecycle.enums.AuditAction;
+import com.company.employeelifecycle.enums.EntityType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AsyncAuditWriterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuditChain auditChain;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    private Path spillDir;
+
+    private final List<UUID> entityIds = new ArrayList<>();
+    private final List<AsyncAuditWriter> writers = new ArrayList<>();
+    private final List<SimpleMeterRegistry> registries = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        writers.forEach(AsyncAuditWriter::stop);
+        for (UUID entityId : entityIds) {
+            jdbcTemplate.update("DELETE FROM audit_logs WHERE entity_id = ?", entityId);
+        }
+    }
+
+    @Test
+    void record_WritesEventsInBackgroundAfterCommit() throws Exception {
+        AsyncAuditWriter writer = writer(1024, 100, Duration.ofMillis(20));
+        writer.start();
+
+        UUID committed = record(writer);
+        transactionTemplate.executeWithoutResult(status -> record(writer));
+        transactionTemplate.executeWithoutResult(status -> {
+            record(writer);
+            status.setRollbackOnly();
+        });
+
+        awaitRows(2);
+        assertEquals(1, rows(committed));
+        assertEquals(2, rows());
+        Thread.sleep(100);
+        assertEquals(2, rows(), "events of rolled-back transactions are dropped");
+    }
+
+    @Test
+    void record_SpillsWhenBufferIsFullAndReplaysOnNextStart() throws Exception {
+        // Flushes only at shutdown, so the small buffer fills up
+        AsyncAuditWriter first = writer(2, 100, Duration.ofHours(1));
+        first.start();
+        for (int i = 0; i < 5; i++) {
+            record(first);
+        }
+        SimpleMeterRegistry registry = registryOf(first);
+        assertEquals(3, registry.get("audit.records").tag("outcome", "spilled_buffer_full").counter().count());
+
+        first.stop();
+        // Buffered events are drained on shutdown; spilled ones wait unless the flusher already replayed them
+        assertEquals(5, rows() + (int) registry.get("audit.spill.pending").gauge().value());
+
+        AsyncAuditWriter second = writer(1024, 100, Duration.ofMillis(20));
+        second.start();
+        awaitRows(5);
+        assertEquals(0, registryOf(second).get("audit.spill.pending").gauge().value());
+    }
+
+    @Test
+    void record_RetriesRowsTheDatabaseRejectsThenSetsThemAside() throws Exception {
+        // Retried from the spill file on every flush
+        AsyncAuditWriter writer = writer(1024, 100, Duration.ofMillis(20), Duration.ZERO, 3);
+        writer.start();
+        record(writer);
+        UUID invalid = UUID.randomUUID();
+        entityIds.add(invalid);
+        // Unknown user: violates the foreign key, which may be a user not committed yet
+        writer.record(EntityType.TASK, invalid, AuditAction.COMPLETED, UUID.randomUUID(), null);
+        record(writer);
+
+        awaitRows(2);
+        Path rejectedPath = spillDir.resolve("audit-spill.ndjson.rejected");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!Files.exists(rejectedPath) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        writer.stop();
+
+        assertEquals(0, rows(invalid));
+        List<String> rejected = Files.readAllLines(rejectedPath);
+        assertEquals(1, rejected.size());
+        assertTrue(rejected.get(0).contains(invalid.toString()));
+        SimpleMeterRegistry registry = registryOf(writer);
+        assertEquals(1, registry.get("audit.records").tag("outcome", "spilled_write_failed").counter().count());
+        assertEquals(1, registry.get("audit.records").tag("outcome", "rejected").counter().count());
+        assertEquals(0, registry.get("audit.spill.pending").gauge().value());
+    }
+
+    @Test
+    void start_SkipsSpilledEventsWrittenBeforeACrash() throws Exception {
+        List<AuditEvent> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            UUID entityId = UUID.randomUUID();
+            entityIds.add(entityId);
+            events.add(AuditEvent.of(EntityType.TASK, entityId, AuditAction.COMPLETED, null, null, null));
+        }
+        Path spillPath = spillDir.resolve("audit-spill.ndjson");
+        new AuditSpillFile(spillPath, objectMapper).append(events.subList(0, 3));
+        AsyncAuditWriter first = writer(1024, 2, Duration.ofMillis(20));
+        first.start();
+        awaitRows(3);
+        first.stop();
+
+        // The replay committed its batches but crashed before removing the replay file
+        new AuditSpillFile(spillPath, objectMapper).append(events);
+        Files.move(spillPath, spillDir.resolve("audit-spill.ndjson.replay"));
+        Files.writeString(spillDir.resolve("audit-spill.ndjson.replay.offset"), "0");
+        AsyncAuditWriter second = writer(1024, 2, Duration.ofMillis(20));
+        second.start();
+
+        Path replayPath = spillDir.resolve("audit-spill.ndjson.replay");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (Files.exists(replayPath) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertFalse(Files.exists(replayPath));
+        assertEquals(5, rows());
+        for (AuditEvent event : events) {
+            assertEquals(1, rows(event.entityId()));
+        }
+        assertEquals(0, registryOf(second).get("audit.spill.pending").gauge().value());
+    }
+
+    @Test
+    void record_CountsEventsItCannotSpillInsteadOfFailing() throws Exception {
+        // Not started: every event is spilled, and the spill file cannot be opened for appending
+        AsyncAuditWriter writer = writer(1024, 100, Duration.ofHours(1));
+        Files.createDirectories(spillDir.resolve("audit-spill.ndjson"));
+
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(() -> record(writer));
+        }
+
+        SimpleMeterRegistry registry = registryOf(writer);
+        assertEquals(3, registry.get("audit.records").tag("outcome", "spill_failed").counter().count());
+        assertEquals(0, rows());
+    }
+
+    @Test
+    void retryable_SetsAsideOnlyInvalidData() {
+        assertTrue(AsyncAuditWriter.retryable(violation("23514")), "no partition for the row");
+        assertTrue(AsyncAuditWriter.retryable(violation("23503")), "foreign key");
+        assertFalse(AsyncAuditWriter.retryable(violation("22001")), "value too long");
+        assertFalse(AsyncAuditWriter.retryable(violation("23502")), "null in a NOT NULL column");
+    }
+
+    private static DataIntegrityViolationException violation(String sqlState) {
+        return new DataIntegrityViolationException("rejected", new SQLException("rejected", sqlState));
+    }
+
+    private AsyncAuditWriter writer(int capacity, int batchSize, Duration flushInterval) {
+        return writer(capacity, batchSize, flushInterval, Duration.ofMinutes(1), 60);
+    }
+
+    private AsyncAuditWriter writer(int capacity, int batchSize, Duration flushInterval, Duration replayRetryInterval,
+                                    int maxReplayAttempts) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AsyncAuditWriter writer = new AsyncAuditWriter(jdbcTemplate, transactionTemplate, auditChain, objectMapper,
+                registry, capacity, batchSize, flushInterval, spillDir.resolve("audit-spill.ndjson"),
+                Duration.ofSeconds(10), replayRetryInterval, maxReplayAttempts);
+        writers.add(writer);
+        registries.add(registry);
+        return writer;
+    }
+
+    private SimpleMeterRegistry registryOf(AsyncAuditWriter writer) {
+        return registries.get(writers.indexOf(writer));
+    }
+
+    private UUID record(AsyncAuditWriter writer) {
+        UUID entityId = UUID.randomUUID();
+        entityIds.add(entityId);
+        writer.record(EntityType.TASK, entityId, AuditAction.COMPLETED, null, "{\"unblockedTasks\":0}");
+        return entityId;
+    }
+
+    private int rows() {
+        int rows = 0;
+        for (UUID entityId : entityIds) {
+            rows += rows(entityId);
+        }
+        return rows;
+    }
+
+    private int rows(UUID entityId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs WHERE entity_id = ?", Integer.class,
+                entityId);
+    }
+
+    private void awaitRows(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (rows() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, rows());
+    }
+}
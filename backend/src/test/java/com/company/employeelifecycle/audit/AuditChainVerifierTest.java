@@ -0,0 +1,163 @@
+package com.company.employeelifecycle.audit;
+
+import com.company.employeelifecycle.dto.response.AuditChainVerificationResponse;
+import com.company.employeelifecycle.enums.AuditAction;
+import com.company.employeelifecycle.enums.EntityType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: the chain is written by the audit writer and read by the verifier on other threads.
+ * Each test starts from an empty chain of {@value #ROWS} rows with an anchor every {@value #ANCHOR_INTERVAL}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuditChainVerifierTest {
+
+    private static final int ROWS = 23;
+    private static final int ANCHOR_INTERVAL = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuditChainVerifier verifier;
+
+    @TempDir
+    private Path spillDir;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        resetChain();
+        AsyncAuditWriter writer = new AsyncAuditWriter(jdbcTemplate, transactionTemplate,
+                new AuditChain(jdbcTemplate, ANCHOR_INTERVAL), objectMapper, new SimpleMeterRegistry(), 1024, 4,
+                Duration.ofMillis(10), spillDir.resolve("audit-spill.ndjson"), Duration.ofSeconds(10),
+                Duration.ofMinutes(1), 60);
+        writer.start();
+        try {
+            for (int i = 0; i < ROWS; i++) {
+                writer.record(EntityType.TASK, UUID.randomUUID(), AuditAction.COMPLETED, null,
+                        "{\"unblockedTasks\":" + i + "}");
+            }
+        } finally {
+            writer.stop();
+        }
+        assertEquals(ROWS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs", Integer.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        resetChain();
+    }
+
+    @Test
+    void verify_AcceptsIntactChain() {
+        AuditChainVerificationResponse report = verifier.verify();
+
+        assertTrue(report.isVerified(), () -> report.getFailures().toString());
+        assertEquals(ROWS, report.getHeadSeq());
+        assertEquals(ROWS, report.getRowsVerified());
+        // Anchors at 5, 10, 15 and 20, then the head at 23
+        assertEquals(5, report.getSegmentsVerified());
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_chain_anchors", Integer.class));
+        assertEquals(0, report.getUnchainedRows());
+    }
+
+    @Test
+    void verify_DetectsModifiedRow() {
+        jdbcTemplate.update("UPDATE audit_logs SET change_details = '{\"unblockedTasks\":99}' WHERE chain_seq = 7");
+
+        AuditChainVerificationResponse report = verifier.verify();
+
+        assertFalse(report.isVerified());
+        assertEquals(1, report.getFailures().size());
+        assertEquals(7, report.getFailures().get(0).getSeq());
+        assertEquals("Row content does not match its hash", report.getFailures().get(0).getReason());
+        assertEquals(idOf(7), report.getFailures().get(0).getAuditLogId());
+    }
+
+    @Test
+    void verify_DetectsDeletedRows() {
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE chain_seq IN (12, 23)");
+
+        AuditChainVerificationResponse report = verifier.verify();
+
+        assertFalse(report.isVerified());
+        assertEquals(2, report.getFailures().size());
+        assertEquals(13, report.getFailures().get(0).getSeq());
+        assertEquals("Rows 12 to 12 are missing", report.getFailures().get(0).getReason());
+        assertEquals(23, report.getFailures().get(1).getSeq());
+    }
+
+    @Test
+    void verify_DetectsRowMovedOutOfItsTimeRange() {
+        jdbcTemplate.update("UPDATE audit_logs SET timestamp = TIMESTAMP '2001-01-01 00:00:00' WHERE chain_seq = 3");
+
+        AuditChainVerificationResponse report = verifier.verify();
+
+        assertEquals(1, report.getFailures().size());
+        assertEquals("Rows 3 to 3 are missing", report.getFailures().get(0).getReason());
+    }
+
+    @Test
+    void verify_SkipsSegmentsCutByRetentionAndCountsUnchainedRows() {
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE chain_seq <= 6");
+        jdbcTemplate.update("INSERT INTO audit_logs (id, entity_type, entity_id, action, timestamp) "
+                + "VALUES (?, 'TASK', ?, 'CREATED', CURRENT_TIMESTAMP)", UUID.randomUUID(), UUID.randomUUID());
+
+        AuditChainVerificationResponse report = verifier.verify();
+
+        assertTrue(report.isVerified(), () -> report.getFailures().toString());
+        assertEquals(2, report.getSegmentsSkipped());
+        assertEquals(ROWS - 10, report.getRowsVerified());
+        assertEquals(1, report.getUnchainedRows());
+    }
+
+    @Test
+    void verify_SkipsSegmentsWithAnOldRowDroppedByRetention() {
+        // A row replayed from the spill file long after it was written: its month is past retention while the
+        // rest of its segment is kept
+        jdbcTemplate.update("UPDATE audit_chain_anchors SET segment_start = ? WHERE seq = 15",
+                Timestamp.valueOf(LocalDateTime.of(2001, 1, 1, 0, 0)));
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE chain_seq = 12");
+
+        AuditChainVerificationResponse report = verifier.verify();
+
+        assertTrue(report.isVerified(), () -> report.getFailures().toString());
+        assertEquals(1, report.getSegmentsSkipped());
+        assertEquals(ROWS - 5, report.getRowsVerified());
+    }
+
+    private UUID idOf(long seq) {
+        return jdbcTemplate.queryForObject("SELECT id FROM audit_logs WHERE chain_seq = ?", UUID.class, seq);
+    }
+
+    private void resetChain() {
+        jdbcTemplate.update("DELETE FROM audit_logs");
+        jdbcTemplate.update("DELETE FROM audit_chain_anchors");
+        jdbcTemplate.update("DELETE FROM audit_chain_head");
+    }
+}
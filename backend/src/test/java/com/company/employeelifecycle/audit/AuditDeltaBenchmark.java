@@ -0,0 +1,137 @@
+package com.company.employeelifecycle.audit;
+
+import com.company.employeelifecycle.entity.Employee;
+import com.company.employeelifecycle.entity.Task;
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.enums.EmployeeStatus;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.TaskType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the field-level audit delta with the full before/after JSON copies change_details used to hold:
+ * bytes per audit row and CPU time per row (reading both states plus encoding), for a task completion
+ * (3 of 9 fields change) and an employee status change (1 of 8).
+ * <p>
+ * Opt-in, and not picked up by the default surefire includes. Run with:
+ * <pre>
+ * mvn test -Dtest=AuditDeltaBenchmark -Dbenchmark.audit-delta=true -Dbenchmark.rows=1000000
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.audit-delta", matches = "true")
+class AuditDeltaBenchmark {
+
+    private final int rows = Integer.getInteger("benchmark.rows", 500_000);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final AuditDiffer differ = new AuditDiffer();
+
+    @Test
+    void compareDeltaWithFullJsonSnapshots() {
+        UUID assignee = UUID.randomUUID();
+        Task open = task(assignee, TaskStatus.IN_PROGRESS, null);
+        Task completed = task(assignee, TaskStatus.COMPLETED, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        UUID manager = UUID.randomUUID();
+        Employee active = employee(manager, EmployeeStatus.ACTIVE);
+        Employee offboarding = employee(manager, EmployeeStatus.OFFBOARDING);
+
+        System.out.printf("%-20s %-6s %10s %10s%n", "change", "format", "bytes/row", "ns/row");
+        Result taskJson = run(() -> json(AuditSchema.TASK, open, completed));
+        Result taskDelta = run(() -> differ.diff(differ.snapshot(open), differ.snapshot(completed)));
+        print("task completed", "json", taskJson);
+        print("task completed", "delta", taskDelta);
+        Result employeeJson = run(() -> json(AuditSchema.EMPLOYEE, active, offboarding));
+        Result employeeDelta = run(() -> differ.diff(differ.snapshot(active), differ.snapshot(offboarding)));
+        print("employee offboarded", "json", employeeJson);
+        print("employee offboarded", "delta", employeeDelta);
+
+        assertTrue(taskDelta.bytesPerRow() < taskJson.bytesPerRow() / 5);
+        assertTrue(employeeDelta.bytesPerRow() < employeeJson.bytesPerRow() / 5);
+    }
+
+    /**
+     * Snapshots and encodes one audit row per iteration, after a first pass of {@code rows / 5} as JIT warm-up.
+     */
+    private Result run(Supplier<byte[]> encode) {
+        long bytes = 0;
+        for (int i = 0; i < rows / 5; i++) {
+            bytes += encode.get().length;
+        }
+        bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            bytes += encode.get().length;
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result((double) bytes / rows, (double) elapsed / rows);
+    }
+
+    /** The old format: every audited field of both states, by name. */
+    private <T> byte[] json(AuditSchema<T> schema, T before, T after) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("before", fields(schema, before));
+        row.put("after", fields(schema, after));
+        try {
+            return objectMapper.writeValueAsBytes(row);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> Map<String, Object> fields(AuditSchema<T> schema, T entity) {
+        Object[] values = schema.read(entity);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            fields.put(schema.field(i).name(), values[i]);
+        }
+        return fields;
+    }
+
+    private static Task task(UUID assignee, TaskStatus status, LocalDateTime completedAt) {
+        User user = User.builder().id(assignee).build();
+        return Task.builder()
+                .title("Provision laptop")
+                .description("Order the standard engineering laptop and enroll it in device management")
+                .assignedTo(user)
+                .taskType(TaskType.CHECKLIST)
+                .status(status)
+                .dueDate(LocalDate.of(2025, 11, 10))
+                .completedBy(completedAt != null ? user : null)
+                .completedAt(completedAt)
+                .build();
+    }
+
+    private static Employee employee(UUID manager, EmployeeStatus status) {
+        return Employee.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .role("Software Engineer")
+                .department("Engineering")
+                .startDate(LocalDate.of(2025, 11, 3))
+                .manager(User.builder().id(manager).build())
+                .status(status)
+                .build();
+    }
+
+    private static void print(String change, String format, Result result) {
+        System.out.printf("%-20s %-6s %10.1f %10.1f%n", change, format, result.bytesPerRow(), result.nsPerRow());
+    }
+
+    private record Result(double bytesPerRow, double nsPerRow) {
+    }
+}
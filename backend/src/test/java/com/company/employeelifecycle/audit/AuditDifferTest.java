@@ -0,0 +1,115 @@
+package com.company.employeelifecycle.audit;
+
+import com.company.employeelifecycle.entity.Employee;
+import com.company.employeelifecycle.entity.Task;
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.enums.EmployeeStatus;
+import com.company.employeelifecycle.enums.EntityType;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.TaskType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditDifferTest {
+
+    private final AuditDiffer differ = new AuditDiffer();
+
+    @Test
+    void diff_KeepsOnlyChangedFields() {
+        UUID assignee = UUID.randomUUID();
+        Task task = task(assignee, "Provision laptop");
+        LocalDateTime completedAt = LocalDateTime.of(2025, 11, 3, 9, 30, 15, 123_456_000);
+
+        AuditSnapshot before = differ.snapshot(task);
+        byte[] delta = differ.diff(before, before.with("status", TaskStatus.COMPLETED)
+                .with("completedById", assignee).with("completedAt", completedAt));
+
+        assertEquals(List.of(
+                new AuditFieldChange("status", TaskStatus.NOT_STARTED, TaskStatus.COMPLETED),
+                new AuditFieldChange("completedById", null, assignee),
+                new AuditFieldChange("completedAt", null, completedAt)), differ.decode(EntityType.TASK, delta));
+        assertTrue(delta.length < 40, "delta was " + delta.length + " bytes");
+    }
+
+    @Test
+    void diff_ReturnsNullWithoutChanges() {
+        Task task = task(UUID.randomUUID(), "Provision laptop");
+
+        assertNull(differ.diff(differ.snapshot(task), differ.snapshot(task)));
+        assertEquals(List.of(), differ.decode(EntityType.TASK, null));
+    }
+
+    @Test
+    void diff_FromEmptyRecordsEveryValue() {
+        UUID managerId = UUID.randomUUID();
+        Employee employee = Employee.builder()
+                .firstName("Zoë")
+                .lastName("Ångström")
+                .email("zoe@example.com")
+                .role("Engineer")
+                .department("Engineering")
+                .startDate(LocalDate.of(1969, 7, 20))
+                .manager(User.builder().id(managerId).build())
+                .status(EmployeeStatus.OFFBOARDING)
+                .build();
+
+        List<AuditFieldChange> changes = differ.decode(EntityType.EMPLOYEE,
+                differ.diff(AuditSnapshot.empty(AuditSchema.EMPLOYEE), differ.snapshot(employee)));
+
+        assertEquals(8, changes.size());
+        assertEquals(new AuditFieldChange("firstName", null, "Zoë"), changes.get(0));
+        assertEquals(new AuditFieldChange("lastName", null, "Ångström"), changes.get(1));
+        assertEquals(new AuditFieldChange("startDate", null, LocalDate.of(1969, 7, 20)), changes.get(5));
+        assertEquals(new AuditFieldChange("managerId", null, managerId), changes.get(6));
+        assertEquals(new AuditFieldChange("status", null, EmployeeStatus.OFFBOARDING), changes.get(7));
+    }
+
+    @Test
+    void diff_CompressesLongText() {
+        Task task = task(UUID.randomUUID(), "Provision laptop");
+        String description = "Order the standard engineering laptop, enroll it in device management "
+                .repeat(20);
+
+        AuditSnapshot before = differ.snapshot(task);
+        byte[] delta = differ.diff(before, before.with("description", description).with("unmetPrerequisites", -1));
+
+        assertNotEquals(0, delta[0] & 0x80, "expected a deflated body");
+        assertTrue(delta.length < description.length() / 4, "delta was " + delta.length + " bytes");
+        assertEquals(List.of(
+                new AuditFieldChange("description", null, description),
+                new AuditFieldChange("unmetPrerequisites", 0, -1)), differ.decode(EntityType.TASK, delta));
+    }
+
+    @Test
+    void snapshot_RejectsUnknownFieldsAndWrongTypes() {
+        AuditSnapshot snapshot = differ.snapshot(task(null, "Provision laptop"));
+
+        assertThrows(IllegalArgumentException.class, () -> snapshot.with("salary", 1));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.with("status", "COMPLETED"));
+        assertThrows(IllegalArgumentException.class,
+                () -> differ.diff(AuditSnapshot.empty(AuditSchema.EMPLOYEE), snapshot));
+    }
+
+    @Test
+    void decode_ReadsMalformedDeltaAsNoChanges() {
+        assertEquals(List.of(), differ.decode(EntityType.TASK, new byte[]{1, 5, 0}));
+        assertEquals(List.of(), differ.decode(EntityType.TASK, new byte[]{42}));
+        assertEquals(List.of(), differ.decode(EntityType.USER, new byte[]{1, 0}));
+    }
+
+    private static Task task(UUID assignee, String title) {
+        return Task.builder()
+                .title(title)
+                .assignedTo(assignee != null ? User.builder().id(assignee).build() : null)
+                .taskType(TaskType.CHECKLIST)
+                .status(TaskStatus.NOT_STARTED)
+                .dueDate(LocalDate.of(2025, 11, 10))
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.company.employeelifecycle.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditPartitionMaintenanceTest {
+
+    @Test
+    void missingPartitions_CoversCurrentMonthAndMonthsAhead() {
+        YearMonth current = YearMonth.of(2026, 11);
+        Set<YearMonth> existing = Set.of(YearMonth.of(2026, 11), YearMonth.of(2026, 12));
+
+        assertEquals(List.of(YearMonth.of(2027, 1), YearMonth.of(2027, 2)),
+                AuditPartitionMaintenance.missingPartitions(existing, current, 3));
+    }
+
+    @Test
+    void expiredPartitions_OnlyWhenAllRowsAreOlderThanRetention() {
+        YearMonth current = YearMonth.of(2026, 10);
+        Set<YearMonth> existing = Set.of(YearMonth.of(2025, 8), YearMonth.of(2025, 9), YearMonth.of(2025, 10),
+                YearMonth.of(2026, 10));
+
+        // 12 months retention: September 2025 ends on 1 October 2025, exactly 12 months ago
+        assertEquals(List.of(YearMonth.of(2025, 8), YearMonth.of(2025, 9)),
+                AuditPartitionMaintenance.expiredPartitions(existing, current, 12));
+    }
+
+    @Test
+    void coveredMonthsAhead_CountsConsecutiveMonthsAfterTheCurrentOne() {
+        Set<YearMonth> existing = Set.of(YearMonth.of(2026, 10), YearMonth.of(2026, 11), YearMonth.of(2027, 1));
+
+        assertEquals(1, AuditPartitionMaintenance.coveredMonthsAhead(existing, YearMonth.of(2026, 10)));
+        assertEquals(0, AuditPartitionMaintenance.coveredMonthsAhead(existing, YearMonth.of(2026, 11)));
+        // Maintenance stopped: the current month has no partition, audit rows are rejected
+        assertEquals(-1, AuditPartitionMaintenance.coveredMonthsAhead(existing, YearMonth.of(2026, 12)));
+    }
+
+    @Test
+    void health_DownWhenFewerMonthsAheadThanTheMinimum() {
+        AuditPartitionMaintenance maintenance = new AuditPartitionMaintenance(null, null, new SimpleMeterRegistry(),
+                3, 84);
+        AuditPartitionHealthIndicator indicator = new AuditPartitionHealthIndicator(maintenance, 1);
+        assertEquals(Status.UNKNOWN, indicator.health().getStatus());
+
+        YearMonth current = YearMonth.now();
+        maintenance.partitionsListed(Set.of(current, current.plusMonths(1)));
+        assertEquals(Status.UP, indicator.health().getStatus());
+
+        maintenance.partitionsListed(Set.of(current));
+        Health health = indicator.health();
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals(0, health.getDetails().get("monthsAhead"));
+    }
+
+    @Test
+    void partitionName_RoundTrips() {
+        assertEquals("audit_logs_p202603", AuditPartitionMaintenance.partitionName(YearMonth.of(2026, 3)));
+        assertEquals(Optional.of(YearMonth.of(2026, 3)), AuditPartitionMaintenance.monthOf("audit_logs_p202603"));
+        assertEquals(Optional.empty(), AuditPartitionMaintenance.monthOf("audit_logs_default"));
+        assertEquals(Optional.empty(), AuditPartitionMaintenance.monthOf("other_table"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.company.employeelifecycle.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditRingBufferTest {
+
+    @Test
+    void offer_RejectsWhenFullAndPollKeepsOrder() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, buffer.drainTo(drained, 10));
+        assertEquals(List.of(1, 2, 3, 4), drained);
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void offer_ConcurrentProducersLoseNothing() throws Exception {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        rejected.incrementAndGet();
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        Set<Integer> seen = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (seen.size() < producers * perProducer && System.nanoTime() < deadline) {
+            Integer value = buffer.poll();
+            if (value != null) {
+                assertTrue(seen.add(value), "element delivered twice: " + value);
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(producers * perProducer, seen.size());
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -0,0 +1,239 @@
+package com.company.employeelifecycle.controller;
+
+import com.company.employeelifecycle.audit.AuditDiffer;
+import com.company.employeelifecycle.audit.AuditSchema;
+import com.company.employeelifecycle.audit.AuditSnapshot;
+import com.company.employeelifecycle.entity.AuditLog;
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.enums.AuditAction;
+import com.company.employeelifecycle.enums.EntityType;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.repository.AuditLogRepository;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class AuditControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditDiffer auditDiffer;
+
+    private User admin;
+    private UUID entityId;
+
+    @BeforeEach
+    void setUp() {
+        admin = userRepository.save(User.builder()
+                .email("admin@example.com")
+                .password("hashed")
+                .firstName("Hr")
+                .lastName("Admin")
+                .role(UserRole.HR_ADMIN)
+                .active(true)
+                .build());
+        entityId = UUID.randomUUID();
+        for (AuditAction action : new AuditAction[]{AuditAction.CREATED, AuditAction.ASSIGNED, AuditAction.COMPLETED}) {
+            auditLogRepository.save(AuditLog.builder()
+                    .entityType(EntityType.TASK)
+                    .entityId(entityId)
+                    .action(action)
+                    .user(admin)
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    @Test
+    void testGetEntityHistoryPagesWithCursor() throws Exception {
+        String body = mockMvc.perform(get("/api/audit")
+                        .param("entityType", "TASK")
+                        .param("entityId", entityId.toString())
+                        .param("size", "2")
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].userName").value("Hr Admin"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode firstPage = objectMapper.readTree(body);
+
+        mockMvc.perform(get("/api/audit")
+                        .param("entityType", "TASK")
+                        .param("entityId", entityId.toString())
+                        .param("size", "2")
+                        .param("cursor", firstPage.get("nextCursor").asText())
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void testGetEntityHistoryDecodesChangedFields() throws Exception {
+        UUID taskId = UUID.randomUUID();
+        AuditSnapshot before = AuditSnapshot.empty(AuditSchema.TASK).with("status", TaskStatus.IN_PROGRESS);
+        auditLogRepository.save(AuditLog.builder()
+                .entityType(EntityType.TASK)
+                .entityId(taskId)
+                .action(AuditAction.COMPLETED)
+                .user(admin)
+                .changeDelta(auditDiffer.diff(before, before.with("status", TaskStatus.COMPLETED)
+                        .with("completedById", admin.getId())))
+                .timestamp(LocalDateTime.now())
+                .build());
+
+        mockMvc.perform(get("/api/audit")
+                        .param("entityType", "TASK")
+                        .param("entityId", taskId.toString())
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].changes.length()").value(2))
+                .andExpect(jsonPath("$.items[0].changes[0].field").value("status"))
+                .andExpect(jsonPath("$.items[0].changes[0].from").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.items[0].changes[0].to").value("COMPLETED"))
+                .andExpect(jsonPath("$.items[0].changes[1].field").value("completedById"))
+                .andExpect(jsonPath("$.items[0].changes[1].to").value(admin.getId().toString()));
+    }
+
+    @Test
+    void testGetUserActivity() throws Exception {
+        String body = mockMvc.perform(get("/api/audit")
+                        .param("userId", admin.getId().toString())
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(3, objectMapper.readTree(body).get("items").size());
+    }
+
+    @Test
+    void testGetUserActivityWithinTimeRange() throws Exception {
+        LocalDateTime lastYear = LocalDateTime.now().minusYears(1);
+        auditLogRepository.flush();
+        jdbcTemplate.update("""
+                INSERT INTO audit_logs (id, entity_type, entity_id, action, user_id, timestamp)
+                VALUES (?, 'TASK', ?, 'CREATED', ?, ?)""", UUID.randomUUID(), entityId, admin.getId(), lastYear);
+
+        mockMvc.perform(get("/api/audit")
+                        .param("userId", admin.getId().toString())
+                        .param("from", LocalDateTime.now().minusDays(1).toString())
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3));
+
+        mockMvc.perform(get("/api/audit")
+                        .param("entityType", "TASK")
+                        .param("entityId", entityId.toString())
+                        .param("from", lastYear.minusDays(1).toString())
+                        .param("to", lastYear.plusDays(1).toString())
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].action").value("CREATED"));
+
+        mockMvc.perform(get("/api/audit")
+                        .param("userId", admin.getId().toString())
+                        .param("from", lastYear.plusDays(1).toString())
+                        .param("to", lastYear.toString())
+                        .with(user(principal(admin))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAuditTrailRequiresFilter() throws Exception {
+        mockMvc.perform(get("/api/audit").with(user(principal(admin))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testVerifyAuditChain() throws Exception {
+        String body = mockMvc.perform(post("/api/audit/verify")
+                        .with(csrf())
+                        .with(user(principal(admin))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.jobId").isString())
+                .andReturn().getResponse().getContentAsString();
+        String location = "/api/audit/verify/" + objectMapper.readTree(body).get("jobId").asText();
+
+        // Runs in the background
+        long deadline = System.currentTimeMillis() + 10_000;
+        JsonNode job;
+        do {
+            Thread.sleep(20);
+            job = objectMapper.readTree(mockMvc.perform(get(location).with(user(principal(admin))))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+        } while ("RUNNING".equals(job.get("status").asText()) && System.currentTimeMillis() < deadline);
+
+        assertEquals("COMPLETED", job.get("status").asText());
+        assertTrue(job.get("result").get("verified").isBoolean());
+        assertTrue(job.get("result").get("failures").isArray());
+
+        mockMvc.perform(get("/api/audit/verify/" + UUID.randomUUID()).with(user(principal(admin))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetAuditTrailForbiddenForManagers() throws Exception {
+        User manager = userRepository.save(User.builder()
+                .email("manager@example.com")
+                .password("hashed")
+                .firstName("Some")
+                .lastName("Manager")
+                .role(UserRole.MANAGER)
+                .active(true)
+                .build());
+
+        mockMvc.perform(get("/api/audit")
+                        .param("userId", admin.getId().toString())
+                        .with(user(principal(manager))))
+                .andExpect(status().isForbidden());
+    }
+
+    private AuthenticatedUser principal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), user.getFirstName(),
+                user.getLastName(), user.getRole(), true, System.currentTimeMillis());
+    }
+}
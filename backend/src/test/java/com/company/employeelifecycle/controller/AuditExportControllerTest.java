@@ -0,0 +1,228 @@
+package com.company.employeelifecycle.controller;
+
+import com.company.employeelifecycle.audit.AuditDiffer;
+import com.company.employeelifecycle.audit.AuditSchema;
+import com.company.employeelifecycle.audit.AuditSnapshot;
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.enums.AuditAction;
+import com.company.employeelifecycle.enums.EntityType;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Not transactional: the export streams on another thread, which only sees committed rows.
+ * Rows are dated 2001 so that other tests' audit rows stay out of the exported range.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuditExportControllerTest {
+
+    private static final LocalDateTime JAN_31 = LocalDateTime.of(2001, 1, 31, 23, 59, 59, 999_999_000);
+    private static final LocalDateTime FEB_01 = LocalDateTime.of(2001, 2, 1, 0, 0);
+    private static final LocalDateTime MAR_15 = LocalDateTime.of(2001, 3, 15, 12, 30);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditDiffer auditDiffer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User admin;
+    private UUID taskId;
+    private UUID employeeId;
+
+    @BeforeEach
+    void setUp() {
+        admin = userRepository.save(User.builder()
+                .email("export-admin@example.com")
+                .password("hashed")
+                .firstName("Hr")
+                .lastName("Admin")
+                .role(UserRole.HR_ADMIN)
+                .active(true)
+                .build());
+        taskId = UUID.randomUUID();
+        employeeId = UUID.randomUUID();
+        AuditSnapshot before = AuditSnapshot.empty(AuditSchema.TASK).with("status", TaskStatus.IN_PROGRESS);
+        insert(EntityType.TASK, taskId, AuditAction.CREATED, null, null, JAN_31);
+        insert(EntityType.EMPLOYEE, employeeId, AuditAction.UPDATED, "{\"reason\":\"moved, \\\"urgent\\\"\"}", null,
+                FEB_01);
+        insert(EntityType.TASK, taskId, AuditAction.COMPLETED, null,
+                auditDiffer.diff(before, before.with("status", TaskStatus.COMPLETED)), MAR_15);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE user_id = ?", admin.getId());
+        userRepository.delete(admin);
+    }
+
+    @Test
+    void testExportNdjsonStreamsRangeInChronologicalOrder() throws Exception {
+        double rowsBefore = meterRegistry.get("audit.export.rows").tag("format", "ndjson").counter().count();
+
+        String body = export("NDJSON", "2001-01-01T00:00:00", "2001-04-01T00:00:00")
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"audit-2001-01-01-2001-04-01.ndjson\""))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("2001-01-31T23:59:59.999999", first.get("timestamp").asText());
+        assertEquals("export-admin@example.com", first.get("userEmail").asText());
+        assertEquals(0, first.get("changes").size());
+        assertEquals("EMPLOYEE", objectMapper.readTree(lines[1]).get("entityType").asText());
+        JsonNode last = objectMapper.readTree(lines[2]);
+        assertEquals("COMPLETED", last.get("action").asText());
+        assertEquals("status", last.get("changes").get(0).get("field").asText());
+        assertEquals("COMPLETED", last.get("changes").get(0).get("to").asText());
+        assertEquals(rowsBefore + 3,
+                meterRegistry.get("audit.export.rows").tag("format", "ndjson").counter().count());
+    }
+
+    @Test
+    void testExportRangeIsHalfOpen() throws Exception {
+        String body = export("NDJSON", "2001-01-31T23:59:59.999999", "2001-02-01T00:00:00")
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(1, body.split("\n").length);
+        assertEquals(taskId.toString(), objectMapper.readTree(body).get("entityId").asText());
+    }
+
+    @Test
+    void testExportCsvQuotesCells() throws Exception {
+        String body = export("CSV", "2001-02-01T00:00:00", "2001-04-01T00:00:00")
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,timestamp,entity_type,entity_id,action,user_id,user_email,change_details,changes",
+                lines[0]);
+        assertTrue(lines[1].endsWith(",export-admin@example.com,\"{\"\"reason\"\":\"\"moved, \\\"\"urgent\\\"\"\"\"}\","),
+                lines[1]);
+        assertTrue(lines[2].endsWith(
+                ",\"[{\"\"field\"\":\"\"status\"\",\"\"from\"\":\"\"IN_PROGRESS\"\",\"\"to\"\":\"\"COMPLETED\"\"}]\""),
+                lines[2]);
+    }
+
+    @Test
+    void testExportCsvKeepsFormulasAsText() throws Exception {
+        LocalDateTime may = LocalDateTime.of(2001, 5, 1, 0, 0);
+        insert(EntityType.EMPLOYEE, employeeId, AuditAction.UPDATED, "=HYPERLINK(\"http://evil\",\"x\")", null, may);
+        insert(EntityType.EMPLOYEE, employeeId, AuditAction.UPDATED, "@SUM(A1)", null, may.plusSeconds(1));
+        insert(EntityType.EMPLOYEE, employeeId, AuditAction.UPDATED, "-1+1", null, may.plusSeconds(2));
+
+        String body = export("CSV", "2001-05-01T00:00:00", "2001-06-01T00:00:00")
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\r\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[1].endsWith(",\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\","), lines[1]);
+        assertTrue(lines[2].endsWith(",'@SUM(A1),"), lines[2]);
+        assertTrue(lines[3].endsWith(",'-1+1,"), lines[3]);
+    }
+
+    @Test
+    void testExportFiltersByEntity() throws Exception {
+        String body = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/audit/export")
+                                .param("entityType", "TASK")
+                                .param("entityId", taskId.toString())
+                                .param("from", "2001-01-01T00:00:00")
+                                .param("to", "2002-01-01T00:00:00")
+                                .with(user(principal(admin))))
+                        .andExpect(request().asyncStarted())
+                        .andReturn()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(2, body.split("\n").length);
+    }
+
+    @Test
+    void testExportRejectsInvalidRange() throws Exception {
+        mockMvc.perform(get("/api/audit/export")
+                        .param("from", "2001-04-01T00:00:00")
+                        .param("to", "2001-01-01T00:00:00")
+                        .with(user(principal(admin))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/audit/export")
+                        .param("entityId", taskId.toString())
+                        .param("from", "2001-01-01T00:00:00")
+                        .param("to", "2001-04-01T00:00:00")
+                        .with(user(principal(admin))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/audit/export")
+                        .param("from", "2001-01-01T00:00:00")
+                        .with(user(principal(admin))))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions export(String format, String from, String to)
+            throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/audit/export")
+                        .param("format", format)
+                        .param("from", from)
+                        .param("to", to)
+                        .with(user(principal(admin))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+
+    private void insert(EntityType entityType, UUID entityId, AuditAction action, String details, byte[] delta,
+                        LocalDateTime timestamp) {
+        jdbcTemplate.update("""
+                        INSERT INTO audit_logs (id, entity_type, entity_id, action, user_id, change_details,
+                                                change_delta, timestamp)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?)""",
+                UUID.randomUUID(), entityType.name(), entityId, action.name(), admin.getId(), details, delta,
+                Timestamp.valueOf(timestamp));
+    }
+
+    private AuthenticatedUser principal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), user.getFirstName(),
+                user.getLastName(), user.getRole(), true, System.currentTimeMillis());
+    }
+}
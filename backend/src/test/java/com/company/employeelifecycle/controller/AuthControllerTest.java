@@ -3,17 +3,25 @@ package com.company.employeelifecycle.controller;
 import com.company.employeelifecycle.entity.User;
 import com.company.employeelifecycle.enums.UserRole;
 import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.security.UserDetailsCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.mock.web.MockHttpSession;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -28,18 +36,22 @@ class AuthControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
-    @Autowired
+    @SpyBean
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     private User testUser;
 
     @BeforeEach
     void setUp() {
-        // Clear existing users
+        // Clear existing users; cached snapshots of users from rolled-back tests must go too
         userRepository.deleteAll();
+        userDetailsCache.evictAll();
 
         // Create test user
         testUser = User.builder()
@@ -100,6 +112,52 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.user.role").value("HR_ADMIN"));
     }
 
+    @Test
+    void testGetMeServedFromSessionPrincipal() throws Exception {
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .with(csrf())
+                        .param("email", "test@example.com")
+                        .param("password", "password123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user.id").value(testUser.getId().toString()))
+                .andReturn();
+        MockHttpSession session = (MockHttpSession) login.getRequest().getSession(false);
+        clearInvocations(userRepository);
+
+        mockMvc.perform(get("/api/auth/me").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user.id").value(testUser.getId().toString()))
+                .andExpect(jsonPath("$.user.firstName").value("Test"))
+                .andExpect(jsonPath("$.user.role").value("HR_ADMIN"));
+
+        verify(userRepository, never()).findByEmail(any());
+        verify(userRepository, never()).findByEmailIgnoreCase(any());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void testGetMeAnswersNotModifiedForCurrentETag() throws Exception {
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .with(csrf())
+                        .param("email", "test@example.com")
+                        .param("password", "password123"))
+                .andExpect(status().isOk())
+                .andReturn();
+        MockHttpSession session = (MockHttpSession) login.getRequest().getSession(false);
+
+        String etag = mockMvc.perform(get("/api/auth/me").session(session))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/auth/me").session(session).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/auth/me").session(session).header("If-None-Match", "W/\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user.email").value("test@example.com"));
+    }
+
     @Test
     void testGetMeWhenNotAuthenticated() throws Exception {
         // Expect redirect to login (302) when not authenticated
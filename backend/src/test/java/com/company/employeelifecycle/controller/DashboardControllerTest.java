@@ -0,0 +1,143 @@
+package com.company.employeelifecycle.controller;
+
+import com.company.employeelifecycle.dashboard.DashboardAggregates;
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.event.TaskStatusChangedEvent;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DashboardAggregates dashboardAggregates;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User hrAdmin;
+    private User manager;
+
+    @BeforeEach
+    void setUp() {
+        hrAdmin = userRepository.save(User.builder()
+                .email("dashboard-hr@example.com")
+                .password("hashed")
+                .firstName("Test")
+                .lastName("Admin")
+                .role(UserRole.HR_ADMIN)
+                .active(true)
+                .build());
+        manager = userRepository.save(User.builder()
+                .email("dashboard-manager@example.com")
+                .password("hashed")
+                .firstName("Test")
+                .lastName("Manager")
+                .role(UserRole.MANAGER)
+                .active(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.delete(manager);
+        userRepository.delete(hrAdmin);
+    }
+
+    @Test
+    void testGetSummary() throws Exception {
+        mockMvc.perform(get("/api/dashboard/summary").with(user(principal(hrAdmin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.workflowsByStatus.IN_PROGRESS").isNumber())
+                .andExpect(jsonPath("$.tasksByStatus.COMPLETED").isNumber())
+                .andExpect(jsonPath("$.overdueTasks").isNumber())
+                .andExpect(jsonPath("$.asOf").value(LocalDate.now().toString()))
+                .andExpect(jsonPath("$.rebuiltAt").exists());
+    }
+
+    @Test
+    void testGetSummaryAnswersNotModifiedUntilCountsChange() throws Exception {
+        String etag = mockMvc.perform(get("/api/dashboard/summary").with(user(principal(hrAdmin))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/dashboard/summary")
+                        .header("If-None-Match", etag)
+                        .with(user(principal(hrAdmin))))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // A rebuild that finds the same counts, as another node would, keeps the ETag
+        dashboardAggregates.rebuild();
+        mockMvc.perform(get("/api/dashboard/summary")
+                        .header("If-None-Match", etag)
+                        .with(user(principal(hrAdmin))))
+                .andExpect(status().isNotModified());
+
+        try {
+            dashboardAggregates.onTaskStatusChanged(new TaskStatusChangedEvent(UUID.randomUUID(), UUID.randomUUID(),
+                    null, TaskStatus.NOT_STARTED, TaskStatus.IN_PROGRESS, null));
+            mockMvc.perform(get("/api/dashboard/summary")
+                            .header("If-None-Match", etag)
+                            .with(user(principal(hrAdmin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.tasksByStatus").exists());
+        } finally {
+            dashboardAggregates.rebuild();
+        }
+    }
+
+    @Test
+    void testGetSummaryShowsOtherRolesOnlyTheirOwnTasks() throws Exception {
+        String etag = mockMvc.perform(get("/api/dashboard/summary").with(user(principal(manager))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.workflowsByStatus").isEmpty())
+                .andExpect(jsonPath("$.workflowsByDepartment").isEmpty())
+                .andExpect(jsonPath("$.tasksByStatus.COMPLETED").value(0))
+                .andExpect(jsonPath("$.overdueTasks").value(0))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/dashboard/summary")
+                        .header("If-None-Match", etag)
+                        .with(user(principal(manager))))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetSummaryRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/api/dashboard/summary"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    private static AuthenticatedUser principal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), user.getFirstName(),
+                user.getLastName(), user.getRole(), true, user.getVersion());
+    }
+}
@@ -0,0 +1,345 @@
+package com.company.employeelifecycle.controller;
+
+import com.company.employeelifecycle.audit.AuditDiffer;
+import com.company.employeelifecycle.audit.AuditSchema;
+import com.company.employeelifecycle.audit.AuditSnapshot;
+import com.company.employeelifecycle.entity.Employee;
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.enums.AuditAction;
+import com.company.employeelifecycle.enums.DependencyType;
+import com.company.employeelifecycle.enums.EmployeeStatus;
+import com.company.employeelifecycle.enums.EntityType;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.TaskType;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import com.company.employeelifecycle.enums.WorkflowType;
+import com.company.employeelifecycle.repository.EmployeeRepository;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter.DependencyRow;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter.InstanceRow;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter.TaskRow;
+import com.company.employeelifecycle.repository.WorkflowTemplateRepository;
+import com.company.employeelifecycle.search.EmployeeSearchIndex;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Not transactional: the export streams on another thread, which only sees committed rows, and the search index
+ * is only updated once employee changes commit.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmployeeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private WorkflowTemplateRepository workflowTemplateRepository;
+
+    @Autowired
+    private WorkflowBatchWriter batchWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditDiffer auditDiffer;
+
+    @Autowired
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    private User admin;
+    private Employee employee;
+    private WorkflowTemplate template;
+    private UUID instanceId;
+    private final List<UUID> taskIds = new ArrayList<>();
+    private boolean exported;
+
+    @BeforeEach
+    void setUp() {
+        admin = userRepository.save(User.builder()
+                .email("employee-export-admin@example.com")
+                .password("hashed")
+                .firstName("Hr")
+                .lastName("Admin")
+                .role(UserRole.HR_ADMIN)
+                .active(true)
+                .build());
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("Jane")
+                .lastName("Export")
+                .email("jane.export@example.com")
+                .role("Software Engineer")
+                .department("Engineering")
+                .startDate(LocalDate.of(2025, 11, 3))
+                .status(EmployeeStatus.PENDING)
+                .build());
+        template = workflowTemplateRepository.save(WorkflowTemplate.builder()
+                .name("Export onboarding")
+                .type(WorkflowType.ONBOARDING)
+                .version(1)
+                .templateJson("{\"tasks\":[]}")
+                .active(true)
+                .build());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        instanceId = UUID.randomUUID();
+        batchWriter.insertInstance(new InstanceRow(instanceId, template.getId(), employee.getId(), admin.getId(),
+                WorkflowInstanceStatus.IN_PROGRESS, now));
+        List<TaskRow> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            taskIds.add(UUID.randomUUID());
+            tasks.add(new TaskRow(taskIds.get(i), instanceId, "Task " + i, null, admin.getId(), TaskType.CHECKLIST,
+                    TaskStatus.NOT_STARTED, LocalDate.of(2025, 11, 3 + i), i == 0 ? 0 : 1, now.plusNanos(i * 1000)));
+        }
+        batchWriter.insertTasks(tasks);
+        batchWriter.insertDependencies(List.of(
+                new DependencyRow(UUID.randomUUID(), taskIds.get(1), taskIds.get(0), DependencyType.SEQUENTIAL),
+                new DependencyRow(UUID.randomUUID(), taskIds.get(2), taskIds.get(1), DependencyType.SEQUENTIAL)));
+
+        AuditSnapshot before = AuditSnapshot.empty(AuditSchema.TASK).with("status", TaskStatus.NOT_STARTED);
+        insertAudit(EntityType.EMPLOYEE, employee.getId(), AuditAction.CREATED, null, now);
+        insertAudit(EntityType.WORKFLOW_INSTANCE, instanceId, AuditAction.CREATED, null, now.plusSeconds(1));
+        insertAudit(EntityType.TASK, taskIds.get(0), AuditAction.COMPLETED,
+                auditDiffer.diff(before, before.with("status", TaskStatus.COMPLETED)), now.plusSeconds(2));
+        // Another employee's row stays out of the export
+        insertAudit(EntityType.EMPLOYEE, UUID.randomUUID(), AuditAction.CREATED, null, now);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        // The EXPORTED row is written asynchronously and references the admin
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (exported && exportedRows() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE user_id = ?", admin.getId());
+        jdbcTemplate.update("DELETE FROM task_dependencies WHERE task_id IN (SELECT id FROM tasks "
+                + "WHERE workflow_instance_id = ?)", instanceId);
+        jdbcTemplate.update("DELETE FROM tasks WHERE workflow_instance_id = ?", instanceId);
+        jdbcTemplate.update("DELETE FROM workflow_instances WHERE id = ?", instanceId);
+        employeeRepository.delete(employee);
+        workflowTemplateRepository.delete(template);
+        userRepository.delete(admin);
+    }
+
+    @Test
+    void testExportStreamsZipWithOneNdjsonFilePerTable() throws Exception {
+        MvcResult started = startExport();
+        assertNotNull(started.getResponse().getHeader(EmployeeController.EXPORT_ID_HEADER));
+        byte[] zip = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zip"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"employee-" + employee.getId() + ".zip\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Map<String, List<JsonNode>> files = unzip(zip);
+        assertEquals(List.of("employee.ndjson", "workflow_instances.ndjson", "tasks.ndjson",
+                "task_dependencies.ndjson", "audit_logs.ndjson", "manifest.json"), List.copyOf(files.keySet()));
+        JsonNode person = files.get("employee.ndjson").get(0);
+        assertEquals("jane.export@example.com", person.get("email").asText());
+        assertEquals("2025-11-03", person.get("start_date").asText());
+        assertEquals("Export onboarding", files.get("workflow_instances.ndjson").get(0).get("template_name").asText());
+        assertEquals(3, files.get("tasks.ndjson").size());
+        assertEquals("Task 0", files.get("tasks.ndjson").get(0).get("title").asText());
+        assertEquals(2, files.get("task_dependencies.ndjson").size());
+
+        List<JsonNode> audit = files.get("audit_logs.ndjson");
+        assertEquals(3, audit.size());
+        assertEquals("COMPLETED", audit.get(2).get("action").asText());
+        assertEquals("status", audit.get(2).get("changes").get(0).get("field").asText());
+        assertEquals("COMPLETED", audit.get(2).get("changes").get(0).get("to").asText());
+
+        JsonNode manifest = files.get("manifest.json").get(0);
+        assertEquals(employee.getId().toString(), manifest.get("employeeId").asText());
+        assertEquals(3, manifest.get("files").get(4).get("rows").asInt());
+    }
+
+    @Test
+    void testExportProgressIsReportedById() throws Exception {
+        MvcResult started = startExport();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        String exportId = started.getResponse().getHeader(EmployeeController.EXPORT_ID_HEADER);
+
+        mockMvc.perform(get("/api/employees/exports/{id}", exportId)
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.employeeId").value(employee.getId().toString()))
+                .andExpect(jsonPath("$.rowsWritten").value(10))
+                .andExpect(jsonPath("$.rowsTotal").value(10))
+                .andExpect(jsonPath("$.sections[2].file").value("tasks.ndjson"))
+                .andExpect(jsonPath("$.sections[2].rowsWritten").value(3));
+        mockMvc.perform(get("/api/employees/exports/{id}", UUID.randomUUID())
+                        .with(user(principal(admin))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testExportRejectsUnknownEmployeeAndNonAdmins() throws Exception {
+        mockMvc.perform(get("/api/employees/{id}/export", UUID.randomUUID())
+                        .with(user(principal(admin))))
+                .andExpect(status().isNotFound());
+        User manager = userRepository.save(User.builder()
+                .email("manager@example.com")
+                .password("hashed")
+                .firstName("Test")
+                .lastName("Manager")
+                .role(UserRole.MANAGER)
+                .active(true)
+                .build());
+        try {
+            mockMvc.perform(get("/api/employees/{id}/export", employee.getId())
+                            .with(user(principal(manager))))
+                    .andExpect(status().isForbidden());
+        } finally {
+            userRepository.delete(manager);
+        }
+    }
+
+    @Test
+    void testSearchMatchesTyposAndPrefixesWithinFilters() throws Exception {
+        mockMvc.perform(get("/api/employees/search")
+                        .param("q", "Jane exprt")
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(employee.getId().toString()))
+                .andExpect(jsonPath("$[0].department").value("Engineering"))
+                .andExpect(jsonPath("$[0].status").value("PENDING"));
+        mockMvc.perform(get("/api/employees/search")
+                        .param("q", "engin")
+                        .param("status", "PENDING")
+                        .param("startFrom", "2025-11-03")
+                        .param("startTo", "2025-11-04")
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == '" + employee.getId() + "')]").exists());
+        mockMvc.perform(get("/api/employees/search")
+                        .param("q", "jane.export@example.com")
+                        .param("status", "ACTIVE")
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == '" + employee.getId() + "')]").doesNotExist());
+    }
+
+    @Test
+    void testSearchSeesCommittedChangesAndSurvivesRebuild() throws Exception {
+        employee.setDepartment("Quantum Research");
+        employee = employeeRepository.save(employee);
+        mockMvc.perform(get("/api/employees/search")
+                        .param("q", "quantum")
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(employee.getId().toString()));
+
+        employeeSearchIndex.rebuild();
+        mockMvc.perform(get("/api/employees/search")
+                        .param("q", "quantum")
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(employee.getId().toString()));
+    }
+
+    @Test
+    void testSearchRejectsInvalidFilters() throws Exception {
+        mockMvc.perform(get("/api/employees/search")
+                        .param("startFrom", "2025-11-04")
+                        .param("startTo", "2025-11-03")
+                        .with(user(principal(admin))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employees/search")
+                        .param("q", "jane")
+                        .param("limit", "0")
+                        .with(user(principal(admin))))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MvcResult startExport() throws Exception {
+        exported = true;
+        return mockMvc.perform(get("/api/employees/{id}/export", employee.getId())
+                        .with(user(principal(admin))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private Map<String, List<JsonNode>> unzip(byte[] zip) throws Exception {
+        Map<String, List<JsonNode>> files = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                List<JsonNode> rows = new ArrayList<>();
+                for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                    if (!line.isBlank()) {
+                        rows.add(objectMapper.readTree(line));
+                    }
+                }
+                files.put(entry.getName(), rows);
+            }
+        }
+        return files;
+    }
+
+    private int exportedRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs WHERE user_id = ? AND action = ?",
+                Integer.class, admin.getId(), AuditAction.EXPORTED.name());
+    }
+
+    private void insertAudit(EntityType entityType, UUID entityId, AuditAction action, byte[] delta,
+                             LocalDateTime timestamp) {
+        jdbcTemplate.update("""
+                        INSERT INTO audit_logs (id, entity_type, entity_id, action, user_id, change_delta, timestamp)
+                        VALUES (?, ?, ?, ?, ?, ?, ?)""",
+                UUID.randomUUID(), entityType.name(), entityId, action.name(), admin.getId(), delta,
+                Timestamp.valueOf(timestamp));
+    }
+
+    private AuthenticatedUser principal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), user.getFirstName(),
+                user.getLastName(), user.getRole(), true, System.currentTimeMillis());
+    }
+}
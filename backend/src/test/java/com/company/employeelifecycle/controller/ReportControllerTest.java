@@ -0,0 +1,290 @@
+package com.company.employeelifecycle.controller;
+
+import com.company.employeelifecycle.entity.Employee;
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.enums.EmployeeStatus;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.TaskType;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import com.company.employeelifecycle.enums.WorkflowType;
+import com.company.employeelifecycle.reporting.CompletionRollupJob;
+import com.company.employeelifecycle.repository.CompletionRollupRepository;
+import com.company.employeelifecycle.repository.EmployeeRepository;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter.InstanceRow;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter.TaskRow;
+import com.company.employeelifecycle.repository.WorkflowTemplateRepository;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Not transactional: the rollup job runs in its own transactions. Tasks are completed in 2001, and the
+ * watermark is moved back before them, so that only their rollups fall in the reported range.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReportControllerTest {
+
+    private static final LocalDateTime MAR_01 = LocalDateTime.of(2001, 3, 1, 9, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private WorkflowTemplateRepository workflowTemplateRepository;
+
+    @Autowired
+    private WorkflowBatchWriter batchWriter;
+
+    @Autowired
+    private CompletionRollupJob rollupJob;
+
+    @Autowired
+    private CompletionRollupRepository rollupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User admin;
+    private Employee employee;
+    private WorkflowTemplate template;
+    private UUID instanceId;
+    private UUID lateInstanceId;
+
+    @BeforeEach
+    void setUp() {
+        admin = userRepository.save(User.builder()
+                .email("report-admin@example.com")
+                .password("hashed")
+                .firstName("Hr")
+                .lastName("Admin")
+                .role(UserRole.HR_ADMIN)
+                .active(true)
+                .build());
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("Jane")
+                .lastName("Report")
+                .email("jane.report@example.com")
+                .role("Software Engineer")
+                .department("Engineering")
+                .startDate(LocalDate.of(2001, 3, 1))
+                .status(EmployeeStatus.ACTIVE)
+                .build());
+        template = workflowTemplateRepository.save(WorkflowTemplate.builder()
+                .name("Report onboarding")
+                .type(WorkflowType.ONBOARDING)
+                .version(1)
+                .templateJson("{\"tasks\":[]}")
+                .active(true)
+                .build());
+        // Catch the rollups up to now first, so that the tasks below are only rolled up once
+        rollupJob.rollUp();
+        instanceId = UUID.randomUUID();
+        batchWriter.insertInstance(new InstanceRow(instanceId, template.getId(), employee.getId(), admin.getId(),
+                WorkflowInstanceStatus.IN_PROGRESS, MAR_01));
+        // Completed after 1 hour on time, after 48 hours a day late, and after 24 hours without a due date
+        completeTask(TaskType.CHECKLIST, admin.getId(), LocalDate.of(2001, 3, 1), MAR_01.plusHours(1));
+        completeTask(TaskType.APPROVAL, admin.getId(), LocalDate.of(2001, 3, 2), MAR_01.plusHours(48));
+        completeTask(TaskType.APPROVAL, null, null, MAR_01.plusHours(24));
+        // Completed in 2001: rolled up although later completions were rolled up already
+        rollupJob.rollUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM task_completion_rollups WHERE template_id = ?", template.getId());
+        jdbcTemplate.update("DELETE FROM workflow_completion_rollups WHERE template_id = ?", template.getId());
+        for (UUID id : new UUID[]{instanceId, lateInstanceId}) {
+            jdbcTemplate.update("DELETE FROM tasks WHERE workflow_instance_id = ?", id);
+            jdbcTemplate.update("DELETE FROM workflow_instances WHERE id = ?", id);
+        }
+        employeeRepository.delete(employee);
+        workflowTemplateRepository.delete(template);
+        userRepository.delete(admin);
+    }
+
+    @Test
+    void testTaskReportGroupsRollupsWithPercentilesAndOnTimeRate() throws Exception {
+        mockMvc.perform(get("/api/reports/tasks")
+                        .param("from", "2001-03-01")
+                        .param("to", "2001-04-01")
+                        .param("groupBy", "TASK_TYPE")
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groupBy").value("TASK_TYPE"))
+                .andExpect(jsonPath("$.rolledUpTo").isNotEmpty())
+                .andExpect(jsonPath("$.rows.length()").value(2))
+                .andExpect(jsonPath("$.rows[0].key").value("APPROVAL"))
+                .andExpect(jsonPath("$.rows[0].completed").value(2))
+                .andExpect(jsonPath("$.rows[0].withDueDate").value(1))
+                .andExpect(jsonPath("$.rows[0].onTime").value(0))
+                .andExpect(jsonPath("$.rows[0].onTimeRate").value(0.0))
+                .andExpect(jsonPath("$.rows[0].p50Seconds").value(closeTo(86_400.0, 864.0), Double.class))
+                .andExpect(jsonPath("$.rows[1].key").value("CHECKLIST"))
+                .andExpect(jsonPath("$.rows[1].onTimeRate").value(1.0))
+                .andExpect(jsonPath("$.rows[1].p50Seconds").value(closeTo(3_600.0, 36.0), Double.class));
+    }
+
+    @Test
+    void testTaskReportByTemplateAndRoleAndHalfOpenRange() throws Exception {
+        mockMvc.perform(get("/api/reports/tasks")
+                        .param("from", "2001-03-01")
+                        .param("to", "2001-04-01")
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows.length()").value(1))
+                .andExpect(jsonPath("$.rows[0].key").value(template.getId().toString()))
+                .andExpect(jsonPath("$.rows[0].label").value("Report onboarding"))
+                .andExpect(jsonPath("$.rows[0].completed").value(3));
+        mockMvc.perform(get("/api/reports/tasks")
+                        .param("from", "2001-03-02")
+                        .param("to", "2001-03-03")
+                        .param("groupBy", "ASSIGNEE_ROLE")
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows.length()").value(1))
+                .andExpect(jsonPath("$.rows[0].key").value(CompletionRollupJob.UNASSIGNED))
+                .andExpect(jsonPath("$.rows[0].completed").value(1));
+    }
+
+    @Test
+    void testWorkflowReportCountsInstancesByLastCompletion() throws Exception {
+        mockMvc.perform(get("/api/reports/workflows")
+                        .param("from", "2001-03-03")
+                        .param("to", "2001-03-04")
+                        .param("groupBy", "DEPARTMENT")
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows.length()").value(1))
+                .andExpect(jsonPath("$.rows[0].key").value("Engineering"))
+                .andExpect(jsonPath("$.rows[0].completed").value(1))
+                .andExpect(jsonPath("$.rows[0].withDueDate").doesNotExist())
+                .andExpect(jsonPath("$.rows[0].p50Seconds").value(closeTo(172_800.0, 1_728.0), Double.class));
+        mockMvc.perform(get("/api/reports/workflows")
+                        .param("from", "2001-03-01")
+                        .param("to", "2001-03-03")
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows.length()").value(0));
+    }
+
+    @Test
+    void testRollupCountsLateCommittedCompletionsAndWorkflowsOnce() throws Exception {
+        // The first task of an instance is completed first but commits last, after the rollups passed its
+        // completion time; the others are rolled up one per batch
+        lateInstanceId = UUID.randomUUID();
+        LocalDateTime mar10 = MAR_01.plusDays(9);
+        batchWriter.insertInstance(new InstanceRow(lateInstanceId, template.getId(), employee.getId(), admin.getId(),
+                WorkflowInstanceStatus.IN_PROGRESS, mar10));
+        UUID late = UUID.randomUUID();
+        batchWriter.insertTasks(List.of(new TaskRow(late, lateInstanceId, "Late task", null, admin.getId(),
+                TaskType.CHECKLIST, TaskStatus.IN_PROGRESS, null, 0, mar10)));
+        completeTask(lateInstanceId, TaskType.CHECKLIST, admin.getId(), null, mar10.plusHours(2));
+        completeTask(lateInstanceId, TaskType.CHECKLIST, admin.getId(), null, mar10.plusHours(3));
+        CompletionRollupJob batchesOfOne = new CompletionRollupJob(rollupRepository, transactionTemplate,
+                new SimpleMeterRegistry(), 1);
+        batchesOfOne.rollUp();
+        jdbcTemplate.update("UPDATE tasks SET status = 'COMPLETED', completed_at = ? WHERE id = ?",
+                Timestamp.valueOf(mar10.plusHours(1)), late);
+        batchesOfOne.rollUp();
+        rollupJob.rollUp();
+
+        mockMvc.perform(get("/api/reports/tasks")
+                        .param("from", "2001-03-10")
+                        .param("to", "2001-03-11")
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows[0].completed").value(3));
+        mockMvc.perform(get("/api/reports/workflows")
+                        .param("from", "2001-03-10")
+                        .param("to", "2001-03-11")
+                        .with(user(principal(admin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows.length()").value(1))
+                .andExpect(jsonPath("$.rows[0].completed").value(1))
+                .andExpect(jsonPath("$.rows[0].p50Seconds").value(closeTo(10_800.0, 108.0), Double.class));
+    }
+
+    @Test
+    void testReportsRejectInvalidRequests() throws Exception {
+        mockMvc.perform(get("/api/reports/tasks")
+                        .param("from", "2001-04-01")
+                        .param("to", "2001-03-01")
+                        .with(user(principal(admin))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/reports/workflows")
+                        .param("from", "2001-03-01")
+                        .param("to", "2001-04-01")
+                        .param("groupBy", "TASK_TYPE")
+                        .with(user(principal(admin))))
+                .andExpect(status().isBadRequest());
+        User manager = userRepository.save(User.builder()
+                .email("manager@example.com")
+                .password("hashed")
+                .firstName("Test")
+                .lastName("Manager")
+                .role(UserRole.MANAGER)
+                .active(true)
+                .build());
+        try {
+            mockMvc.perform(get("/api/reports/tasks")
+                            .param("from", "2001-03-01")
+                            .param("to", "2001-04-01")
+                            .with(user(principal(manager))))
+                    .andExpect(status().isForbidden());
+        } finally {
+            userRepository.delete(manager);
+        }
+    }
+
+    private void completeTask(TaskType type, UUID assignee, LocalDate dueDate, LocalDateTime completedAt) {
+        completeTask(instanceId, type, assignee, dueDate, completedAt);
+    }
+
+    private void completeTask(UUID instanceId, TaskType type, UUID assignee, LocalDate dueDate,
+                              LocalDateTime completedAt) {
+        UUID taskId = UUID.randomUUID();
+        batchWriter.insertTasks(List.of(new TaskRow(taskId, instanceId, type + " task", null, assignee, type,
+                TaskStatus.COMPLETED, dueDate, 0, MAR_01)));
+        jdbcTemplate.update("UPDATE tasks SET completed_at = ? WHERE id = ?", Timestamp.valueOf(completedAt), taskId);
+    }
+
+    private AuthenticatedUser principal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), user.getFirstName(),
+                user.getLastName(), user.getRole(), true, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,341 @@
+package com.company.employeelifecycle.controller;
+
+import com.company.employeelifecycle.entity.*;
+import com.company.employeelifecycle.enums.*;
+import com.company.employeelifecycle.repository.*;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class TaskControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private WorkflowTemplateRepository workflowTemplateRepository;
+
+    @Autowired
+    private WorkflowInstanceRepository workflowInstanceRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskDependencyRepository taskDependencyRepository;
+
+    private User assignee;
+    private User other;
+    private WorkflowInstance instance;
+
+    @BeforeEach
+    void setUp() {
+        assignee = createUser("tech@example.com", UserRole.TECH_SUPPORT);
+        other = createUser("other@example.com", UserRole.TECH_SUPPORT);
+        User initiator = createUser("hr@example.com", UserRole.HR_ADMIN);
+
+        WorkflowTemplate template = workflowTemplateRepository.save(WorkflowTemplate.builder()
+                .name("Onboarding")
+                .type(WorkflowType.ONBOARDING)
+                .active(true)
+                .build());
+        Employee employee = employeeRepository.save(Employee.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .role("Engineer")
+                .status(EmployeeStatus.ACTIVE)
+                .build());
+        instance = workflowInstanceRepository.save(WorkflowInstance.builder()
+                .template(template)
+                .employee(employee)
+                .initiatedBy(initiator)
+                .status(WorkflowInstanceStatus.IN_PROGRESS)
+                .build());
+
+        for (int i = 0; i < 5; i++) {
+            taskRepository.save(createTask("Task " + i, assignee, i == 0 ? TaskStatus.COMPLETED : TaskStatus.NOT_STARTED));
+        }
+        taskRepository.save(createTask("Someone else's task", other, TaskStatus.NOT_STARTED));
+    }
+
+    @Test
+    void testGetInboxPagesThroughAllTasksWithCursor() throws Exception {
+        Set<String> seen = new HashSet<>();
+        List<String> createdAt = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/tasks/inbox").param("size", "2").with(user(principal(assignee)));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            for (JsonNode item : page.get("items")) {
+                assertTrue(seen.add(item.get("id").asText()), "no task may appear twice");
+                assertEquals("Jane Smith", item.get("employeeName").asText());
+                createdAt.add(item.get("createdAt").asText());
+            }
+            cursor = page.get("hasNext").asBoolean() ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(5, seen.size());
+        assertEquals(3, pages);
+        for (int i = 1; i < createdAt.size(); i++) {
+            assertTrue(LocalDateTime.parse(createdAt.get(i - 1)).compareTo(LocalDateTime.parse(createdAt.get(i))) >= 0);
+        }
+    }
+
+    @Test
+    void testGetInboxFiltersByStatus() throws Exception {
+        mockMvc.perform(get("/api/tasks/inbox")
+                        .param("status", "COMPLETED")
+                        .with(user(principal(assignee))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Task 0"))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void testGetInboxAnswersNotModifiedUntilATaskChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/tasks/inbox").with(user(principal(assignee))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/tasks/inbox")
+                        .header("If-None-Match", etag)
+                        .with(user(principal(assignee))))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        // Another page or filter of the same inbox is another representation
+        mockMvc.perform(get("/api/tasks/inbox")
+                        .param("status", "COMPLETED")
+                        .header("If-None-Match", etag)
+                        .with(user(principal(assignee))))
+                .andExpect(status().isOk());
+
+        Task next = taskRepository.findByAssignedToId(assignee.getId()).stream()
+                .filter(task -> task.getStatus() == TaskStatus.NOT_STARTED)
+                .findFirst().orElseThrow();
+        mockMvc.perform(post("/api/tasks/{id}/complete", next.getId())
+                        .with(user(principal(assignee)))
+                        .with(csrf()))
+                .andExpect(status().isOk());
+
+        String changed = mockMvc.perform(get("/api/tasks/inbox")
+                        .header("If-None-Match", etag)
+                        .with(user(principal(assignee))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void testGetInboxRejectsMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/tasks/inbox")
+                        .param("cursor", "not-a-cursor")
+                        .with(user(principal(assignee))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetInboxRejectsOversizedPage() throws Exception {
+        mockMvc.perform(get("/api/tasks/inbox")
+                        .param("size", "1000")
+                        .with(user(principal(assignee))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCompleteTaskUnblocksSequentialDependents() throws Exception {
+        Task first = taskRepository.save(createTask("First", assignee, TaskStatus.NOT_STARTED));
+        Task sequential = taskRepository.save(createTask("Sequential", assignee, TaskStatus.NOT_STARTED));
+        Task parallel = taskRepository.save(createTask("Parallel", assignee, TaskStatus.NOT_STARTED));
+        sequential.setUnmetPrerequisites(1);
+        taskDependencyRepository.save(dependency(sequential, first, DependencyType.SEQUENTIAL));
+        taskDependencyRepository.save(dependency(parallel, first, DependencyType.PARALLEL));
+        taskRepository.flush();
+
+        mockMvc.perform(get("/api/tasks/inbox").param("size", "3").with(user(principal(assignee))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Parallel"))
+                .andExpect(jsonPath("$.items[0].blocked").value(false))
+                .andExpect(jsonPath("$.items[1].title").value("Sequential"))
+                .andExpect(jsonPath("$.items[1].blocked").value(true));
+
+        mockMvc.perform(post("/api/tasks/{id}/complete", sequential.getId())
+                        .with(user(principal(assignee)))
+                        .with(csrf()))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(post("/api/tasks/{id}/complete", first.getId())
+                        .with(user(principal(assignee)))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.unblockedTaskIds.length()").value(1))
+                .andExpect(jsonPath("$.unblockedTaskIds[0]").value(sequential.getId().toString()));
+
+        assertEquals(0, taskRepository.findById(sequential.getId()).orElseThrow().getUnmetPrerequisites());
+        assertEquals(0, taskRepository.findById(parallel.getId()).orElseThrow().getUnmetPrerequisites());
+
+        // Completing again is a no-op and does not decrement the dependents a second time
+        mockMvc.perform(post("/api/tasks/{id}/complete", first.getId())
+                        .with(user(principal(assignee)))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.unblockedTaskIds.length()").value(0));
+        assertEquals(0, taskRepository.findById(sequential.getId()).orElseThrow().getUnmetPrerequisites());
+    }
+
+    @Test
+    void testGetUpstreamAndDownstreamChains() throws Exception {
+        Task first = taskRepository.save(createTask("First", assignee, TaskStatus.NOT_STARTED));
+        Task second = taskRepository.save(createTask("Second", assignee, TaskStatus.NOT_STARTED));
+        Task third = taskRepository.save(createTask("Third", assignee, TaskStatus.NOT_STARTED));
+        taskDependencyRepository.save(dependency(second, first, DependencyType.SEQUENTIAL));
+        taskDependencyRepository.save(dependency(third, second, DependencyType.SEQUENTIAL));
+        taskDependencyRepository.flush();
+
+        mockMvc.perform(get("/api/tasks/{id}/upstream", third.getId()).with(user(principal(assignee))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Second"))
+                .andExpect(jsonPath("$[1].title").value("First"))
+                .andExpect(jsonPath("$[1].depth").value(2));
+
+        mockMvc.perform(get("/api/tasks/{id}/downstream", first.getId())
+                        .param("maxDepth", "1")
+                        .with(user(principal(assignee))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].taskId").value(second.getId().toString()));
+
+        mockMvc.perform(get("/api/tasks/{id}/upstream", UUID.randomUUID()).with(user(principal(assignee))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetUpstreamAndDownstreamAreLimitedToTheAssigneeAndAdmins() throws Exception {
+        Task task = taskRepository.save(createTask("Mine", assignee, TaskStatus.NOT_STARTED));
+        User admin = createUser("admin@example.com", UserRole.HR_ADMIN);
+
+        mockMvc.perform(get("/api/tasks/{id}/upstream", task.getId()).with(user(principal(other))))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/tasks/{id}/downstream", task.getId()).with(user(principal(other))))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/tasks/{id}/downstream", task.getId()).with(user(principal(admin))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testCompleteTaskRejectsTaskAssignedToOtherUser() throws Exception {
+        Task task = taskRepository.save(createTask("Not mine", other, TaskStatus.NOT_STARTED));
+
+        mockMvc.perform(post("/api/tasks/{id}/complete", task.getId())
+                        .with(user(principal(assignee)))
+                        .with(csrf()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testCompleteUnassignedTaskIsLeftToAdmins() throws Exception {
+        Task task = taskRepository.save(createTask("No one's", null, TaskStatus.NOT_STARTED));
+        User admin = createUser("admin@example.com", UserRole.SYSTEM_ADMIN);
+
+        mockMvc.perform(post("/api/tasks/{id}/complete", task.getId())
+                        .with(user(principal(assignee)))
+                        .with(csrf()))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/api/tasks/{id}/complete", task.getId())
+                        .with(user(principal(admin)))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void testGetInboxRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/api/tasks/inbox"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    private AuthenticatedUser principal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), user.getFirstName(),
+                user.getLastName(), user.getRole(), true, System.currentTimeMillis());
+    }
+
+    private User createUser(String email, UserRole role) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .password("hashed")
+                .firstName("Test")
+                .lastName("User")
+                .role(role)
+                .active(true)
+                .build());
+    }
+
+    private Task createTask(String title, User assignedTo, TaskStatus status) {
+        return Task.builder()
+                .workflowInstance(instance)
+                .title(title)
+                .assignedTo(assignedTo)
+                .taskType(TaskType.CHECKLIST)
+                .status(status)
+                .build();
+    }
+
+    private TaskDependency dependency(Task task, Task prerequisite, DependencyType type) {
+        return TaskDependency.builder()
+                .task(task)
+                .prerequisiteTask(prerequisite)
+                .dependencyType(type)
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package com.company.employeelifecycle.controller;
+
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.enums.WorkflowType;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.repository.WorkflowTemplateRepository;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class WorkflowControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkflowTemplateRepository workflowTemplateRepository;
+
+    private User hrAdmin;
+    private WorkflowTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        hrAdmin = createUser("hr@example.com", UserRole.HR_ADMIN);
+        createUser("tech@example.com", UserRole.TECH_SUPPORT);
+        template = workflowTemplateRepository.save(WorkflowTemplate.builder()
+                .name("Onboarding")
+                .type(WorkflowType.ONBOARDING)
+                .version(1)
+                .templateJson("""
+                        {"tasks": [
+                          {"key": "accounts", "title": "Create accounts", "taskType": "CHECKLIST",
+                           "assignedRole": "TECH_SUPPORT"},
+                          {"key": "laptop", "title": "Provision laptop", "taskType": "CHECKLIST",
+                           "assignedRole": "TECH_SUPPORT", "dependsOn": ["accounts"]}
+                        ]}""")
+                .active(true)
+                .build());
+    }
+
+    @Test
+    void testCreateWorkflowAsHrAdmin() throws Exception {
+        mockMvc.perform(post("/api/workflows")
+                        .with(csrf())
+                        .with(user(principal(hrAdmin)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody(template.getId())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").isNotEmpty())
+                .andExpect(jsonPath("$.templateId").value(template.getId().toString()))
+                .andExpect(jsonPath("$.employeeName").value("Jane Smith"))
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+
+        mockMvc.perform(get("/api/workflows").with(user(principal(hrAdmin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].department").value("Engineering"));
+    }
+
+    @Test
+    void testCreateWorkflowForbiddenForManagers() throws Exception {
+        User manager = createUser("manager@example.com", UserRole.MANAGER);
+
+        mockMvc.perform(post("/api/workflows")
+                        .with(csrf())
+                        .with(user(principal(manager)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody(template.getId())))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testListAndForecastForbiddenForManagers() throws Exception {
+        User manager = createUser("manager@example.com", UserRole.MANAGER);
+
+        mockMvc.perform(get("/api/workflows").with(user(principal(manager))))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/workflows/{id}/forecast", UUID.randomUUID()).with(user(principal(manager))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testCreateWorkflowWithUnknownTemplate() throws Exception {
+        mockMvc.perform(post("/api/workflows")
+                        .with(csrf())
+                        .with(user(principal(hrAdmin)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody(UUID.randomUUID())))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testCreateWorkflowValidatesRequest() throws Exception {
+        mockMvc.perform(post("/api/workflows")
+                        .with(csrf())
+                        .with(user(principal(hrAdmin)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"workflowTemplateId\":\"" + template.getId() + "\",\"employeeEmail\":\"nope\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testForecastOfNewWorkflow() throws Exception {
+        String created = mockMvc.perform(post("/api/workflows")
+                        .with(csrf())
+                        .with(user(principal(hrAdmin)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody(template.getId())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String workflowId = JsonPath.read(created, "$.id");
+
+        mockMvc.perform(get("/api/workflows/{id}/forecast", workflowId).with(user(principal(hrAdmin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.workflowId").value(workflowId))
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.remainingTasks").value(2))
+                .andExpect(jsonPath("$.computedAt").isNotEmpty());
+        mockMvc.perform(get("/api/workflows/{id}/forecast", UUID.randomUUID()).with(user(principal(hrAdmin))))
+                .andExpect(status().isNotFound());
+    }
+
+    private String requestBody(UUID templateId) {
+        return """
+                {"workflowTemplateId": "%s", "employeeFirstName": "Jane", "employeeLastName": "Smith",
+                 "employeeEmail": "jane.smith@example.com", "role": "Software Engineer",
+                 "department": "Engineering", "startDate": "2025-11-03"}""".formatted(templateId);
+    }
+
+    private AuthenticatedUser principal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), user.getFirstName(),
+                user.getLastName(), user.getRole(), true, System.currentTimeMillis());
+    }
+
+    private User createUser(String email, UserRole role) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .password("hashed")
+                .firstName("Test")
+                .lastName("User")
+                .role(role)
+                .active(true)
+                .build());
+    }
+}
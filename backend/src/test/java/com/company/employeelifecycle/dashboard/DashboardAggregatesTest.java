@@ -0,0 +1,207 @@
+package com.company.employeelifecycle.dashboard;
+
+import com.company.employeelifecycle.dto.request.CreateWorkflowRequest;
+import com.company.employeelifecycle.dto.response.DashboardSummaryResponse;
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.enums.WorkflowType;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.repository.WorkflowTemplateRepository;
+import com.company.employeelifecycle.service.TaskService;
+import com.company.employeelifecycle.service.WorkflowInstantiationService;
+import com.company.employeelifecycle.service.WorkflowInstantiationService.InstantiatedWorkflow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: the aggregates are only updated once changes commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DashboardAggregatesTest {
+
+    private static final String DEPARTMENT = "Dashboards";
+    /** Both tasks are due in the past, so they start out overdue. */
+    private static final String TEMPLATE_JSON = """
+            {"tasks":[{"key":"a","title":"Laptop","taskType":"CHECKLIST","dueInDays":0},
+                      {"key":"b","title":"Badge","taskType":"CHECKLIST","dueInDays":1,"dependsOn":["a"]}]}""";
+
+    @Autowired
+    private DashboardAggregates aggregates;
+
+    @Autowired
+    private WorkflowInstantiationService instantiationService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkflowTemplateRepository workflowTemplateRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User hrAdmin;
+    private WorkflowTemplate template;
+    private final List<InstantiatedWorkflow> workflows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        hrAdmin = userRepository.save(User.builder()
+                .email("dashboard-hr@example.com")
+                .password("hashed")
+                .firstName("Hr")
+                .lastName("Admin")
+                .role(UserRole.HR_ADMIN)
+                .active(true)
+                .build());
+        template = workflowTemplateRepository.save(WorkflowTemplate.builder()
+                .name("Dashboard offboarding")
+                .type(WorkflowType.OFFBOARDING)
+                .version(1)
+                .templateJson(TEMPLATE_JSON)
+                .active(true)
+                .build());
+        aggregates.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        // Audit rows are written asynchronously and reference the user: one per employee, workflow and completion
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (auditRows() < 3L * workflows.size() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE user_id = ?", hrAdmin.getId());
+        for (InstantiatedWorkflow workflow : workflows) {
+            jdbcTemplate.update("DELETE FROM task_dependencies WHERE task_id IN (SELECT id FROM tasks "
+                    + "WHERE workflow_instance_id = ?)", workflow.instanceId());
+            jdbcTemplate.update("DELETE FROM tasks WHERE workflow_instance_id = ?", workflow.instanceId());
+            jdbcTemplate.update("DELETE FROM workflow_instances WHERE id = ?", workflow.instanceId());
+            jdbcTemplate.update("DELETE FROM employees WHERE id = ?", workflow.employee().getId());
+        }
+        workflowTemplateRepository.delete(template);
+        userRepository.delete(hrAdmin);
+        aggregates.rebuild();
+    }
+
+    @Test
+    void summary_TracksCommittedChangesAndMatchesRebuild() {
+        DashboardSummaryResponse before = aggregates.summary();
+
+        InstantiatedWorkflow workflow = instantiate();
+        DashboardSummaryResponse started = aggregates.summary();
+
+        assertEquals(Map.of("IN_PROGRESS", 1L), started.getWorkflowsByDepartment().get(DEPARTMENT));
+        assertEquals(count(before.getWorkflowsByStatus(), "IN_PROGRESS") + 1,
+                count(started.getWorkflowsByStatus(), "IN_PROGRESS"));
+        assertEquals(count(before.getWorkflowsByType().get("OFFBOARDING"), "IN_PROGRESS") + 1,
+                count(started.getWorkflowsByType().get("OFFBOARDING"), "IN_PROGRESS"));
+        assertEquals(count(before.getTasksByStatus(), "NOT_STARTED") + 2,
+                count(started.getTasksByStatus(), "NOT_STARTED"));
+        assertEquals(before.getOverdueTasks() + 2, started.getOverdueTasks());
+
+        UUID first = jdbcTemplate.queryForObject(
+                "SELECT id FROM tasks WHERE workflow_instance_id = ? AND title = 'Laptop'", UUID.class,
+                workflow.instanceId());
+        taskService.completeTask(first, hrAdmin.getId(), UserRole.HR_ADMIN);
+        DashboardSummaryResponse completed = aggregates.summary();
+
+        assertEquals(count(before.getTasksByStatus(), "NOT_STARTED") + 1,
+                count(completed.getTasksByStatus(), "NOT_STARTED"));
+        assertEquals(count(before.getTasksByStatus(), "COMPLETED") + 1,
+                count(completed.getTasksByStatus(), "COMPLETED"));
+        assertEquals(before.getOverdueTasks() + 1, completed.getOverdueTasks());
+
+        aggregates.rebuild();
+        DashboardSummaryResponse rebuilt = aggregates.summary();
+        assertEquals(completed.getWorkflowsByStatus(), rebuilt.getWorkflowsByStatus());
+        assertEquals(completed.getWorkflowsByDepartment(), rebuilt.getWorkflowsByDepartment());
+        assertEquals(completed.getWorkflowsByType(), rebuilt.getWorkflowsByType());
+        assertEquals(completed.getTasksByStatus(), rebuilt.getTasksByStatus());
+        assertEquals(completed.getOverdueTasks(), rebuilt.getOverdueTasks());
+    }
+
+    @Test
+    void summary_IgnoresRolledBackChanges() {
+        DashboardSummaryResponse before = aggregates.summary();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            instantiationService.instantiate(request(), hrAdmin.getId());
+            status.setRollbackOnly();
+        });
+
+        DashboardSummaryResponse after = aggregates.summary();
+        assertEquals(before.getWorkflowsByStatus(), after.getWorkflowsByStatus());
+        assertEquals(before.getTasksByStatus(), after.getTasksByStatus());
+        assertNull(after.getWorkflowsByDepartment().get(DEPARTMENT));
+    }
+
+    @Test
+    void summaryETag_ChangesWithTheTasksOfOtherRolesOnly() {
+        InstantiatedWorkflow workflow = instantiate();
+        UUID userId = hrAdmin.getId();
+        String none = aggregates.summaryETag(userId, UserRole.MANAGER);
+        jdbcTemplate.update("UPDATE tasks SET assigned_to = ? WHERE workflow_instance_id = ?", userId,
+                workflow.instanceId());
+
+        String assigned = aggregates.summaryETag(userId, UserRole.MANAGER);
+        assertNotEquals(none, assigned);
+        assertEquals(assigned, aggregates.summaryETag(userId, UserRole.MANAGER));
+
+        UUID first = jdbcTemplate.queryForObject(
+                "SELECT id FROM tasks WHERE workflow_instance_id = ? AND title = 'Laptop'", UUID.class,
+                workflow.instanceId());
+        taskService.completeTask(first, userId, UserRole.HR_ADMIN);
+
+        assertNotEquals(assigned, aggregates.summaryETag(userId, UserRole.MANAGER));
+    }
+
+    private InstantiatedWorkflow instantiate() {
+        InstantiatedWorkflow workflow = instantiationService.instantiate(request(), hrAdmin.getId());
+        workflows.add(workflow);
+        return workflow;
+    }
+
+    private CreateWorkflowRequest request() {
+        return CreateWorkflowRequest.builder()
+                .workflowTemplateId(template.getId())
+                .employeeFirstName("Dana")
+                .employeeLastName("Board")
+                .employeeEmail("dana.board@example.com")
+                .role("Analyst")
+                .department(DEPARTMENT)
+                .startDate(LocalDate.now().minusDays(10))
+                .build();
+    }
+
+    private long auditRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs WHERE user_id = ?", Long.class,
+                hrAdmin.getId());
+    }
+
+    private static long count(Map<String, Long> counts, String key) {
+        return counts != null ? counts.getOrDefault(key, 0L) : 0L;
+    }
+}
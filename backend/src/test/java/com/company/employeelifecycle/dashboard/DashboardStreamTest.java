@@ -0,0 +1,185 @@
+package com.company.employeelifecycle.dashboard;
+
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import com.company.employeelifecycle.enums.WorkflowType;
+import com.company.employeelifecycle.event.TaskStatusChangedEvent;
+import com.company.employeelifecycle.event.WorkflowStartedEvent;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Changes are published straight to the stream, as the transactional listeners do outside a transaction.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DashboardStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DashboardStream stream;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<User> users = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        stream.completeAll();
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void stream_SendsSummaryThenCoalescedDeltasFilteredByRole() throws Exception {
+        AuthenticatedUser hrAdmin = principal(UserRole.HR_ADMIN);
+        AuthenticatedUser techSupport = principal(UserRole.TECH_SUPPORT);
+        MvcResult hrStream = subscribe(hrAdmin);
+        MvcResult techStream = subscribe(techSupport);
+        assertTrue(body(hrStream).startsWith("event:summary\ndata:{"), body(hrStream));
+        // Organization-wide counts are for admins only
+        assertTrue(body(techStream).startsWith("event:summary\ndata:{\"workflowsByStatus\":{},"), body(techStream));
+        assertEquals(2, stream.subscriberCount());
+
+        UUID instanceId = UUID.randomUUID();
+        UUID ownTask = UUID.randomUUID();
+        UUID otherTask = UUID.randomUUID();
+        stream.onWorkflowStarted(new WorkflowStartedEvent(instanceId, UUID.randomUUID(), "Engineering",
+                WorkflowType.ONBOARDING, WorkflowInstanceStatus.IN_PROGRESS, List.of(LocalDate.now())));
+        stream.onTaskStatusChanged(new TaskStatusChangedEvent(ownTask, instanceId, techSupport.getId(),
+                TaskStatus.NOT_STARTED, TaskStatus.COMPLETED, null));
+        stream.onTaskStatusChanged(new TaskStatusChangedEvent(otherTask, instanceId, UUID.randomUUID(),
+                TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED, null));
+
+        String hr = awaitBody(hrStream, otherTask.toString());
+        assertTrue(hr.contains("event:deltas\n"), hr);
+        assertTrue(hr.contains("\"type\":\"WORKFLOW_STATUS_CHANGED\""), hr);
+        assertTrue(hr.contains("\"department\":\"Engineering\""), hr);
+        assertTrue(hr.contains(ownTask.toString()), hr);
+        awaitBody(techStream, ownTask.toString());
+        // Give the changes the tech support user may not see time to arrive, had they been sent
+        Thread.sleep(200);
+        String tech = body(techStream);
+        assertFalse(tech.contains(otherTask.toString()), tech);
+        assertFalse(tech.contains("WORKFLOW_STATUS_CHANGED"), tech);
+    }
+
+    @Test
+    void stream_ResyncsSubscribersThatFallBehind() throws Exception {
+        AuthenticatedUser hrAdmin = principal(UserRole.HR_ADMIN);
+        MvcResult hrStream = subscribe(hrAdmin);
+
+        // More distinct tasks than the buffer holds, faster than one flush interval
+        for (int i = 0; i < 1000; i++) {
+            stream.onTaskStatusChanged(new TaskStatusChangedEvent(UUID.randomUUID(), UUID.randomUUID(), null,
+                    TaskStatus.NOT_STARTED, TaskStatus.COMPLETED, null));
+        }
+
+        awaitBody(hrStream, "event:resync\ndata:{\"workflowsByStatus\"");
+    }
+
+    @Test
+    void stream_IgnoresChangesThatAreNotCompletions() throws Exception {
+        MvcResult hrStream = subscribe(principal(UserRole.HR_ADMIN));
+        UUID taskId = UUID.randomUUID();
+
+        stream.onTaskStatusChanged(new TaskStatusChangedEvent(taskId, UUID.randomUUID(), null,
+                TaskStatus.NOT_STARTED, TaskStatus.IN_PROGRESS, null));
+        Thread.sleep(200);
+
+        assertFalse(body(hrStream).contains(taskId.toString()));
+    }
+
+    @Test
+    void subscriber_IsStalledOnlyWhileAWriteRunsPastTheTimeout() {
+        DashboardSubscriber subscriber = new DashboardSubscriber(UUID.randomUUID(), UserRole.HR_ADMIN,
+                new SseEmitter(), 8);
+        long timeout = 1_000_000_000L;
+        assertFalse(subscriber.isStalled(System.nanoTime() + 2 * timeout, timeout));
+
+        assertTrue(subscriber.tryStartSending());
+        assertFalse(subscriber.tryStartSending());
+        // Waiting for a sender thread, not blocked on the client
+        assertFalse(subscriber.isStalled(System.nanoTime() + 2 * timeout, timeout));
+
+        subscriber.startWriting();
+        assertFalse(subscriber.isStalled(System.nanoTime(), timeout));
+        assertTrue(subscriber.isStalled(System.nanoTime() + 2 * timeout, timeout));
+
+        subscriber.finishSending();
+        assertFalse(subscriber.isStalled(System.nanoTime() + 2 * timeout, timeout));
+
+        // A send the full queue turned away frees the subscriber for the next flush
+        assertTrue(subscriber.tryStartSending());
+        subscriber.cancelSending();
+        assertTrue(subscriber.tryStartSending());
+    }
+
+    private MvcResult subscribe(AuthenticatedUser principal) throws Exception {
+        return mockMvc.perform(get("/api/dashboard/stream").with(user(principal)))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("Content-Type", "text/event-stream"))
+                .andReturn();
+    }
+
+    /**
+     * Wait until the stream has sent the text, and the event holding it has been written completely.
+     */
+    private static String awaitBody(MvcResult result, String text) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!complete(body(result), text) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        String body = body(result);
+        assertTrue(complete(body, text), body);
+        return body;
+    }
+
+    private static boolean complete(String body, String text) {
+        int at = body.indexOf(text);
+        return at >= 0 && body.indexOf("\n\n", at) > 0;
+    }
+
+    private static String body(MvcResult result) throws Exception {
+        return result.getResponse().getContentAsString();
+    }
+
+    private AuthenticatedUser principal(UserRole role) {
+        User user = userRepository.save(User.builder()
+                .email("stream-" + role.name().toLowerCase() + "-" + users.size() + "@example.com")
+                .password("hashed")
+                .firstName("Test")
+                .lastName(role.name())
+                .role(role)
+                .active(true)
+                .build());
+        users.add(user);
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), user.getFirstName(),
+                user.getLastName(), role, true, user.getVersion());
+    }
+}
@@ -0,0 +1,81 @@
+package com.company.employeelifecycle.dashboard;
+
+import com.company.employeelifecycle.dto.response.DashboardDeltaResponse;
+import com.company.employeelifecycle.enums.DashboardDeltaType;
+import com.company.employeelifecycle.enums.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardSubscriberTest {
+
+    @Test
+    void offer_CoalescesChangesToTheSameEntity() {
+        DashboardSubscriber subscriber = subscriber(UserRole.HR_ADMIN, 10);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        subscriber.offer(delta(DashboardDeltaType.TASK_OVERDUE, first));
+        subscriber.offer(delta(DashboardDeltaType.TASK_COMPLETED, second));
+        subscriber.offer(delta(DashboardDeltaType.TASK_OVERDUE, first));
+        subscriber.offer(delta(DashboardDeltaType.TASK_COMPLETED, first));
+
+        List<DashboardDeltaResponse> deltas = subscriber.take();
+        assertEquals(3, deltas.size());
+        assertEquals(second, deltas.get(0).getEntityId());
+        assertEquals(DashboardDeltaType.TASK_OVERDUE, deltas.get(1).getType());
+        assertEquals(DashboardDeltaType.TASK_COMPLETED, deltas.get(2).getType());
+        assertTrue(subscriber.take().isEmpty());
+        assertFalse(subscriber.hasPending());
+    }
+
+    @Test
+    void offer_DropsBufferAndRequestsResyncOnOverflow() {
+        DashboardSubscriber subscriber = subscriber(UserRole.HR_ADMIN, 2);
+
+        assertTrue(subscriber.offer(delta(DashboardDeltaType.TASK_COMPLETED, UUID.randomUUID())));
+        assertTrue(subscriber.offer(delta(DashboardDeltaType.TASK_COMPLETED, UUID.randomUUID())));
+        assertFalse(subscriber.offer(delta(DashboardDeltaType.TASK_COMPLETED, UUID.randomUUID())));
+        // Nothing more is queued until the resync has been sent
+        assertTrue(subscriber.offer(delta(DashboardDeltaType.TASK_COMPLETED, UUID.randomUUID())));
+
+        assertTrue(subscriber.hasPending());
+        assertNull(subscriber.take());
+        assertTrue(subscriber.take().isEmpty());
+    }
+
+    @Test
+    void canSee_LimitsNonAdminsToTheirOwnTasks() {
+        UUID userId = UUID.randomUUID();
+        DashboardSubscriber techSupport = new DashboardSubscriber(userId, UserRole.TECH_SUPPORT, new SseEmitter(), 10);
+        DashboardSubscriber systemAdmin = subscriber(UserRole.SYSTEM_ADMIN, 10);
+
+        assertTrue(techSupport.canSee(userId));
+        assertFalse(techSupport.canSee(UUID.randomUUID()));
+        assertFalse(techSupport.canSee(null));
+        assertTrue(systemAdmin.canSee(userId));
+        assertTrue(systemAdmin.canSee(null));
+    }
+
+    @Test
+    void tryStartSending_AllowsOneSendAtATime() {
+        DashboardSubscriber subscriber = subscriber(UserRole.HR_ADMIN, 10);
+
+        assertTrue(subscriber.tryStartSending());
+        assertFalse(subscriber.tryStartSending());
+        subscriber.finishSending();
+        assertTrue(subscriber.tryStartSending());
+    }
+
+    private static DashboardSubscriber subscriber(UserRole role, int capacity) {
+        return new DashboardSubscriber(UUID.randomUUID(), role, new SseEmitter(), capacity);
+    }
+
+    private static DashboardDeltaResponse delta(DashboardDeltaType type, UUID entityId) {
+        return DashboardDeltaResponse.builder().type(type).entityId(entityId).build();
+    }
+}
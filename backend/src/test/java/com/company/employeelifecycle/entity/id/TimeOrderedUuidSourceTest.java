@@ -0,0 +1,94 @@
+package com.company.employeelifecycle.entity.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedUuidSourceTest {
+
+    @Test
+    void next_SetsVersionVariantAndTimestamp() {
+        TimeOrderedUuidSource source = new TimeOrderedUuidSource(() -> 1_700_000_000_123L);
+
+        UUID uuid = source.next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(1_700_000_000_123L, TimeOrderedUuidSource.timestampOf(uuid));
+    }
+
+    @Test
+    void next_IsMonotonicWhenClockStallsOrStepsBack() {
+        AtomicLong clock = new AtomicLong(1_000L);
+        TimeOrderedUuidSource source = new TimeOrderedUuidSource(clock::get);
+
+        UUID previous = source.next();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                clock.set(500L);
+            }
+            UUID current = source.next();
+            assertTrue(compareUnsigned(previous, current) < 0, "identifiers must increase");
+            previous = current;
+        }
+    }
+
+    @Test
+    void next_CounterOverflowBorrowsFromNextMillisecond() {
+        TimeOrderedUuidSource source = new TimeOrderedUuidSource(() -> 1_000L);
+
+        UUID last = null;
+        for (int i = 0; i <= 4096; i++) {
+            last = source.next();
+        }
+
+        assertEquals(1_001L, TimeOrderedUuidSource.timestampOf(last));
+    }
+
+    @Test
+    void next_IsUniqueAndOrderedPerThreadUnderContention() throws Exception {
+        TimeOrderedUuidSource source = new TimeOrderedUuidSource(System::currentTimeMillis);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(source.next());
+                    }
+                    return ids;
+                }));
+            }
+
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                List<UUID> ids = future.get();
+                for (int i = 1; i < ids.size(); i++) {
+                    assertTrue(compareUnsigned(ids.get(i - 1), ids.get(i)) < 0);
+                }
+                all.addAll(ids);
+            }
+            assertEquals(threads * perThread, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
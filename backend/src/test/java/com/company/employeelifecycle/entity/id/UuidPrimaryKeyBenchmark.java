@@ -0,0 +1,120 @@
+package com.company.employeelifecycle.entity.id;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares random (v4) and time-ordered (v7) primary keys on an audit_logs-shaped table in PostgreSQL:
+ * insert throughput overall and for the last quarter of rows (once the index outgrows the buffer cache),
+ * and the final size of the primary key index.
+ * <p>
+ * Opt-in, and not picked up by the default surefire includes. Run against a scratch database with:
+ * <pre>
+ * mvn test -Dtest=UuidPrimaryKeyBenchmark -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/bench \
+ *     -Dbenchmark.jdbc.user=postgres -Dbenchmark.jdbc.password=postgres -Dbenchmark.rows=5000000
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc.url", matches = ".+")
+class UuidPrimaryKeyBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final String url = System.getProperty("benchmark.jdbc.url");
+    private final String user = System.getProperty("benchmark.jdbc.user", "postgres");
+    private final String password = System.getProperty("benchmark.jdbc.password", "postgres");
+    private final int rows = Integer.getInteger("benchmark.rows", 2_000_000);
+
+    @Test
+    void compareRandomAndTimeOrderedKeys() throws SQLException {
+        TimeOrderedUuidSource source = TimeOrderedUuidSource.shared();
+        Result random = run("bench_audit_v4", UUID::randomUUID);
+        Result ordered = run("bench_audit_v7", source::next);
+
+        System.out.printf("%-8s %12s %16s %14s%n", "keys", "rows/s", "last 25% rows/s", "pkey size MB");
+        print("UUIDv4", random);
+        print("UUIDv7", ordered);
+    }
+
+    private Result run(String table, Supplier<UUID> ids) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS " + table);
+                statement.execute("CREATE TABLE " + table + " ("
+                        + "id UUID PRIMARY KEY, entity_type VARCHAR(50) NOT NULL, entity_id UUID NOT NULL, "
+                        + "action VARCHAR(50) NOT NULL, user_id UUID, change_details TEXT, "
+                        + "timestamp TIMESTAMP NOT NULL)");
+                statement.execute("CREATE INDEX idx_" + table + "_entity ON " + table + " (entity_type, entity_id)");
+            }
+            connection.setAutoCommit(false);
+
+            String sql = "INSERT INTO " + table
+                    + " (id, entity_type, entity_id, action, user_id, change_details, timestamp)"
+                    + " VALUES (?, 'TASK', ?, 'UPDATED', ?, '{\"status\":\"COMPLETED\"}', ?)";
+            int lastQuarterStart = rows - rows / 4;
+            long start = System.nanoTime();
+            long lastQuarterStartedAt = start;
+            try (PreparedStatement insert = connection.prepareStatement(sql)) {
+                UUID actor = UUID.randomUUID();
+                for (int i = 0; i < rows; i++) {
+                    if (i == lastQuarterStart) {
+                        lastQuarterStartedAt = System.nanoTime();
+                    }
+                    insert.setObject(1, ids.get());
+                    insert.setObject(2, UUID.randomUUID());
+                    insert.setObject(3, actor);
+                    insert.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+                    insert.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+            long end = System.nanoTime();
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet count = statement.executeQuery("SELECT count(*) FROM " + table)) {
+                count.next();
+                assertEquals(rows, count.getLong(1));
+            }
+            long indexBytes;
+            try (Statement statement = connection.createStatement();
+                 ResultSet size = statement.executeQuery("SELECT pg_relation_size('" + table + "_pkey')")) {
+                size.next();
+                indexBytes = size.getLong(1);
+            }
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE " + table);
+            }
+            return new Result(rows / seconds(end - start),
+                    (rows - lastQuarterStart) / seconds(end - lastQuarterStartedAt), indexBytes);
+        }
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%-8s %12.0f %16.0f %14.1f%n", label, result.rowsPerSecond(),
+                result.lastQuarterRowsPerSecond(), result.primaryKeyBytes() / (1024.0 * 1024.0));
+    }
+
+    private record Result(double rowsPerSecond, double lastQuarterRowsPerSecond, long primaryKeyBytes) {
+    }
+}
@@ -0,0 +1,230 @@
+package com.company.employeelifecycle.forecast;
+
+import com.company.employeelifecycle.dto.response.WorkflowForecastResponse;
+import com.company.employeelifecycle.entity.Employee;
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.enums.DependencyType;
+import com.company.employeelifecycle.enums.EmployeeStatus;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.TaskType;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import com.company.employeelifecycle.enums.WorkflowType;
+import com.company.employeelifecycle.exception.ResourceNotFoundException;
+import com.company.employeelifecycle.repository.EmployeeRepository;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter.DependencyRow;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter.InstanceRow;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter.TaskRow;
+import com.company.employeelifecycle.repository.WorkflowTemplateRepository;
+import com.company.employeelifecycle.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: completions must commit for their events to update the histograms and evict forecasts.
+ * Every past instance of the template took one hour to create accounts, then three hours to provision a laptop.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WorkflowForecasterTest {
+
+    private static final String ACCOUNTS = "Create accounts";
+    private static final String LAPTOP = "Provision laptop";
+    private static final Duration ACCOUNTS_DURATION = Duration.ofHours(1);
+    private static final Duration LAPTOP_DURATION = Duration.ofHours(3);
+
+    @Autowired
+    private WorkflowForecaster forecaster;
+
+    @Autowired
+    private TaskDurationModel durationModel;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private WorkflowTemplateRepository workflowTemplateRepository;
+
+    @Autowired
+    private WorkflowBatchWriter batchWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User tech;
+    private Employee employee;
+    private WorkflowTemplate template;
+    private final List<UUID> instanceIds = new ArrayList<>();
+    private int completions;
+
+    @BeforeEach
+    void setUp() {
+        tech = userRepository.save(User.builder()
+                .email("forecast-tech@example.com")
+                .password("hashed")
+                .firstName("Tech")
+                .lastName("Support")
+                .role(UserRole.TECH_SUPPORT)
+                .active(true)
+                .build());
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("Jane")
+                .lastName("Forecast")
+                .email("jane.forecast@example.com")
+                .role("Software Engineer")
+                .department("Engineering")
+                .startDate(LocalDate.now())
+                .status(EmployeeStatus.ACTIVE)
+                .build());
+        template = workflowTemplateRepository.save(WorkflowTemplate.builder()
+                .name("Forecast onboarding")
+                .type(WorkflowType.ONBOARDING)
+                .version(1)
+                .templateJson("{\"tasks\":[]}")
+                .active(true)
+                .build());
+        LocalDateTime past = LocalDateTime.now().minusDays(30).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            UUID[] tasks = startInstance(past.plusDays(i));
+            complete(tasks[0], past.plusDays(i).plus(ACCOUNTS_DURATION));
+            complete(tasks[1], past.plusDays(i).plus(ACCOUNTS_DURATION).plus(LAPTOP_DURATION));
+        }
+        durationModel.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        // The COMPLETED audit rows are written asynchronously and reference the user
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (completedRows() < completions && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        for (UUID instanceId : instanceIds) {
+            jdbcTemplate.update("DELETE FROM task_dependencies WHERE task_id IN "
+                    + "(SELECT id FROM tasks WHERE workflow_instance_id = ?)", instanceId);
+            jdbcTemplate.update("DELETE FROM tasks WHERE workflow_instance_id = ?", instanceId);
+            jdbcTemplate.update("DELETE FROM workflow_instances WHERE id = ?", instanceId);
+        }
+        jdbcTemplate.update("DELETE FROM task_completion_rollups WHERE template_id = ?", template.getId());
+        jdbcTemplate.update("DELETE FROM workflow_completion_rollups WHERE template_id = ?", template.getId());
+        employeeRepository.delete(employee);
+        workflowTemplateRepository.delete(template);
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE user_id = ?", tech.getId());
+        userRepository.delete(tech);
+        durationModel.rebuild();
+    }
+
+    @Test
+    void forecast_FollowsDependenciesAndIsRecomputedWhenATaskCompletes() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID[] tasks = startInstance(now);
+        UUID instanceId = instanceIds.get(instanceIds.size() - 1);
+
+        WorkflowForecastResponse forecast = forecaster.forecast(instanceId);
+
+        assertEquals(2, forecast.getRemainingTasks());
+        assertEquals(WorkflowInstanceStatus.IN_PROGRESS.name(), forecast.getStatus());
+        assertAround(forecast.getComputedAt().plus(ACCOUNTS_DURATION).plus(LAPTOP_DURATION),
+                forecast.getEstimatedCompletionP50());
+        assertAround(forecast.getComputedAt().plus(ACCOUNTS_DURATION).plus(LAPTOP_DURATION),
+                forecast.getEstimatedCompletionP90());
+        assertSame(forecast, forecaster.forecast(instanceId));
+
+        taskService.completeTask(tasks[0], tech.getId(), UserRole.TECH_SUPPORT);
+        completions++;
+        WorkflowForecastResponse recomputed = forecaster.forecast(instanceId);
+
+        assertNotSame(forecast, recomputed);
+        assertEquals(1, recomputed.getRemainingTasks());
+        assertAround(recomputed.getComputedAt().plus(LAPTOP_DURATION), recomputed.getEstimatedCompletionP50());
+
+        taskService.completeTask(tasks[1], tech.getId(), UserRole.TECH_SUPPORT);
+        completions++;
+        WorkflowForecastResponse done = forecaster.forecast(instanceId);
+
+        assertEquals(0, done.getRemainingTasks());
+        assertNotNull(done.getEstimatedCompletionP50());
+        assertEquals(done.getEstimatedCompletionP50(), done.getEstimatedCompletionP90());
+    }
+
+    @Test
+    void forecast_CountsOnlyTheRestOfATaskThatIsOverdue() {
+        // Accounts have been ready for two hours, longer than they ever took: only the laptop remains to wait for
+        startInstance(LocalDateTime.now().minusHours(2));
+
+        WorkflowForecastResponse forecast = forecaster.forecast(instanceIds.get(instanceIds.size() - 1));
+
+        assertEquals(2, forecast.getRemainingTasks());
+        assertAround(forecast.getComputedAt().plus(LAPTOP_DURATION), forecast.getEstimatedCompletionP50());
+    }
+
+    @Test
+    void forecast_OfUnknownInstanceThrows() {
+        assertThrows(ResourceNotFoundException.class, () -> forecaster.forecast(UUID.randomUUID()));
+    }
+
+    /**
+     * Start an instance of the template with an accounts task and a laptop task that waits for it.
+     *
+     * @return the IDs of the accounts and laptop tasks
+     */
+    private UUID[] startInstance(LocalDateTime createdAt) {
+        UUID instanceId = UUID.randomUUID();
+        UUID accounts = UUID.randomUUID();
+        UUID laptop = UUID.randomUUID();
+        batchWriter.insertInstance(new InstanceRow(instanceId, template.getId(), employee.getId(), tech.getId(),
+                WorkflowInstanceStatus.IN_PROGRESS, createdAt));
+        batchWriter.insertTasks(List.of(
+                new TaskRow(accounts, instanceId, ACCOUNTS, null, tech.getId(), TaskType.CHECKLIST,
+                        TaskStatus.NOT_STARTED, null, 0, createdAt),
+                new TaskRow(laptop, instanceId, LAPTOP, null, tech.getId(), TaskType.CHECKLIST,
+                        TaskStatus.NOT_STARTED, null, 1, createdAt)));
+        batchWriter.insertDependencies(List.of(
+                new DependencyRow(UUID.randomUUID(), laptop, accounts, DependencyType.SEQUENTIAL)));
+        instanceIds.add(instanceId);
+        return new UUID[]{accounts, laptop};
+    }
+
+    private void complete(UUID taskId, LocalDateTime completedAt) {
+        jdbcTemplate.update("UPDATE tasks SET status = 'COMPLETED', completed_at = ?, unmet_prerequisites = 0 "
+                + "WHERE id = ?", Timestamp.valueOf(completedAt), taskId);
+    }
+
+    private long completedRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs WHERE user_id = ? AND action = ?",
+                Long.class, tech.getId(), "COMPLETED");
+    }
+
+    private static void assertAround(LocalDateTime expected, LocalDateTime actual) {
+        // The sketches' relative accuracy, plus the time the test took
+        long toleranceSeconds = Duration.between(LocalDateTime.now(), expected).toSeconds() / 50 + 60;
+        assertNotNull(actual);
+        assertTrue(Math.abs(Duration.between(expected, actual).toSeconds()) <= toleranceSeconds,
+                () -> "Expected about " + expected + " but was " + actual);
+    }
+}
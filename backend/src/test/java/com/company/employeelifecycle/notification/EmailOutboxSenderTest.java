@@ -0,0 +1,320 @@
+package com.company.employeelifecycle.notification;
+
+import com.company.employeelifecycle.entity.Employee;
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.enums.DependencyType;
+import com.company.employeelifecycle.enums.EmployeeStatus;
+import com.company.employeelifecycle.enums.TaskAlertType;
+import com.company.employeelifecycle.enums.TaskStatus;
+import com.company.employeelifecycle.enums.TaskType;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.enums.WorkflowInstanceStatus;
+import com.company.employeelifecycle.enums.WorkflowType;
+import com.company.employeelifecycle.event.TaskAlertEvent;
+import com.company.employeelifecycle.repository.EmailOutboxRepository;
+import com.company.employeelifecycle.repository.EmailOutboxRepository.FailedAttempt;
+import com.company.employeelifecycle.repository.EmailOutboxRepository.OutboxEmail;
+import com.company.employeelifecycle.repository.EmployeeRepository;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter.DependencyRow;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter.InstanceRow;
+import com.company.employeelifecycle.repository.WorkflowBatchWriter.TaskRow;
+import com.company.employeelifecycle.repository.WorkflowTemplateRepository;
+import com.company.employeelifecycle.service.NotificationService;
+import com.company.employeelifecycle.service.TaskService;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.ServerSocket;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: emails are enqueued in the transactions of the changes they notify about, and sent from
+ * committed outbox rows to a GreenMail SMTP server on the port of the test profile.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EmailOutboxSenderTest {
+
+    private static final String ACCOUNTS = "Create accounts";
+    private static final String LAPTOP = "Provision laptop";
+
+    @Autowired
+    private EmailOutboxSender sender;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private WorkflowTemplateRepository workflowTemplateRepository;
+
+    @Autowired
+    private WorkflowBatchWriter batchWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP);
+    private User tech;
+    private User hr;
+    private Employee employee;
+    private WorkflowTemplate template;
+    private UUID instanceId;
+    private UUID accounts;
+    private UUID laptop;
+    private int completions;
+
+    @BeforeEach
+    void setUp() {
+        greenMail.start();
+        jdbcTemplate.update("DELETE FROM email_outbox");
+        tech = userRepository.save(User.builder()
+                .email("outbox-tech@example.com")
+                .password("hashed")
+                .firstName("Tess")
+                .lastName("Support")
+                .role(UserRole.TECH_SUPPORT)
+                .active(true)
+                .build());
+        hr = userRepository.save(User.builder()
+                .email("outbox-hr@example.com")
+                .password("hashed")
+                .firstName("Harper")
+                .lastName("Admin")
+                .role(UserRole.HR_ADMIN)
+                .active(true)
+                .build());
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("Jane")
+                .lastName("Outbox")
+                .email("jane.outbox@example.com")
+                .role("Software Engineer")
+                .department("Engineering")
+                .startDate(LocalDate.now())
+                .status(EmployeeStatus.ACTIVE)
+                .build());
+        template = workflowTemplateRepository.save(WorkflowTemplate.builder()
+                .name("Outbox onboarding")
+                .type(WorkflowType.ONBOARDING)
+                .version(1)
+                .templateJson("{\"tasks\":[]}")
+                .active(true)
+                .build());
+        instanceId = UUID.randomUUID();
+        accounts = UUID.randomUUID();
+        laptop = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        batchWriter.insertInstance(new InstanceRow(instanceId, template.getId(), employee.getId(), hr.getId(),
+                WorkflowInstanceStatus.IN_PROGRESS, now));
+        batchWriter.insertTasks(List.of(
+                new TaskRow(accounts, instanceId, ACCOUNTS, null, tech.getId(), TaskType.CHECKLIST,
+                        TaskStatus.NOT_STARTED, LocalDate.now().minusDays(1), 0, now),
+                new TaskRow(laptop, instanceId, LAPTOP, "MacBook Pro", tech.getId(), TaskType.CHECKLIST,
+                        TaskStatus.NOT_STARTED, LocalDate.now().plusDays(3), 1, now)));
+        batchWriter.insertDependencies(List.of(
+                new DependencyRow(UUID.randomUUID(), laptop, accounts, DependencyType.SEQUENTIAL)));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        greenMail.stop();
+        // The COMPLETED audit rows are written asynchronously and reference the user
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (completedRows() < completions && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        jdbcTemplate.update("DELETE FROM email_outbox");
+        jdbcTemplate.update("DELETE FROM task_dependencies WHERE task_id = ?", laptop);
+        jdbcTemplate.update("DELETE FROM tasks WHERE workflow_instance_id = ?", instanceId);
+        jdbcTemplate.update("DELETE FROM workflow_instances WHERE id = ?", instanceId);
+        employeeRepository.delete(employee);
+        workflowTemplateRepository.delete(template);
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE user_id = ?", tech.getId());
+        userRepository.delete(tech);
+        userRepository.delete(hr);
+    }
+
+    @Test
+    void send_DeliversTheEmailsOfCommittedChanges() throws Exception {
+        // Completing the accounts unblocks the laptop; an escalation of the accounts goes to HR
+        taskService.completeTask(accounts, tech.getId(), UserRole.TECH_SUPPORT);
+        completions++;
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(new TaskAlertEvent(
+                laptop, instanceId, tech.getId(), TaskAlertType.ESCALATION, 1, LocalDate.now().plusDays(3))));
+        // Rolled back: never sent
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationService.enqueueTaskAssignments(List.of(accounts));
+            status.setRollbackOnly();
+        });
+        assertEquals(2, outboxRepository.queueStats().pending());
+
+        assertEquals(2, sender.send());
+
+        assertTrue(greenMail.waitForIncomingEmail(5_000, 2));
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        Map<String, MimeMessage> byRecipient = Map.of(
+                received[0].getAllRecipients()[0].toString(), received[0],
+                received[1].getAllRecipients()[0].toString(), received[1]);
+        MimeMessage assignment = byRecipient.get(tech.getEmail());
+        assertEquals("New Task Assigned: " + LAPTOP + " for Jane Outbox", assignment.getSubject());
+        String body = GreenMailUtil.getBody(assignment);
+        assertTrue(body.contains("Hello Tess,"), body);
+        assertTrue(body.contains("/tasks/" + laptop), body);
+        assertEquals("ESCALATION: Overdue Task - " + LAPTOP + " for Jane Outbox",
+                byRecipient.get(hr.getEmail()).getSubject());
+        assertEquals(0, outboxRepository.queueStats().pending());
+    }
+
+    @Test
+    void enqueue_RequiresATransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> notificationService.enqueueTaskAssignments(List.of(accounts)));
+    }
+
+    @Test
+    void send_RetriesWithBackoffThenGivesUp() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        JavaMailSenderImpl unreachable = new JavaMailSenderImpl();
+        unreachable.setHost("localhost");
+        unreachable.setPort(closedPort);
+        EmailOutboxSender failing = new EmailOutboxSender(outboxRepository, unreachable, new SimpleMeterRegistry(),
+                "no-reply@company.com", false, Duration.ofSeconds(1), 2, 10, Duration.ofMinutes(5),
+                Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(3), 2);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    notificationService.enqueueTaskAssignments(List.of(accounts)));
+
+            assertEquals(0, failing.send());
+
+            Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM email_outbox");
+            assertEquals(1, row.get("attempts"));
+            assertNotNull(row.get("last_error"));
+            assertNull(row.get("locked_until"));
+            assertNull(row.get("failed_at"));
+            LocalDateTime nextAttempt = ((Timestamp) row.get("next_attempt_at")).toLocalDateTime();
+            assertTrue(nextAttempt.isAfter(LocalDateTime.now().plusSeconds(50)), "Next attempt at " + nextAttempt);
+            // Not due yet
+            assertEquals(0, failing.send());
+            assertEquals(1, jdbcTemplate.queryForObject("SELECT attempts FROM email_outbox", Integer.class));
+
+            jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = ?",
+                    Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+            assertEquals(0, failing.send());
+
+            row = jdbcTemplate.queryForMap("SELECT * FROM email_outbox");
+            assertEquals(2, row.get("attempts"));
+            assertNotNull(row.get("failed_at"));
+            assertEquals(0, outboxRepository.queueStats().pending());
+            assertEquals(Duration.ofMinutes(2), failing.backoff(2));
+            assertEquals(Duration.ofMinutes(3), failing.backoff(3));
+        } finally {
+            failing.destroy();
+        }
+    }
+
+    @Test
+    void lease_CoversABatchAtTheSmtpTimeouts() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.getJavaMailProperties().setProperty("mail.smtp.connectiontimeout", "10000");
+        mailSender.getJavaMailProperties().setProperty("mail.smtp.timeout", "10000");
+        mailSender.getJavaMailProperties().setProperty("mail.smtp.writetimeout", "10000");
+        EmailOutboxSender slow = new EmailOutboxSender(outboxRepository, mailSender, new SimpleMeterRegistry(),
+                "no-reply@company.com", false, Duration.ofSeconds(1), 2, 50, Duration.ofMinutes(5),
+                Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(3), 2);
+        EmailOutboxSender fast = new EmailOutboxSender(outboxRepository, mailSender, new SimpleMeterRegistry(),
+                "no-reply@company.com", false, Duration.ofSeconds(1), 2, 5, Duration.ofMinutes(5),
+                Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(3), 2);
+        try {
+            // Connecting, then 50 emails each writing and waiting for the reply
+            assertEquals(Duration.ofSeconds(10 + 50 * 20), slow.lease());
+            assertEquals(Duration.ofMinutes(5), fast.lease());
+            // The last email may have to reconnect before writing and waiting for the reply
+            assertEquals(Duration.ofSeconds(30), slow.attemptTimeout());
+        } finally {
+            slow.destroy();
+            fast.destroy();
+        }
+    }
+
+    @Test
+    void settle_LeavesEmailsLeasedAgainByAnotherSender() {
+        transactionTemplate.executeWithoutResult(status ->
+                notificationService.enqueueTaskAssignments(List.of(accounts, laptop)));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expired = now.minusSeconds(1).truncatedTo(ChronoUnit.MICROS);
+        List<OutboxEmail> leased = outboxRepository.lease(now, expired, 10);
+        assertEquals(2, leased.size());
+        // The lease expired, and another sender leased the emails again
+        LocalDateTime takenOver = now.plusMinutes(5).truncatedTo(ChronoUnit.MICROS);
+        assertEquals(2, outboxRepository.lease(now, takenOver, 10).size());
+        List<UUID> ids = leased.stream().map(OutboxEmail::id).toList();
+        FailedAttempt failed = new FailedAttempt(ids.get(1), 1, now.plusMinutes(1), "failed");
+
+        assertEquals(1, outboxRepository.delete(ids.subList(0, 1), expired));
+        assertEquals(1, outboxRepository.reschedule(List.of(failed), expired));
+        assertEquals(2, outboxRepository.release(ids, expired));
+        assertEquals(1, outboxRepository.giveUp(List.of(failed), expired, now));
+        assertEquals(2, outboxRepository.queueStats().pending());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM email_outbox WHERE attempts = 0 AND locked_until = ?", Integer.class,
+                Timestamp.valueOf(takenOver)));
+
+        // Under its own lease, the other sender settles them
+        assertEquals(0, outboxRepository.delete(ids.subList(0, 1), takenOver));
+        assertEquals(0, outboxRepository.reschedule(List.of(failed), takenOver));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM email_outbox WHERE attempts = 1 AND locked_until IS NULL", Integer.class));
+    }
+
+    private long completedRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs WHERE user_id = ? AND action = ?",
+                Long.class, tech.getId(), "COMPLETED");
+    }
+}
@@ -0,0 +1,89 @@
+package com.company.employeelifecycle.reporting;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurationSketchTest {
+
+    @Test
+    void quantile_IsWithinRelativeAccuracy() {
+        Random random = new Random(7);
+        long[] seconds = new long[10_000];
+        DurationSketch sketch = new DurationSketch();
+        for (int i = 0; i < seconds.length; i++) {
+            // Log-normal around an hour, the usual shape of task durations
+            seconds[i] = Math.max(1, Math.round(Math.exp(8 + 1.5 * random.nextGaussian())));
+            sketch.add(Duration.ofSeconds(seconds[i]));
+        }
+        Arrays.sort(seconds);
+
+        for (double q : new double[]{0, 0.5, 0.9, 0.95, 0.99, 1}) {
+            long exact = seconds[(int) Math.floor(q * (seconds.length - 1))];
+            double estimate = sketch.quantile(q).toMillis() / 1000.0;
+            assertEquals(exact, estimate, exact * DurationSketch.RELATIVE_ACCURACY + 0.001, "quantile " + q);
+        }
+        assertEquals(seconds.length, sketch.count());
+    }
+
+    @Test
+    void merge_EqualsSketchOfAllDurations() {
+        DurationSketch all = new DurationSketch();
+        DurationSketch monday = new DurationSketch();
+        DurationSketch tuesday = new DurationSketch();
+        for (int minutes = 1; minutes <= 600; minutes++) {
+            Duration duration = Duration.ofMinutes(minutes * (long) minutes);
+            all.add(duration);
+            (minutes % 3 == 0 ? monday : tuesday).add(duration);
+        }
+        monday.merge(tuesday);
+
+        assertEquals(all.count(), monday.count());
+        assertArrayEquals(all.toBytes(), monday.toBytes());
+        assertEquals(all.quantile(0.9), monday.quantile(0.9));
+    }
+
+    @Test
+    void toBytes_RoundTrips() {
+        DurationSketch sketch = new DurationSketch();
+        sketch.add(Duration.ofMillis(200));
+        sketch.add(Duration.ofSeconds(-5));
+        sketch.add(Duration.ofHours(1));
+        sketch.add(Duration.ofDays(30));
+
+        DurationSketch decoded = DurationSketch.fromBytes(sketch.toBytes());
+
+        assertEquals(4, decoded.count());
+        assertEquals(Duration.ZERO, decoded.quantile(0.25));
+        assertEquals(sketch.quantile(0.75), decoded.quantile(0.75));
+        assertEquals(sketch.quantile(1), decoded.quantile(1));
+        assertArrayEquals(sketch.toBytes(), decoded.toBytes());
+    }
+
+    @Test
+    void quantile_OfEmptySketchIsNull() {
+        DurationSketch empty = DurationSketch.fromBytes(new DurationSketch().toBytes());
+
+        assertNull(empty.quantile(0.5));
+        assertEquals(0, empty.count());
+        assertThrows(IllegalArgumentException.class, () -> empty.quantile(1.5));
+    }
+
+    @Test
+    void fractionAtMost_CountsBucketsUpToTheDuration() {
+        DurationSketch sketch = new DurationSketch();
+        for (int hours = 1; hours <= 4; hours++) {
+            sketch.add(Duration.ofHours(hours));
+        }
+
+        assertEquals(0, sketch.fractionAtMost(Duration.ofMinutes(30)));
+        assertEquals(0.5, sketch.fractionAtMost(Duration.ofHours(2)));
+        assertEquals(1, sketch.fractionAtMost(Duration.ofDays(1)));
+        assertEquals(0, new DurationSketch().fractionAtMost(Duration.ofHours(1)));
+        assertEquals(sketch.quantile(0.9), sketch.copy().quantile(0.9));
+    }
+}
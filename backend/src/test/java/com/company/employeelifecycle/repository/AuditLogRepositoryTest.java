@@ -49,6 +49,32 @@ class AuditLogRepositoryTest {
         assertNotNull(saved.getTimestamp());
     }
 
+    @Test
+    void save_AssignsTimeOrderedIds() {
+        User user = createUser();
+        UUID entityId = UUID.randomUUID();
+
+        AuditLog first = auditLogRepository.save(AuditLog.builder()
+                .entityType(EntityType.TASK)
+                .entityId(entityId)
+                .action(AuditAction.CREATED)
+                .user(user)
+                .timestamp(LocalDateTime.now())
+                .build());
+        AuditLog second = auditLogRepository.save(AuditLog.builder()
+                .entityType(EntityType.TASK)
+                .entityId(entityId)
+                .action(AuditAction.UPDATED)
+                .user(user)
+                .timestamp(LocalDateTime.now())
+                .build());
+
+        assertEquals(7, first.getId().version());
+        assertEquals(7, second.getId().version());
+        assertTrue(Long.compareUnsigned(first.getId().getMostSignificantBits(),
+                second.getId().getMostSignificantBits()) < 0);
+    }
+
     @Test
     void findByEntityTypeAndEntityId_ReturnsAuditHistory() {
         User user = createUser();
@@ -0,0 +1,237 @@
+package com.company.employeelifecycle.repository;
+
+import com.company.employeelifecycle.entity.*;
+import com.company.employeelifecycle.enums.*;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Asserts the number of SQL statements issued per repository method, including any
+ * statements triggered by touching the associations the use case's fetch plan covers.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class EntityFetchPlanTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private WorkflowInstanceRepository workflowInstanceRepository;
+
+    @Autowired
+    private TaskDependencyRepository taskDependencyRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private User assignee;
+    private User manager;
+    private WorkflowInstance instance;
+    private Task first;
+    private Task second;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        LocalDateTime now = LocalDateTime.now();
+        manager = createUser(UserRole.MANAGER);
+        assignee = createUser(UserRole.TECH_SUPPORT);
+        User initiator = createUser(UserRole.HR_ADMIN);
+
+        WorkflowTemplate template = entityManager.persist(WorkflowTemplate.builder()
+                .name("Onboarding")
+                .type(WorkflowType.ONBOARDING)
+                .version(1)
+                .templateJson("{\"tasks\":[]}")
+                .active(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        Employee employee = entityManager.persist(Employee.builder()
+                .firstName("New")
+                .lastName("Hire")
+                .email("emp" + UUID.randomUUID() + "@test.com")
+                .role("Developer")
+                .manager(manager)
+                .status(EmployeeStatus.ACTIVE)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        instance = entityManager.persist(WorkflowInstance.builder()
+                .template(template)
+                .employee(employee)
+                .initiatedBy(initiator)
+                .status(WorkflowInstanceStatus.IN_PROGRESS)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+
+        first = entityManager.persist(createTask("Provision laptop", TaskStatus.COMPLETED, initiator));
+        second = entityManager.persist(createTask("Create accounts", TaskStatus.NOT_STARTED, null));
+        entityManager.persist(TaskDependency.builder()
+                .task(second)
+                .prerequisiteTask(first)
+                .dependencyType(DependencyType.SEQUENTIAL)
+                .build());
+        entityManager.persist(AuditLog.builder()
+                .entityType(EntityType.TASK)
+                .entityId(first.getId())
+                .action(AuditAction.COMPLETED)
+                .user(initiator)
+                .changeDetails("{}")
+                .timestamp(now)
+                .build());
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void findByAssignedToId_LoadsInboxInOneStatement() {
+        List<Task> tasks = taskRepository.findByAssignedToId(assignee.getId());
+
+        assertEquals(2, tasks.size());
+        tasks.forEach(task -> assertEquals("Hire", task.getWorkflowInstance().getEmployee().getLastName()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        Task task = tasks.get(0);
+        assertFalse(Hibernate.isInitialized(task.getWorkflowInstance().getTemplate()));
+        assertFalse(Hibernate.isInitialized(task.getWorkflowInstance().getEmployee().getManager()));
+        assertFalse(Hibernate.isInitialized(task.getAssignedTo()));
+    }
+
+    @Test
+    void findByStatusAndAssignedToId_LoadsInboxInOneStatement() {
+        List<Task> tasks = taskRepository.findByStatusAndAssignedToId(TaskStatus.NOT_STARTED, assignee.getId());
+
+        assertEquals(1, tasks.size());
+        assertEquals("New", tasks.get(0).getWorkflowInstance().getEmployee().getFirstName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByWorkflowInstanceId_LoadsAssigneesInOneStatement() {
+        List<Task> tasks = taskRepository.findByWorkflowInstanceId(instance.getId());
+
+        assertEquals(2, tasks.size());
+        for (Task task : tasks) {
+            assertEquals(assignee.getEmail(), task.getAssignedTo().getEmail());
+            if (task.getCompletedBy() != null) {
+                assertNotNull(task.getCompletedBy().getEmail());
+            }
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(Hibernate.isInitialized(tasks.get(0).getWorkflowInstance()));
+    }
+
+    @Test
+    void findDetailById_LoadsInstanceDetailInOneStatement() {
+        WorkflowInstance detail = workflowInstanceRepository.findDetailById(instance.getId()).orElseThrow();
+
+        assertEquals("Onboarding", detail.getTemplate().getName());
+        assertEquals("Hire", detail.getEmployee().getLastName());
+        assertEquals(UserRole.HR_ADMIN, detail.getInitiatedBy().getRole());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(Hibernate.isInitialized(detail.getEmployee().getManager()));
+    }
+
+    @Test
+    void findByEmployeeId_DoesNotLoadAssociations() {
+        List<WorkflowInstance> instances = workflowInstanceRepository.findByEmployeeId(instance.getEmployee().getId());
+
+        assertEquals(1, instances.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(Hibernate.isInitialized(instances.get(0).getTemplate()));
+        assertFalse(Hibernate.isInitialized(instances.get(0).getEmployee()));
+        assertFalse(Hibernate.isInitialized(instances.get(0).getInitiatedBy()));
+    }
+
+    @Test
+    void findByTaskId_LoadsPrerequisitesInOneStatement() {
+        List<TaskDependency> dependencies = taskDependencyRepository.findByTaskId(second.getId());
+
+        assertEquals(1, dependencies.size());
+        assertEquals("Provision laptop", dependencies.get(0).getPrerequisiteTask().getTitle());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByPrerequisiteTaskId_LoadsDependentsInOneStatement() {
+        List<TaskDependency> dependencies = taskDependencyRepository.findByPrerequisiteTaskId(first.getId());
+
+        assertEquals(1, dependencies.size());
+        assertEquals("Create accounts", dependencies.get(0).getTask().getTitle());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByEntityTypeAndEntityId_LoadsAuditViewInOneStatement() {
+        List<AuditLog> logs = auditLogRepository.findByEntityTypeAndEntityId(EntityType.TASK, first.getId());
+
+        assertEquals(1, logs.size());
+        assertEquals(UserRole.HR_ADMIN, logs.get(0).getUser().getRole());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByStatus_DoesNotLoadEmployeeManager() {
+        List<Employee> employees = employeeRepository.findByStatus(EmployeeStatus.ACTIVE);
+
+        assertEquals(1, employees.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(Hibernate.isInitialized(employees.get(0).getManager()));
+    }
+
+    private User createUser(UserRole role) {
+        LocalDateTime now = LocalDateTime.now();
+        return entityManager.persist(User.builder()
+                .email("user" + UUID.randomUUID() + "@test.com")
+                .password("hashed")
+                .firstName("Test")
+                .lastName("User")
+                .role(role)
+                .active(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    private Task createTask(String title, TaskStatus status, User completedBy) {
+        LocalDateTime now = LocalDateTime.now();
+        return Task.builder()
+                .workflowInstance(instance)
+                .title(title)
+                .assignedTo(assignee)
+                .taskType(TaskType.CHECKLIST)
+                .status(status)
+                .completedBy(completedBy)
+                .completedAt(completedBy != null ? now : null)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
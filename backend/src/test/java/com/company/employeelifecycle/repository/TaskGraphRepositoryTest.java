@@ -0,0 +1,134 @@
+package com.company.employeelifecycle.repository;
+
+import com.company.employeelifecycle.entity.*;
+import com.company.employeelifecycle.enums.*;
+import com.company.employeelifecycle.repository.TaskGraphRepository.ClosureNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(TaskGraphRepository.class)
+class TaskGraphRepositoryTest {
+
+    @Autowired
+    private TaskGraphRepository taskGraphRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private WorkflowInstance instance;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        WorkflowTemplate template = entityManager.persist(WorkflowTemplate.builder()
+                .name("Test Template")
+                .type(WorkflowType.ONBOARDING)
+                .active(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        Employee employee = entityManager.persist(Employee.builder()
+                .firstName("Test")
+                .lastName("Employee")
+                .email("emp" + UUID.randomUUID() + "@test.com")
+                .role("Developer")
+                .status(EmployeeStatus.ACTIVE)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        User user = entityManager.persist(User.builder()
+                .email("user" + UUID.randomUUID() + "@test.com")
+                .password("hashed")
+                .firstName("Test")
+                .lastName("User")
+                .role(UserRole.MANAGER)
+                .active(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        instance = entityManager.persist(WorkflowInstance.builder()
+                .template(template)
+                .employee(employee)
+                .initiatedBy(user)
+                .status(WorkflowInstanceStatus.IN_PROGRESS)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    @Test
+    void findUpstreamAndDownstreamClosure_FollowTransitiveDependencies() {
+        // b and c depend on a, d depends on b and c, e depends on d
+        Task a = createTask("A");
+        Task b = createTask("B");
+        Task c = createTask("C");
+        Task d = createTask("D");
+        Task e = createTask("E");
+        createDependency(b, a);
+        createDependency(c, a);
+        createDependency(d, b);
+        createDependency(d, c);
+        createDependency(e, d);
+        entityManager.flush();
+
+        List<ClosureNode> upstream = taskGraphRepository.findUpstreamClosure(e.getId(), 10);
+        assertEquals(List.of("A", "B", "C", "D"), upstream.stream().map(ClosureNode::title).sorted().toList());
+        assertEquals(List.of(1, 2, 2, 3), upstream.stream().map(ClosureNode::depth).toList());
+        assertEquals(d.getId(), upstream.get(0).taskId());
+        assertEquals(TaskStatus.NOT_STARTED, upstream.get(0).status());
+
+        List<ClosureNode> downstream = taskGraphRepository.findDownstreamClosure(a.getId(), 10);
+        assertEquals(List.of(1, 1, 2, 3), downstream.stream().map(ClosureNode::depth).toList());
+        assertEquals(e.getId(), downstream.get(3).taskId());
+
+        assertEquals(List.of(d.getId()), taskGraphRepository.findUpstreamClosure(e.getId(), 1).stream()
+                .map(ClosureNode::taskId).toList());
+        assertTrue(taskGraphRepository.findUpstreamClosure(a.getId(), 10).isEmpty());
+    }
+
+    @Test
+    void findUpstreamClosure_TerminatesOnCycles() {
+        Task x = createTask("X");
+        Task y = createTask("Y");
+        createDependency(x, y);
+        createDependency(y, x);
+        entityManager.flush();
+
+        List<ClosureNode> upstream = taskGraphRepository.findUpstreamClosure(x.getId(), 5);
+
+        assertEquals(List.of(y.getId(), x.getId()), upstream.stream().map(ClosureNode::taskId).toList());
+    }
+
+    private Task createTask(String title) {
+        LocalDateTime now = LocalDateTime.now();
+        return entityManager.persist(Task.builder()
+                .workflowInstance(instance)
+                .title(title)
+                .taskType(TaskType.CHECKLIST)
+                .status(TaskStatus.NOT_STARTED)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    private void createDependency(Task task, Task prerequisite) {
+        entityManager.persist(TaskDependency.builder()
+                .task(task)
+                .prerequisiteTask(prerequisite)
+                .dependencyType(DependencyType.SEQUENTIAL)
+                .build());
+    }
+}
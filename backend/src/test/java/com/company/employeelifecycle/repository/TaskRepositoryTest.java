@@ -48,6 +48,25 @@ class TaskRepositoryTest {
         assertEquals(TaskType.FORM_COMPLETION, saved.getTaskType());
     }
 
+    @Test
+    void flush_KeepsTheRolledUpMarkOfTheRollupJob() {
+        Task task = createTask(createWorkflowInstance(), createUser());
+        entityManager.persist(task);
+        entityManager.flush();
+
+        // Rolled up while the task is loaded, as CompletionRollupJob does with a bulk update
+        entityManager.getEntityManager().createNativeQuery("UPDATE tasks SET rolled_up = TRUE WHERE id = ?")
+                .setParameter(1, task.getId())
+                .executeUpdate();
+        task.setTitle("Renamed");
+        entityManager.flush();
+        entityManager.clear();
+
+        Task reloaded = taskRepository.findById(task.getId()).orElseThrow();
+        assertEquals("Renamed", reloaded.getTitle());
+        assertTrue(reloaded.getRolledUp());
+    }
+
     @Test
     void findByAssignedToId_ReturnsUserTasks() {
         WorkflowInstance instance = createWorkflowInstance();
@@ -9,10 +9,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -93,6 +99,39 @@ class WorkflowInstanceRepositoryTest {
         assertEquals(2, employee1Instances.size());
     }
 
+    @Test
+    void findByStatusOrderByCreatedAtDescIdDesc_ScrollsWithKeyset() {
+        WorkflowTemplate template = createTemplate();
+        Employee employee = createEmployee();
+        User user = createUser();
+
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(createInstance(template, employee, user, WorkflowInstanceStatus.IN_PROGRESS));
+        }
+        entityManager.persist(createInstance(template, employee, user, WorkflowInstanceStatus.COMPLETED));
+        entityManager.flush();
+        // Cursor keys must come from stored values, not the nanosecond timestamps set by createInstance
+        entityManager.clear();
+
+        Set<UUID> seen = new HashSet<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        int pages = 0;
+        Window<WorkflowInstance> window;
+        do {
+            window = workflowInstanceRepository.findByStatusOrderByCreatedAtDescIdDesc(
+                    WorkflowInstanceStatus.IN_PROGRESS, position, Limit.of(2));
+            window.forEach(instance -> assertTrue(seen.add(instance.getId())));
+            if (!window.isEmpty()) {
+                position = window.positionAt(window.size() - 1);
+            }
+            pages++;
+        } while (window.hasNext());
+
+        assertEquals(5, seen.size());
+        assertEquals(3, pages);
+        assertInstanceOf(KeysetScrollPosition.class, position);
+    }
+
     private WorkflowTemplate createTemplate() {
         LocalDateTime now = LocalDateTime.now();
         WorkflowTemplate template = WorkflowTemplate.builder()
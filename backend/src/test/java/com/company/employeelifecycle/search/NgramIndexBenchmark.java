@@ -0,0 +1,84 @@
+package com.company.employeelifecycle.search;
+
+import com.company.employeelifecycle.enums.EmployeeStatus;
+import com.company.employeelifecycle.repository.EmployeeSearchRepository.EmployeeSearchRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures employee search latency over a synthetic index: prefix, misspelled and multi-word queries, with and
+ * without a status filter.
+ * <p>
+ * Opt-in, and not picked up by the default surefire includes. Run with:
+ * <pre>
+ * mvn test -Dtest=NgramIndexBenchmark -Dbenchmark.employee-search=true -Dbenchmark.employees=100000
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.employee-search", matches = "true")
+class NgramIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Jane", "John", "Maria", "Ahmed", "Chen", "Olga", "Pedro", "Aisha",
+            "Lukas", "Priya", "Kenji", "Fatima", "Noah", "Zoë", "Mateo", "Ingrid"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Garcia", "Müller", "Nguyen", "Kowalski",
+            "Okafor", "Tanaka", "Rossi", "Dubois", "Haddad", "Larsen", "Silva", "Kim", "Novak", "Patel"};
+    private static final String[] DEPARTMENTS = {"Engineering", "Finance", "Human Resources", "Sales", "Marketing",
+            "Legal", "Operations", "Customer Support"};
+    private static final String[] QUERIES = {"jan", "smiht", "enginering", "maria garc", "patel finance", "o"};
+
+    private final int employees = Integer.getInteger("benchmark.employees", 50_000);
+    private final int iterations = Integer.getInteger("benchmark.iterations", 2_000);
+
+    @Test
+    void measureSearchLatency() {
+        Random random = new Random(42);
+        NgramIndex index = new NgramIndex(0.5);
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < employees; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + (i % 7 == 0 ? "-" + i : "");
+            index.put(new EmployeeSearchRow(UUID.randomUUID(), first, last,
+                    (first + "." + last + i + "@example.com").toLowerCase(),
+                    DEPARTMENTS[random.nextInt(DEPARTMENTS.length)],
+                    EmployeeStatus.values()[random.nextInt(EmployeeStatus.values().length)],
+                    LocalDate.of(2020, 1, 1).plusDays(random.nextInt(2000))));
+        }
+        System.out.printf("indexed %d employees in %d ms%n", employees, (System.nanoTime() - buildStart) / 1_000_000);
+
+        System.out.printf("%-16s %-8s %10s %10s%n", "query", "filter", "hits", "us/query");
+        double worst = 0;
+        for (String query : QUERIES) {
+            for (boolean filtered : new boolean[]{false, true}) {
+                double micros = run(index, query, filtered);
+                worst = Math.max(worst, micros);
+            }
+        }
+        assertTrue(worst < 10_000, "searches should take single-digit milliseconds");
+    }
+
+    /**
+     * Runs one query {@code iterations} times, after a first pass of {@code iterations / 5} as JIT warm-up.
+     */
+    private double run(NgramIndex index, String query, boolean filtered) {
+        int hits = 0;
+        for (int i = 0; i < iterations / 5; i++) {
+            hits = search(index, query, filtered);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            hits = search(index, query, filtered);
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / iterations;
+        System.out.printf("%-16s %-8s %10d %10.1f%n", query, filtered ? "ACTIVE" : "-", hits, micros);
+        return micros;
+    }
+
+    private static int search(NgramIndex index, String query, boolean filtered) {
+        return index.search(query, filtered ? e -> e.status() == EmployeeStatus.ACTIVE : e -> true, 20).size();
+    }
+}
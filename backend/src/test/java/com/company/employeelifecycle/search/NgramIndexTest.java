@@ -0,0 +1,97 @@
+package com.company.employeelifecycle.search;
+
+import com.company.employeelifecycle.enums.EmployeeStatus;
+import com.company.employeelifecycle.repository.EmployeeSearchRepository.EmployeeSearchRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NgramIndexTest {
+
+    private NgramIndex index;
+    private EmployeeSearchRow jane;
+    private EmployeeSearchRow janet;
+    private EmployeeSearchRow zoe;
+
+    @BeforeEach
+    void setUp() {
+        index = new NgramIndex(0.5);
+        jane = employee("Jane", "Smith", "jane.smith@example.com", "Engineering", EmployeeStatus.ACTIVE);
+        janet = employee("Janet", "Jones", "janet.jones@example.com", "Finance", EmployeeStatus.PENDING);
+        zoe = employee("Zoë", "Müller", "zoe.mueller@example.com", "Engineering", EmployeeStatus.ACTIVE);
+        index.put(jane);
+        index.put(janet);
+        index.put(zoe);
+    }
+
+    @Test
+    void search_MatchesPrefixesAndRanksExactTermsFirst() {
+        assertEquals(List.of(jane, janet), employees(index.search("jane", e -> true, 10)));
+        // Both only start with "ja": ties go by last name
+        assertEquals(List.of(janet, jane), employees(index.search("ja", e -> true, 10)));
+        assertEquals(List.of(janet), employees(index.search("jan jo", e -> true, 10)));
+    }
+
+    @Test
+    void search_ToleratesTyposButNotInShortTokens() {
+        assertEquals(List.of(jane), employees(index.search("smiht", e -> true, 10)));
+        assertEquals(List.of(zoe, jane), employees(index.search("enginering", e -> true, 10)));
+        assertTrue(index.search("jx", e -> true, 10).isEmpty());
+        assertTrue(index.search("smith finance", e -> true, 10).isEmpty());
+    }
+
+    @Test
+    void search_IgnoresAccentsAndCase() {
+        assertEquals(List.of(zoe), employees(index.search("ZOE MULLER", e -> true, 10)));
+        assertEquals(List.of(zoe), employees(index.search("müll", e -> true, 10)));
+    }
+
+    @Test
+    void search_AppliesFilterAndLimit() {
+        assertEquals(List.of(janet),
+                employees(index.search("ja", e -> e.status() == EmployeeStatus.PENDING, 10)));
+        assertEquals(List.of(janet), employees(index.search("ja", e -> true, 1)));
+        // Without a query every employee matches, by last name
+        assertEquals(List.of(janet, zoe, jane), employees(index.search(" ", e -> true, 10)));
+    }
+
+    @Test
+    void put_ReplacesPreviousVersionAndRemoveDropsEmployee() {
+        EmployeeSearchRow moved = new EmployeeSearchRow(jane.id(), "Jane", "Smith", jane.email(), "Finance",
+                EmployeeStatus.ACTIVE, jane.startDate());
+        index.put(moved);
+        assertEquals(List.of(janet, moved), employees(index.search("finance", e -> true, 10)));
+        assertTrue(index.search("smith engineering", e -> true, 10).isEmpty());
+
+        index.remove(janet.id());
+        assertEquals(List.of(moved), employees(index.search("finance", e -> true, 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void put_CompactsAfterManyUpdates() {
+        for (int i = 0; i < 5000; i++) {
+            index.put(new EmployeeSearchRow(zoe.id(), "Zoë", "Müller", zoe.email(), "Team " + i,
+                    EmployeeStatus.ACTIVE, null));
+        }
+        assertEquals(3, index.size());
+        assertEquals(1, index.search("team 4999", e -> true, 10).size());
+        assertEquals(List.of(zoe.id()), index.search("muller", e -> true, 10).stream()
+                .map(hit -> hit.employee().id()).toList());
+    }
+
+    private static List<EmployeeSearchRow> employees(List<NgramIndex.Hit> hits) {
+        return hits.stream().map(NgramIndex.Hit::employee).toList();
+    }
+
+    private static EmployeeSearchRow employee(String firstName, String lastName, String email, String department,
+                                              EmployeeStatus status) {
+        return new EmployeeSearchRow(UUID.randomUUID(), firstName, lastName, email, department, status,
+                LocalDate.of(2025, 11, 3));
+    }
+}
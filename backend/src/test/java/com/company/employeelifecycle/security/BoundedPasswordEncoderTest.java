@@ -0,0 +1,120 @@
+package com.company.employeelifecycle.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void matches_DelegatesAndRecordsLatency() {
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(null), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        assertTrue(encoder.matches("secret", "secret"));
+        assertFalse(encoder.matches("secret", "other"));
+        assertEquals(2, meterRegistry.get("auth.password.verification").timer().count());
+    }
+
+    @Test
+    void matches_RejectsFastWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(started), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        // One verification running, one queued: the executor is saturated
+        callers.submit(() -> encoder.matches("a", "a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> encoder.matches("b", "b"));
+        waitForQueueDepth(1);
+
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class, () -> encoder.matches("c", "c"));
+        assertFalse(ex.getRetryAfter().isNegative());
+        assertEquals(1.0, meterRegistry.get("auth.login.rejected").tag("reason", "queue_full").counter().count());
+    }
+
+    @Test
+    void matches_CountsTimeoutsApartFromAFullQueue() {
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(new CountDownLatch(1)), 1, 1, Duration.ofMillis(50),
+                meterRegistry);
+
+        assertThrows(LoginThrottledException.class, () -> encoder.matches("a", "a"));
+        assertEquals(1.0, meterRegistry.get("auth.login.rejected").tag("reason", "timeout").counter().count());
+        assertEquals(0.0, meterRegistry.get("auth.login.rejected").tag("reason", "queue_full").counter().count());
+    }
+
+    @Test
+    void matches_RejectsFastWhenItWouldOutwaitTheTimeout() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(started), 1, 4, Duration.ofMillis(100), meterRegistry);
+        meterRegistry.get("auth.password.verification").timer().record(Duration.ofMillis(80));
+
+        callers.submit(() -> encoder.matches("a", "a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // The queue has room, but the verification running ahead leaves too little of the timeout
+        assertThrows(LoginThrottledException.class, () -> encoder.matches("b", "b"));
+        assertEquals(0.0, meterRegistry.get("auth.password.queue.depth").gauge().value());
+        assertEquals(1.0, meterRegistry.get("auth.login.rejected").tag("reason", "queue_full").counter().count());
+        assertEquals(0.0, meterRegistry.get("auth.login.rejected").tag("reason", "timeout").counter().count());
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password.queue.depth").gauge().value() < depth) {
+            assertTrue(System.nanoTime() < deadline, "queue never reached depth " + depth);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Compares in plain text; optionally blocks until the test releases it to simulate slow hashing.
+     */
+    private class PlainEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started;
+
+        PlainEncoder(CountDownLatch started) {
+            this.started = started;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (started != null) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
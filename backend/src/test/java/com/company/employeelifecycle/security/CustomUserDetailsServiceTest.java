@@ -0,0 +1,138 @@
+package com.company.employeelifecycle.security;
+
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.event.UserChangedEvent;
+import com.company.employeelifecycle.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserProfileChangeTracker changeTracker;
+    private UserDetailsCache userDetailsCache;
+    private CustomUserDetailsService userDetailsService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        changeTracker = new UserProfileChangeTracker(userRepository, 100, Duration.ofMinutes(1));
+        userDetailsCache = new UserDetailsCache(meterRegistry, changeTracker, 100, Duration.ofMinutes(5));
+        userDetailsService = new CustomUserDetailsService(userRepository, userDetailsCache);
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .email("test@example.com")
+                .password("hashed")
+                .role(UserRole.FINANCE)
+                .active(true)
+                .version(0L)
+                .build();
+        lenient().when(userRepository.findVersionById(any())).thenReturn(Optional.of(0L));
+    }
+
+    @Test
+    void loadUserByUsername_CachesByNormalizedEmail() {
+        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("test@example.com");
+        UserDetails second = userDetailsService.loadUserByUsername("  Test@Example.COM ");
+
+        assertEquals("test@example.com", second.getUsername());
+        assertEquals("ROLE_FINANCE", second.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(1)).findByEmailIgnoreCase(anyString());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void loadUserByUsername_ErasedCredentialsDoNotLeakIntoCache() {
+        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(user));
+
+        UserDetails first = userDetailsService.loadUserByUsername("test@example.com");
+        ((CredentialsContainer) first).eraseCredentials();
+        UserDetails second = userDetailsService.loadUserByUsername("test@example.com");
+
+        assertNull(first.getPassword());
+        assertEquals("hashed", second.getPassword());
+    }
+
+    @Test
+    void evict_ReloadsChangedUser() {
+        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(user));
+        userDetailsService.loadUserByUsername("test@example.com");
+
+        user.setRole(UserRole.HR_ADMIN);
+        userDetailsCache.onUserChanged(new UserChangedEvent(user));
+        UserDetails reloaded = userDetailsService.loadUserByUsername("test@example.com");
+
+        assertEquals("ROLE_HR_ADMIN", reloaded.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(2)).findByEmailIgnoreCase(anyString());
+        assertEquals(1.0, meterRegistry.get("cache.invalidations").counter().count());
+    }
+
+    @Test
+    void loadUserByUsername_ReloadsUserChangedOnAnotherNode() {
+        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(user));
+        userDetailsService.loadUserByUsername("test@example.com");
+
+        // Deactivated on another node: no event here, the tracker reads the new version from the database
+        User deactivated = User.builder()
+                .id(user.getId())
+                .email("test@example.com")
+                .password("hashed")
+                .role(UserRole.FINANCE)
+                .active(false)
+                .version(1L)
+                .build();
+        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(deactivated));
+        when(userRepository.findVersionById(user.getId())).thenReturn(Optional.of(1L));
+
+        assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("test@example.com"));
+        assertEquals(1.0, meterRegistry.get("cache.invalidations").counter().count());
+    }
+
+    @Test
+    void evict_DropsOldKeyWhenEmailChanges() {
+        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(user));
+        userDetailsService.loadUserByUsername("test@example.com");
+
+        user.setEmail("renamed@example.com");
+        userDetailsCache.evict(user);
+        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("test@example.com"));
+    }
+
+    @Test
+    void loadUserByUsername_InactiveUserRejected() {
+        user.setActive(false);
+        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(user));
+
+        assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("test@example.com"));
+    }
+}
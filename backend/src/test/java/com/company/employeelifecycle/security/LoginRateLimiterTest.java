@@ -0,0 +1,49 @@
+package com.company.employeelifecycle.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void tryAcquire_LimitsAttemptsPerEmail() {
+        LoginRateLimiter limiter = new LoginRateLimiter(meterRegistry, 2, 100, Duration.ofMinutes(1), 1000);
+
+        assertTrue(limiter.tryAcquire("user@test.com", "10.0.0.1").isEmpty());
+        assertTrue(limiter.tryAcquire("USER@test.com", "10.0.0.2").isEmpty());
+        Optional<Duration> retryAfter = limiter.tryAcquire("user@test.com", "10.0.0.3");
+
+        assertTrue(retryAfter.isPresent());
+        assertTrue(retryAfter.get().compareTo(Duration.ofSeconds(20)) > 0);
+        assertTrue(limiter.tryAcquire("other@test.com", "10.0.0.1").isEmpty());
+        assertEquals(1.0, meterRegistry.get("auth.login.rejected").tag("reason", "email_rate").counter().count());
+    }
+
+    @Test
+    void tryAcquire_LimitsAttemptsPerIp() {
+        LoginRateLimiter limiter = new LoginRateLimiter(meterRegistry, 100, 2, Duration.ofMinutes(1), 1000);
+
+        assertTrue(limiter.tryAcquire("a@test.com", "10.0.0.1").isEmpty());
+        assertTrue(limiter.tryAcquire("b@test.com", "10.0.0.1").isEmpty());
+
+        assertTrue(limiter.tryAcquire("c@test.com", "10.0.0.1").isPresent());
+        assertTrue(limiter.tryAcquire("c@test.com", "10.0.0.2").isEmpty());
+        assertEquals(1.0, meterRegistry.get("auth.login.rejected").tag("reason", "ip_rate").counter().count());
+    }
+
+    @Test
+    void tokenBucket_RefillsOverTime() {
+        TokenBucket bucket = new TokenBucket(1, Duration.ofSeconds(10), 0L);
+
+        assertTrue(bucket.tryConsume(0L));
+        assertFalse(bucket.tryConsume(Duration.ofSeconds(5).toNanos()));
+        assertTrue(bucket.tryConsume(Duration.ofSeconds(10).toNanos()));
+    }
+}
@@ -0,0 +1,149 @@
+package com.company.employeelifecycle.security;
+
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.event.UserChangedEvent;
+import com.company.employeelifecycle.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalRefreshFilterTest {
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserProfileChangeTracker changeTracker;
+    private PrincipalRefreshFilter filter;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        changeTracker = new UserProfileChangeTracker(userRepository, 1000, Duration.ofMinutes(1));
+        filter = new PrincipalRefreshFilter(changeTracker, userDetailsService);
+        userId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_UnchangedUserIsNotReloaded() throws Exception {
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.of(3L));
+        authenticate(principal(UserRole.FINANCE, 3L));
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(userDetailsService, never()).reloadUserById(any());
+        // The version is read once
+        verify(userRepository).findVersionById(userId);
+    }
+
+    @Test
+    void doFilter_ChangedUserIsRefreshed() throws Exception {
+        authenticate(principal(UserRole.FINANCE, 0L));
+        changeTracker.onUserChanged(new UserChangedEvent(User.builder().id(userId).version(1L).build()));
+        when(userDetailsService.reloadUserById(userId))
+                .thenReturn(Optional.of(principal(UserRole.HR_ADMIN, 1L)));
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication refreshed = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(UserRole.HR_ADMIN, ((AuthenticatedUser) refreshed.getPrincipal()).getRole());
+        assertEquals("ROLE_HR_ADMIN", refreshed.getAuthorities().iterator().next().getAuthority());
+        assertNull(((AuthenticatedUser) refreshed.getPrincipal()).getPassword());
+    }
+
+    @Test
+    void doFilter_DeactivatedUserSessionIsInvalidated() throws Exception {
+        authenticate(principal(UserRole.FINANCE, 0L));
+        changeTracker.onUserChanged(new UserChangedEvent(User.builder().id(userId).version(1L).build()));
+        when(userDetailsService.reloadUserById(userId)).thenReturn(Optional.empty());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpSession session = new MockHttpSession();
+        request.setSession(session);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertTrue(session.isInvalid());
+    }
+
+    @Test
+    void doFilter_UserChangedLongBeforeIsRefreshed() throws Exception {
+        // Changed on this node before any principal of the user was checked, or longer ago than a session timeout
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.of(4L));
+        authenticate(principal(UserRole.FINANCE, 2L));
+        when(userDetailsService.reloadUserById(userId)).thenReturn(Optional.of(principal(UserRole.HR_ADMIN, 4L)));
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(UserRole.HR_ADMIN,
+                ((AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getRole());
+    }
+
+    @Test
+    void doFilter_UserChangedOnAnotherNodeIsRefreshedAfterTheCheckInterval() throws Exception {
+        changeTracker = new UserProfileChangeTracker(userRepository, 1000, Duration.ofMillis(50));
+        filter = new PrincipalRefreshFilter(changeTracker, userDetailsService);
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.of(1L));
+        authenticate(principal(UserRole.FINANCE, 1L));
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        // No event on this node: the change is found once the version read is older than the check interval
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.of(2L));
+        when(userDetailsService.reloadUserById(userId)).thenReturn(Optional.of(principal(UserRole.HR_ADMIN, 2L)));
+        Thread.sleep(100);
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(UserRole.HR_ADMIN,
+                ((AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getRole());
+    }
+
+    @Test
+    void doFilter_DeletedUserSessionIsInvalidated() throws Exception {
+        authenticate(principal(UserRole.FINANCE, 5L));
+        changeTracker.onUserChanged(new UserChangedEvent(User.builder().id(userId).version(5L).build(), true));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpSession session = new MockHttpSession();
+        request.setSession(session);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertTrue(session.isInvalid());
+    }
+
+    private AuthenticatedUser principal(UserRole role, long version) {
+        return new AuthenticatedUser(userId, "test@example.com", "hashed", "Test", "User", role, true, version);
+    }
+
+    private void authenticate(AuthenticatedUser principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+    }
+}
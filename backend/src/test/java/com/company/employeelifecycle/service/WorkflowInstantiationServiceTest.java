@@ -0,0 +1,176 @@
+package com.company.employeelifecycle.service;
+
+import com.company.employeelifecycle.audit.AsyncAuditWriter;
+import com.company.employeelifecycle.dto.request.CreateWorkflowRequest;
+import com.company.employeelifecycle.entity.User;
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.enums.AuditAction;
+import com.company.employeelifecycle.enums.EntityType;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.enums.WorkflowType;
+import com.company.employeelifecycle.exception.InvalidTemplateException;
+import com.company.employeelifecycle.repository.UserRepository;
+import com.company.employeelifecycle.repository.WorkflowTemplateRepository;
+import com.company.employeelifecycle.service.WorkflowInstantiationService.InstantiatedWorkflow;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class WorkflowInstantiationServiceTest {
+
+    private static final int TASK_COUNT = 60;
+
+    @Autowired
+    private WorkflowInstantiationService instantiationService;
+
+    @Autowired
+    private WorkflowTemplateRepository workflowTemplateRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private AsyncAuditWriter auditWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User hrAdmin;
+    private User techSupport;
+    private User manager;
+    private WorkflowTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        hrAdmin = createUser("hr@example.com", UserRole.HR_ADMIN);
+        techSupport = createUser("tech@example.com", UserRole.TECH_SUPPORT);
+        manager = createUser("manager@example.com", UserRole.MANAGER);
+        template = workflowTemplateRepository.save(WorkflowTemplate.builder()
+                .name("Engineering onboarding")
+                .type(WorkflowType.ONBOARDING)
+                .version(3)
+                .templateJson(chainTemplate(TASK_COUNT))
+                .active(true)
+                .build());
+    }
+
+    @Test
+    void instantiate_MaterializesTasksAndDependenciesInBatches() {
+        long timedBefore = meterRegistry.get("workflow.instantiation").timer().count();
+
+        InstantiatedWorkflow workflow = instantiationService.instantiate(request(), hrAdmin.getId());
+
+        assertEquals(TASK_COUNT, workflow.taskCount());
+        assertEquals(TASK_COUNT - 1, workflow.dependencyCount());
+        assertEquals(TASK_COUNT, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tasks WHERE workflow_instance_id = ?", Integer.class, workflow.instanceId()));
+        assertEquals(TASK_COUNT - 1, jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM task_dependencies d JOIN tasks t ON t.id = d.task_id
+                WHERE t.workflow_instance_id = ?""", Integer.class, workflow.instanceId()));
+
+        Map<String, Object> first = jdbcTemplate.queryForMap(
+                "SELECT assigned_to, due_date, status, unmet_prerequisites FROM tasks "
+                        + "WHERE workflow_instance_id = ? AND title = 'Task 0'",
+                workflow.instanceId());
+        assertEquals(techSupport.getId(), first.get("assigned_to"));
+        assertEquals(java.sql.Date.valueOf(LocalDate.of(2025, 11, 3)), first.get("due_date"));
+        assertEquals("NOT_STARTED", first.get("status"));
+        assertEquals(0, first.get("unmet_prerequisites"));
+        Map<String, Object> second = jdbcTemplate.queryForMap(
+                "SELECT assigned_to, unmet_prerequisites FROM tasks WHERE workflow_instance_id = ? AND title = 'Task 1'",
+                workflow.instanceId());
+        assertEquals(manager.getId(), second.get("assigned_to"));
+        assertEquals(1, second.get("unmet_prerequisites"));
+
+        verify(auditWriter).record(eq(EntityType.WORKFLOW_INSTANCE), eq(workflow.instanceId()),
+                eq(AuditAction.CREATED), eq(hrAdmin.getId()), contains("\"tasks\":" + TASK_COUNT), notNull());
+        verify(auditWriter).record(eq(EntityType.EMPLOYEE), eq(workflow.employee().getId()),
+                eq(AuditAction.CREATED), eq(hrAdmin.getId()), isNull(), notNull());
+        assertEquals(timedBefore + 1, meterRegistry.get("workflow.instantiation").timer().count());
+    }
+
+    @Test
+    void instantiate_ReusesExistingEmployee() {
+        InstantiatedWorkflow first = instantiationService.instantiate(request(), hrAdmin.getId());
+        InstantiatedWorkflow second = instantiationService.instantiate(request(), hrAdmin.getId());
+
+        assertEquals(first.employee().getId(), second.employee().getId());
+        assertNotEquals(first.instanceId(), second.instanceId());
+    }
+
+    @Test
+    void instantiate_RejectsInactiveTemplate() {
+        template.setActive(false);
+        workflowTemplateRepository.saveAndFlush(template);
+
+        assertThrows(InvalidTemplateException.class, () -> instantiationService.instantiate(request(), hrAdmin.getId()));
+    }
+
+    private CreateWorkflowRequest request() {
+        return CreateWorkflowRequest.builder()
+                .workflowTemplateId(template.getId())
+                .employeeFirstName("Jane")
+                .employeeLastName("Smith")
+                .employeeEmail("jane.smith@example.com")
+                .role("Software Engineer")
+                .department("Engineering")
+                .startDate(LocalDate.of(2025, 11, 3))
+                .managerId(manager.getId())
+                .build();
+    }
+
+    /**
+     * A template of {@code count} tasks where each task depends on the previous one,
+     * alternating between tech support and manager assignments.
+     */
+    private static String chainTemplate(int count) {
+        StringBuilder json = new StringBuilder("{\"tasks\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"key\":\"t").append(i).append("\",\"title\":\"Task ").append(i)
+                    .append("\",\"taskType\":\"CHECKLIST\",\"assignedRole\":\"")
+                    .append(i % 2 == 0 ? "TECH_SUPPORT" : "MANAGER").append("\",\"dueInDays\":").append(i % 5);
+            if (i > 0) {
+                json.append(",\"dependsOn\":[\"t").append(i - 1).append("\"]");
+            }
+            json.append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private User createUser(String email, UserRole role) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .password("hashed")
+                .firstName("Test")
+                .lastName(role.name())
+                .role(role)
+                .active(true)
+                .build());
+    }
+}
@@ -0,0 +1,202 @@
+package com.company.employeelifecycle.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_CLASS;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_CLASS;
+
+@JdbcTest
+@ActiveProfiles("test")
+@Sql(scripts = "classpath:db/migration/V4__create_http_sessions.sql", executionPhase = BEFORE_TEST_CLASS)
+@Sql(statements = {"DROP TABLE http_session_attributes", "DROP TABLE http_sessions"}, executionPhase = AFTER_TEST_CLASS)
+class SharedSessionRepositoryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private MutableClock clock;
+    private SharedSessionRepository nodeA;
+    private SharedSessionRepository nodeB;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-06T09:00:00Z"));
+        nodeA = newNode();
+        nodeB = newNode();
+    }
+
+    @Test
+    void save_SessionIsVisibleFromAnotherNode() {
+        SharedSession session = nodeA.createSession();
+        session.setAttribute("greeting", "hello");
+        nodeA.save(session);
+
+        SharedSession loaded = nodeB.findById(session.getId());
+
+        assertNotNull(loaded);
+        assertEquals("hello", loaded.getAttribute("greeting"));
+        assertEquals(session.getCreationTime(), loaded.getCreationTime());
+    }
+
+    @Test
+    void save_AccessOnlyChangesAreBatched() {
+        SharedSession session = nodeA.createSession();
+        nodeA.save(session);
+        Instant created = session.getLastAccessedTime();
+
+        clock.advance(Duration.ofMinutes(5));
+        SharedSession touched = nodeA.findById(session.getId());
+        touched.setLastAccessedTime(clock.instant());
+        nodeA.save(touched);
+
+        assertEquals(created.toEpochMilli(), storedLastAccess(session.getId()));
+        assertEquals(clock.instant(), nodeA.findById(session.getId()).getLastAccessedTime());
+
+        assertEquals(1, nodeA.flushPendingAccessTimes());
+        assertEquals(clock.millis(), storedLastAccess(session.getId()));
+    }
+
+    @Test
+    void save_OnlyDirtyAttributesAreWritten() {
+        SharedSession session = nodeA.createSession();
+        session.setAttribute("a", "1");
+        session.setAttribute("b", "2");
+        nodeA.save(session);
+        // Change "a" behind the repository's back: an untouched attribute must not be rewritten
+        jdbcTemplate.update("UPDATE http_session_attributes SET attribute_bytes = ? WHERE attribute_name = 'a'",
+                (Object) new SerializingConverter().convert("external"));
+
+        SharedSession loaded = nodeA.findById(session.getId());
+        loaded.setAttribute("b", "3");
+        loaded.removeAttribute("c");
+        nodeA.save(loaded);
+
+        SharedSession reloaded = nodeB.findById(session.getId());
+        assertEquals("external", reloaded.getAttribute("a"));
+        assertEquals("3", reloaded.getAttribute("b"));
+    }
+
+    @Test
+    void findById_NearCacheIsRevalidatedAfterRemoteChange() {
+        SharedSession session = nodeA.createSession();
+        session.setAttribute("role", "FINANCE");
+        nodeA.save(session);
+        assertEquals("FINANCE", nodeA.findById(session.getId()).getAttribute("role"));
+
+        SharedSession remote = nodeB.findById(session.getId());
+        remote.setAttribute("role", "HR_ADMIN");
+        nodeB.save(remote);
+
+        assertEquals("HR_ADMIN", nodeA.findById(session.getId()).getAttribute("role"));
+    }
+
+    @Test
+    void changeSessionId_OldIdIsGone() {
+        SharedSession session = nodeA.createSession();
+        session.setAttribute("a", "1");
+        nodeA.save(session);
+        String oldId = session.getId();
+
+        SharedSession loaded = nodeA.findById(oldId);
+        String newId = loaded.changeSessionId();
+        nodeA.save(loaded);
+
+        assertNull(nodeB.findById(oldId));
+        assertNull(nodeA.findById(oldId));
+        assertEquals("1", nodeB.findById(newId).getAttribute("a"));
+    }
+
+    @Test
+    void findByPrincipalName_ReturnsSessionsOfUser() {
+        SharedSession session = nodeA.createSession();
+        session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "hr@test.com");
+        nodeA.save(session);
+        nodeA.save(nodeA.createSession());
+
+        assertEquals(1, nodeB.findByPrincipalName("hr@test.com").size());
+        assertTrue(nodeB.findByPrincipalName("nobody@test.com").isEmpty());
+    }
+
+    @Test
+    void deleteById_RemovesSessionOnAllNodes() {
+        SharedSession session = nodeA.createSession();
+        nodeA.save(session);
+        assertNotNull(nodeB.findById(session.getId()));
+
+        nodeA.deleteById(session.getId());
+
+        assertNull(nodeB.findById(session.getId()));
+    }
+
+    @Test
+    void cleanUpExpiredSessions_DeletesOnlyExpired() {
+        SharedSession expired = nodeA.createSession();
+        nodeA.save(expired);
+        clock.advance(Duration.ofMinutes(20));
+        SharedSession active = nodeA.createSession();
+        nodeA.save(active);
+
+        clock.advance(Duration.ofMinutes(15));
+
+        assertEquals(1, nodeA.cleanUpExpiredSessions());
+        assertNull(nodeB.findById(expired.getId()));
+        assertNotNull(nodeB.findById(active.getId()));
+    }
+
+    private SharedSessionRepository newNode() {
+        return new SharedSessionRepository(jdbcTemplate, transactionTemplate, Duration.ofMinutes(30), 100,
+                Duration.ofMinutes(10), clock, new SimpleMeterRegistry());
+    }
+
+    private long storedLastAccess(String sessionId) {
+        return jdbcTemplate.queryForObject("SELECT last_access_time FROM http_sessions WHERE session_id = ?",
+                Long.class, sessionId);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.company.employeelifecycle.template;
+
+import com.company.employeelifecycle.enums.DependencyType;
+import com.company.employeelifecycle.enums.TaskType;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.exception.InvalidTemplateException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateDefinitionParserTest {
+
+    private final TemplateDefinitionParser parser = new TemplateDefinitionParser(new ObjectMapper());
+
+    @Test
+    void parse_ReadsTasksAndDependencies() {
+        TemplateDefinition definition = parser.parse("""
+                {"tasks": [
+                  {"key": "accounts", "title": "Create accounts", "taskType": "CHECKLIST", "assignedRole": "TECH_SUPPORT"},
+                  {"key": "laptop", "title": "Provision laptop", "description": "Standard kit", "taskType": "APPROVAL",
+                   "assignedRole": "MANAGER", "dueInDays": 2, "dependsOn": ["accounts"], "dependencyType": "PARALLEL"}
+                ]}""");
+
+        assertEquals(2, definition.tasks().size());
+        TemplateDefinition.TaskDefinition accounts = definition.tasks().get(0);
+        assertEquals(TaskType.CHECKLIST, accounts.taskType());
+        assertEquals(UserRole.TECH_SUPPORT, accounts.assignedRole());
+        assertNull(accounts.dueInDays());
+        assertEquals(DependencyType.SEQUENTIAL, accounts.dependencyType());
+        TemplateDefinition.TaskDefinition laptop = definition.tasks().get(1);
+        assertEquals("Standard kit", laptop.description());
+        assertEquals(2, laptop.dueInDays());
+        assertEquals(List.of("accounts"), laptop.dependsOn());
+        assertEquals(DependencyType.PARALLEL, laptop.dependencyType());
+    }
+
+    @Test
+    void parse_RejectsInvalidDefinitions() {
+        assertThrows(InvalidTemplateException.class, () -> parser.parse(null));
+        assertThrows(InvalidTemplateException.class, () -> parser.parse("{not json"));
+        assertThrows(InvalidTemplateException.class, () -> parser.parse("{\"steps\": []}"));
+        assertThrows(InvalidTemplateException.class, () -> parser.parse("""
+                {"tasks": [{"key": "a", "title": "A", "taskType": "CHECKLIST"},
+                           {"key": "a", "title": "B", "taskType": "CHECKLIST"}]}"""));
+        assertThrows(InvalidTemplateException.class, () -> parser.parse("""
+                {"tasks": [{"key": "a", "title": "A", "taskType": "CHECKLIST", "dependsOn": ["missing"]}]}"""));
+        assertThrows(InvalidTemplateException.class, () -> parser.parse("""
+                {"tasks": [{"key": "a", "title": "A", "taskType": "CHECKLIST"},
+                           {"key": "b", "title": "B", "taskType": "CHECKLIST", "dependsOn": ["a", "a"]}]}"""));
+        assertThrows(InvalidTemplateException.class, () -> parser.parse("""
+                {"tasks": [{"key": "a", "title": "A", "taskType": "UNKNOWN"}]}"""));
+        assertThrows(InvalidTemplateException.class, () -> parser.parse("""
+                {"tasks": [{"key": "a", "taskType": "CHECKLIST"}]}"""));
+    }
+}
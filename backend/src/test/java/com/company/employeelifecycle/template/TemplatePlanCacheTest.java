@@ -0,0 +1,129 @@
+package com.company.employeelifecycle.template;
+
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.enums.WorkflowType;
+import com.company.employeelifecycle.event.WorkflowTemplateChangedEvent;
+import com.company.employeelifecycle.repository.WorkflowTemplateRepository;
+import com.company.employeelifecycle.repository.WorkflowTemplateRepository.TemplateHeader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TemplatePlanCacheTest {
+
+    private static final String JSON = """
+            {"tasks": [{"key": "accounts", "title": "Create accounts", "taskType": "CHECKLIST"}]}""";
+
+    private WorkflowTemplateRepository repository;
+    private TemplatePlanCache cache;
+    private WorkflowTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(WorkflowTemplateRepository.class);
+        cache = new TemplatePlanCache(repository,
+                new TemplatePlanCompiler(new TemplateDefinitionParser(new ObjectMapper())),
+                new SimpleMeterRegistry(), 16);
+        template = WorkflowTemplate.builder()
+                .id(UUID.randomUUID())
+                .name("Onboarding")
+                .type(WorkflowType.ONBOARDING)
+                .version(1)
+                .templateJson(JSON)
+                .active(true)
+                .updatedAt(LocalDateTime.of(2024, 1, 1, 9, 0))
+                .build();
+        when(repository.findById(template.getId())).thenReturn(Optional.of(template));
+    }
+
+    @Test
+    void get_CompilesOncePerVersion() {
+        CompiledTemplatePlan first = cache.get(header(template));
+        CompiledTemplatePlan second = cache.get(header(template));
+
+        assertSame(first, second);
+        verify(repository, times(1)).findById(template.getId());
+    }
+
+    @Test
+    void get_RecompilesWhenTemplateChangedWithoutVersionBump() {
+        CompiledTemplatePlan first = cache.get(header(template));
+        template.setUpdatedAt(template.getUpdatedAt().plusMinutes(1));
+
+        CompiledTemplatePlan second = cache.get(header(template));
+
+        assertNotSame(first, second);
+        assertEquals(template.getUpdatedAt(), second.templateUpdatedAt());
+    }
+
+    @Test
+    void onTemplateChanged_EvictsAllVersions() {
+        CompiledTemplatePlan first = cache.get(header(template));
+
+        cache.onTemplateChanged(new WorkflowTemplateChangedEvent(template));
+
+        assertNotSame(first, cache.get(header(template)));
+        verify(repository, times(2)).findById(template.getId());
+    }
+
+    @Test
+    void warmUp_CompilesActiveTemplatesAndSkipsInvalidOnes() {
+        WorkflowTemplate invalid = WorkflowTemplate.builder()
+                .id(UUID.randomUUID())
+                .name("Broken")
+                .type(WorkflowType.OFFBOARDING)
+                .version(1)
+                .templateJson("{not json")
+                .active(true)
+                .build();
+        when(repository.findByActiveTrue()).thenReturn(List.of(invalid, template));
+
+        cache.warmUp();
+        cache.get(header(template));
+
+        verify(repository, never()).findById(any());
+    }
+
+    private static TemplateHeader header(WorkflowTemplate template) {
+        return new TemplateHeader() {
+            @Override
+            public UUID getId() {
+                return template.getId();
+            }
+
+            @Override
+            public String getName() {
+                return template.getName();
+            }
+
+            @Override
+            public WorkflowType getType() {
+                return template.getType();
+            }
+
+            @Override
+            public Integer getVersion() {
+                return template.getVersion();
+            }
+
+            @Override
+            public Boolean getActive() {
+                return template.getActive();
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return template.getUpdatedAt();
+            }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.company.employeelifecycle.template;
+
+import com.company.employeelifecycle.entity.WorkflowTemplate;
+import com.company.employeelifecycle.enums.UserRole;
+import com.company.employeelifecycle.enums.WorkflowType;
+import com.company.employeelifecycle.exception.InvalidTemplateException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplatePlanCompilerTest {
+
+    private final TemplatePlanCompiler compiler = new TemplatePlanCompiler(new TemplateDefinitionParser(new ObjectMapper()));
+
+    @Test
+    void compile_OrdersTasksTopologically() {
+        // "laptop" is listed before the task it depends on
+        CompiledTemplatePlan plan = compiler.compile(template("""
+                {"tasks": [
+                  {"key": "laptop", "title": "Provision laptop", "taskType": "CHECKLIST", "assignedRole": "TECH_SUPPORT",
+                   "dependsOn": ["accounts"]},
+                  {"key": "accounts", "title": "Create accounts", "taskType": "CHECKLIST", "assignedRole": "TECH_SUPPORT"},
+                  {"key": "contract", "title": "Sign contract", "taskType": "APPROVAL", "assignedRole": "HR_ADMIN"},
+                  {"key": "welcome", "title": "Welcome meeting", "taskType": "CHECKLIST", "assignedRole": "MANAGER",
+                   "dependsOn": ["laptop", "contract"], "dependencyType": "PARALLEL"}
+                ]}"""));
+
+        assertEquals(4, plan.taskCount());
+        assertEquals("accounts", plan.tasks().get(0).key());
+        assertEquals("contract", plan.tasks().get(1).key());
+        assertEquals("laptop", plan.tasks().get(2).key());
+        assertEquals("welcome", plan.tasks().get(3).key());
+        assertArrayEquals(new int[0], plan.prerequisitesOf(0));
+        assertArrayEquals(new int[]{0}, plan.prerequisitesOf(2));
+        assertArrayEquals(new int[]{1, 2}, plan.prerequisitesOf(3));
+        assertEquals(0, plan.stepOf(0));
+        assertEquals(0, plan.stepOf(1));
+        assertEquals(1, plan.stepOf(2));
+        assertEquals(2, plan.stepOf(3));
+        assertEquals(3, plan.stepCount());
+        assertEquals(3, plan.dependencyCount());
+        assertEquals(EnumSet.of(UserRole.TECH_SUPPORT, UserRole.HR_ADMIN, UserRole.MANAGER), plan.assignedRoles());
+        assertEquals(3, plan.version());
+    }
+
+    @Test
+    void compile_RejectsCycles() {
+        assertThrows(InvalidTemplateException.class, () -> compiler.compile(template("""
+                {"tasks": [
+                  {"key": "a", "title": "A", "taskType": "CHECKLIST", "dependsOn": ["c"]},
+                  {"key": "b", "title": "B", "taskType": "CHECKLIST", "dependsOn": ["a"]},
+                  {"key": "c", "title": "C", "taskType": "CHECKLIST", "dependsOn": ["b"]}
+                ]}""")));
+    }
+
+    private static WorkflowTemplate template(String json) {
+        return WorkflowTemplate.builder()
+                .id(UUID.randomUUID())
+                .name("Onboarding")
+                .type(WorkflowType.ONBOARDING)
+                .version(3)
+                .templateJson(json)
+                .active(true)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
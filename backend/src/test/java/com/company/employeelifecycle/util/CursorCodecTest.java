@@ -0,0 +1,63 @@
+package com.company.employeelifecycle.util;
+
+import com.company.employeelifecycle.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    private static final Set<String> KEYS = Set.of("timestamp", "id");
+
+    @Test
+    void encodeDecode_RoundTripsKeysetPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("timestamp", LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000));
+        keys.put("id", UUID.randomUUID());
+
+        String cursor = CursorCodec.encode(ScrollPosition.forward(keys));
+        ScrollPosition decoded = CursorCodec.decode(cursor, KEYS);
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), "cursor must be URL-safe");
+        KeysetScrollPosition keyset = assertInstanceOf(KeysetScrollPosition.class, decoded);
+        assertEquals(keys, keyset.getKeys());
+        assertTrue(keyset.scrollsForward());
+    }
+
+    @Test
+    void decode_ReturnsInitialPositionForMissingCursor() {
+        assertTrue(CursorCodec.decode(null, KEYS).isInitial());
+        assertTrue(CursorCodec.decode(" ", KEYS).isInitial());
+    }
+
+    @Test
+    void decode_RejectsCursorFromAnotherListing() {
+        String cursor = CursorCodec.encode(ScrollPosition.forward(Map.of("createdAt", LocalDateTime.now(),
+                "id", UUID.randomUUID())));
+
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode(cursor, KEYS));
+    }
+
+    @Test
+    void decode_RejectsMalformedCursor() {
+        String unknownType = Base64.getUrlEncoder().encodeToString(
+                "{\"timestamp\":\"x:1\",\"id\":\"u:1\"}".getBytes(StandardCharsets.UTF_8));
+        String badUuid = Base64.getUrlEncoder().encodeToString(
+                "{\"timestamp\":\"t:2025-01-01T00:00\",\"id\":\"u:nope\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("%%%", KEYS));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("bm90IGpzb24", KEYS));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode(unknownType, KEYS));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode(badUuid, KEYS));
+    }
+}